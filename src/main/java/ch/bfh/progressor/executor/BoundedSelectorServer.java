@@ -0,0 +1,161 @@
+package ch.bfh.progressor.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TNonblockingServerTransport;
+
+/**
+ * Non-blocking Thrift server with a bounded number of concurrent and queued requests. <br>
+ * Connections are handled by a small number of selector threads using framed transport.
+ * Requests are processed by a fixed number of worker threads; further requests wait in a bounded queue.
+ * If the queue is full, a request is rejected immediately by replying with a {@link TApplicationException}.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class BoundedSelectorServer extends TThreadedSelectorServer {
+
+	private static final Logger LOGGER = Logger.getLogger(BoundedSelectorServer.class.getName());
+
+	/**
+	 * The default number of selector threads.
+	 */
+	public static final int DEFAULT_SELECTOR_THREADS = 2;
+
+	/**
+	 * The default number of worker threads, i.e. the maximum number of concurrently processed requests.
+	 */
+	public static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+
+	/**
+	 * The default maximum number of requests waiting for a worker thread.
+	 */
+	public static final int DEFAULT_QUEUE_SIZE = BoundedSelectorServer.DEFAULT_WORKER_THREADS * 4;
+
+	/**
+	 * The maximum size (in bytes) of all requests read but not processed yet.
+	 */
+	public static final long MAX_READ_BUFFER_BYTES = 64L * 1024 * 1024;
+
+	private static final ThreadLocal<Boolean> REJECTING = ThreadLocal.withInitial(() -> false);
+
+	private final ExecutorService invoker;
+
+	/**
+	 * Constructs a new {@link BoundedSelectorServer}.
+	 *
+	 * @param transport       transport to accept connections from
+	 * @param processor       processor handling the requests
+	 * @param selectorThreads number of threads handling the connections
+	 * @param workerThreads   maximum number of concurrently processed requests
+	 * @param queueSize       maximum number of requests waiting for a worker thread
+	 * @param stopTimeout     time (in milliseconds) to wait for processed requests to finish when stopping
+	 */
+	public BoundedSelectorServer(TNonblockingServerTransport transport, TProcessor processor, int selectorThreads, int workerThreads, int queueSize, long stopTimeout) {
+		this(BoundedSelectorServer.createArgs(transport, processor, selectorThreads, workerThreads, queueSize, stopTimeout));
+	}
+
+	private BoundedSelectorServer(Args args) {
+		super(args);
+
+		this.invoker = args.getExecutorService();
+	}
+
+	private static Args createArgs(TNonblockingServerTransport transport, TProcessor processor, int selectorThreads, int workerThreads, int queueSize, long stopTimeout) {
+
+		Args args = new Args(transport).processor(new RejectingProcessor(processor))
+																	 .selectorThreads(selectorThreads)
+																	 .executorService(BoundedSelectorServer.createInvoker(workerThreads, queueSize))
+																	 .stopTimeoutVal((int) stopTimeout)
+																	 .stopTimeoutUnit(TimeUnit.MILLISECONDS);
+		args.maxReadBufferBytes = BoundedSelectorServer.MAX_READ_BUFFER_BYTES;
+		return args;
+	}
+
+	private static ExecutorService createInvoker(int workerThreads, int queueSize) {
+
+		if (workerThreads < 1)
+			throw new IllegalArgumentException("At least one worker thread is required.");
+		if (queueSize < 0)
+			throw new IllegalArgumentException("Queue size must not be negative.");
+
+		final AtomicInteger threadCount = new AtomicInteger();
+		final BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+
+		return new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS, queue, runnable -> {
+			Thread thread = new Thread(runnable, String.format("executor-worker-%d", threadCount.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		}); //aborts when the queue is full
+	}
+
+	@Override
+	protected boolean requestInvoke(FrameBuffer frameBuffer) {
+
+		try {
+			this.invoker.execute(this.getRunnable(frameBuffer));
+
+		} catch (RejectedExecutionException ex) { //reply with an error right away on the selector thread
+			BoundedSelectorServer.LOGGER.warning("Rejected request because all workers are busy and the queue is full.");
+
+			BoundedSelectorServer.REJECTING.set(true);
+			try {
+				frameBuffer.invoke();
+
+			} finally {
+				BoundedSelectorServer.REJECTING.remove();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Delegates requests to a processor unless they have been rejected.
+	 */
+	private static class RejectingProcessor implements TProcessor {
+
+		private final TProcessor processor;
+
+		private RejectingProcessor(TProcessor processor) {
+
+			this.processor = processor;
+		}
+
+		@Override
+		public boolean process(TProtocol in, TProtocol out) throws TException {
+
+			if (!BoundedSelectorServer.REJECTING.get())
+				return this.processor.process(in, out);
+
+			TMessage message = in.readMessageBegin(); //skip request
+			TProtocolUtil.skip(in, TType.STRUCT);
+			in.readMessageEnd();
+
+			if (message.type == TMessageType.ONEWAY)
+				return true;
+
+			out.writeMessageBegin(new TMessage(message.name, TMessageType.EXCEPTION, message.seqid));
+			new TApplicationException(TApplicationException.INTERNAL_ERROR, "Executor is busy. Try again later.").write(out);
+			out.writeMessageEnd();
+			out.getTransport().flush();
+
+			return true;
+		}
+	}
+}
@@ -1,7 +1,10 @@
 package ch.bfh.progressor.executor;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.thrift.TException;
@@ -10,6 +13,9 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TNonblockingServerTransport;
 import org.apache.thrift.transport.TServerSocket;
 import org.apache.thrift.transport.TServerTransport;
 import org.apache.thrift.transport.TSocket;
@@ -61,8 +67,23 @@ public final class Executor {
 		String host = "localhost";
 		int port = Executor.DEFAULT_SERVER_PORT;
 		boolean test = false;
+		boolean nonblocking = false;
+		int selectorThreads = BoundedSelectorServer.DEFAULT_SELECTOR_THREADS;
+		int workerThreads = BoundedSelectorServer.DEFAULT_WORKER_THREADS;
+		int queueSize = BoundedSelectorServer.DEFAULT_QUEUE_SIZE;
 		boolean cleanUp = true;
 		boolean useDocker = Configuration.DEFAULT_CONFIGURATION.shouldUseDocker();
+		boolean poolDockerContainers = Configuration.DEFAULT_CONFIGURATION.shouldPoolDockerContainers();
+		boolean useDockerEngineApi = Configuration.DEFAULT_CONFIGURATION.shouldUseDockerEngineApi();
+		boolean cacheCompilations = Configuration.DEFAULT_CONFIGURATION.shouldCacheCompilations();
+		boolean cacheResults = true;
+		Set<String> uncachedResultLanguages = new HashSet<>();
+		boolean useJavaWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUseJavaWorkers();
+		int javaScriptWorkerRuns = Configuration.DEFAULT_CONFIGURATION.getJavaScriptWorkerRuns();
+		boolean usePHPWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUsePHPWorkers();
+		boolean useDotNetCompilerServer = Configuration.DEFAULT_CONFIGURATION.shouldUseDotNetCompilerServer();
+		boolean useDotNetReleaseMode = Configuration.DEFAULT_CONFIGURATION.shouldUseDotNetReleaseMode();
+		boolean usePythonWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUsePythonWorkers();
 
 		for (int i = 0; i < args.length; i++)
 			try {
@@ -85,6 +106,37 @@ public final class Executor {
 							throw new IllegalArgumentException(String.format("Value '%s' for command-line argument '%s' is invalid. Use unsigned 16-bit integer (0 to 65535).", args[i], args[i - 1]));
 						break;
 
+					case "-s":
+					case "-server":
+						switch (args[++i]) {
+							case "threadpool":
+								nonblocking = false;
+								break;
+
+							case "selector":
+								nonblocking = true;
+								break;
+
+							default:
+								throw new IllegalArgumentException(String.format("Value '%s' for command-line argument '%s' is invalid. Use threadpool or selector.", args[i], args[i - 1]));
+						}
+						break;
+
+					case "-st":
+					case "-selectorthreads":
+						selectorThreads = Executor.parsePositiveInteger(args[i], args[++i]);
+						break;
+
+					case "-wt":
+					case "-workerthreads":
+						workerThreads = Executor.parsePositiveInteger(args[i], args[++i]);
+						break;
+
+					case "-q":
+					case "-queuesize":
+						queueSize = Executor.parseNonNegativeInteger(args[i], args[++i]); //no queue at all is allowed
+						break;
+
 					case "-t":
 					case "-test":
 						test = Executor.parseBoolean(args[i], args[++i]);
@@ -102,6 +154,61 @@ public final class Executor {
 							throw new IllegalArgumentException(String.format("Cannot use Docker on %s platform.", platform));
 						break;
 
+					case "-dp":
+					case "-dockerpool":
+						poolDockerContainers = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-da":
+					case "-dockerapi":
+						useDockerEngineApi = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-cc":
+					case "-compilecache":
+						cacheCompilations = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-rc":
+					case "-resultcache":
+						cacheResults = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-rx":
+					case "-resultcacheexclude":
+						uncachedResultLanguages.addAll(Arrays.asList(args[++i].split(",")));
+						break;
+
+					case "-jw":
+					case "-javaworkers":
+						useJavaWorkers = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-jsw":
+					case "-javascriptworkers":
+						javaScriptWorkerRuns = Executor.parsePositiveInteger(args[i], args[++i]);
+						break;
+
+					case "-phpw":
+					case "-phpworkers":
+						usePHPWorkers = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-pyw":
+					case "-pythonworkers":
+						usePythonWorkers = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-dcs":
+					case "-dotnetcompilerserver":
+						useDotNetCompilerServer = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
+					case "-dr":
+					case "-dotnetrelease":
+						useDotNetReleaseMode = Executor.parseBoolean(args[i], args[++i]);
+						break;
+
 					default:
 						throw new IllegalArgumentException(String.format("Command-line argument '%s' is invalid.", args[i]));
 				}
@@ -110,62 +217,112 @@ public final class Executor {
 				throw new IllegalArgumentException(String.format("You did not provide a value for the command-line argument '%s'.", args[i]), ex);
 			}
 
-		if (!test)
-			Executor.run(port, new ConfigurationImpl(useDocker, cleanUp));
+		Configuration configuration = new ConfigurationImpl(useDocker, cleanUp).withPoolDockerContainers(poolDockerContainers).withUseDockerEngineApi(useDockerEngineApi)
+																																					 .withCacheCompilations(cacheCompilations).withCacheResults(cacheResults, uncachedResultLanguages)
+																																					 .withUseJavaWorkers(useJavaWorkers).withJavaScriptWorkerRuns(javaScriptWorkerRuns)
+																																					 .withUsePHPWorkers(usePHPWorkers).withUsePythonWorkers(usePythonWorkers)
+																																					 .withUseDotNetCompilerServer(useDotNetCompilerServer).withUseDotNetReleaseMode(useDotNetReleaseMode);
+
+		if (test)
+			Executor.test(host, port, nonblocking);
+		else if (nonblocking)
+			Executor.run(port, configuration, selectorThreads, workerThreads, queueSize);
 		else
-			Executor.test(host, port);
+			Executor.run(port, configuration);
 	}
 
 	/**
-	 * Runs the Executor.
+	 * Runs the Executor using one thread per connection.
 	 *
 	 * @param port          TCP port to listen for requests
 	 * @param configuration {@link Configuration} for the {@link CodeExecutor}s
 	 */
 	public static void run(int port, Configuration configuration) {
 
-		Executor.LOGGER.config(String.format("Using port %d.", port));
-		Executor.LOGGER.config(configuration.shouldUseDocker() ? "Using Docker containers." : "Not using Docker containers.");
+		Executor.LOGGER.config("Using one thread per connection.");
+		Executor.logConfiguration(port, configuration);
 
 		try (TServerTransport transport = new TServerSocket(port)) {
 			TProcessor processor = new ch.bfh.progressor.executor.thrift.ExecutorService.Processor<>(new ExecutorService(configuration));
-			TServer server = new TThreadPoolServer(new TThreadPoolServer.Args(transport).processor(processor));
+			Executor.serve(new TThreadPoolServer(new TThreadPoolServer.Args(transport).processor(processor)), port);
 
-			Executor.LOGGER.info(String.format("Accepting requests on port %d...", port));
-			Thread thread = new Thread(server::serve);
-			thread.setDaemon(true);
-			thread.start();
+		} catch (TTransportException ex) {
+			Executor.LOGGER.log(Level.SEVERE, "Could not successfully start server.", ex);
+		}
+	}
 
-			System.out.print("Press enter to stop server.");
-			try (Scanner scanner = new Scanner(System.in, CodeExecutorBase.CHARSET.name())) {
-				scanner.nextLine();
-			}
+	/**
+	 * Runs the Executor using non-blocking connections with framed transport. <br>
+	 * Requests are processed by a bounded number of worker threads.
+	 * If all of them are busy and the queue is full, further requests are rejected immediately.
+	 *
+	 * @param port            TCP port to listen for requests
+	 * @param configuration   {@link Configuration} for the {@link CodeExecutor}s
+	 * @param selectorThreads number of threads handling the connections
+	 * @param workerThreads   maximum number of concurrently processed requests
+	 * @param queueSize       maximum number of requests waiting for a worker thread
+	 */
+	public static void run(int port, Configuration configuration, int selectorThreads, int workerThreads, int queueSize) {
 
-			server.stop();
-			thread.join(Executor.SERVER_STOP_TIMEOUT_MILLISECONDS);
+		Executor.LOGGER.config(String.format("Using %d selector threads, %d worker threads and a queue for %d requests.", selectorThreads, workerThreads, queueSize));
+		Executor.logConfiguration(port, configuration);
 
-			if (!thread.isAlive())
-				Executor.LOGGER.info("Server stopped.");
-			else
-				Executor.LOGGER.log(Level.SEVERE, "Could not stop server. Forcefully abort application!");
+		try (TNonblockingServerTransport transport = new TNonblockingServerSocket(port)) {
+			TProcessor processor = new ch.bfh.progressor.executor.thrift.ExecutorService.Processor<>(new ExecutorService(configuration));
+			Executor.serve(new BoundedSelectorServer(transport, processor, selectorThreads, workerThreads, queueSize, Executor.SERVER_STOP_TIMEOUT_MILLISECONDS), port);
 
 		} catch (TTransportException ex) {
 			Executor.LOGGER.log(Level.SEVERE, "Could not successfully start server.", ex);
+		}
+	}
+
+	private static void logConfiguration(int port, Configuration configuration) {
+
+		Executor.LOGGER.config(String.format("Using port %d.", port));
+		Executor.LOGGER.config(configuration.shouldUseDocker() ? "Using Docker containers." : "Not using Docker containers.");
+		if (configuration.shouldUseDocker()) {
+			Executor.LOGGER.config(configuration.shouldPoolDockerContainers() ? "Using pre-started Docker containers." : "Starting one Docker container per request.");
+			Executor.LOGGER.config(configuration.shouldUseDockerEngineApi() ? "Using Docker Engine API." : "Using Docker command-line client.");
+		}
+		Executor.LOGGER.config(configuration.shouldCacheCompilations() ? "Caching compilation artifacts." : "Not caching compilation artifacts.");
+	}
+
+	private static void serve(TServer server, int port) {
+
+		Executor.LOGGER.info(String.format("Accepting requests on port %d...", port));
+		Thread thread = new Thread(server::serve);
+		thread.setDaemon(true);
+		thread.start();
+
+		System.out.print("Press enter to stop server.");
+		try (Scanner scanner = new Scanner(System.in, CodeExecutorBase.CHARSET.name())) {
+			scanner.nextLine();
+		}
+
+		server.stop();
+		try {
+			thread.join(Executor.SERVER_STOP_TIMEOUT_MILLISECONDS);
 
 		} catch (InterruptedException ex) {
 			Executor.LOGGER.log(Level.WARNING, "Could not wait for server to stop.", ex);
 		}
+
+		if (!thread.isAlive())
+			Executor.LOGGER.info("Server stopped.");
+		else
+			Executor.LOGGER.log(Level.SEVERE, "Could not stop server. Forcefully abort application!");
 	}
 
 	/**
 	 * Tests an Executor instance.
 	 *
-	 * @param host name / IP address of the instance host
-	 * @param port port the instance listens on
+	 * @param host   name / IP address of the instance host
+	 * @param port   port the instance listens on
+	 * @param framed whether the instance uses framed transport
 	 */
-	public static void test(String host, int port) {
+	public static void test(String host, int port, boolean framed) {
 
-		try (TTransport transport = new TSocket(host, port)) {
+		try (TTransport transport = framed ? new TFramedTransport(new TSocket(host, port)) : new TSocket(host, port)) {
 			transport.open();
 
 			TProtocol protocol = new TBinaryProtocol(transport);
@@ -204,4 +361,32 @@ public final class Executor {
 				throw new IllegalArgumentException(String.format("Value '%s' for command-line argument '%s' is invalid. Use true/false or yes/no.", value, argument));
 		}
 	}
+
+	private static int parsePositiveInteger(String argument, String value) throws IllegalArgumentException {
+
+		try {
+			int ret = Integer.parseInt(value);
+			if (ret > 0)
+				return ret;
+
+		} catch (NumberFormatException ex) {
+			//handled below
+		}
+
+		throw new IllegalArgumentException(String.format("Value '%s' for command-line argument '%s' is invalid. Use positive integer number.", value, argument));
+	}
+
+	private static int parseNonNegativeInteger(String argument, String value) throws IllegalArgumentException {
+
+		try {
+			int ret = Integer.parseInt(value);
+			if (ret >= 0)
+				return ret;
+
+		} catch (NumberFormatException ex) {
+			//handled below
+		}
+
+		throw new IllegalArgumentException(String.format("Value '%s' for command-line argument '%s' is invalid. Use non-negative integer number.", value, argument));
+	}
 }
@@ -1,5 +1,6 @@
 package ch.bfh.progressor.executor;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -9,15 +10,17 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import org.apache.thrift.TException;
 import ch.bfh.progressor.executor.api.CodeExecutor;
 import ch.bfh.progressor.executor.api.Configuration;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.ExecutorPlatform;
 import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.ResultListener;
 import ch.bfh.progressor.executor.impl.FunctionSignatureImpl;
+import ch.bfh.progressor.executor.impl.JobImpl;
+import ch.bfh.progressor.executor.impl.JobTable;
+import ch.bfh.progressor.executor.impl.ResultCache;
 import ch.bfh.progressor.executor.impl.ResultImpl;
 import ch.bfh.progressor.executor.impl.TestCaseImpl;
 import ch.bfh.progressor.executor.impl.VersionInformationImpl;
@@ -36,12 +39,23 @@ public class ExecutorService implements ch.bfh.progressor.executor.thrift.Execut
 	private int logId;
 	private final Map<String, CodeExecutor> codeExecutors = new HashMap<>();
 	private final Configuration configuration;
+	private final ResultCache resultCache = new ResultCache(ResultCache.DEFAULT_MAX_ENTRIES, ResultCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+	private final JobTable jobTable = new JobTable(JobTable.DEFAULT_WORKER_THREADS, JobTable.DEFAULT_MAX_JOBS, JobTable.DEFAULT_RETENTION_MILLIS);
 
 	public ExecutorService(Configuration configuration) {
 
 		this.configuration = configuration;
 	}
 
+	/**
+	 * Gets the cache for the results of executions.
+	 *
+	 * @return the {@link ResultCache} of this service
+	 */
+	public ResultCache getResultCache() {
+		return this.resultCache;
+	}
+
 	private synchronized int getLogId() {
 
 		return this.logId++;
@@ -51,6 +65,8 @@ public class ExecutorService implements ch.bfh.progressor.executor.thrift.Execut
 
 		codeExecutor.setConfiguration(this.configuration);
 		this.codeExecutors.put(codeExecutor.getLanguage(), codeExecutor);
+
+		ExecutorService.LOGGER.config(String.format("%s execution results of language '%s'.", this.configuration.shouldCacheResults(codeExecutor.getLanguage()) ? "Caching" : "Not caching", codeExecutor.getLanguage()));
 	}
 
 	private synchronized void loadCodeExecutors() {
@@ -249,30 +265,142 @@ public class ExecutorService implements ch.bfh.progressor.executor.thrift.Execut
 		final long startNano = System.nanoTime();
 		ExecutorService.LOGGER.info(String.format("%-6d: execute(language=%s, fragment=..., %d testCases: %s...)", logId, language, testCases.size(), !testCases.isEmpty() ? testCases.get(0) : null));
 
+		try {
+			return ResultImpl.convertToThrift(this.execute(language, this.getCodeExecutor(language), fragment, functions, testCases, null));
+
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not execute the code fragment in language '%s'.", language);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
+
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
+
+	/**
+	 * Executes test cases on several code fragments implementing the same functions. <br>
+	 * The code fragments share the execution environment and, if supported by the language, the compilation.
+	 * A failing code fragment does not affect the results of the others.
+	 * Results of batches are not cached.
+	 *
+	 * @param language  language to code fragments are written in
+	 * @param functions functions the fragments implement
+	 * @param testCases test cases to execute on each code fragment
+	 * @param fragments code fragments to execute test cases on
+	 *
+	 * @return a {@link List} containing a {@link List} with the {@link Result}s of the test cases for each code fragment, in the same order
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public List<List<ch.bfh.progressor.executor.thrift.Result>> executeBatch(String language, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases, List<String> fragments) throws TException {
+
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.info(String.format("%-6d: executeBatch(language=%s, %d fragments, %d testCases: %s...)", logId, language, fragments.size(), testCases.size(), !testCases.isEmpty() ? testCases.get(0) : null));
+
+		try {
+			List<List<ch.bfh.progressor.executor.thrift.Result>> results = new ArrayList<>(fragments.size());
+			for (List<Result> fragmentResults : this.executeBatch(this.getCodeExecutor(language), fragments, functions, testCases))
+				results.add(ResultImpl.convertToThrift(fragmentResults));
+
+			return results;
+
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not execute the batch of code fragments in language '%s'.", language);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
+
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
+
+	/**
+	 * Submits test cases to be executed asynchronously on a specific code fragment.
+	 *
+	 * @param language  language to code fragment is written in
+	 * @param fragment  code fragment to execute test cases on
+	 * @param functions functions the fragment implements
+	 * @param testCases test cases to execute on the code fragment
+	 *
+	 * @return unique identifier of the job to poll for the {@link Result}s, which are available while the job is still running
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public String submit(String language, String fragment, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases) throws TException {
+
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.info(String.format("%-6d: submit(language=%s, fragment=..., %d testCases: %s...)", logId, language, testCases.size(), !testCases.isEmpty() ? testCases.get(0) : null));
+
 		try {
 			CodeExecutor codeExecutor = this.getCodeExecutor(language);
-			List<Result> results;
+			return this.jobTable.submit(listener -> this.execute(language, codeExecutor, fragment, functions, testCases, listener)).getId();
 
-			List<String> blacklist = codeExecutor.getBlacklist().stream()
-																					 .filter(b -> Pattern.compile(String.format("\\b\\Q%s\\E\\b", b)).matcher(fragment).find())
-																					 .collect(Collectors.toList());
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not submit the code fragment in language '%s'.", language);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
 
-			if (!blacklist.isEmpty()) { //validate fragment against blacklist
-				results = Collections.nCopies(testCases.size(),
-																			new ResultImpl(false, true, String.format("Validation against blacklist failed (illegal: %s).", String.join(", ", blacklist))));
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
 
-			} else {
-				results = codeExecutor.execute(fragment, TestCaseImpl.convertFromThrift(functions, testCases)); //delegate execution call
+	/**
+	 * Fetches the current state of a submitted job.
+	 *
+	 * @param jobId unique identifier of the job
+	 *
+	 * @return the job, including the {@link Result}s of the test cases executed so far
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public ch.bfh.progressor.executor.thrift.Job poll(String jobId) throws TException {
 
-				if (results.size() < testCases.size())
-					results.addAll(Collections.nCopies(testCases.size() - results.size(),
-																						 new ResultImpl(false, true, "Could not read execution result for test case.")));
-			}
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.fine(String.format("%-6d: poll(jobId=%s)", logId, jobId));
 
-			return ResultImpl.convertToThrift(results);
+		try {
+			return JobImpl.convertToThrift(this.jobTable.get(jobId));
 
 		} catch (Exception ex) { //wrap exception
-			String msg = String.format("Could not execute the code fragment in language '%s'.", language);
+			String msg = String.format("Could not poll job %s.", jobId);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
+
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
+
+	/**
+	 * Waits until a submitted job is done or a timeout has elapsed.
+	 *
+	 * @param jobId               unique identifier of the job
+	 * @param timeoutMilliseconds maximum time (in milliseconds) to wait
+	 *
+	 * @return the job, including the {@link Result}s of the test cases if it has finished
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public ch.bfh.progressor.executor.thrift.Job await(String jobId, long timeoutMilliseconds) throws TException {
+
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.info(String.format("%-6d: await(jobId=%s, timeoutMilliseconds=%d)", logId, jobId, timeoutMilliseconds));
+
+		try {
+			return JobImpl.convertToThrift(this.jobTable.await(jobId, timeoutMilliseconds));
+
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not wait for job %s.", jobId);
 			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
 			throw new TException(msg, ex);
 
@@ -280,4 +408,133 @@ public class ExecutorService implements ch.bfh.progressor.executor.thrift.Execut
 			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
 		}
 	}
+
+	/**
+	 * Waits until more results of a submitted job are available, the job is done or a timeout has elapsed. <br>
+	 * Clients pass the number of results they already received to get each further result as soon as it is available.
+	 *
+	 * @param jobId               unique identifier of the job
+	 * @param resultCount         number of results already received
+	 * @param timeoutMilliseconds maximum time (in milliseconds) to wait
+	 *
+	 * @return the job, including the {@link Result}s of the test cases executed so far
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public ch.bfh.progressor.executor.thrift.Job awaitResults(String jobId, int resultCount, long timeoutMilliseconds) throws TException {
+
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.fine(String.format("%-6d: awaitResults(jobId=%s, resultCount=%d, timeoutMilliseconds=%d)", logId, jobId, resultCount, timeoutMilliseconds));
+
+		try {
+			return JobImpl.convertToThrift(this.jobTable.awaitResults(jobId, resultCount, timeoutMilliseconds));
+
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not wait for results of job %s.", jobId);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
+
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
+
+	/**
+	 * Cancels a submitted job.
+	 *
+	 * @param jobId unique identifier of the job
+	 *
+	 * @return whether the job has been cancelled (i.e. whether it was not done yet)
+	 *
+	 * @throws TException if anything goes wrong (check cause for exception type)
+	 */
+	@Override
+	public boolean cancel(String jobId) throws TException {
+
+		final int logId = this.getLogId();
+		final long startNano = System.nanoTime();
+		ExecutorService.LOGGER.info(String.format("%-6d: cancel(jobId=%s)", logId, jobId));
+
+		try {
+			return this.jobTable.cancel(jobId);
+
+		} catch (Exception ex) { //wrap exception
+			String msg = String.format("Could not cancel job %s.", jobId);
+			ExecutorService.LOGGER.log(Level.WARNING, msg, ex);
+			throw new TException(msg, ex);
+
+		} finally {
+			ExecutorService.LOGGER.finer(String.format("%-6d: finished in %d ms", logId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNano)));
+		}
+	}
+
+	private List<Result> execute(String language, CodeExecutor codeExecutor, String fragment, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases, ResultListener listener) throws ExecutorException {
+
+		if (this.configuration.shouldCacheResults(language)) //identical executions share their results (only the executing one reports them early)
+			return this.resultCache.get(this.resultCache.getKey(language, fragment, functions, testCases), () -> this.execute(codeExecutor, fragment, functions, testCases, listener));
+		else
+			return this.execute(codeExecutor, fragment, functions, testCases, listener);
+	}
+
+	private List<List<Result>> executeBatch(CodeExecutor codeExecutor, List<String> fragments, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases) throws ExecutorException {
+
+		List<List<Result>> results = new ArrayList<>(Collections.nCopies(fragments.size(), null));
+
+		List<Integer> validIndices = new ArrayList<>(fragments.size());
+		List<String> validFragments = new ArrayList<>(fragments.size());
+		for (int i = 0; i < fragments.size(); i++) {
+			List<String> blacklist = codeExecutor.getBlacklistViolations(fragments.get(i));
+
+			if (!blacklist.isEmpty()) //validate fragment against blacklist
+				results.set(i, Collections.nCopies(testCases.size(),
+																					 new ResultImpl(false, true, String.format("Validation against blacklist failed (illegal: %s).", String.join(", ", blacklist)))));
+
+			else {
+				validIndices.add(i);
+				validFragments.add(fragments.get(i));
+			}
+		}
+
+		if (!validFragments.isEmpty()) {
+			List<List<Result>> batchResults = codeExecutor.executeBatch(validFragments, TestCaseImpl.convertFromThrift(functions, testCases)); //delegate execution call
+
+			for (int i = 0; i < validIndices.size(); i++)
+				results.set(validIndices.get(i), this.padResults(batchResults.get(i), testCases.size()));
+		}
+
+		return results;
+	}
+
+	private List<Result> execute(CodeExecutor codeExecutor, String fragment, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases, ResultListener listener) throws ExecutorException {
+
+		List<Result> results;
+
+		List<String> blacklist = codeExecutor.getBlacklistViolations(fragment);
+
+		if (!blacklist.isEmpty()) { //validate fragment against blacklist
+			results = Collections.nCopies(testCases.size(),
+																		new ResultImpl(false, true, String.format("Validation against blacklist failed (illegal: %s).", String.join(", ", blacklist))));
+
+		} else {
+			results = listener != null ? codeExecutor.execute(fragment, TestCaseImpl.convertFromThrift(functions, testCases), listener) //delegate execution call
+																 : codeExecutor.execute(fragment, TestCaseImpl.convertFromThrift(functions, testCases));
+
+			results = this.padResults(results, testCases.size());
+		}
+
+		return results;
+	}
+
+	private List<Result> padResults(List<Result> results, int testCases) {
+
+		if (results.size() < testCases) {
+			results = new ArrayList<>(results); //the list may be unmodifiable
+			results.addAll(Collections.nCopies(testCases - results.size(),
+																				 new ResultImpl(false, true, "Could not read execution result for test case.")));
+		}
+
+		return results;
+	}
 }
@@ -53,6 +53,18 @@ public interface CodeExecutor {
 	 */
 	Set<String> getBlacklist() throws ExecutorException;
 
+	/**
+	 * Gets the strings on the blacklist contained in a code fragment. <br>
+	 * A string is only considered contained if it is not part of a longer word.
+	 *
+	 * @param codeFragment code fragment to validate against the blacklist
+	 *
+	 * @return a {@link List} containing the strings not allowed in the code fragment or an empty list if the code fragment is valid
+	 *
+	 * @throws ExecutorException if the blacklist could not be read
+	 */
+	List<String> getBlacklistViolations(String codeFragment) throws ExecutorException;
+
 	/**
 	 * Gets the whole code generated in order to execute the provided code fragment.
 	 *
@@ -74,4 +86,29 @@ public interface CodeExecutor {
 	 * @return a {@link List} containing the {@link Result} for each test case
 	 */
 	List<Result> execute(String codeFragment, List<TestCase> testCases);
+
+	/**
+	 * Executes a provided code fragment and reports the result of each test case as soon as it is available. <br>
+	 * Reported results are preliminary (e.g. they lack the total execution time);
+	 * the returned list is authoritative and may differ if the execution fails after a test case has been reported.
+	 *
+	 * @param codeFragment code fragment to execute
+	 * @param testCases    test cases to execute
+	 * @param listener     listener to report the result of each test case to
+	 *
+	 * @return a {@link List} containing the {@link Result} for each test case
+	 */
+	List<Result> execute(String codeFragment, List<TestCase> testCases, ResultListener listener);
+
+	/**
+	 * Executes several code fragments implementing the same functions on the same test cases. <br>
+	 * The code fragments are executed independently, a failing code fragment does not affect the results of the others.
+	 * Executors may share the compilation among the code fragments, but each code fragment is executed in an environment of its own.
+	 *
+	 * @param codeFragments code fragments to execute
+	 * @param testCases     test cases to execute on each code fragment
+	 *
+	 * @return a {@link List} containing a {@link List} with the {@link Result} for each test case for each code fragment, in the same order
+	 */
+	List<List<Result>> executeBatch(List<String> codeFragments, List<TestCase> testCases);
 }
@@ -21,6 +21,56 @@ public interface Configuration {
 		public boolean shouldCleanUp() {
 			return true;
 		}
+
+		@Override
+		public boolean shouldPoolDockerContainers() {
+			return true;
+		}
+
+		@Override
+		public boolean shouldUseDockerEngineApi() {
+			return true;
+		}
+
+		@Override
+		public boolean shouldCacheCompilations() {
+			return true;
+		}
+
+		@Override
+		public boolean shouldCacheResults(String language) {
+			return true;
+		}
+
+		@Override
+		public boolean shouldUseJavaWorkers() {
+			return false;
+		}
+
+		@Override
+		public int getJavaScriptWorkerRuns() {
+			return 0;
+		}
+
+		@Override
+		public boolean shouldUsePHPWorkers() {
+			return false;
+		}
+
+		@Override
+		public boolean shouldUsePythonWorkers() {
+			return false;
+		}
+
+		@Override
+		public boolean shouldUseDotNetCompilerServer() {
+			return false;
+		}
+
+		@Override
+		public boolean shouldUseDotNetReleaseMode() {
+			return false;
+		}
 	};
 
 	/**
@@ -36,4 +86,82 @@ public interface Configuration {
 	 * @return whether to clean up temporary files
 	 */
 	boolean shouldCleanUp();
+
+	/**
+	 * Gets whether to keep a pool of pre-started Docker containers instead of starting one per request.
+	 *
+	 * @return whether to pool Docker containers
+	 */
+	boolean shouldPoolDockerContainers();
+
+	/**
+	 * Gets whether to talk to the Docker Engine API directly instead of invoking the Docker command-line client.
+	 *
+	 * @return whether to use the Docker Engine API
+	 */
+	boolean shouldUseDockerEngineApi();
+
+	/**
+	 * Gets whether to reuse the compilation artifacts of previously compiled code files.
+	 *
+	 * @return whether to cache compilation artifacts
+	 */
+	boolean shouldCacheCompilations();
+
+	/**
+	 * Gets whether to reuse the results of identical executions in a specific language.
+	 *
+	 * @param language language of the executions
+	 *
+	 * @return whether to cache execution results
+	 */
+	boolean shouldCacheResults(String language);
+
+	/**
+	 * Gets whether to execute Java code in pre-started worker JVMs instead of starting a new JVM per request. <br>
+	 * Worker JVMs are only used if Docker containers are not used.
+	 *
+	 * @return whether to use Java worker JVMs
+	 */
+	boolean shouldUseJavaWorkers();
+
+	/**
+	 * Gets the number of requests a persistent Node.js worker executes before it is replaced. <br>
+	 * Persistent Node.js workers are only used if the number is positive and Docker containers are not used.
+	 *
+	 * @return number of requests per Node.js worker or {@code 0} to start a new Node.js process per request
+	 */
+	int getJavaScriptWorkerRuns();
+
+	/**
+	 * Gets whether to execute PHP code in persistent worker processes instead of starting a new PHP process per request. <br>
+	 * PHP workers are only used if Docker containers are not used.
+	 *
+	 * @return whether to use PHP workers
+	 */
+	boolean shouldUsePHPWorkers();
+
+	/**
+	 * Gets whether to execute Python code in children forked from a pre-started zygote process instead of starting a new Python process per request. <br>
+	 * Python zygotes are only used if Docker containers are not used.
+	 *
+	 * @return whether to use Python zygotes
+	 */
+	boolean shouldUsePythonWorkers();
+
+	/**
+	 * Gets whether to compile C# and VB.NET code with the shared Roslyn compiler server instead of starting a new compiler per request. <br>
+	 * The compiler server is only used if Docker containers are not used.
+	 *
+	 * @return whether to use the .NET compiler server
+	 */
+	boolean shouldUseDotNetCompilerServer();
+
+	/**
+	 * Gets whether to compile and execute C# and VB.NET code without debug information. <br>
+	 * If Docker containers are not used, the helpers of the templates are also compiled (ahead-of-time if possible) into a shared assembly once.
+	 *
+	 * @return whether to use the .NET release mode
+	 */
+	boolean shouldUseDotNetReleaseMode();
 }
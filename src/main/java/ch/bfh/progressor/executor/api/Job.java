@@ -0,0 +1,80 @@
+package ch.bfh.progressor.executor.api;
+
+import java.util.List;
+
+/**
+ * Represents an execution submitted for asynchronous processing.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public interface Job {
+
+	/**
+	 * Represents the processing status of a {@link Job}.
+	 */
+	enum Status {
+
+		/**
+		 * The job waits for a worker.
+		 */
+		QUEUED,
+
+		/**
+		 * The job is being executed.
+		 */
+		RUNNING,
+
+		/**
+		 * The job has been executed and its results are available.
+		 */
+		FINISHED,
+
+		/**
+		 * The job could not be executed.
+		 */
+		FAILED,
+
+		/**
+		 * The job has been cancelled before it finished.
+		 */
+		CANCELLED;
+
+		/**
+		 * Gets whether a job with this status will not change anymore.
+		 *
+		 * @return whether this status is final
+		 */
+		public boolean isDone() {
+			return this != Status.QUEUED && this != Status.RUNNING;
+		}
+	}
+
+	/**
+	 * Gets the unique identifier of the job.
+	 *
+	 * @return unique identifier of the job
+	 */
+	String getId();
+
+	/**
+	 * Gets the processing status of the job.
+	 *
+	 * @return processing status of the job
+	 */
+	Status getStatus();
+
+	/**
+	 * Gets the results of the job. <br>
+	 * While the job is {@link Status#RUNNING}, the preliminary results of the test cases executed so far are returned.
+	 *
+	 * @return a {@link List} containing the {@link Result}s of the test cases or {@code null} if the job is neither {@link Status#RUNNING} nor {@link Status#FINISHED}
+	 */
+	List<Result> getResults();
+
+	/**
+	 * Gets the reason the job could not be executed.
+	 *
+	 * @return reason the job could not be executed or {@code null} if the job has not {@link Status#FAILED}
+	 */
+	String getError();
+}
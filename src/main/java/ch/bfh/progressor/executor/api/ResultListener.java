@@ -0,0 +1,18 @@
+package ch.bfh.progressor.executor.api;
+
+/**
+ * Listener notified of the {@link Result} of each test case as soon as it is available.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+@FunctionalInterface
+public interface ResultListener {
+
+	/**
+	 * Called as soon as the result of the next test case is available. <br>
+	 * Results are reported in the order of the test cases, possibly from another thread than the executing one.
+	 *
+	 * @param result result of the next test case
+	 */
+	void resultAvailable(Result result);
+}
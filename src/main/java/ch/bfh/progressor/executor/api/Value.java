@@ -41,6 +41,18 @@ public interface Value {
 	 */
 	List<Value> getCollection();
 
+	/**
+	 * Tries to get a (1-D) collection of values backed by a primitive array. <br>
+	 * Collections of 8-bit to 32-bit integers are backed by an {@code int[]}, 64-bit integers by a {@code long[]},
+	 * 64-bit floating-point numbers by a {@code double[]}, characters by a {@code char[]} and booleans by a {@code boolean[]}.
+	 * The elements of {@link #getCollection()} have the same (canonical) literals. The returned array must not be modified.
+	 *
+	 * @return the primitive array holding the values or {@code null} if the collection is not backed by one
+	 *
+	 * @throws UnsupportedOperationException if there is a dimension mismatch
+	 */
+	Object getPrimitiveCollection();
+
 	/**
 	 * Tries to get a 2-dimensional collection of value.
 	 *
@@ -0,0 +1,213 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+
+/**
+ * Finds blacklisted keywords in code fragments. <br>
+ * The keywords are compiled into an Aho-Corasick automaton, which finds all of them in a single pass over the code fragment.
+ * A keyword is only found if it is not part of a longer word, i.e. there is a word boundary next to each of its word characters.
+ * Searching a code fragment containing no keywords does not allocate any memory.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class BlacklistMatcher {
+
+	private static final int ASCII_CHARACTERS = 128;
+
+	private final String[] keywords;
+
+	private final int[] asciiSymbols = new int[BlacklistMatcher.ASCII_CHARACTERS];
+	private final char[] otherCharacters; //sorted, to be searched binary
+	private final int[] otherSymbols;
+	private final int symbolCount;
+
+	private final int[] transitions; //state * symbolCount + symbol --> next state
+	private final int[][] outputs; //state --> indices of the keywords ending in that state
+
+	/**
+	 * Constructs a new {@link BlacklistMatcher}.
+	 *
+	 * @param keywords blacklisted keywords to find
+	 */
+	public BlacklistMatcher(Collection<String> keywords) {
+
+		this.keywords = new LinkedHashSet<>(keywords).stream().filter(k -> !k.isEmpty()).toArray(String[]::new);
+
+		//assign a symbol to each character used in the keywords, symbol 0 represents all other characters
+		TreeSet<Character> alphabet = new TreeSet<>();
+		for (String keyword : this.keywords)
+			for (char c : keyword.toCharArray())
+				alphabet.add(c);
+
+		List<Character> otherAlphabet = new ArrayList<>();
+		int symbol = 1;
+		for (char c : alphabet)
+			if (c < BlacklistMatcher.ASCII_CHARACTERS)
+				this.asciiSymbols[c] = symbol++;
+			else
+				otherAlphabet.add(c);
+
+		this.otherCharacters = new char[otherAlphabet.size()];
+		this.otherSymbols = new int[otherAlphabet.size()];
+		for (int i = 0; i < otherAlphabet.size(); i++) {
+			this.otherCharacters[i] = otherAlphabet.get(i);
+			this.otherSymbols[i] = symbol++;
+		}
+		this.symbolCount = symbol;
+
+		//build the trie of the keywords
+		List<Map<Integer, Integer>> children = new ArrayList<>();
+		List<List<Integer>> ownOutputs = new ArrayList<>();
+		children.add(new HashMap<>());
+		ownOutputs.add(new ArrayList<>());
+
+		for (int k = 0; k < this.keywords.length; k++) {
+			int state = 0;
+			for (char c : this.keywords[k].toCharArray()) {
+				Integer next = children.get(state).get(this.getSymbol(c));
+				if (next == null) {
+					next = children.size();
+					children.get(state).put(this.getSymbol(c), next);
+					children.add(new HashMap<>());
+					ownOutputs.add(new ArrayList<>());
+				}
+				state = next;
+			}
+			ownOutputs.get(state).add(k);
+		}
+
+		//turn the trie into a deterministic automaton by following the failure links breadth-first
+		final int stateCount = children.size();
+		this.transitions = new int[stateCount * this.symbolCount];
+		this.outputs = new int[stateCount][];
+
+		int[] failures = new int[stateCount];
+		Queue<Integer> queue = new ArrayDeque<>();
+		queue.add(0);
+
+		while (!queue.isEmpty()) {
+			int state = queue.remove();
+
+			List<Integer> stateOutputs = new ArrayList<>(ownOutputs.get(state));
+			if (state != 0 && this.outputs[failures[state]] != null)
+				for (int k : this.outputs[failures[state]])
+					stateOutputs.add(k);
+			if (!stateOutputs.isEmpty())
+				this.outputs[state] = stateOutputs.stream().mapToInt(Integer::intValue).toArray();
+
+			for (int s = 1; s < this.symbolCount; s++) {
+				Integer child = children.get(state).get(s);
+				if (child != null) {
+					failures[child] = state != 0 ? this.transitions[failures[state] * this.symbolCount + s] : 0;
+					this.transitions[state * this.symbolCount + s] = child;
+					queue.add(child);
+
+				} else if (state != 0)
+					this.transitions[state * this.symbolCount + s] = this.transitions[failures[state] * this.symbolCount + s];
+			}
+		}
+	}
+
+	private int getSymbol(char c) {
+
+		if (c < BlacklistMatcher.ASCII_CHARACTERS)
+			return this.asciiSymbols[c];
+
+		int index = Arrays.binarySearch(this.otherCharacters, c);
+		return index >= 0 ? this.otherSymbols[index] : 0;
+	}
+
+	/**
+	 * Gets the blacklisted keywords to find.
+	 *
+	 * @return a {@link List} containing the blacklisted keywords
+	 */
+	public List<String> getKeywords() {
+		return Collections.unmodifiableList(Arrays.asList(this.keywords));
+	}
+
+	/**
+	 * Finds the blacklisted keywords contained in a code fragment.
+	 *
+	 * @param codeFragment code fragment to search
+	 *
+	 * @return a {@link List} containing the blacklisted keywords found, in the order they were provided
+	 */
+	public List<String> find(CharSequence codeFragment) {
+
+		boolean[] found = null;
+		int foundCount = 0;
+
+		for (int i = 0, state = 0; i < codeFragment.length(); i++) {
+			state = this.transitions[state * this.symbolCount + this.getSymbol(codeFragment.charAt(i))];
+
+			if (this.outputs[state] != null)
+				for (int k : this.outputs[state])
+					if ((found == null || !found[k]) && BlacklistMatcher.isDelimited(codeFragment, i + 1 - this.keywords[k].length(), i + 1)) {
+						if (found == null)
+							found = new boolean[this.keywords.length];
+						found[k] = true;
+						foundCount++;
+					}
+		}
+
+		if (found == null)
+			return Collections.emptyList();
+
+		List<String> ret = new ArrayList<>(foundCount);
+		for (int k = 0; k < this.keywords.length; k++)
+			if (found[k])
+				ret.add(this.keywords[k]);
+
+		return ret;
+	}
+
+	private static boolean isDelimited(CharSequence text, int start, int end) {
+
+		if (BlacklistMatcher.isWordAt(text, start) && start > 0 && BlacklistMatcher.isWordBefore(text, start))
+			return false;
+
+		return !(BlacklistMatcher.isWordBefore(text, end) && end < text.length() && BlacklistMatcher.isWordAt(text, end));
+	}
+
+	//same definition of word characters as the word boundary matcher "\b" of java.util.regex.Pattern
+
+	private static boolean isWordBefore(CharSequence text, int index) {
+
+		int codePoint = Character.codePointBefore(text, index);
+		return BlacklistMatcher.isWord(codePoint) || Character.getType(codePoint) == Character.NON_SPACING_MARK && BlacklistMatcher.hasBaseCharacter(text, index - 1);
+	}
+
+	private static boolean isWordAt(CharSequence text, int index) {
+
+		int codePoint = Character.codePointAt(text, index);
+		return BlacklistMatcher.isWord(codePoint) || Character.getType(codePoint) == Character.NON_SPACING_MARK && BlacklistMatcher.hasBaseCharacter(text, index);
+	}
+
+	private static boolean isWord(int codePoint) {
+		return codePoint == '_' || Character.isLetterOrDigit(codePoint);
+	}
+
+	private static boolean hasBaseCharacter(CharSequence text, int index) {
+
+		for (int i = index; i >= 0; i--) {
+			int codePoint = Character.codePointAt(text, i);
+			if (Character.isLetterOrDigit(codePoint))
+				return true;
+			if (Character.getType(codePoint) != Character.NON_SPACING_MARK)
+				return false;
+		}
+
+		return false;
+	}
+}
@@ -1,24 +1,32 @@
 package ch.bfh.progressor.executor.impl;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.io.ByteOrderMark;
-import org.apache.commons.io.input.BOMInputStream;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -29,6 +37,7 @@ import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.ExecutorPlatform;
 import ch.bfh.progressor.executor.api.FunctionSignature;
 import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.ResultListener;
 import ch.bfh.progressor.executor.api.TestCase;
 import ch.bfh.progressor.executor.api.Value;
 import ch.bfh.progressor.executor.api.ValueType;
@@ -87,13 +96,39 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 	 */
 	protected static final String TEST_CASES_FRAGMENT = "$TestCases$";
 
+	/**
+	 * Name of the data file in the code directory the values of the test cases are passed through (see {@link #willUseDataFile(List)}).
+	 */
+	protected static final String DATA_FILE_NAME = "testcases.bin";
+
+	/**
+	 * Number of single values in the test cases above which they are passed through a data file (if supported by the executor).
+	 */
+	protected static final long DATA_FILE_THRESHOLD = 1000;
+
+	/**
+	 * Character starting a result frame (ASCII record separator, see {@link #usesResultFrames()}).
+	 */
+	protected static final char RESULT_FRAME_START = '\u001E';
+
 	/**
 	 * Gets the number of milli(second)s per nano(second).
 	 */
 	protected static final double MILLIS_IN_NANO = 1e6;
 
-	private static final int BUFFER_SIZE = 1024;
-	private static final int BUFFER_FACTOR = 2;
+	private static final Logger LOGGER = Logger.getLogger(CodeExecutorBase.class.getName());
+
+	private static final ThreadLocal<ResultListener> RESULT_LISTENER = new ThreadLocal<>();
+	private static final ThreadLocal<ResultStream> RESULT_FRAMES = new ThreadLocal<>(); //frames of the last unsafe command of this thread
+	private static final ThreadLocal<TestCaseDataFile> DATA_FILE = new ThreadLocal<>();
+
+	private static final AtomicInteger BATCH_THREAD_COUNT = new AtomicInteger();
+	private static final ExecutorService BATCH_EXECUTOR = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+		Thread thread = new Thread(runnable, String.format("batch-worker-%d", CodeExecutorBase.BATCH_THREAD_COUNT.incrementAndGet()));
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	private static final ByteOrderMark[] BYTE_ORDER_MARKS = CodeExecutorBase.duplicateByteOrderMarks(ByteOrderMark.UTF_8, ByteOrderMark.UTF_16BE, ByteOrderMark.UTF_16LE, ByteOrderMark.UTF_32BE, ByteOrderMark.UTF_32LE);
 
 	private static final long MAX_JOIN_TIMEOUT_MILLIS = 150;
@@ -107,7 +142,9 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 
 	private Configuration configuration = Configuration.DEFAULT_CONFIGURATION;
 	private Set<String> blacklist;
+	private BlacklistMatcher blacklistMatcher;
 	private StringBuilder template;
+	private String prelude;
 
 	//***************************
 	//*** CODE EXECUTOR LOGIC ***
@@ -142,7 +179,7 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 
 		if (this.blacklist == null)
 			try (InputStreamReader reader = new InputStreamReader(this.getClass().getResourceAsStream(this.getBlackListPath()), CodeExecutorBase.CHARSET)) {
-				this.blacklist = new HashSet<>();
+				Set<String> blacklist = new LinkedHashSet<>();
 				JSONTokener tokener = new JSONTokener(reader);
 
 				if (!tokener.more()) throw new JSONException("No root elements present.");
@@ -155,10 +192,13 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 
 					for (int j = 0; j < elements.length(); j++) {
 						JSONObject element = elements.getJSONObject(j);
-						this.blacklist.add(element.getString("keyword"));
+						blacklist.add(element.getString("keyword"));
 					}
 				}
 
+				this.blacklistMatcher = new BlacklistMatcher(blacklist);
+				this.blacklist = blacklist;
+
 			} catch (IOException | JSONException | ClassCastException ex) {
 				throw new ExecutorException("Could not read the blacklist.", ex);
 			}
@@ -166,6 +206,99 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 		return Collections.unmodifiableSet(this.blacklist);
 	}
 
+	private synchronized BlacklistMatcher getBlacklistMatcher() throws ExecutorException {
+
+		if (this.blacklistMatcher == null)
+			this.getBlacklist(); //read the blacklist and build the matcher
+
+		return this.blacklistMatcher;
+	}
+
+	@Override
+	public List<String> getBlacklistViolations(String codeFragment) throws ExecutorException {
+		return this.getBlacklistMatcher().find(codeFragment);
+	}
+
+	@Override
+	public List<Result> execute(String codeFragment, List<TestCase> testCases, ResultListener listener) {
+
+		ResultListener previousListener = CodeExecutorBase.RESULT_LISTENER.get();
+		CodeExecutorBase.RESULT_LISTENER.set(listener); //unsafe commands of this thread report their results
+		try {
+			return this.execute(codeFragment, testCases);
+
+		} finally {
+			CodeExecutorBase.RESULT_LISTENER.set(previousListener);
+		}
+	}
+
+	@Override
+	public List<List<Result>> executeBatch(List<String> codeFragments, List<TestCase> testCases) {
+
+		List<Callable<List<Result>>> executions = new ArrayList<>(codeFragments.size());
+		for (String codeFragment : codeFragments)
+			executions.add(() -> this.execute(codeFragment, testCases));
+
+		try {
+			return this.executeInParallel(executions);
+
+		} catch (ExecutorException ex) {
+			throw new RuntimeException("Could not execute the batch.", ex);
+		}
+	}
+
+	/**
+	 * Executes several tasks in parallel on a pool shared by all executors. <br>
+	 * The number of concurrently executed tasks is limited to the number of available processors.
+	 * Tasks must not wait for other tasks executed by this method.
+	 *
+	 * @param <T>   result type of the tasks
+	 * @param tasks tasks to execute
+	 *
+	 * @return a {@link List} containing the result of each task, in the same order
+	 *
+	 * @throws ExecutorException if a task failed or the current thread was interrupted while waiting
+	 */
+	protected <T> List<T> executeInParallel(List<Callable<T>> tasks) throws ExecutorException {
+
+		List<Future<T>> futures = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks)
+			futures.add(CodeExecutorBase.BATCH_EXECUTOR.submit(task));
+
+		List<T> results = new ArrayList<>(tasks.size());
+		try {
+			for (Future<T> future : futures)
+				results.add(future.get());
+
+		} catch (ExecutionException ex) {
+			throw new ExecutorException("Could not execute a task in parallel.", ex.getCause());
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ExecutorException("Could not wait for the tasks executed in parallel.", ex);
+
+		} finally {
+			for (Future<T> future : futures) //abandon the remaining tasks on failure
+				future.cancel(true);
+		}
+
+		return results;
+	}
+
+	/**
+	 * Reports the result of the next test case to the listener of the current execution (if any). <br>
+	 * Only needed by executors evaluating test cases themselves;
+	 * results written by unsafe system commands are reported automatically.
+	 *
+	 * @param result result of the next test case
+	 */
+	protected void reportResult(Result result) {
+
+		ResultListener listener = CodeExecutorBase.RESULT_LISTENER.get();
+		if (listener != null)
+			listener.resultAvailable(result);
+	}
+
 	/**
 	 * Gets the path to the template file.
 	 *
@@ -201,17 +334,85 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 		return this.getFunctionSignatures(functions);
 	}
 
+	/**
+	 * Gets the path to the prelude file. <br>
+	 * The prelude contains the helper functions every code file depends on and is appended to the code file,
+	 * so that persistent workers can load it once instead.
+	 *
+	 * @return default path to the prelude file or {@code null} if the template contains all helper functions
+	 */
+	protected String getPreludePath() {
+		return null;
+	}
+
+	/**
+	 * Gets the code prelude for this language.
+	 *
+	 * @return code prelude for this language (empty if there is none)
+	 *
+	 * @throws ExecutorException if the code prelude could not be read
+	 * @see #getPreludePath()
+	 */
+	protected synchronized String getPrelude() throws ExecutorException {
+
+		if (this.prelude == null) {
+			if (this.getPreludePath() == null)
+				return "";
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(this.getClass().getResourceAsStream(this.getPreludePath()), CodeExecutorBase.CHARSET))) {
+				StringBuilder prelude = new StringBuilder();
+				String line;
+				while ((line = reader.readLine()) != null) //read prelude to StringBuilder
+					prelude.append(line).append(CodeExecutorBase.NEWLINE);
+
+				this.prelude = prelude.toString();
+
+			} catch (IOException ex) {
+				throw new ExecutorException("Could not read the code prelude.", ex);
+			}
+		}
+
+		return this.prelude;
+	}
+
 	@Override
 	public String getCodeFile(String codeFragment, List<TestCase> testCases) throws ExecutorException {
 
+		final String program = this.getProgram(codeFragment, testCases), prelude = this.getPrelude();
+		return prelude.isEmpty() ? program : new StringBuilder(program).append(CodeExecutorBase.NEWLINE).append(prelude).toString();
+	}
+
+	/**
+	 * Gets the code file with the user's code fragment but without the prelude.
+	 *
+	 * @param codeFragment code fragment to place into the template
+	 * @param testCases    test cases to generate tests for
+	 *
+	 * @return the code file without the prelude
+	 *
+	 * @throws ExecutorException if generation failed
+	 * @see #getPreludePath()
+	 */
+	protected String getProgram(String codeFragment, List<TestCase> testCases) throws ExecutorException {
+
 		try {
 			StringBuilder code = this.getTemplate(); //read the template
 
 			int fragStart = code.indexOf(CodeExecutorBase.CODE_CUSTOM_FRAGMENT); //place fragment in template
 			code.replace(fragStart, fragStart + CodeExecutorBase.CODE_CUSTOM_FRAGMENT.length(), codeFragment);
 
+			String testCaseSignatures;
+			TestCaseDataFile previousDataFile = CodeExecutorBase.DATA_FILE.get();
+			CodeExecutorBase.DATA_FILE.set(this.willUseDataFile(testCases) ? new TestCaseDataFile(testCases) : null); //values of this thread are read from the data file
+			try {
+				testCaseSignatures = this.getTestCaseSignatures(testCases);
+
+			} finally {
+				CodeExecutorBase.DATA_FILE.set(previousDataFile);
+			}
+
 			int caseStart = code.indexOf(CodeExecutorBase.TEST_CASES_FRAGMENT); //generate test cases and place them in fragment
-			code.replace(caseStart, caseStart + CodeExecutorBase.TEST_CASES_FRAGMENT.length(), this.getTestCaseSignatures(testCases));
+			code.replace(caseStart, caseStart + CodeExecutorBase.TEST_CASES_FRAGMENT.length(), testCaseSignatures);
 
 			return code.toString();
 
@@ -221,7 +422,7 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 	}
 
 	/**
-	 * Generates the code file with the user's code fragment.
+	 * Generates the code file with the user's code fragment (and the data file next to it if needed).
 	 *
 	 * @param codeFile     file to generate
 	 * @param codeFragment code fragment to write into the file
@@ -237,6 +438,68 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 		} catch (IOException ex) {
 			throw new ExecutorException("Could not generate the code file.", ex);
 		}
+
+		this.generateDataFile(codeFile.getParentFile(), testCases);
+	}
+
+	/**
+	 * Generates the code file with the user's code fragment but without the prelude (e.g. for a worker which has already loaded the prelude)
+	 * and the data file next to it if needed.
+	 *
+	 * @param codeFile     file to generate
+	 * @param codeFragment code fragment to write into the file
+	 * @param testCases    test cases to generate tests for
+	 *
+	 * @throws ExecutorException if generation failed
+	 * @see #getPreludePath()
+	 */
+	protected void generateProgramFile(File codeFile, String codeFragment, List<TestCase> testCases) throws ExecutorException {
+
+		try {
+			Files.write(codeFile.toPath(), this.getProgram(codeFragment, testCases).getBytes(CodeExecutorBase.CHARSET));
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not generate the code file.", ex);
+		}
+
+		this.generateDataFile(codeFile.getParentFile(), testCases);
+	}
+
+	/**
+	 * Generates the data file containing the values of the test cases in the code directory if they are passed through a data file.
+	 *
+	 * @param codeDirectory directory containing the code file
+	 * @param testCases     test cases to write the values of
+	 *
+	 * @throws ExecutorException if generation failed
+	 * @see #willUseDataFile(List)
+	 */
+	protected void generateDataFile(File codeDirectory, List<TestCase> testCases) throws ExecutorException {
+
+		if (this.willUseDataFile(testCases))
+			new TestCaseDataFile(testCases).write(new File(codeDirectory, CodeExecutorBase.DATA_FILE_NAME));
+	}
+
+	/**
+	 * Gets whether this executor can read the values of the test cases from a data file (see {@link #getDataFileValue(Value, int)}).
+	 *
+	 * @return whether data files are supported
+	 */
+	protected boolean supportsDataFile() {
+		return false;
+	}
+
+	/**
+	 * Gets whether to pass the values of the test cases through a data file instead of literals in the code file. <br>
+	 * Compilers slow down considerably (or even exceed their limits) on large literals,
+	 * so data files are used if the test cases contain more than {@link #DATA_FILE_THRESHOLD} single values.
+	 *
+	 * @param testCases test cases to pass the values of
+	 *
+	 * @return whether to use a data file
+	 */
+	protected boolean willUseDataFile(List<TestCase> testCases) {
+		return this.supportsDataFile() && TestCaseDataFile.countValues(testCases) > CodeExecutorBase.DATA_FILE_THRESHOLD;
 	}
 
 	/**
@@ -272,6 +535,39 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 	 */
 	protected abstract String getValueLiteral(Value value) throws ExecutorException;
 
+	/**
+	 * Gets the expression for an input or expected output value of a test case:
+	 * its literal or an expression reading it from the data file if the test cases are passed through a data file.
+	 *
+	 * @param value value of a test case to get the expression for
+	 *
+	 * @return expression for value
+	 *
+	 * @throws ExecutorException if generation failed
+	 * @see #willUseDataFile(List)
+	 */
+	protected String getValueExpression(Value value) throws ExecutorException {
+
+		TestCaseDataFile dataFile = CodeExecutorBase.DATA_FILE.get();
+		return dataFile != null ? this.getDataFileValue(value, dataFile.getIndex(value)) : this.getValueLiteral(value);
+	}
+
+	/**
+	 * Gets the expression reading a value from the data file. <br>
+	 * Executors supporting data files have to override this method, the others fall back to the literal of the value.
+	 *
+	 * @param value value to get the expression for
+	 * @param index index of the value in the data file
+	 *
+	 * @return expression reading the value
+	 *
+	 * @throws ExecutorException if generation failed
+	 * @see TestCaseDataFile
+	 */
+	protected String getDataFileValue(Value value, int index) throws ExecutorException {
+		return this.getValueLiteral(value);
+	}
+
 	/**
 	 * Gets the name of an arbitrary type.
 	 *
@@ -344,56 +640,32 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 			output[i + byteOrderMarks.length] = new ByteOrderMark(byteOrderMarks[i].getCharsetName(), bytes);
 		}
 
+		Arrays.sort(output, Comparator.comparingInt(ByteOrderMark::length).reversed()); //match longer marks first
 		return output;
 	}
 
 	private String executeSystemCommand(boolean safe, boolean deferred, File directory, String... command) throws ExecutorException {
+		return this.executeSystemCommand(safe, deferred, () -> this.startProcess(directory, command));
+	}
+
+	private String executeSystemCommand(boolean safe, boolean deferred, ProcessStarter processStarter) throws ExecutorException {
+
+		final ResultListener listener = safe ? null : CodeExecutorBase.RESULT_LISTENER.get(); //safe commands do not run user code
+		final ResultStream resultStream = listener != null || !safe && this.usesResultFrames() ? new ResultStream(listener) : null; //frames are always parsed while reading
+		CodeExecutorBase.RESULT_FRAMES.remove();
 
 		Process process = null;
 		try {
-			process = new ProcessBuilder(command).directory(directory).redirectErrorStream(true).start();
+			process = processStarter.start();
+			ProcessOutputPump outputPump = ProcessOutputPump.start(process, CodeExecutorBase.MAX_JOIN_TIMEOUT_MILLIS, resultStream);
 
 			boolean timeoutException = false;
-			String output; //source: http://stackoverflow.com/a/16313762/1325979
-			try (BOMInputStream bomInputStream = new BOMInputStream(process.getInputStream(), CodeExecutorBase.BYTE_ORDER_MARKS)) {
-				boolean processFinished = false;
-				ByteBuffer byteBuffer = ByteBuffer.allocate(CodeExecutorBase.BUFFER_SIZE);
-
-				long maxBufferTimeMillis = System.currentTimeMillis() + CodeExecutorBase.MAX_INITIAL_TIMEOUT_MILLIS;
-				final long maxTotalTimeMillis = System.currentTimeMillis() + CodeExecutorBase.MAX_TOTAL_TIMEOUT_MILLIS;
-				while (true) {
-					if (!byteBuffer.hasArray())
-						throw new ExecutorException("Could not properly read process output.");
-					if (!safe && (timeoutException = !deferred && System.currentTimeMillis() > maxBufferTimeMillis || System.currentTimeMillis() > maxTotalTimeMillis))
-						break;
-
-					int bytesToRead = Math.min(bomInputStream.available(), byteBuffer.remaining());
-					int readBytes = bomInputStream.read(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), bytesToRead);
-					if (readBytes > 0) {
-						byteBuffer.position(byteBuffer.position() + readBytes);
-						maxBufferTimeMillis = System.currentTimeMillis() + CodeExecutorBase.MAX_BUFFER_TIMEOUT_MILLIS;
-						if (!byteBuffer.hasRemaining()) {
-							ByteBuffer newBuffer = ByteBuffer.allocate(byteBuffer.capacity() * CodeExecutorBase.BUFFER_FACTOR);
-							byteBuffer.flip();
-							newBuffer.put(byteBuffer);
-							byteBuffer = newBuffer;
-						}
-
-					} else if (!processFinished && process.waitFor(CodeExecutorBase.MAX_JOIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
-						processFinished = true;
-
-					else if (processFinished || readBytes < 0)
-						break;
-				}
-
-				Charset charset = CodeExecutorBase.CHARSET;
-				int bomLength = Arrays.stream(CodeExecutorBase.BYTE_ORDER_MARKS).mapToInt(ByteOrderMark::length).max().orElse(0);
-				if (byteBuffer.position() >= bomLength && bomInputStream.hasBOM())
-					charset = Charset.forName(bomInputStream.getBOMCharsetName());
+			final long startTimeMillis = System.currentTimeMillis();
+			while (!outputPump.awaitFinish(this.getMaxTimeMillis(safe, deferred, startTimeMillis, outputPump.getLastOutputMillis())))
+				if (timeoutException = System.currentTimeMillis() >= this.getMaxTimeMillis(safe, deferred, startTimeMillis, outputPump.getLastOutputMillis()))
+					break; //otherwise, the process has written output in the meantime
 
-				byteBuffer.flip();
-				output = charset.newDecoder().decode(byteBuffer.slice()).toString();
-			}
+			String output = CodeExecutorBase.decodeOutput(outputPump.getOutput());
 
 			if (timeoutException)
 				throw new ExecutorException("Could not execute command in time.", output);
@@ -402,6 +674,12 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 			if (process.exitValue() != 0)
 				throw new ExecutorException("Could not successfully execute command.", output);
 
+			if (resultStream != null) {
+				resultStream.finish(output); //report the last block, even if it is not terminated by an empty line
+				if (resultStream.frameParser != null)
+					CodeExecutorBase.RESULT_FRAMES.set(resultStream);
+			}
+
 			return output;
 
 		} catch (InterruptedException ex) {
@@ -411,12 +689,65 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 			throw new ExecutorException("Could not execute command.", ex);
 
 		} finally {
+			if (resultStream != null)
+				resultStream.close(); //output of lingering descendants is not reported anymore
+
 			if (process != null && process.isAlive())
 				//use Java 9 ProcessHandle to destroy children as well
 				process.destroyForcibly();
 		}
 	}
 
+	private long getMaxTimeMillis(boolean safe, boolean deferred, long startTimeMillis, long lastOutputMillis) {
+
+		if (safe)
+			return Long.MAX_VALUE;
+
+		final long maxTotalTimeMillis = startTimeMillis + CodeExecutorBase.MAX_TOTAL_TIMEOUT_MILLIS;
+		if (deferred)
+			return maxTotalTimeMillis;
+
+		return Math.min(maxTotalTimeMillis, lastOutputMillis > 0 ? lastOutputMillis + CodeExecutorBase.MAX_BUFFER_TIMEOUT_MILLIS
+																														 : startTimeMillis + CodeExecutorBase.MAX_INITIAL_TIMEOUT_MILLIS);
+	}
+
+	private static String decodeOutput(byte[] output) throws IOException {
+
+		for (ByteOrderMark byteOrderMark : CodeExecutorBase.BYTE_ORDER_MARKS) //longer marks come first
+			if (CodeExecutorBase.startsWith(output, byteOrderMark.getBytes()))
+				return new String(output, byteOrderMark.length(), output.length - byteOrderMark.length(), byteOrderMark.getCharsetName());
+
+		return new String(output, CodeExecutorBase.CHARSET);
+	}
+
+	private static boolean startsWith(byte[] array, byte[] prefix) {
+
+		if (array.length < prefix.length)
+			return false;
+
+		for (int i = 0; i < prefix.length; i++)
+			if (array[i] != prefix[i])
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * Starts a system command. <br>
+	 * The standard error of the process has to be merged into its standard output.
+	 *
+	 * @param directory the working directory for the command
+	 * @param command   command to execute
+	 *
+	 * @return the started {@link Process}
+	 *
+	 * @throws IOException if the command could not be started
+	 */
+	protected Process startProcess(File directory, String... command) throws IOException {
+
+		return new ProcessBuilder(command).directory(directory).redirectErrorStream(true).start();
+	}
+
 	/**
 	 * Executes a standard (unsafe) system command. <br>
 	 * Several rules are enforced for unsafe processes:
@@ -473,6 +804,38 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 		return this.executeSystemCommand(true, false, directory, command);
 	}
 
+	/**
+	 * Executes a standard (unsafe) process which is not started as a system command (e.g. a process facade). <br>
+	 * The same rules as for standard system commands are enforced.
+	 *
+	 * @param processStarter starter of the process to execute
+	 *
+	 * @return the output of the process
+	 *
+	 * @throws ExecutorException if the process cannot be executed successfully
+	 * @see #executeCommand(File, String...)
+	 */
+	protected String executeProcess(ProcessStarter processStarter) throws ExecutorException {
+
+		return this.executeSystemCommand(false, false, processStarter);
+	}
+
+	/**
+	 * Starts a process whose standard error is merged into its standard output.
+	 */
+	@FunctionalInterface
+	protected interface ProcessStarter {
+
+		/**
+		 * Starts the process.
+		 *
+		 * @return the started {@link Process}
+		 *
+		 * @throws IOException if the process could not be started
+		 */
+		Process start() throws IOException;
+	}
+
 	//*****************************
 	//*** MISCELLANEOUS HELPERS ***
 	//*****************************
@@ -547,29 +910,224 @@ public abstract class CodeExecutorBase implements CodeExecutor {
 	protected List<Result> createResults(String output, double totalCompileTimeMillis, double totalExecutionTimeMillis) throws ExecutorException {
 
 		List<Result> results = new ArrayList<>();
+		if (this.usesResultFrames()) {
+			final ResultStream resultStream = CodeExecutorBase.RESULT_FRAMES.get();
+			CodeExecutorBase.RESULT_FRAMES.remove();
+
+			if (resultStream != null && resultStream.output == output) { //the frames have been parsed from the raw output while it was read
+				for (ResultFrame frame : resultStream.getFrames())
+					results.add(this.createResult(frame.success, false, frame.result, totalCompileTimeMillis, totalExecutionTimeMillis, frame.testCaseExecutionTimeMillis));
+
+				return results;
+			}
+
+			final byte[] frames = output.getBytes(CodeExecutorBase.CHARSET); //the output has not been read by a command of this executor
+			final ResultFrameParser parser = new ResultFrameParser((success, testCaseExecutionTimeMillis, result) -> results.add(this.createResult(success, false, result, totalCompileTimeMillis, totalExecutionTimeMillis, testCaseExecutionTimeMillis)));
+			parser.parse(frames, 0, frames.length);
+			parser.finish();
+			return results;
+		}
+
 		try (Scanner scanner = new Scanner(output).useDelimiter(CodeExecutorBase.DOUBLE_NEWLINE_PATTERN)) {
-			while (scanner.hasNext()) {
-				String result = scanner.next();
+			while (scanner.hasNext())
+				results.add(this.parseResult(scanner.next(), totalCompileTimeMillis, totalExecutionTimeMillis));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Gets whether the code of this executor writes its results in frames instead of the text format. <br>
+	 * The text format separates the results ({@code OK:<time>:<result>} or {@code ER:<result>}) by empty lines,
+	 * so empty lines in the result or output of the user's code break the results apart.
+	 * A result frame has the format {@code <start>OK:<time>:<length>:<result><line feed>} (or {@code ER}) instead, where
+	 * {@code <start>} is the {@link #RESULT_FRAME_START} character, {@code <time>} the test case execution time in milliseconds (may be empty)
+	 * and {@code <length>} the length of the result in UTF-8 bytes. <br>
+	 * The code has to write the frames to a duplicate of the standard output and redirect the standard output and error
+	 * of the user's code to the null device before it runs, so the user's code cannot forge results by printing frames.
+	 * Any other output between the frames (e.g. warnings of the runtime) is skipped.
+	 *
+	 * @return whether results are written in frames
+	 */
+	protected boolean usesResultFrames() {
+		return false;
+	}
+
+	private Result parseResult(String result, double totalCompileTimeMillis, double totalExecutionTimeMillis) throws ExecutorException {
 
-				Matcher successMatcher = CodeExecutorBase.RESULT_SUCCESS_PATTERN.matcher(result);
-				if (!successMatcher.lookingAt())
-					throw new ExecutorException("Execution result block did not start properly.");
+		Matcher successMatcher = CodeExecutorBase.RESULT_SUCCESS_PATTERN.matcher(result);
+		if (!successMatcher.lookingAt())
+			throw new ExecutorException("Execution result block did not start properly.");
 
-				boolean success = "OK".equalsIgnoreCase(successMatcher.group(1));
-				int resultOffset = successMatcher.end();
+		boolean success = "OK".equalsIgnoreCase(successMatcher.group(1));
+		int resultOffset = successMatcher.end();
 
-				double testCaseExecutionTimeMillis = Double.NaN;
-				Matcher executionTimeMatcher = CodeExecutorBase.RESULT_EXECUTION_TIME_PATTERN.matcher(result.substring(resultOffset));
-				if (executionTimeMatcher.lookingAt()) {
-					testCaseExecutionTimeMillis = Double.parseDouble(executionTimeMatcher.group(1));
-					resultOffset += executionTimeMatcher.end();
+		double testCaseExecutionTimeMillis = Double.NaN;
+		Matcher executionTimeMatcher = CodeExecutorBase.RESULT_EXECUTION_TIME_PATTERN.matcher(result.substring(resultOffset));
+		if (executionTimeMatcher.lookingAt()) {
+			testCaseExecutionTimeMillis = Double.parseDouble(executionTimeMatcher.group(1));
+			resultOffset += executionTimeMatcher.end();
+		}
+
+		return this.createResult(success, false, result.substring(resultOffset),
+														 totalCompileTimeMillis, totalExecutionTimeMillis, testCaseExecutionTimeMillis);
+	}
+
+	/**
+	 * Parses the result blocks of an execution while its output is still being read and reports them to a listener. <br>
+	 * Blocks are parsed as soon as they are terminated by an empty line (or frames as soon as they are complete).
+	 * The total compilation and execution times are not known yet and therefore not set.
+	 * If the output cannot be parsed (e.g. because it has an unsupported encoding), no further results are reported. <br>
+	 * Frames are also kept for the final results, as their lengths only match the raw output (not its decoded text).
+	 */
+	private final class ResultStream implements ProcessOutputPump.OutputListener {
+
+		private final ResultListener listener;
+		private final ResultFrameParser frameParser;
+		private final List<ResultFrame> frames = new ArrayList<>();
+		private ExecutorException frameFailure;
+		private String output;
+		private final ByteArrayOutputStream undecodedOutput = new ByteArrayOutputStream();
+		private final StringBuilder unparsedOutput = new StringBuilder();
+		private int searchStart;
+		private boolean started, closed, listenerFailed;
+
+		private ResultStream(ResultListener listener) {
+
+			this.listener = listener;
+			this.frameParser = CodeExecutorBase.this.usesResultFrames() ? new ResultFrameParser(this::frameParsed) : null;
+		}
+
+		@Override
+		public synchronized void outputAvailable(byte[] buffer, int offset, int length) {
+
+			if (this.closed)
+				return;
+
+			if (this.frameParser != null)
+				try { //frames are parsed from the raw output, the frame parser only buffers the current frame
+					this.frameParser.parse(buffer, offset, length);
+
+				} catch (ExecutorException ex) { //reported with the final results
+					CodeExecutorBase.LOGGER.log(Level.FINE, "Could not stream the execution results.", ex);
+					this.frameFailure = ex;
+					this.closed = true;
 				}
+			else {
+				this.undecodedOutput.write(buffer, offset, length);
+				this.parse(false);
+			}
+		}
+
+		private synchronized void finish(String output) {
+
+			if (!this.closed)
+				if (this.frameParser == null)
+					this.parse(true);
+				else
+					try {
+						this.frameParser.finish();
+					} catch (ExecutorException ex) {
+						this.frameFailure = ex;
+					}
 
-				results.add(this.createResult(success, false, result.substring(resultOffset),
-																			totalCompileTimeMillis, totalExecutionTimeMillis, testCaseExecutionTimeMillis));
+			this.output = output;
+			this.closed = true;
+		}
+
+		private synchronized List<ResultFrame> getFrames() throws ExecutorException {
+
+			if (this.frameFailure != null)
+				throw this.frameFailure;
+
+			return this.frames;
+		}
+
+		private synchronized void close() {
+
+			this.closed = true;
+		}
+
+		private void frameParsed(boolean success, double testCaseExecutionTimeMillis, String result) throws ExecutorException {
+
+			this.frames.add(new ResultFrame(success, testCaseExecutionTimeMillis, result));
+			if (this.listener != null && !this.listenerFailed)
+				try {
+					this.listener.resultAvailable(CodeExecutorBase.this.createResult(success, false, result, Double.NaN, Double.NaN, testCaseExecutionTimeMillis));
+
+				} catch (ExecutorException ex) { //the frames are still collected for the final results
+					CodeExecutorBase.LOGGER.log(Level.FINE, "Could not stream the execution results.", ex);
+					this.listenerFailed = true;
+				}
+		}
+
+		private void parse(boolean endOfOutput) {
+
+			try {
+				byte[] output = this.undecodedOutput.toByteArray();
+				int start = 0;
+
+				if (!this.started) { //the encoding is determined by the byte order mark at the beginning of the output
+					if (!endOfOutput && output.length < CodeExecutorBase.BYTE_ORDER_MARKS[0].length())
+						return; //longer marks come first
+
+					for (ByteOrderMark byteOrderMark : CodeExecutorBase.BYTE_ORDER_MARKS)
+						if (CodeExecutorBase.startsWith(output, byteOrderMark.getBytes())) {
+							if (!CodeExecutorBase.CHARSET.name().equals(byteOrderMark.getCharsetName()))
+								throw new ExecutorException(String.format("Could not stream output encoded in %s.", byteOrderMark.getCharsetName()));
+
+							start = byteOrderMark.length();
+							break;
+						}
+
+					this.started = true;
+				}
+
+				int end = output.length; //only decode complete lines, a line feed never is part of a multi-byte character
+				if (!endOfOutput)
+					while (end > start && output[end - 1] != '\n')
+						end--;
+
+				this.unparsedOutput.append(new String(output, start, end - start, CodeExecutorBase.CHARSET));
+				this.undecodedOutput.reset();
+				this.undecodedOutput.write(output, end, output.length - end);
+
+				int blockStart = 0;
+				Matcher separatorMatcher = CodeExecutorBase.DOUBLE_NEWLINE_PATTERN.matcher(this.unparsedOutput);
+				if (separatorMatcher.find(this.searchStart)) //the output before has already been searched for separators
+					do {
+						this.listener.resultAvailable(CodeExecutorBase.this.parseResult(this.unparsedOutput.substring(blockStart, separatorMatcher.start()), Double.NaN, Double.NaN));
+						blockStart = separatorMatcher.end();
+					} while (separatorMatcher.find());
+				this.unparsedOutput.delete(0, blockStart);
+				this.searchStart = Math.max(0, this.unparsedOutput.length() - 3); //a separator ending with the next output may have started
+
+				if (endOfOutput && this.unparsedOutput.length() > 0) {
+					this.listener.resultAvailable(CodeExecutorBase.this.parseResult(this.unparsedOutput.toString(), Double.NaN, Double.NaN));
+					this.unparsedOutput.setLength(0);
+				}
+
+			} catch (Exception ex) { //the output will be parsed again once the execution has finished
+				CodeExecutorBase.LOGGER.log(Level.FINE, "Could not stream the execution results.", ex);
+				this.closed = true;
 			}
 		}
+	}
 
-		return results;
+	/**
+	 * Result of a test case parsed from a frame (see {@link #usesResultFrames()}).
+	 */
+	private static final class ResultFrame {
+
+		private final boolean success;
+		private final double testCaseExecutionTimeMillis;
+		private final String result;
+
+		private ResultFrame(boolean success, double testCaseExecutionTimeMillis, String result) {
+
+			this.success = success;
+			this.testCaseExecutionTimeMillis = testCaseExecutionTimeMillis;
+			this.result = result;
+		}
 	}
 }
@@ -1,13 +1,20 @@
 package ch.bfh.progressor.executor.impl;
 
 import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.apache.commons.io.FileUtils;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.api.TestCase;
@@ -32,6 +39,18 @@ public abstract class CodeExecutorDockerBase extends CodeExecutorBase {
 
 	private static final Logger LOGGER = Logger.getLogger(CodeExecutorDockerBase.class.getName());
 
+	private static final ThreadLocal<DockerContainerPool.Container> DOCKER_CONTAINER = new ThreadLocal<>();
+	private static final ThreadLocal<File> DOCKER_DIRECTORY = new ThreadLocal<>();
+	private static final Map<String, DockerContainerPool> DOCKER_CONTAINER_POOLS = new ConcurrentHashMap<>();
+
+	private static final DockerClient DOCKER_COMMAND_LINE_CLIENT = new DockerCommandLineClient();
+	private static DockerEngineClient dockerEngineClient;
+
+	private static final CompilationCache COMPILATION_CACHE = new CompilationCache(Paths.get("cache", "compilation").toFile(), CompilationCache.DEFAULT_MAX_SIZE_BYTES);
+
+	private VersionInformation compilerVersionInformation;
+	private boolean compilerVersionUnavailable;
+
 	//***************************
 	//*** CODE EXECUTOR LOGIC ***
 	//***************************
@@ -55,7 +74,7 @@ public abstract class CodeExecutorDockerBase extends CodeExecutorBase {
 		} finally {
 			if (this.willUseDocker())
 				try {
-					this.stopDocker(CodeExecutorBase.CURRENT_DIRECTORY);
+					this.stopDocker();
 				} catch (Exception ex) {
 					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not stop Docker (for version information).", ex);
 				}
@@ -72,43 +91,35 @@ public abstract class CodeExecutorDockerBase extends CodeExecutorBase {
 	@Override
 	public final List<Result> execute(String codeFragment, List<TestCase> testCases) {
 
-		final File codeDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile(); //create a temporary directory
+		File codeDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile(); //create a temporary directory
 
 		try {
-			if (!codeDirectory.exists() && !codeDirectory.mkdirs())
-				throw new ExecutorException("Could not create a temporary directory for the user code.");
-
 			if (this.shouldUseDocker())
 				try {
-					this.startDocker(codeDirectory);
+					codeDirectory = this.startDocker(codeDirectory);
 				} catch (Exception ex) {
 					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not start Docker.", ex);
 				}
 
+			if (!codeDirectory.exists() && !codeDirectory.mkdirs())
+				throw new ExecutorException("Could not create a temporary directory for the user code.");
+
 			return this.executeTestCases(codeFragment, testCases, codeDirectory);
 
 		} catch (Exception ex) {
-			StringBuilder sb = new StringBuilder("Could not invoke the user code.").append(CodeExecutorBase.NEWLINE);
-			Throwable throwable = ex;
-			do sb.append(throwable).append(CodeExecutorBase.NEWLINE);
-			while ((throwable = throwable.getCause()) != null);
-
-			try {
-				return Collections.nCopies(testCases.size(), this.createResult(false, true, sb.toString()));
-
-			} catch (ExecutorException ex2) {
-				throw new RuntimeException("Could not invoke the user code.", ex);
-			}
+			return this.createFatalResults(ex, testCases.size());
 
 		} finally {
+			final boolean pooled = CodeExecutorDockerBase.DOCKER_CONTAINER.get() != null; //the pool wipes its own directories
+
 			if (this.willUseDocker())
 				try {
-					this.stopDocker(codeDirectory);
+					this.stopDocker();
 				} catch (Exception ex) {
 					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not stop Docker.", ex);
 				}
 
-			if (codeDirectory.exists())
+			if (!pooled && codeDirectory.exists())
 				if (!this.tryDeleteRecursive(codeDirectory))
 					CodeExecutorDockerBase.LOGGER.warning("Could not delete temporary folder.");
 		}
@@ -127,6 +138,319 @@ public abstract class CodeExecutorDockerBase extends CodeExecutorBase {
 	 */
 	protected abstract List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException;
 
+	@Override
+	public final List<List<Result>> executeBatch(List<String> codeFragments, List<TestCase> testCases) {
+
+		File batchDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile(); //create a temporary directory for the work shared by all code fragments
+
+		try {
+			if (this.shouldUseDocker() && this.usesBatchEnvironment()) //otherwise, each code fragment only uses a container of its own
+				try {
+					batchDirectory = this.startDocker(batchDirectory);
+				} catch (Exception ex) {
+					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not start Docker (for batch).", ex);
+				}
+
+			List<File> codeDirectories = new ArrayList<>(codeFragments.size());
+			for (int i = 0; i < codeFragments.size(); i++) {
+				File codeDirectory = new File(batchDirectory, String.format("batch%d", i)); //names are valid identifiers in all languages
+				if (!codeDirectory.exists() && !codeDirectory.mkdirs())
+					throw new ExecutorException("Could not create a temporary directory for the user code.");
+
+				codeDirectories.add(codeDirectory);
+			}
+
+			return this.executeBatchTestCases(codeFragments, testCases, codeDirectories);
+
+		} catch (Exception ex) {
+			return Collections.nCopies(codeFragments.size(), this.createFatalResults(ex, testCases.size()));
+
+		} finally {
+			final boolean pooled = CodeExecutorDockerBase.DOCKER_CONTAINER.get() != null; //the pool wipes its own directories
+
+			if (this.willUseDocker())
+				try {
+					this.stopDocker();
+				} catch (Exception ex) {
+					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not stop Docker (for batch).", ex);
+				}
+
+			if (!pooled && batchDirectory.exists())
+				if (!this.tryDeleteRecursive(batchDirectory))
+					CodeExecutorDockerBase.LOGGER.warning("Could not delete temporary folder.");
+		}
+	}
+
+	/**
+	 * Executes several code fragments of a batch. <br>
+	 * This method runs in the environment of the batch, which may be used for work shared by all code fragments (e.g. a combined compilation).
+	 * The user code of each code fragment has to be executed using {@link #executeIsolated(File, IsolatedTask)}, so that it cannot
+	 * access the files or processes of the other code fragments.
+	 * By default, each code fragment is compiled and executed in parallel in an environment of its own.
+	 * Executors able to compile several code fragments at once should override this method and {@link #usesBatchEnvironment()}.
+	 *
+	 * @param codeFragments   code fragments to execute
+	 * @param testCases       test cases to execute on each code fragment
+	 * @param codeDirectories directory to place the code file of each code fragment in (named as a valid identifier)
+	 *
+	 * @return a {@link List} containing a {@link List} with the {@link Result} for each test case for each code fragment
+	 *
+	 * @throws ExecutorException if the batch could not be executed
+	 */
+	protected List<List<Result>> executeBatchTestCases(List<String> codeFragments, List<TestCase> testCases, List<File> codeDirectories) throws ExecutorException {
+
+		List<Callable<List<Result>>> executions = new ArrayList<>(codeFragments.size());
+		for (int i = 0; i < codeFragments.size(); i++) {
+			final String codeFragment = codeFragments.get(i);
+			final File codeDirectory = codeDirectories.get(i);
+
+			executions.add(() -> {
+				try {
+					return this.executeIsolated(codeDirectory, directory -> this.executeTestCases(codeFragment, testCases, directory));
+
+				} catch (Exception ex) { //isolate the failure
+					return this.createFatalResults(ex, testCases.size());
+				}
+			});
+		}
+
+		return this.executeInParallel(executions);
+	}
+
+	/**
+	 * Gets whether {@link #executeBatchTestCases(List, List, List)} does work shared by all code fragments in the environment of the batch. <br>
+	 * Only then a container is started (or taken from the pool) for the batch itself.
+	 *
+	 * @return whether the batch needs an environment of its own
+	 */
+	protected boolean usesBatchEnvironment() {
+		return false;
+	}
+
+	/**
+	 * Executes a task on a copy of a directory in an environment of its own. <br>
+	 * The directory is copied into a new directory (the mounted directory of a container of its own if Docker is used).
+	 * Afterwards, the container is stopped or returned to the pool (which kills all processes the task left behind) and the copy is deleted.
+	 *
+	 * @param directory directory to copy (keeping its name)
+	 * @param task      task to execute on the copy of the directory
+	 * @param <T>       type of the result of the task
+	 *
+	 * @return the result of the task
+	 *
+	 * @throws ExecutorException if the environment could not be prepared or the task failed
+	 */
+	protected <T> T executeIsolated(File directory, IsolatedTask<T> task) throws ExecutorException {
+
+		final String containerId = CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get(); //the environment of the batch is restored afterwards
+		final DockerContainerPool.Container container = CodeExecutorDockerBase.DOCKER_CONTAINER.get();
+		final File mountedDirectory = CodeExecutorDockerBase.DOCKER_DIRECTORY.get();
+		CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(null);
+		CodeExecutorDockerBase.DOCKER_CONTAINER.set(null);
+		CodeExecutorDockerBase.DOCKER_DIRECTORY.set(null);
+
+		File isolatedDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile();
+		try {
+			if (this.shouldUseDocker())
+				try {
+					isolatedDirectory = this.startDocker(isolatedDirectory);
+				} catch (Exception ex) {
+					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not start Docker (for isolation).", ex);
+				}
+
+			if (!isolatedDirectory.exists() && !isolatedDirectory.mkdirs())
+				throw new ExecutorException("Could not create a temporary directory for the user code.");
+
+			final File copiedDirectory = new File(isolatedDirectory, directory.getName());
+			try {
+				FileUtils.copyDirectory(directory, copiedDirectory);
+
+			} catch (IOException ex) {
+				throw new ExecutorException("Could not copy the user code into its own directory.", ex);
+			}
+
+			return task.execute(copiedDirectory);
+
+		} finally {
+			final boolean pooled = CodeExecutorDockerBase.DOCKER_CONTAINER.get() != null; //the pool wipes its own directories
+
+			if (this.willUseDocker())
+				try {
+					this.stopDocker();
+				} catch (Exception ex) {
+					CodeExecutorDockerBase.LOGGER.log(Level.SEVERE, "Could not stop Docker (for isolation).", ex);
+				}
+
+			if (!pooled && isolatedDirectory.exists())
+				if (!this.tryDeleteRecursive(isolatedDirectory))
+					CodeExecutorDockerBase.LOGGER.warning("Could not delete temporary folder.");
+
+			CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(containerId);
+			CodeExecutorDockerBase.DOCKER_CONTAINER.set(container);
+			CodeExecutorDockerBase.DOCKER_DIRECTORY.set(mountedDirectory);
+		}
+	}
+
+	/**
+	 * Task executed on a directory in an environment of its own.
+	 *
+	 * @param <T> type of the result of the task
+	 * @see #executeIsolated(File, IsolatedTask)
+	 */
+	@FunctionalInterface
+	protected interface IsolatedTask<T> {
+
+		/**
+		 * Executes the task.
+		 *
+		 * @param directory directory to execute the task on
+		 *
+		 * @return the result of the task
+		 *
+		 * @throws ExecutorException if the task failed
+		 */
+		T execute(File directory) throws ExecutorException;
+	}
+
+	/**
+	 * Executes several tasks in parallel on a pool shared by all executors. <br>
+	 * The tasks run in the Docker container of the current thread (if any).
+	 */
+	@Override
+	protected <T> List<T> executeInParallel(List<Callable<T>> tasks) throws ExecutorException {
+
+		final String containerId = CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get();
+		final DockerContainerPool.Container container = CodeExecutorDockerBase.DOCKER_CONTAINER.get();
+		final File directory = CodeExecutorDockerBase.DOCKER_DIRECTORY.get();
+
+		List<Callable<T>> dockerTasks = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks)
+			dockerTasks.add(() -> {
+				CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(containerId);
+				CodeExecutorDockerBase.DOCKER_CONTAINER.set(container);
+				CodeExecutorDockerBase.DOCKER_DIRECTORY.set(directory);
+				try {
+					return task.call();
+
+				} finally {
+					CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(null);
+					CodeExecutorDockerBase.DOCKER_CONTAINER.set(null);
+					CodeExecutorDockerBase.DOCKER_DIRECTORY.set(null);
+				}
+			});
+
+		return super.executeInParallel(dockerTasks);
+	}
+
+	/**
+	 * Gets fatal {@link Result}s for all test cases of a failed execution.
+	 *
+	 * @param ex        reason the execution failed
+	 * @param testCases number of test cases
+	 *
+	 * @return a {@link List} containing a fatal {@link Result} for each test case
+	 */
+	protected List<Result> createFatalResults(Exception ex, int testCases) {
+
+		StringBuilder sb = new StringBuilder("Could not invoke the user code.").append(CodeExecutorBase.NEWLINE);
+		Throwable throwable = ex;
+		do sb.append(throwable).append(CodeExecutorBase.NEWLINE);
+		while ((throwable = throwable.getCause()) != null);
+
+		try {
+			return Collections.nCopies(testCases, this.createResult(false, true, sb.toString()));
+
+		} catch (ExecutorException ex2) {
+			throw new RuntimeException("Could not invoke the user code.", ex);
+		}
+	}
+
+	//*************************
+	//*** COMPILATION CACHE ***
+	//*************************
+
+	/**
+	 * Gets the cache for compilation artifacts shared by all executors.
+	 *
+	 * @return cache for compilation artifacts
+	 */
+	public static CompilationCache getCompilationCache() {
+		return CodeExecutorDockerBase.COMPILATION_CACHE;
+	}
+
+	/**
+	 * Gets the key of the compilation artifacts of a code file. <br>
+	 * Has to be called while executing the test cases (so that the compiler version is fetched in the right environment).
+	 *
+	 * @param codeFragment code fragment to compile
+	 * @param testCases    test cases to compile
+	 *
+	 * @return key of the compilation artifacts or {@code null} if they should not be cached
+	 *
+	 * @throws ExecutorException if the code file could not be generated
+	 */
+	protected String getCompilationKey(String codeFragment, List<TestCase> testCases) throws ExecutorException {
+		return this.getCompilationKey(this.getCodeFile(codeFragment, testCases));
+	}
+
+	/**
+	 * Gets the key of the compilation artifacts of a generated code file. <br>
+	 * Has to be called while executing the test cases (so that the compiler version is fetched in the right environment).
+	 *
+	 * @param codeFile content of the code file to compile
+	 *
+	 * @return key of the compilation artifacts or {@code null} if they should not be cached
+	 */
+	protected String getCompilationKey(String codeFile) {
+
+		if (!this.getConfiguration().shouldCacheCompilations())
+			return null;
+
+		VersionInformation versionInformation;
+		synchronized (this) {
+			if (this.compilerVersionInformation == null && !this.compilerVersionUnavailable)
+				try {
+					this.compilerVersionInformation = this.fetchVersionInformation();
+
+				} catch (ExecutorException ex) {
+					CodeExecutorDockerBase.LOGGER.log(Level.WARNING, "Could not fetch compiler version, not caching compilation artifacts.", ex);
+					this.compilerVersionUnavailable = true;
+				}
+
+			if ((versionInformation = this.compilerVersionInformation) == null)
+				return null;
+		}
+
+		return CodeExecutorDockerBase.COMPILATION_CACHE.getKey(this.getLanguage(), String.format("%s %s", versionInformation.getCompilerName(), versionInformation.getCompilerVersion()),
+																													 codeFile);
+	}
+
+	/**
+	 * Copies cached compilation artifacts to the code directory.
+	 *
+	 * @param compilationKey key of the compilation artifacts (may be {@code null})
+	 * @param codeDirectory  directory to copy the artifacts to
+	 *
+	 * @return whether the artifacts were cached (compilation can be skipped)
+	 */
+	protected boolean restoreCompilation(String compilationKey, File codeDirectory) {
+
+		return compilationKey != null && CodeExecutorDockerBase.COMPILATION_CACHE.restore(compilationKey, codeDirectory);
+	}
+
+	/**
+	 * Copies compilation artifacts from the code directory into the cache.
+	 *
+	 * @param compilationKey key of the compilation artifacts (may be {@code null})
+	 * @param codeDirectory  directory containing the artifacts
+	 * @param artifactFilter filter for the artifacts in the code directory
+	 */
+	protected void storeCompilation(String compilationKey, File codeDirectory, FileFilter artifactFilter) {
+
+		if (compilationKey != null)
+			CodeExecutorDockerBase.COMPILATION_CACHE.store(compilationKey, codeDirectory, artifactFilter);
+	}
+
 	//**********************
 	//*** SYSTEM HELPERS ***
 	//**********************
@@ -153,47 +477,119 @@ public abstract class CodeExecutorDockerBase extends CodeExecutorBase {
 		return CodeExecutorDockerBase.DEFAULT_DOCKER_IMAGE_NAME;
 	}
 
-	private void startDocker(File directory) throws ExecutorException {
+	private DockerClient getDockerClient() {
 
-		String output = super.executeSafeCommand(directory, "docker", "run", "-td", "-v", String.format("%s:%sopt", directory.getAbsolutePath(), File.separator), this.getDockerImageName());
+		if (!this.getConfiguration().shouldUseDockerEngineApi())
+			return CodeExecutorDockerBase.DOCKER_COMMAND_LINE_CLIENT;
 
-		try (Scanner scanner = new Scanner(output)) {
-			if (scanner.hasNextLine())
-				CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(scanner.nextLine());
-			else
-				throw new ExecutorException("Could not read identifier of created docker container.");
+		synchronized (CodeExecutorDockerBase.class) { //share the persistent connection to the daemon
+			if (CodeExecutorDockerBase.dockerEngineClient == null)
+				CodeExecutorDockerBase.dockerEngineClient = new DockerEngineClient();
+
+			return CodeExecutorDockerBase.dockerEngineClient;
 		}
 	}
 
-	private String[] getDockerCommand(String... command) {
+	private boolean shouldPoolDocker() {
+		return this.shouldUseDocker() && this.getConfiguration().shouldPoolDockerContainers();
+	}
+
+	private DockerContainerPool getDockerContainerPool() {
+
+		return CodeExecutorDockerBase.DOCKER_CONTAINER_POOLS.computeIfAbsent(this.getDockerImageName(), imageName -> {
+			DockerContainerPool pool = new DockerContainerPool(imageName, this.getDockerClient(), this.getConfiguration().shouldCleanUp());
+			Runtime.getRuntime().addShutdownHook(new Thread(pool::close)); //do not leave pre-started containers behind
+			return pool;
+		});
+	}
+
+	private File startDocker(File directory) throws ExecutorException {
+
+		if (this.shouldPoolDocker()) { //lease a pre-started container and use its mounted directory
+			DockerContainerPool.Container container = this.getDockerContainerPool().acquire();
+			CodeExecutorDockerBase.DOCKER_CONTAINER.set(container);
+			CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(container.getId());
+			CodeExecutorDockerBase.DOCKER_DIRECTORY.set(container.getDirectory());
+			return container.getDirectory();
+		}
+
+		if (!directory.exists() && !directory.mkdirs())
+			throw new ExecutorException("Could not create a temporary directory for the user code.");
 
-		return this.willUseDocker() ? this.concatenateArrays(new String[] { "docker", "exec", CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get() }, command)
-																: command;
+		CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(this.getDockerClient().startContainer(this.getDockerImageName(), directory));
+		CodeExecutorDockerBase.DOCKER_DIRECTORY.set(directory);
+		return directory;
+	}
+
+	@Override
+	protected Process startProcess(File directory, String... command) throws IOException {
+
+		return this.willUseDocker() ? this.getDockerClient().execute(CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get(), this.getDockerWorkingDirectory(directory), command)
+																: super.startProcess(directory, command);
+	}
+
+	private String getDockerWorkingDirectory(File directory) {
+
+		File mountedDirectory = CodeExecutorDockerBase.DOCKER_DIRECTORY.get();
+		if (mountedDirectory == null)
+			return null;
+
+		Path mountedPath = mountedDirectory.toPath().toAbsolutePath().normalize();
+		Path path = directory.toPath().toAbsolutePath().normalize();
+		if (path.equals(mountedPath) || !path.startsWith(mountedPath)) //e.g. the current directory
+			return null;
+
+		return mountedPath.relativize(path).toString().replace(File.separatorChar, '/');
 	}
 
 	@Override
 	protected String executeCommand(File directory, String... command) throws ExecutorException {
 
-		return super.executeCommand(directory, this.getDockerCommand(command));
+		try {
+			return super.executeCommand(directory, command);
+
+		} catch (ExecutorException ex) {
+			this.markDockerDirty();
+			throw ex;
+		}
 	}
 
 	@Override
 	protected String executeDeferredCommand(File directory, String... command) throws ExecutorException {
 
-		return super.executeDeferredCommand(directory, this.getDockerCommand(command));
+		try {
+			return super.executeDeferredCommand(directory, command);
+
+		} catch (ExecutorException ex) {
+			this.markDockerDirty();
+			throw ex;
+		}
 	}
 
-	@Override
-	protected String executeSafeCommand(File directory, String... command) throws ExecutorException {
+	private void markDockerDirty() {
 
-		return super.executeSafeCommand(directory, this.getDockerCommand(command));
+		DockerContainerPool.Container container = CodeExecutorDockerBase.DOCKER_CONTAINER.get();
+		if (container != null) //an aborted command may still be running inside the container
+			container.markDirty();
 	}
 
-	private void stopDocker(File directory) throws ExecutorException {
+	private void stopDocker() throws ExecutorException {
 
-		super.executeSafeCommand(directory, "docker", "stop", CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get());
-		if (this.getConfiguration().shouldCleanUp())
-			super.executeSafeCommand(directory, "docker", "rm", CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get());
-		CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(null);
+		DockerContainerPool.Container container = CodeExecutorDockerBase.DOCKER_CONTAINER.get();
+		try {
+			if (container != null) //return the container to the pool
+				this.getDockerContainerPool().release(container);
+
+			else {
+				this.getDockerClient().stopContainer(CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get());
+				if (this.getConfiguration().shouldCleanUp())
+					this.getDockerClient().removeContainer(CodeExecutorDockerBase.DOCKER_CONTAINER_ID.get());
+			}
+
+		} finally {
+			CodeExecutorDockerBase.DOCKER_CONTAINER.set(null);
+			CodeExecutorDockerBase.DOCKER_CONTAINER_ID.set(null);
+			CodeExecutorDockerBase.DOCKER_DIRECTORY.set(null);
+		}
 	}
 }
@@ -0,0 +1,289 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed cache for compilation artifacts (e.g. class files or executables). <br>
+ * Entries are keyed by a hash of the language, the compiler version and the generated code file.
+ * The least recently used entries are removed as soon as the cache grows beyond its maximum size.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class CompilationCache {
+
+	/**
+	 * The default maximum size (in bytes) of all cached artifacts.
+	 */
+	public static final long DEFAULT_MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+	private static final Logger LOGGER = Logger.getLogger(CompilationCache.class.getName());
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}"); //hexadecimal SHA-256 hash
+
+	private final File directory;
+	private final long maxSizeBytes;
+
+	private final Map<String, Long> entrySizes = new LinkedHashMap<>(16, 0.75f, true); //iterates from least to most recently used
+	private long sizeBytes;
+
+	private final AtomicLong hitCount = new AtomicLong(), missCount = new AtomicLong();
+
+	/**
+	 * Constructs a new {@link CompilationCache}. <br>
+	 * Complete entries left in the directory by a previous instance are kept (ordered by their last use),
+	 * incomplete entries and other files are removed.
+	 *
+	 * @param directory    directory to store the artifacts in
+	 * @param maxSizeBytes maximum size (in bytes) of all cached artifacts
+	 */
+	public CompilationCache(File directory, long maxSizeBytes) {
+
+		this.directory = directory;
+		this.maxSizeBytes = maxSizeBytes;
+
+		File[] children = directory.listFiles();
+		if (children == null)
+			return;
+
+		Arrays.sort(children, Comparator.comparingLong(File::lastModified)); //least recently used first
+		for (File child : children)
+			if (child.isDirectory() && CompilationCache.KEY_PATTERN.matcher(child.getName()).matches()) //entries are moved into place only when complete
+				try {
+					this.entrySizes.put(child.getName(), CompilationCache.sizeRecursive(child.toPath()));
+
+				} catch (IOException ex) {
+					CompilationCache.LOGGER.log(Level.WARNING, String.format("Could not read compilation artifacts %s.", child.getName()), ex);
+					CompilationCache.deleteRecursive(child);
+				}
+
+			else if (!CompilationCache.deleteRecursive(child))
+				CompilationCache.LOGGER.warning(String.format("Could not delete incomplete compilation artifacts %s.", child.getName()));
+
+		for (long entrySize : this.entrySizes.values())
+			this.sizeBytes += entrySize;
+
+		this.evict();
+	}
+
+	/**
+	 * Gets the key of the artifacts compiled from a code file.
+	 *
+	 * @param language        language of the code file
+	 * @param compilerVersion name and version of the compiler
+	 * @param codeFile        content of the code file
+	 *
+	 * @return key of the compilation artifacts
+	 */
+	public String getKey(String language, String compilerVersion, String codeFile) {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(CompilationCache.HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(String.format("Hash algorithm %s is not available.", CompilationCache.HASH_ALGORITHM), ex);
+		}
+
+		for (String part : new String[] { language, compilerVersion, codeFile }) {
+			digest.update(part.getBytes(CodeExecutorBase.CHARSET));
+			digest.update((byte) 0); //separate the parts unambiguously
+		}
+
+		return CompilationCache.toHexString(digest.digest());
+	}
+
+	/**
+	 * Converts a hash to its hexadecimal representation.
+	 *
+	 * @param hash hash to convert
+	 *
+	 * @return hexadecimal representation of the hash
+	 */
+	public static String toHexString(byte[] hash) {
+
+		char[] hex = new char[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[i * 2] = CompilationCache.HEX_DIGITS[(hash[i] & 0xF0) >>> 4];
+			hex[i * 2 + 1] = CompilationCache.HEX_DIGITS[hash[i] & 0x0F];
+		}
+
+		return new String(hex);
+	}
+
+	/**
+	 * Copies cached artifacts to a directory.
+	 *
+	 * @param key             key of the compilation artifacts
+	 * @param targetDirectory directory to copy the artifacts to
+	 *
+	 * @return whether the artifacts were cached (and could be copied)
+	 */
+	public boolean restore(String key, File targetDirectory) {
+
+		final boolean cached;
+		synchronized (this) {
+			cached = this.entrySizes.get(key) != null; //marks the entry as recently used
+		}
+
+		if (cached)
+			try {
+				final File entryDirectory = new File(this.directory, key);
+				CompilationCache.copyRecursive(entryDirectory.toPath(), targetDirectory.toPath(), file -> true);
+				entryDirectory.setLastModified(System.currentTimeMillis()); //keeps the order of use for the next instance
+				this.hitCount.incrementAndGet();
+				return true;
+
+			} catch (IOException ex) { //the entry may have been evicted in the meantime
+				CompilationCache.LOGGER.log(Level.FINE, String.format("Could not restore compilation artifacts %s.", key), ex);
+			}
+
+		this.missCount.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Copies artifacts from a directory into the cache.
+	 *
+	 * @param key             key of the compilation artifacts
+	 * @param sourceDirectory directory to copy the artifacts from
+	 * @param artifactFilter  filter for the files and directories in the source directory to cache
+	 */
+	public void store(String key, File sourceDirectory, FileFilter artifactFilter) {
+
+		final Path entryDirectory = new File(this.directory, key).toPath();
+		final Path temporaryDirectory = new File(this.directory, String.format("%s.%s", key, UUID.randomUUID())).toPath();
+
+		long entrySize;
+		try {
+			entrySize = CompilationCache.copyRecursive(sourceDirectory.toPath(), temporaryDirectory, artifactFilter);
+			Files.move(temporaryDirectory, entryDirectory, StandardCopyOption.ATOMIC_MOVE);
+
+		} catch (FileAlreadyExistsException | DirectoryNotEmptyException ex) { //another request stored the same artifacts
+			CompilationCache.deleteRecursive(temporaryDirectory.toFile());
+			return;
+
+		} catch (IOException ex) {
+			CompilationCache.LOGGER.log(Level.WARNING, String.format("Could not store compilation artifacts %s.", key), ex);
+			CompilationCache.deleteRecursive(temporaryDirectory.toFile());
+			return;
+		}
+
+		synchronized (this) {
+			this.entrySizes.put(key, entrySize);
+			this.sizeBytes += entrySize;
+		}
+
+		this.evict();
+	}
+
+	private void evict() {
+
+		List<String> evictedKeys = new ArrayList<>();
+		synchronized (this) {
+			for (Iterator<Map.Entry<String, Long>> iterator = this.entrySizes.entrySet().iterator(); iterator.hasNext() && this.sizeBytes > this.maxSizeBytes; ) {
+				Map.Entry<String, Long> entry = iterator.next();
+				iterator.remove();
+				this.sizeBytes -= entry.getValue();
+				evictedKeys.add(entry.getKey());
+			}
+		}
+
+		for (String evictedKey : evictedKeys)
+			if (!CompilationCache.deleteRecursive(new File(this.directory, evictedKey)))
+				CompilationCache.LOGGER.warning(String.format("Could not delete compilation artifacts %s.", evictedKey));
+	}
+
+	/**
+	 * Gets the number of lookups that found cached artifacts.
+	 *
+	 * @return number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Gets the number of lookups that did not find cached artifacts.
+	 *
+	 * @return number of cache misses
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Gets the size (in bytes) of all cached artifacts.
+	 *
+	 * @return size of all cached artifacts
+	 */
+	public synchronized long getSizeBytes() {
+		return this.sizeBytes;
+	}
+
+	private static long copyRecursive(Path source, Path target, FileFilter filter) throws IOException {
+
+		Files.createDirectories(target);
+
+		long size = 0;
+		File[] children = source.toFile().listFiles(filter);
+		if (children == null)
+			throw new IOException(String.format("Could not list directory %s.", source));
+
+		for (File child : children)
+			if (child.isDirectory())
+				size += CompilationCache.copyRecursive(child.toPath(), target.resolve(child.getName()), file -> true);
+			else {
+				Files.copy(child.toPath(), target.resolve(child.getName()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+				size += child.length();
+			}
+
+		return size;
+	}
+
+	private static long sizeRecursive(Path directory) throws IOException {
+
+		long size = 0;
+		File[] children = directory.toFile().listFiles();
+		if (children == null)
+			throw new IOException(String.format("Could not list directory %s.", directory));
+
+		for (File child : children)
+			size += child.isDirectory() ? CompilationCache.sizeRecursive(child.toPath()) : child.length();
+
+		return size;
+	}
+
+	private static boolean deleteRecursive(File file) {
+
+		boolean ret = true;
+
+		File[] children; //recursively delete children
+		if (file.isDirectory() && (children = file.listFiles()) != null)
+			for (File child : children)
+				ret &= CompilationCache.deleteRecursive(child);
+
+		return file.delete() && ret;
+	}
+}
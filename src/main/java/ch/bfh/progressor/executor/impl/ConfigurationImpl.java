@@ -1,18 +1,26 @@
 package ch.bfh.progressor.executor.impl;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import ch.bfh.progressor.executor.api.Configuration;
 
 /**
- * Read-only implementation of a {@link Configuration} object.
+ * Read-only implementation of a {@link Configuration} object. <br>
+ * Options other than Docker and clean-up are changed by creating modified copies.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
 public class ConfigurationImpl implements Configuration {
 
 	private final boolean useDocker, cleanUp;
+	private boolean poolDockerContainers, useDockerEngineApi, cacheCompilations, cacheResults, useJavaWorkers, usePHPWorkers, useDotNetCompilerServer, useDotNetReleaseMode, usePythonWorkers;
+	private Set<String> uncachedResultLanguages;
+	private int javaScriptWorkerRuns;
 
 	/**
-	 * Constructs a new {@link Configuration} object.
+	 * Constructs a new {@link Configuration} object. <br>
+	 * All other options are taken from the {@link Configuration#DEFAULT_CONFIGURATION} and may be changed using the {@code with} methods.
 	 *
 	 * @param useDocker whether to use Docker containers
 	 * @param cleanUp   whether to clean up temporary files
@@ -21,6 +29,179 @@ public class ConfigurationImpl implements Configuration {
 
 		this.useDocker = useDocker;
 		this.cleanUp = cleanUp;
+		this.poolDockerContainers = Configuration.DEFAULT_CONFIGURATION.shouldPoolDockerContainers();
+		this.useDockerEngineApi = Configuration.DEFAULT_CONFIGURATION.shouldUseDockerEngineApi();
+		this.cacheCompilations = Configuration.DEFAULT_CONFIGURATION.shouldCacheCompilations();
+		this.cacheResults = true;
+		this.uncachedResultLanguages = Collections.emptySet();
+		this.useJavaWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUseJavaWorkers();
+		this.javaScriptWorkerRuns = Configuration.DEFAULT_CONFIGURATION.getJavaScriptWorkerRuns();
+		this.usePHPWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUsePHPWorkers();
+		this.useDotNetCompilerServer = Configuration.DEFAULT_CONFIGURATION.shouldUseDotNetCompilerServer();
+		this.useDotNetReleaseMode = Configuration.DEFAULT_CONFIGURATION.shouldUseDotNetReleaseMode();
+		this.usePythonWorkers = Configuration.DEFAULT_CONFIGURATION.shouldUsePythonWorkers();
+	}
+
+	private ConfigurationImpl(ConfigurationImpl configuration) {
+
+		this.useDocker = configuration.useDocker;
+		this.cleanUp = configuration.cleanUp;
+		this.poolDockerContainers = configuration.poolDockerContainers;
+		this.useDockerEngineApi = configuration.useDockerEngineApi;
+		this.cacheCompilations = configuration.cacheCompilations;
+		this.cacheResults = configuration.cacheResults;
+		this.uncachedResultLanguages = configuration.uncachedResultLanguages;
+		this.useJavaWorkers = configuration.useJavaWorkers;
+		this.javaScriptWorkerRuns = configuration.javaScriptWorkerRuns;
+		this.usePHPWorkers = configuration.usePHPWorkers;
+		this.useDotNetCompilerServer = configuration.useDotNetCompilerServer;
+		this.useDotNetReleaseMode = configuration.useDotNetReleaseMode;
+		this.usePythonWorkers = configuration.usePythonWorkers;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different Docker container pooling option.
+	 *
+	 * @param poolDockerContainers whether to pool Docker containers
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withPoolDockerContainers(boolean poolDockerContainers) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.poolDockerContainers = poolDockerContainers;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different Docker Engine API option.
+	 *
+	 * @param useDockerEngineApi whether to use the Docker Engine API
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUseDockerEngineApi(boolean useDockerEngineApi) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.useDockerEngineApi = useDockerEngineApi;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different compilation caching option.
+	 *
+	 * @param cacheCompilations whether to cache compilation artifacts
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withCacheCompilations(boolean cacheCompilations) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.cacheCompilations = cacheCompilations;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with different result caching options.
+	 *
+	 * @param cacheResults            whether to cache execution results
+	 * @param uncachedResultLanguages languages to never cache execution results for
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified options
+	 */
+	public ConfigurationImpl withCacheResults(boolean cacheResults, Set<String> uncachedResultLanguages) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.cacheResults = cacheResults;
+		configuration.uncachedResultLanguages = Collections.unmodifiableSet(new HashSet<>(uncachedResultLanguages));
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different Java worker option.
+	 *
+	 * @param useJavaWorkers whether to use Java worker JVMs
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUseJavaWorkers(boolean useJavaWorkers) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.useJavaWorkers = useJavaWorkers;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different Node.js worker option.
+	 *
+	 * @param javaScriptWorkerRuns number of requests per Node.js worker ({@code 0} to disable the workers)
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withJavaScriptWorkerRuns(int javaScriptWorkerRuns) {
+
+		if (javaScriptWorkerRuns < 0)
+			throw new IllegalArgumentException(String.format("Number of requests per Node.js worker %d is invalid.", javaScriptWorkerRuns));
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.javaScriptWorkerRuns = javaScriptWorkerRuns;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different PHP worker option.
+	 *
+	 * @param usePHPWorkers whether to use PHP workers
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUsePHPWorkers(boolean usePHPWorkers) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.usePHPWorkers = usePHPWorkers;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different Python worker option.
+	 *
+	 * @param usePythonWorkers whether to use Python zygotes
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUsePythonWorkers(boolean usePythonWorkers) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.usePythonWorkers = usePythonWorkers;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different .NET compiler server option.
+	 *
+	 * @param useDotNetCompilerServer whether to use the .NET compiler server
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUseDotNetCompilerServer(boolean useDotNetCompilerServer) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.useDotNetCompilerServer = useDotNetCompilerServer;
+		return configuration;
+	}
+
+	/**
+	 * Creates a copy of this {@link Configuration} object with a different .NET release mode option.
+	 *
+	 * @param useDotNetReleaseMode whether to use the .NET release mode
+	 *
+	 * @return a copy of this {@link Configuration} object with the specified option
+	 */
+	public ConfigurationImpl withUseDotNetReleaseMode(boolean useDotNetReleaseMode) {
+
+		ConfigurationImpl configuration = new ConfigurationImpl(this);
+		configuration.useDotNetReleaseMode = useDotNetReleaseMode;
+		return configuration;
 	}
 
 	@Override
@@ -32,4 +213,54 @@ public class ConfigurationImpl implements Configuration {
 	public boolean shouldCleanUp() {
 		return this.cleanUp;
 	}
+
+	@Override
+	public boolean shouldPoolDockerContainers() {
+		return this.poolDockerContainers;
+	}
+
+	@Override
+	public boolean shouldUseDockerEngineApi() {
+		return this.useDockerEngineApi;
+	}
+
+	@Override
+	public boolean shouldCacheCompilations() {
+		return this.cacheCompilations;
+	}
+
+	@Override
+	public boolean shouldCacheResults(String language) {
+		return this.cacheResults && !this.uncachedResultLanguages.contains(language);
+	}
+
+	@Override
+	public boolean shouldUseJavaWorkers() {
+		return this.useJavaWorkers;
+	}
+
+	@Override
+	public int getJavaScriptWorkerRuns() {
+		return this.javaScriptWorkerRuns;
+	}
+
+	@Override
+	public boolean shouldUsePHPWorkers() {
+		return this.usePHPWorkers;
+	}
+
+	@Override
+	public boolean shouldUsePythonWorkers() {
+		return this.usePythonWorkers;
+	}
+
+	@Override
+	public boolean shouldUseDotNetCompilerServer() {
+		return this.useDotNetCompilerServer;
+	}
+
+	@Override
+	public boolean shouldUseDotNetReleaseMode() {
+		return this.useDotNetReleaseMode;
+	}
 }
@@ -0,0 +1,58 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.IOException;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * Client for the Docker operations used by the {@link CodeExecutorDockerBase}.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public interface DockerClient {
+
+	/**
+	 * Starts a new detached container with a terminal attached. <br>
+	 * The specified directory is mounted as the container's working directory ({@code /opt}).
+	 *
+	 * @param imageName name of the Docker image to start a container of
+	 * @param directory host directory to mount into the container
+	 *
+	 * @return identifier of the started container
+	 *
+	 * @throws ExecutorException if the container could not be started
+	 */
+	String startContainer(String imageName, File directory) throws ExecutorException;
+
+	/**
+	 * Executes a command inside a running container. <br>
+	 * The standard error of the command is merged into its standard output.
+	 *
+	 * @param containerId      identifier of the container to execute the command in
+	 * @param workingDirectory working directory relative to the mounted directory or {@code null} to use the mounted directory
+	 * @param command          command to execute
+	 *
+	 * @return a {@link Process} representing the command
+	 *
+	 * @throws IOException if the command could not be started
+	 */
+	Process execute(String containerId, String workingDirectory, String... command) throws IOException;
+
+	/**
+	 * Stops a running container.
+	 *
+	 * @param containerId identifier of the container to stop
+	 *
+	 * @throws ExecutorException if the container could not be stopped
+	 */
+	void stopContainer(String containerId) throws ExecutorException;
+
+	/**
+	 * Removes a stopped container.
+	 *
+	 * @param containerId identifier of the container to remove
+	 *
+	 * @throws ExecutorException if the container could not be removed
+	 */
+	void removeContainer(String containerId) throws ExecutorException;
+}
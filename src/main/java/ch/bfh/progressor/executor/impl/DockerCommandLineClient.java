@@ -0,0 +1,77 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Scanner;
+import org.apache.commons.io.IOUtils;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * {@link DockerClient} forking the {@code docker} command-line client for every operation.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class DockerCommandLineClient implements DockerClient {
+
+	/**
+	 * Name of the Docker command-line client.
+	 */
+	public static final String DOCKER_EXECUTABLE = "docker";
+
+	@Override
+	public String startContainer(String imageName, File directory) throws ExecutorException {
+
+		String output = this.run(DockerCommandLineClient.DOCKER_EXECUTABLE, "run", "-td", "-v", String.format("%s:%sopt", directory.getAbsolutePath(), File.separator), imageName);
+
+		try (Scanner scanner = new Scanner(output)) {
+			if (scanner.hasNextLine())
+				return scanner.nextLine();
+			else
+				throw new ExecutorException("Could not read identifier of created docker container.");
+		}
+	}
+
+	@Override
+	public Process execute(String containerId, String workingDirectory, String... command) throws IOException {
+
+		String[] dockerOptions = workingDirectory != null ? new String[] { DockerCommandLineClient.DOCKER_EXECUTABLE, "exec", "-w", String.format("/opt/%s", workingDirectory), containerId }
+																										 : new String[] { DockerCommandLineClient.DOCKER_EXECUTABLE, "exec", containerId };
+
+		String[] dockerCommand = Arrays.copyOf(dockerOptions, dockerOptions.length + command.length);
+		System.arraycopy(command, 0, dockerCommand, dockerOptions.length, command.length);
+
+		return new ProcessBuilder(dockerCommand).redirectErrorStream(true).start();
+	}
+
+	@Override
+	public void stopContainer(String containerId) throws ExecutorException {
+
+		this.run(DockerCommandLineClient.DOCKER_EXECUTABLE, "stop", containerId);
+	}
+
+	@Override
+	public void removeContainer(String containerId) throws ExecutorException {
+
+		this.run(DockerCommandLineClient.DOCKER_EXECUTABLE, "rm", containerId);
+	}
+
+	private String run(String... command) throws ExecutorException {
+
+		try {
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			String output = IOUtils.toString(process.getInputStream(), CodeExecutorBase.CHARSET);
+
+			if (process.waitFor() != 0)
+				throw new ExecutorException("Could not successfully execute command.", output);
+
+			return output;
+
+		} catch (InterruptedException ex) {
+			throw new ExecutorException("Could not wait for command to execute in time.", ex);
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not execute command.", ex);
+		}
+	}
+}
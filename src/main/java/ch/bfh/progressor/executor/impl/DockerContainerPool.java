@@ -0,0 +1,393 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * Pool of pre-started Docker containers for a specific image. <br>
+ * Containers are started ahead of time, handed to requests, reset and returned to the pool.
+ * Resetting a container kills all processes left behind by the request and wipes the temporary directories and the mounted directory.
+ * Containers in which a command was aborted are not reused at all.
+ * The pool refills itself in the background and removes surplus containers after an idle timeout.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class DockerContainerPool {
+
+	/**
+	 * The default minimum number of idle containers to keep ready.
+	 */
+	public static final int DEFAULT_MIN_IDLE_CONTAINERS = 2;
+
+	/**
+	 * The default maximum number of idle containers to keep ready.
+	 */
+	public static final int DEFAULT_MAX_IDLE_CONTAINERS = 8;
+
+	/**
+	 * The default time (in milliseconds) after which surplus idle containers are removed.
+	 */
+	public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	/**
+	 * The default number of requests a container may serve before it is replaced.
+	 */
+	public static final int DEFAULT_MAX_LEASES = 25;
+
+	private static final Logger LOGGER = Logger.getLogger(DockerContainerPool.class.getName());
+
+	private static final long MAINTENANCE_INTERVAL_MILLIS = 1000;
+	private static final long START_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+	private static final int MAINTENANCE_THREADS = 2;
+	private static final long RESET_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+	private static final String[] RESET_COMMAND = { "sh", "-c", "kill -9 -1 2>/dev/null; for d in /tmp /var/tmp /dev/shm; do if [ -d $d ]; then find $d -mindepth 1 -delete || exit 1; fi; done" }; //kill does not signal the shell itself and the init process
+
+	private final String imageName;
+	private final DockerClient dockerClient;
+	private final boolean cleanUp;
+	private final int minIdleContainers, maxIdleContainers, maxLeases;
+	private final long idleTimeoutMillis;
+
+	private final Deque<Container> idleContainers = new ArrayDeque<>();
+	private final ScheduledExecutorService maintenance;
+	private int startingContainers;
+	private long retryStartMillis;
+	private boolean closed;
+
+	/**
+	 * Constructs a new {@link DockerContainerPool} using the default sizes and timeouts.
+	 *
+	 * @param imageName    name of the Docker image to start containers of
+	 * @param dockerClient client for the Docker operations
+	 * @param cleanUp      whether to remove stopped containers and their directories
+	 */
+	public DockerContainerPool(String imageName, DockerClient dockerClient, boolean cleanUp) {
+		this(imageName, dockerClient, cleanUp,
+				 DockerContainerPool.DEFAULT_MIN_IDLE_CONTAINERS, DockerContainerPool.DEFAULT_MAX_IDLE_CONTAINERS,
+				 DockerContainerPool.DEFAULT_IDLE_TIMEOUT_MILLIS, DockerContainerPool.DEFAULT_MAX_LEASES);
+	}
+
+	/**
+	 * Constructs a new {@link DockerContainerPool}.
+	 *
+	 * @param imageName         name of the Docker image to start containers of
+	 * @param dockerClient      client for the Docker operations
+	 * @param cleanUp           whether to remove stopped containers and their directories
+	 * @param minIdleContainers minimum number of idle containers to keep ready
+	 * @param maxIdleContainers maximum number of idle containers to keep ready
+	 * @param idleTimeoutMillis time (in milliseconds) after which surplus idle containers are removed
+	 * @param maxLeases         number of requests a container may serve before it is replaced
+	 */
+	public DockerContainerPool(String imageName, DockerClient dockerClient, boolean cleanUp,
+														 int minIdleContainers, int maxIdleContainers, long idleTimeoutMillis, int maxLeases) {
+
+		if (minIdleContainers < 0 || maxIdleContainers < minIdleContainers)
+			throw new IllegalArgumentException(String.format("Pool sizes %d to %d are invalid.", minIdleContainers, maxIdleContainers));
+
+		this.imageName = imageName;
+		this.dockerClient = dockerClient;
+		this.cleanUp = cleanUp;
+		this.minIdleContainers = minIdleContainers;
+		this.maxIdleContainers = maxIdleContainers;
+		this.idleTimeoutMillis = idleTimeoutMillis;
+		this.maxLeases = maxLeases;
+
+		this.maintenance = Executors.newScheduledThreadPool(DockerContainerPool.MAINTENANCE_THREADS, runnable -> {
+			Thread thread = new Thread(runnable, String.format("docker-pool-%s", imageName));
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.maintenance.scheduleWithFixedDelay(this::maintain, 0, DockerContainerPool.MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the name of the Docker image the containers are started of.
+	 *
+	 * @return name of the Docker image
+	 */
+	public String getImageName() {
+		return this.imageName;
+	}
+
+	/**
+	 * Gets the number of idle containers currently ready.
+	 *
+	 * @return number of idle containers
+	 */
+	public synchronized int getIdleContainerCount() {
+		return this.idleContainers.size();
+	}
+
+	/**
+	 * Leases a container from the pool. <br>
+	 * If no idle container is ready, a new one is started synchronously.
+	 *
+	 * @return a running container for exclusive use by the caller
+	 *
+	 * @throws ExecutorException if no container could be started
+	 */
+	public Container acquire() throws ExecutorException {
+
+		Container container;
+		synchronized (this) {
+			if (this.closed)
+				throw new ExecutorException("Could not lease a container from a closed pool.");
+
+			container = this.idleContainers.pollFirst(); //prefer the most recently used container
+		}
+
+		if (container == null)
+			container = this.startContainer();
+
+		container.leases++;
+		container.dirty = false;
+		this.schedule(this::refill);
+		return container;
+	}
+
+	/**
+	 * Returns a container to the pool. <br>
+	 * The container is reset in the background and either made available again or removed.
+	 *
+	 * @param container container to return
+	 */
+	public void release(Container container) {
+
+		if (!this.schedule(() -> {
+			boolean reuse = this.cleanUp && !container.dirty && container.leases < this.maxLeases && this.reset(container) && this.wipe(container);
+			if (!reuse || !this.offer(container))
+				this.destroy(container);
+		}))
+			this.destroy(container);
+	}
+
+	/**
+	 * Stops the background maintenance and removes all idle containers.
+	 */
+	public void close() {
+
+		List<Container> containers;
+		synchronized (this) {
+			this.closed = true;
+			containers = new ArrayList<>(this.idleContainers);
+			this.idleContainers.clear();
+		}
+
+		this.maintenance.shutdownNow();
+		containers.forEach(this::destroy);
+	}
+
+	private boolean schedule(Runnable task) {
+
+		try {
+			this.maintenance.execute(task);
+			return true;
+
+		} catch (RejectedExecutionException ex) {
+			DockerContainerPool.LOGGER.log(Level.FINE, "Pool maintenance has already been shut down.", ex);
+			return false;
+		}
+	}
+
+	private synchronized boolean offer(Container container) {
+
+		if (this.closed || this.idleContainers.size() >= this.maxIdleContainers)
+			return false;
+
+		container.idleSinceMillis = System.currentTimeMillis();
+		this.idleContainers.offerFirst(container);
+		return true;
+	}
+
+	private void maintain() {
+
+		this.evict();
+		this.refill();
+	}
+
+	private void evict() {
+
+		List<Container> expired = new ArrayList<>();
+		synchronized (this) {
+			final long expiryMillis = System.currentTimeMillis() - this.idleTimeoutMillis;
+			for (Iterator<Container> iterator = this.idleContainers.descendingIterator(); iterator.hasNext() && this.idleContainers.size() > this.minIdleContainers; ) {
+				Container container = iterator.next(); //least recently used containers are at the end
+				if (container.idleSinceMillis > expiryMillis)
+					break;
+
+				iterator.remove();
+				expired.add(container);
+			}
+		}
+
+		expired.forEach(this::destroy);
+	}
+
+	private void refill() {
+
+		while (true) {
+			synchronized (this) {
+				if (this.closed || this.idleContainers.size() + this.startingContainers >= this.minIdleContainers || System.currentTimeMillis() < this.retryStartMillis)
+					return;
+				this.startingContainers++;
+			}
+
+			Container container = null;
+			try {
+				container = this.startContainer();
+
+			} catch (ExecutorException ex) {
+				DockerContainerPool.LOGGER.log(Level.WARNING, "Could not start Docker container for pool.", ex);
+				synchronized (this) {
+					this.retryStartMillis = System.currentTimeMillis() + DockerContainerPool.START_RETRY_DELAY_MILLIS; //do not flood the log if Docker is unavailable
+				}
+
+			} finally {
+				synchronized (this) {
+					this.startingContainers--;
+				}
+			}
+
+			if (container == null)
+				return; //try again during next maintenance run
+			if (!this.offer(container)) {
+				this.destroy(container);
+				return;
+			}
+		}
+	}
+
+	private Container startContainer() throws ExecutorException {
+
+		final File directory = Paths.get("temp", UUID.randomUUID().toString()).toFile();
+		if (!directory.exists() && !directory.mkdirs())
+			throw new ExecutorException("Could not create a directory for the Docker container.");
+
+		try {
+			return new Container(this.dockerClient.startContainer(this.imageName, directory), directory);
+
+		} catch (ExecutorException ex) {
+			if (!DockerContainerPool.deleteRecursive(directory))
+				DockerContainerPool.LOGGER.warning("Could not delete container folder.");
+			throw ex;
+		}
+	}
+
+	private boolean reset(Container container) {
+
+		try {
+			Process process = this.dockerClient.execute(container.id, null, DockerContainerPool.RESET_COMMAND);
+			if (process.waitFor(DockerContainerPool.RESET_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+				return process.exitValue() == 0;
+
+			process.destroyForcibly();
+			DockerContainerPool.LOGGER.warning(String.format("Could not reset Docker container %s in time.", container.id));
+			return false;
+
+		} catch (IOException ex) {
+			DockerContainerPool.LOGGER.log(Level.WARNING, String.format("Could not reset Docker container %s.", container.id), ex);
+			return false;
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt(); //the pool is being closed
+			return false;
+		}
+	}
+
+	private boolean wipe(Container container) {
+
+		boolean wiped = true;
+		File[] children = container.directory.listFiles();
+		if (children != null)
+			for (File child : children)
+				wiped &= DockerContainerPool.deleteRecursive(child);
+
+		return wiped;
+	}
+
+	private void destroy(Container container) {
+
+		try {
+			this.dockerClient.stopContainer(container.id);
+			if (this.cleanUp)
+				this.dockerClient.removeContainer(container.id);
+
+		} catch (ExecutorException ex) {
+			DockerContainerPool.LOGGER.log(Level.WARNING, String.format("Could not remove Docker container %s.", container.id), ex);
+		}
+
+		if (this.cleanUp && !DockerContainerPool.deleteRecursive(container.directory))
+			DockerContainerPool.LOGGER.warning("Could not delete container folder.");
+	}
+
+	private static boolean deleteRecursive(File file) {
+
+		boolean ret = true;
+
+		File[] children; //recursively delete children
+		if (file.isDirectory() && (children = file.listFiles()) != null)
+			for (File child : children)
+				ret &= DockerContainerPool.deleteRecursive(child);
+
+		return file.delete() && ret;
+	}
+
+	/**
+	 * Represents a running Docker container owned by a pool.
+	 *
+	 * @author strut1, touwm1 &amp; weidj1
+	 */
+	public static final class Container {
+
+		private final String id;
+		private final File directory;
+		private long idleSinceMillis;
+		private int leases;
+		private volatile boolean dirty;
+
+		private Container(String id, File directory) {
+
+			this.id = id;
+			this.directory = directory;
+		}
+
+		/**
+		 * Gets the identifier of the container.
+		 *
+		 * @return identifier of the container
+		 */
+		public String getId() {
+			return this.id;
+		}
+
+		/**
+		 * Gets the host directory mounted into the container.
+		 *
+		 * @return host directory mounted into the container
+		 */
+		public File getDirectory() {
+			return this.directory;
+		}
+
+		/**
+		 * Marks the container as not reusable (e.g. because a command was aborted and may have left the container in any state).
+		 */
+		public void markDirty() {
+			this.dirty = true;
+		}
+	}
+}
@@ -0,0 +1,682 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.io.input.ClosedInputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * {@link DockerClient} talking to the Docker Engine API directly. <br>
+ * The container operations share a single persistent (keep-alive) connection.
+ * Every executed command gets a connection of its own because the daemon hijacks it for the command's output.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class DockerEngineClient implements DockerClient, Closeable {
+
+	/**
+	 * Path to the default Docker daemon socket.
+	 */
+	public static final String DEFAULT_SOCKET_PATH = "/var/run/docker.sock";
+
+	/**
+	 * Version of the Docker Engine API to use (Docker 1.12 or newer).
+	 */
+	public static final String API_VERSION = "v1.24";
+
+	private static final Logger LOGGER = Logger.getLogger(DockerEngineClient.class.getName());
+
+	private static final Charset HTTP_CHARSET = Charset.forName("ISO-8859-1");
+	private static final String HTTP_NEWLINE = "\r\n";
+	private static final int HTTP_BUFFER_SIZE = 8192;
+
+	private static final int PIPE_SIZE = 65536;
+	private static final int UNKNOWN_EXIT_CODE = -1;
+	private static final long EXIT_CODE_TIMEOUT_MILLIS = 1000;
+	private static final long EXIT_CODE_RETRY_MILLIS = 5;
+	private static final long KILL_TIMEOUT_MILLIS = 1000;
+
+	private static final String PID_FILE_FORMAT = "/tmp/.progressor-exec-%s";
+	private static final String PID_WRAPPER_SCRIPT = "echo $$ 2>/dev/null >\"$0\"; exec \"$@\""; //the PID file is passed as $0
+	private static final String KILL_SCRIPT = "exec 2>/dev/null; k() { kill -STOP $1; for c in $(cat /proc/$1/task/*/children); do k $c; done; kill -KILL $1; }; k $(cat \"$0\")"; //stop before killing, so no child escapes
+
+	private final Connector connector;
+	private Connection connection;
+
+	/**
+	 * Constructs a new {@link DockerEngineClient} using the default Docker daemon socket.
+	 */
+	public DockerEngineClient() {
+		this(new File(DockerEngineClient.DEFAULT_SOCKET_PATH));
+	}
+
+	/**
+	 * Constructs a new {@link DockerEngineClient} using a Unix domain socket.
+	 *
+	 * @param socketFile Unix domain socket of the Docker daemon
+	 */
+	public DockerEngineClient(File socketFile) {
+		this(() -> UnixSocketChannel.open(new UnixSocketAddress(socketFile)).socket());
+	}
+
+	/**
+	 * Constructs a new {@link DockerEngineClient} using a TCP socket.
+	 *
+	 * @param host name / IP address of the Docker daemon host
+	 * @param port port the Docker daemon listens on
+	 */
+	public DockerEngineClient(String host, int port) {
+		this(() -> new Socket(host, port));
+	}
+
+	private DockerEngineClient(Connector connector) {
+		this.connector = connector;
+	}
+
+	//*********************
+	//*** DOCKER CLIENT ***
+	//*********************
+
+	@Override
+	public String startContainer(String imageName, File directory) throws ExecutorException {
+
+		JSONObject body = new JSONObject().put("Image", imageName).put("Tty", true)
+																			.put("HostConfig", new JSONObject().put("Binds", new JSONArray().put(String.format("%s:%sopt", directory.getAbsolutePath(), File.separator))));
+		String containerId = this.requestJson("POST", "/containers/create", body, 201).getString("Id");
+
+		try {
+			this.request("POST", String.format("/containers/%s/start", DockerEngineClient.encode(containerId)), null, 204, 304);
+			return containerId;
+
+		} catch (ExecutorException ex) {
+			try {
+				this.removeContainer(containerId);
+			} catch (ExecutorException ex2) {
+				DockerEngineClient.LOGGER.log(Level.WARNING, String.format("Could not remove Docker container %s.", containerId), ex2);
+			}
+
+			throw ex;
+		}
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * The Engine API cannot kill single commands, so each command writes its PID to a file
+	 * and destroying the command kills it and its descendants using another command.
+	 */
+	@Override
+	public Process execute(String containerId, String workingDirectory, String... command) throws IOException {
+
+		final String pidFile = String.format(DockerEngineClient.PID_FILE_FORMAT, UUID.randomUUID());
+
+		String[] wrappedCommand = new String[command.length + 4];
+		wrappedCommand[0] = "sh";
+		wrappedCommand[1] = "-c";
+		wrappedCommand[2] = DockerEngineClient.PID_WRAPPER_SCRIPT;
+		wrappedCommand[3] = pidFile;
+		System.arraycopy(command, 0, wrappedCommand, 4, command.length);
+
+		return this.startCommand(containerId, workingDirectory, pidFile, wrappedCommand);
+	}
+
+	private ExecProcess startCommand(String containerId, String workingDirectory, String pidFile, String... command) throws IOException {
+
+		String execId;
+		try {
+			JSONObject body = new JSONObject().put("AttachStdout", true).put("AttachStderr", true).put("Tty", false).put("Cmd", new JSONArray(Arrays.asList(command)));
+			if (workingDirectory != null)
+				body.put("WorkingDir", String.format("/opt/%s", workingDirectory));
+			execId = this.requestJson("POST", String.format("/containers/%s/exec", DockerEngineClient.encode(containerId)), body, 201).getString("Id");
+
+		} catch (ExecutorException ex) {
+			throw new IOException("Could not create command in Docker container.", ex);
+		}
+
+		Connection connection = new Connection(this.connector.connect()); //the daemon hijacks this connection for the output
+		try {
+			connection.writeRequest("POST", String.format("/exec/%s/start", DockerEngineClient.encode(execId)), new JSONObject().put("Detach", false).put("Tty", false),
+															"Connection: Upgrade", "Upgrade: tcp");
+
+			Response response = connection.readResponseHead();
+			if (response.status != 101 && response.status != 200)
+				throw new IOException(String.format("Could not start command in Docker container (HTTP %d): %s", response.status, connection.readResponseBody(response)));
+
+			return new ExecProcess(containerId, execId, pidFile, connection);
+
+		} catch (IOException | RuntimeException ex) {
+			connection.close();
+			throw ex;
+		}
+	}
+
+	private void kill(String containerId, String pidFile) {
+
+		try {
+			ExecProcess killer = this.startCommand(containerId, null, null, "sh", "-c", DockerEngineClient.KILL_SCRIPT, pidFile);
+			if (!killer.waitFor(DockerEngineClient.KILL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+				DockerEngineClient.LOGGER.warning(String.format("Could not kill command in Docker container %s in time.", containerId));
+				killer.destroy();
+			}
+
+		} catch (IOException ex) {
+			DockerEngineClient.LOGGER.log(Level.WARNING, String.format("Could not kill command in Docker container %s.", containerId), ex);
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void stopContainer(String containerId) throws ExecutorException {
+
+		this.request("POST", String.format("/containers/%s/stop", DockerEngineClient.encode(containerId)), null, 204, 304);
+	}
+
+	@Override
+	public void removeContainer(String containerId) throws ExecutorException {
+
+		this.request("DELETE", String.format("/containers/%s?force=true", DockerEngineClient.encode(containerId)), null, 204);
+	}
+
+	/**
+	 * Closes the persistent connection to the Docker daemon.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (this.connection != null) {
+			this.connection.close();
+			this.connection = null;
+		}
+	}
+
+	//**********************
+	//*** HTTP EXCHANGES ***
+	//**********************
+
+	private JSONObject requestJson(String method, String path, JSONObject body, int... expectedStatuses) throws ExecutorException {
+
+		try {
+			return new JSONObject(this.request(method, path, body, expectedStatuses));
+
+		} catch (JSONException ex) {
+			throw new ExecutorException(String.format("Could not read response of Docker daemon to %s %s.", method, path), ex);
+		}
+	}
+
+	private String request(String method, String path, JSONObject body, int... expectedStatuses) throws ExecutorException {
+
+		Response response;
+		try {
+			response = this.exchange(method, path, body);
+
+		} catch (IOException ex) {
+			throw new ExecutorException(String.format("Could not communicate with Docker daemon for %s %s.", method, path), ex);
+		}
+
+		if (Arrays.stream(expectedStatuses).noneMatch(status -> status == response.status)) {
+			String message = response.body;
+			try {
+				message = new JSONObject(response.body).getString("message");
+			} catch (JSONException ex) {
+				//use plain response body
+			}
+
+			throw new ExecutorException(String.format("Docker daemon rejected %s %s (HTTP %d): %s", method, path, response.status, message));
+		}
+
+		return response.body;
+	}
+
+	private synchronized Response exchange(String method, String path, JSONObject body) throws IOException {
+
+		final boolean reused = this.connection != null;
+		if (!reused)
+			this.connection = new Connection(this.connector.connect());
+
+		try {
+			Response response;
+			try {
+				this.connection.writeRequest(method, path, body);
+				response = this.connection.readResponseHead();
+
+			} catch (NoResponseException ex) {
+				if (!reused)
+					throw ex;
+
+				this.connection.close(); //the daemon closed the idle connection, request has not been processed
+				this.connection = new Connection(this.connector.connect());
+				this.connection.writeRequest(method, path, body);
+				response = this.connection.readResponseHead();
+			}
+
+			response.body = this.connection.readResponseBody(response);
+			if (response.closeConnection)
+				this.close();
+
+			return response;
+
+		} catch (IOException | RuntimeException ex) {
+			this.close();
+			throw ex;
+		}
+	}
+
+	private static String encode(String pathSegment) {
+
+		try {
+			return URLEncoder.encode(pathSegment, CodeExecutorBase.CHARSET.name());
+
+		} catch (UnsupportedEncodingException ex) {
+			throw new IllegalStateException("Could not encode Docker identifier.", ex);
+		}
+	}
+
+	/**
+	 * Opens sockets to the Docker daemon.
+	 */
+	@FunctionalInterface
+	private interface Connector {
+
+		Socket connect() throws IOException;
+	}
+
+	/**
+	 * Signals that a connection has been closed before a response has been received.
+	 */
+	private static final class NoResponseException extends EOFException {
+
+		private static final long serialVersionUID = -4261350211264553063L;
+
+		private NoResponseException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * HTTP response (head) of the Docker daemon.
+	 */
+	private static final class Response {
+
+		private final int status;
+		private final Map<String, String> headers = new HashMap<>();
+		private boolean closeConnection;
+		private String body;
+
+		private Response(int status) {
+			this.status = status;
+		}
+	}
+
+	/**
+	 * HTTP/1.1 connection to the Docker daemon.
+	 */
+	private static final class Connection implements Closeable {
+
+		private final Socket socket;
+		private final BufferedInputStream input;
+		private final OutputStream output;
+
+		private Connection(Socket socket) throws IOException {
+
+			this.socket = socket;
+			this.input = new BufferedInputStream(socket.getInputStream(), DockerEngineClient.HTTP_BUFFER_SIZE);
+			this.output = socket.getOutputStream();
+		}
+
+		private void writeRequest(String method, String path, JSONObject body, String... headers) throws IOException {
+
+			byte[] content = body != null ? body.toString().getBytes(CodeExecutorBase.CHARSET) : new byte[0];
+
+			StringBuilder sb = new StringBuilder().append(method).append(" /").append(DockerEngineClient.API_VERSION).append(path).append(" HTTP/1.1").append(DockerEngineClient.HTTP_NEWLINE);
+			sb.append("Host: docker").append(DockerEngineClient.HTTP_NEWLINE);
+			if (body != null)
+				sb.append("Content-Type: application/json").append(DockerEngineClient.HTTP_NEWLINE);
+			sb.append("Content-Length: ").append(content.length).append(DockerEngineClient.HTTP_NEWLINE);
+			for (String header : headers)
+				sb.append(header).append(DockerEngineClient.HTTP_NEWLINE);
+			sb.append(DockerEngineClient.HTTP_NEWLINE);
+
+			try {
+				this.output.write(sb.toString().getBytes(DockerEngineClient.HTTP_CHARSET));
+				this.output.write(content);
+				this.output.flush();
+
+			} catch (IOException ex) {
+				NoResponseException noResponseException = new NoResponseException("Could not send request to Docker daemon.");
+				noResponseException.initCause(ex);
+				throw noResponseException;
+			}
+		}
+
+		private Response readResponseHead() throws IOException {
+
+			String statusLine;
+			try {
+				statusLine = this.readLine();
+			} catch (EOFException ex) {
+				throw new NoResponseException("Docker daemon closed the connection.");
+			}
+
+			String[] statusParts = statusLine.split(" ", 3);
+			if (statusParts.length < 2 || !statusParts[0].startsWith("HTTP/"))
+				throw new IOException(String.format("Could not read HTTP status line '%s'.", statusLine));
+
+			Response response;
+			try {
+				response = new Response(Integer.parseInt(statusParts[1]));
+			} catch (NumberFormatException ex) {
+				throw new IOException(String.format("Could not read HTTP status line '%s'.", statusLine), ex);
+			}
+
+			String line;
+			while (!(line = this.readLine()).isEmpty()) {
+				int separator = line.indexOf(':');
+				if (separator > 0)
+					response.headers.put(line.substring(0, separator).trim().toLowerCase(), line.substring(separator + 1).trim());
+			}
+
+			response.closeConnection = "close".equalsIgnoreCase(response.headers.get("connection"));
+			return response;
+		}
+
+		private String readResponseBody(Response response) throws IOException {
+
+			ByteArrayOutputStream body = new ByteArrayOutputStream();
+			String contentLength = response.headers.get("content-length");
+
+			if ("chunked".equalsIgnoreCase(response.headers.get("transfer-encoding"))) {
+				int chunkSize;
+				do {
+					String chunkHeader = this.readLine();
+					int extension = chunkHeader.indexOf(';');
+					try {
+						chunkSize = Integer.parseInt((extension < 0 ? chunkHeader : chunkHeader.substring(0, extension)).trim(), 16);
+					} catch (NumberFormatException ex) {
+						throw new IOException(String.format("Could not read HTTP chunk size '%s'.", chunkHeader), ex);
+					}
+
+					this.readFully(body, chunkSize);
+					if (chunkSize > 0 && !this.readLine().isEmpty())
+						throw new IOException("Could not read end of HTTP chunk.");
+				} while (chunkSize > 0);
+
+				while (!this.readLine().isEmpty()) ; //skip trailers
+
+			} else if (contentLength != null)
+				try {
+					this.readFully(body, Integer.parseInt(contentLength));
+				} catch (NumberFormatException ex) {
+					throw new IOException(String.format("Could not read HTTP content length '%s'.", contentLength), ex);
+				}
+
+			else if (response.status != 204 && response.status != 304 && response.status >= 200) { //body is delimited by the end of the connection
+				byte[] buffer = new byte[DockerEngineClient.HTTP_BUFFER_SIZE];
+				for (int readBytes; (readBytes = this.input.read(buffer)) >= 0; )
+					body.write(buffer, 0, readBytes);
+				response.closeConnection = true;
+			}
+
+			return new String(body.toByteArray(), CodeExecutorBase.CHARSET);
+		}
+
+		private void readFully(OutputStream target, int length) throws IOException {
+
+			byte[] buffer = new byte[Math.min(length, DockerEngineClient.HTTP_BUFFER_SIZE)];
+			for (int remaining = length, readBytes; remaining > 0; remaining -= readBytes) {
+				if ((readBytes = this.input.read(buffer, 0, Math.min(remaining, buffer.length))) < 0)
+					throw new EOFException("Docker daemon closed the connection before sending the whole response.");
+				target.write(buffer, 0, readBytes);
+			}
+		}
+
+		private String readLine() throws IOException {
+
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			for (int b; (b = this.input.read()) != '\n'; ) {
+				if (b < 0)
+					throw new EOFException("Docker daemon closed the connection unexpectedly.");
+				if (b != '\r')
+					line.write(b);
+			}
+
+			return new String(line.toByteArray(), DockerEngineClient.HTTP_CHARSET);
+		}
+
+		@Override
+		public void close() {
+
+			try {
+				this.socket.close();
+			} catch (IOException ex) {
+				DockerEngineClient.LOGGER.log(Level.FINE, "Could not close connection to Docker daemon.", ex);
+			}
+		}
+	}
+
+	//************************
+	//*** EXECUTED COMMAND ***
+	//************************
+
+	/**
+	 * Output of a command executed inside a container. <br>
+	 * The daemon multiplexes standard output and error into frames with an 8-byte header:
+	 * the stream type, three bytes of padding and the (big-endian) length of the payload.
+	 * Both streams are merged like {@link ProcessBuilder#redirectErrorStream(boolean)} does.
+	 */
+	private static final class MultiplexedInputStream extends InputStream {
+
+		private static final int HEADER_LENGTH = 8;
+
+		private final InputStream input;
+		private int frameRemaining;
+
+		private MultiplexedInputStream(InputStream input) {
+			this.input = input;
+		}
+
+		@Override
+		public int read() throws IOException {
+
+			byte[] b = new byte[1];
+			return this.read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+
+			if (len == 0)
+				return 0;
+
+			while (this.frameRemaining == 0)
+				if (!this.readHeader())
+					return -1;
+
+			int readBytes = this.input.read(b, off, Math.min(len, this.frameRemaining));
+			if (readBytes < 0)
+				throw new EOFException("Docker daemon closed the connection within an output frame.");
+
+			this.frameRemaining -= readBytes;
+			return readBytes;
+		}
+
+		private boolean readHeader() throws IOException {
+
+			byte[] header = new byte[MultiplexedInputStream.HEADER_LENGTH];
+			for (int position = 0, readBytes; position < header.length; position += readBytes)
+				if ((readBytes = this.input.read(header, position, header.length - position)) < 0)
+					if (position > 0)
+						throw new EOFException("Docker daemon closed the connection within a frame header.");
+					else
+						return false;
+
+			this.frameRemaining = (header[4] & 0xFF) << 24 | (header[5] & 0xFF) << 16 | (header[6] & 0xFF) << 8 | header[7] & 0xFF;
+			return true;
+		}
+	}
+
+	/**
+	 * {@link Process} representing a command executed inside a container. <br>
+	 * Like the operating system does for local processes, a pump buffers the output of the command
+	 * so the end of the output can be awaited with a timeout.
+	 * The exit code is inspected once the end of the output has been reached.
+	 */
+	private final class ExecProcess extends Process {
+
+		private final String containerId;
+		private final String execId;
+		private final String pidFile;
+		private final Connection connection;
+		private final PipedInputStream output = new PipedInputStream(DockerEngineClient.PIPE_SIZE);
+		private final CountDownLatch outputFinished = new CountDownLatch(1);
+		private volatile Integer exitCode;
+		private volatile boolean destroyed;
+
+		private ExecProcess(String containerId, String execId, String pidFile, Connection connection) throws IOException {
+
+			this.containerId = containerId;
+			this.execId = execId;
+			this.pidFile = pidFile;
+			this.connection = connection;
+
+			final PipedOutputStream sink = new PipedOutputStream(this.output);
+			Thread pump = new Thread(() -> this.pump(sink), String.format("docker-exec-%s", execId));
+			pump.setDaemon(true);
+			pump.start();
+		}
+
+		private void pump(PipedOutputStream sink) {
+
+			try (OutputStream closeableSink = sink) {
+				InputStream input = new MultiplexedInputStream(this.connection.input);
+				byte[] buffer = new byte[DockerEngineClient.HTTP_BUFFER_SIZE];
+				for (int readBytes; (readBytes = input.read(buffer)) >= 0; ) {
+					closeableSink.write(buffer, 0, readBytes);
+					closeableSink.flush(); //wake up waiting readers
+				}
+
+			} catch (IOException ex) {
+				if (!this.destroyed)
+					DockerEngineClient.LOGGER.log(Level.WARNING, String.format("Could not read output of command %s in Docker container.", this.execId), ex);
+
+			} finally {
+				this.connection.close();
+				this.outputFinished.countDown();
+			}
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return NullOutputStream.NULL_OUTPUT_STREAM; //standard input is not attached
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return this.output;
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return ClosedInputStream.CLOSED_INPUT_STREAM; //merged into standard output
+		}
+
+		@Override
+		public int waitFor() throws InterruptedException {
+
+			this.outputFinished.await(); //the daemon closes the output when the command exits
+			return this.fetchExitCode();
+		}
+
+		@Override
+		public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+
+			if (!this.outputFinished.await(timeout, unit))
+				return false;
+
+			this.fetchExitCode();
+			return true;
+		}
+
+		/**
+		 * Fetches the exit code after the end of the output has been reached. <br>
+		 * The daemon may report the exit code slightly after closing the output, so the command is inspected again for a short time.
+		 * If the exit code cannot be fetched, the command is considered failed (so the executor reports an {@link ExecutorException}).
+		 */
+		private synchronized int fetchExitCode() throws InterruptedException {
+
+			final long maxTimeMillis = System.currentTimeMillis() + DockerEngineClient.EXIT_CODE_TIMEOUT_MILLIS;
+			while (this.exitCode == null)
+				try {
+					JSONObject inspection = DockerEngineClient.this.requestJson("GET", String.format("/exec/%s/json", DockerEngineClient.encode(this.execId)), null, 200);
+					if (!inspection.getBoolean("Running"))
+						this.exitCode = inspection.getInt("ExitCode");
+
+					else if (System.currentTimeMillis() >= maxTimeMillis) {
+						DockerEngineClient.LOGGER.warning(String.format("Command %s in Docker container is still running after closing its output.", this.execId));
+						this.exitCode = DockerEngineClient.UNKNOWN_EXIT_CODE;
+
+					} else
+						Thread.sleep(DockerEngineClient.EXIT_CODE_RETRY_MILLIS);
+
+				} catch (ExecutorException | JSONException ex) {
+					DockerEngineClient.LOGGER.log(Level.WARNING, String.format("Could not inspect command %s in Docker container.", this.execId), ex);
+					this.exitCode = DockerEngineClient.UNKNOWN_EXIT_CODE;
+				}
+
+			return this.exitCode;
+		}
+
+		@Override
+		public int exitValue() {
+
+			if (this.exitCode == null)
+				throw new IllegalThreadStateException("Command in Docker container has not exited.");
+
+			return this.exitCode;
+		}
+
+		@Override
+		public boolean isAlive() {
+			return this.exitCode == null && !this.destroyed;
+		}
+
+		@Override
+		public void destroy() {
+
+			if (this.destroyed)
+				return;
+
+			this.destroyed = true;
+			if (this.exitCode == null && this.pidFile != null)
+				DockerEngineClient.this.kill(this.containerId, this.pidFile);
+
+			this.connection.close();
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.apache.commons.io.FileUtils;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.ExecutorPlatform;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.TestCase;
+
+/**
+ * Base class for code execution engines of .NET languages (compiled into an assembly executed by the .NET Framework or Mono). <br>
+ * Supports the shared Roslyn compiler server and the release mode with a shared helper assembly containing the prelude of the template.
+ * The code fragments of a batch are compiled separately, as the compilers write one assembly per invocation
+ * and a combined assembly would place the code of all code fragments in the environment of each one.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public abstract class DotNetExecutorBase extends CodeExecutorDockerBase {
+
+	/**
+	 * Name of the executable.
+	 */
+	protected static final String EXECUTABLE_NAME = "main";
+
+	/**
+	 * Filter for the compilation artifacts (the compiled assembly and its debug symbols).
+	 */
+	protected static final FileFilter COMPILATION_ARTIFACT_FILTER = file -> file.getName().startsWith(String.format("%s.exe", DotNetExecutorBase.EXECUTABLE_NAME)) || file.getName().equals(String.format("%s.pdb", DotNetExecutorBase.EXECUTABLE_NAME));
+
+	/**
+	 * Name of the assembly containing the helpers of the template.
+	 */
+	protected static final String HELPER_ASSEMBLY_NAME = "ProgramHelpers";
+
+	/**
+	 * Filter for the helper assembly (including its ahead-of-time compiled image).
+	 */
+	protected static final FileFilter HELPER_ASSEMBLY_FILTER = file -> file.getName().startsWith(String.format("%s.dll", DotNetExecutorBase.HELPER_ASSEMBLY_NAME));
+
+	private static final Logger LOGGER = Logger.getLogger(DotNetExecutorBase.class.getName());
+
+	private static final Map<String, File> HELPER_ASSEMBLY_DIRECTORIES = new ConcurrentHashMap<>(); //one per language
+
+	@Override
+	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
+
+		final File codeFile = new File(codeDirectory, String.format("%s.%s", DotNetExecutorBase.EXECUTABLE_NAME, this.getCodeFileExtension()));
+		final File executableFile = new File(codeDirectory, String.format("%s.exe", DotNetExecutorBase.EXECUTABLE_NAME));
+
+		//*********************
+		//*** GENERATE CODE ***
+		//*********************
+		final boolean useHelperAssembly = this.willUseHelperAssembly();
+		if (useHelperAssembly) {
+			this.copyHelperAssembly(codeDirectory);
+			this.generateProgramFile(codeFile, codeFragment, testCases); //the helper assembly already contains the prelude
+		} else
+			this.generateCodeFile(codeFile, codeFragment, testCases);
+
+		//********************
+		//*** COMPILE CODE ***
+		//********************
+		final List<String> compilationArguments = new ArrayList<>(Collections.singletonList(codeFile.getName()));
+		if (useHelperAssembly)
+			compilationArguments.add(String.format("/reference:%s.dll", DotNetExecutorBase.HELPER_ASSEMBLY_NAME));
+
+		final String[] compilationCommand = this.getCompilationCommand(compilationArguments.toArray(new String[0]));
+		final String compilationKey = this.getCompilationKey(String.format("%s%n%s", String.join(" ", compilationCommand),
+																																		 useHelperAssembly ? this.getProgram(codeFragment, testCases) : this.getCodeFile(codeFragment, testCases)));
+		final long compilationStart = System.nanoTime();
+
+		final boolean compilationCached = this.restoreCompilation(compilationKey, codeDirectory);
+		if (!compilationCached) {
+			try {
+				this.executeSafeCommand(codeDirectory, compilationCommand);
+
+			} catch (ExecutorException ex) {
+				throw new ExecutorException("Could not compile the user code.", ex);
+			}
+
+			this.storeCompilation(compilationKey, codeDirectory, DotNetExecutorBase.COMPILATION_ARTIFACT_FILTER);
+		}
+
+		final long compilationEnd = System.nanoTime();
+
+		//********************
+		//*** EXECUTE CODE ***
+		//********************
+		String executablePath = this.willUseDocker() ? new File(CodeExecutorBase.CURRENT_DIRECTORY, executableFile.getName()).getPath() : executableFile.getAbsolutePath();
+		String[] executionArguments = CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS
+																	? new String[] { executableFile.getAbsolutePath() }
+																	: this.willUseReleaseMode() ? new String[] { "mono", executablePath } : new String[] { "mono", executablePath, "--debug" };
+
+		final long executionStart = System.nanoTime();
+
+		String executionOutput;
+		try {
+			executionOutput = this.executeCommand(codeDirectory, executionArguments);
+
+		} catch (ExecutorException ex) {
+			throw new ExecutorException("Could not execute the user code.", ex);
+		}
+
+		final long executionEnd = System.nanoTime();
+
+		//****************************
+		//*** TEST CASE EVALUATION ***
+		//****************************
+		return this.createResults(executionOutput,
+															compilationCached ? 0 : (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
+	}
+
+	/**
+	 * Gets the extension of the code files (without the dot).
+	 *
+	 * @return extension of the code files
+	 */
+	protected abstract String getCodeFileExtension();
+
+	/**
+	 * Gets the name of the compiler started per compilation if the compiler server is not used.
+	 *
+	 * @return name of the compiler
+	 */
+	protected abstract String getCompilerName();
+
+	/**
+	 * Gets the name of the Roslyn compiler connecting to the shared compiler server.
+	 *
+	 * @return name of the Roslyn compiler
+	 */
+	protected abstract String getCompilerServerName();
+
+	/**
+	 * Gets the namespace imports the helpers of the template depend on.
+	 *
+	 * @return namespace imports of the helpers
+	 */
+	protected abstract String getHelperImports();
+
+	/**
+	 * Gets the command to compile the code. <br>
+	 * Uses the shared Roslyn compiler server if enabled, otherwise a new compiler is started.
+	 *
+	 * @param arguments the code file and additional arguments of the compilation
+	 *
+	 * @return the command to compile the code
+	 */
+	protected String[] getCompilationCommand(String... arguments) {
+
+		final List<String> command = new ArrayList<>();
+		if (this.willUseCompilerServer())
+			command.addAll(Arrays.asList(this.getCompilerServerName(), "/shared", "/nologo"));
+		else
+			command.add(this.getCompilerName());
+
+		command.addAll(Arrays.asList(arguments));
+		command.add(this.willUseReleaseMode() ? "/optimize+" : "/debug");
+
+		return command.toArray(new String[0]);
+	}
+
+	/**
+	 * Gets whether to compile the custom code with the shared Roslyn compiler server.
+	 *
+	 * @return whether to use the compiler server
+	 */
+	protected boolean willUseCompilerServer() {
+		return this.getConfiguration().shouldUseDotNetCompilerServer() && !this.willUseDocker();
+	}
+
+	/**
+	 * Gets whether to compile and execute the custom code without debug information.
+	 *
+	 * @return whether to use the release mode
+	 */
+	protected boolean willUseReleaseMode() {
+		return this.getConfiguration().shouldUseDotNetReleaseMode();
+	}
+
+	/**
+	 * Gets whether to reference the shared helper assembly instead of compiling the helpers of the template with the custom code.
+	 *
+	 * @return whether to use the helper assembly
+	 */
+	protected boolean willUseHelperAssembly() {
+		return this.willUseReleaseMode() && !this.willUseDocker();
+	}
+
+	/**
+	 * Copies the helper assembly (compiling it first if necessary) into a directory.
+	 *
+	 * @param directory the directory to copy the helper assembly to
+	 *
+	 * @throws ExecutorException if the helper assembly cannot be compiled or copied
+	 */
+	protected void copyHelperAssembly(File directory) throws ExecutorException {
+
+		try {
+			for (File file : this.getHelperAssemblyDirectory().listFiles(DotNetExecutorBase.HELPER_ASSEMBLY_FILTER))
+				Files.copy(file.toPath(), new File(directory, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not copy the helper assembly.", ex);
+		}
+	}
+
+	private File getHelperAssemblyDirectory() throws ExecutorException {
+
+		synchronized (DotNetExecutorBase.HELPER_ASSEMBLY_DIRECTORIES) {
+			File directory = DotNetExecutorBase.HELPER_ASSEMBLY_DIRECTORIES.get(this.getLanguage());
+			if (directory == null) {
+				final String codeFileName = String.format("%s.%s", DotNetExecutorBase.HELPER_ASSEMBLY_NAME, this.getCodeFileExtension());
+				final String assemblyFileName = String.format("%s.dll", DotNetExecutorBase.HELPER_ASSEMBLY_NAME);
+
+				final File newDirectory;
+				try {
+					newDirectory = Files.createTempDirectory(String.format("progressor-%s-helpers", this.getLanguage())).toFile();
+
+				} catch (IOException ex) {
+					throw new ExecutorException("Could not generate the helper assembly.", ex);
+				}
+
+				try {
+					Files.write(new File(newDirectory, codeFileName).toPath(),
+											String.format("%s%s%s", this.getHelperImports(), CodeExecutorBase.NEWLINE, this.getPrelude()).getBytes(CodeExecutorBase.CHARSET));
+					this.executeSafeCommand(newDirectory, this.getCompilationCommand("/target:library", String.format("/out:%s", assemblyFileName), codeFileName));
+
+				} catch (IOException | ExecutorException ex) {
+					FileUtils.deleteQuietly(newDirectory);
+					throw new ExecutorException("Could not compile the helper assembly.", ex);
+				}
+
+				Runtime.getRuntime().addShutdownHook(new Thread(() -> FileUtils.deleteQuietly(newDirectory))); //do not leave the helper assembly behind
+
+				if (CodeExecutorBase.PLATFORM != ExecutorPlatform.WINDOWS)
+					try {
+						this.executeSafeCommand(newDirectory, "mono", "--aot", "-O=all", assemblyFileName);
+
+					} catch (ExecutorException ex) { //the assembly is still JIT compiled without its ahead-of-time compiled image
+						DotNetExecutorBase.LOGGER.log(Level.WARNING, "Could not compile the helper assembly ahead-of-time.", ex);
+					}
+
+				DotNetExecutorBase.HELPER_ASSEMBLY_DIRECTORIES.put(this.getLanguage(), directory = newDirectory);
+			}
+
+			return directory;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * Compiles Java code files inside the current JVM without touching the file system. <br>
+ * The compiler and its file managers (which cache the index of the platform classes) are reused,
+ * so compiling a typical code file takes in the order of a hundred milliseconds once the compiler is warm (instead of about a second for a {@code javac} process).
+ * The compiler reports its diagnostics in the same form as the {@code javac} command.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public final class InMemoryJavaCompiler {
+
+	private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+
+	private static final Queue<StandardJavaFileManager> FILE_MANAGERS = new ConcurrentLinkedQueue<>();
+
+	private InMemoryJavaCompiler() {
+	}
+
+	/**
+	 * Gets whether the Java compiler is available in the current JVM (i.e. whether it is a JDK).
+	 *
+	 * @return whether the Java compiler is available
+	 */
+	public static boolean isAvailable() {
+		return InMemoryJavaCompiler.COMPILER != null;
+	}
+
+	/**
+	 * Compiles one or several code files. <br>
+	 * Only the platform classes are on the class path, so the code files can only reference each other.
+	 *
+	 * @param codeFiles content of the code files by their relative path (e.g. {@code Program.java})
+	 *
+	 * @return the compiled classes by their binary name
+	 *
+	 * @throws ExecutorException if the compiler is not available or the code files could not be compiled
+	 */
+	public static Map<String, byte[]> compile(Map<String, String> codeFiles) throws ExecutorException {
+
+		if (!InMemoryJavaCompiler.isAvailable())
+			throw new ExecutorException("Could not find a Java compiler in the current JVM.");
+
+		List<JavaFileObject> compilationUnits = new ArrayList<>(codeFiles.size());
+		for (Map.Entry<String, String> codeFile : codeFiles.entrySet())
+			compilationUnits.add(new SourceFileObject(codeFile.getKey(), codeFile.getValue()));
+
+		StandardJavaFileManager standardFileManager = InMemoryJavaCompiler.FILE_MANAGERS.poll();
+		try {
+			if (standardFileManager == null) {
+				standardFileManager = InMemoryJavaCompiler.COMPILER.getStandardFileManager(null, null, CodeExecutorBase.CHARSET);
+				standardFileManager.setLocation(StandardLocation.CLASS_PATH, Collections.emptyList()); //do not expose the classes of the Executor
+			}
+
+			final ClassFileManager fileManager = new ClassFileManager(standardFileManager);
+			final StringWriter output = new StringWriter();
+			if (!InMemoryJavaCompiler.COMPILER.getTask(output, fileManager, null, null, null, compilationUnits).call())
+				throw new ExecutorException("Could not successfully compile the code.", output.toString());
+
+			return fileManager.getClasses();
+
+		} catch (IOException | RuntimeException ex) {
+			standardFileManager = null; //the state of the file manager is unknown, do not reuse it
+			throw new ExecutorException("Could not compile the code.", ex);
+
+		} finally {
+			if (standardFileManager != null)
+				InMemoryJavaCompiler.FILE_MANAGERS.offer(standardFileManager);
+		}
+	}
+
+	/**
+	 * Writes compiled classes to a directory, so that they can be loaded by another JVM or cached.
+	 *
+	 * @param classes   compiled classes by their binary name
+	 * @param directory directory to write the class files to (the root of the package hierarchy)
+	 *
+	 * @throws ExecutorException if a class file could not be written
+	 */
+	public static void writeClasses(Map<String, byte[]> classes, File directory) throws ExecutorException {
+
+		try {
+			for (Map.Entry<String, byte[]> compiledClass : classes.entrySet()) {
+				File classFile = new File(directory, String.format("%s.class", compiledClass.getKey().replace('.', File.separatorChar)));
+				if (!classFile.getParentFile().exists() && !classFile.getParentFile().mkdirs())
+					throw new IOException(String.format("Could not create directory for class %s.", compiledClass.getKey()));
+
+				Files.write(classFile.toPath(), compiledClass.getValue());
+			}
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not write the compiled classes.", ex);
+		}
+	}
+
+	/**
+	 * Code file kept in memory.
+	 */
+	private static final class SourceFileObject extends SimpleJavaFileObject {
+
+		private final String path, code;
+
+		private SourceFileObject(String path, String code) {
+
+			super(URI.create(String.format("string:///%s", path.replace(File.separatorChar, '/'))), Kind.SOURCE);
+			this.path = path;
+			this.code = code;
+		}
+
+		@Override
+		public String getName() {
+			return this.path; //used in the diagnostics
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return this.code;
+		}
+	}
+
+	/**
+	 * Class file kept in memory.
+	 */
+	private static final class ClassFileObject extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private ClassFileObject(String className) {
+			super(URI.create(String.format("bytes:///%s.class", className.replace('.', '/'))), Kind.CLASS);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return this.bytes;
+		}
+	}
+
+	/**
+	 * File manager keeping the class files in memory.
+	 */
+	private static final class ClassFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+		private final Map<String, ClassFileObject> classFiles = new HashMap<>();
+
+		private ClassFileManager(JavaFileManager fileManager) {
+			super(fileManager);
+		}
+
+		@Override
+		public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+
+			ClassFileObject classFile = new ClassFileObject(className);
+			this.classFiles.put(className, classFile);
+			return classFile;
+		}
+
+		@Override
+		public void close() {
+			//the standard file manager is reused
+		}
+
+		private Map<String, byte[]> getClasses() {
+
+			Map<String, byte[]> classes = new HashMap<>(this.classFiles.size());
+			for (Map.Entry<String, ClassFileObject> classFile : this.classFiles.entrySet())
+				classes.put(classFile.getKey(), classFile.getValue().bytes.toByteArray());
+
+			return classes;
+		}
+	}
+
+	/**
+	 * Class loader defining compiled classes directly from memory. <br>
+	 * Only the platform classes are visible to the compiled classes.
+	 */
+	public static final class CompiledClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classes;
+
+		/**
+		 * Constructs a new {@link CompiledClassLoader}.
+		 *
+		 * @param classes compiled classes by their binary name
+		 */
+		public CompiledClassLoader(Map<String, byte[]> classes) {
+
+			super(ClassLoader.getSystemClassLoader().getParent());
+			this.classes = new HashMap<>(classes);
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+
+			byte[] bytes = this.classes.remove(name); //each class is only defined once
+			if (bytes == null)
+				throw new ClassNotFoundException(name);
+
+			return this.defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
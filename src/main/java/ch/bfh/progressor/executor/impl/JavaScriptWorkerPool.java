@@ -0,0 +1,106 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of persistent Node.js workers executing JavaScript programs. <br>
+ * A worker evaluates each program in a fresh {@code vm} context with a timeout,
+ * after running the prelude of the template in it. The prelude is only compiled once and its V8 code cache is shared by all workers.
+ * A worker is replaced after a number of programs or as soon as a program leaves more than half of its heap behind.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class JavaScriptWorkerPool extends WorkerPool {
+
+	/**
+	 * The default number of idle workers to keep ready.
+	 */
+	public static final int DEFAULT_IDLE_WORKERS = 2;
+
+	/**
+	 * The default maximum heap size of a worker in MiB.
+	 */
+	public static final int DEFAULT_MAX_HEAP_MEGABYTES = 256;
+
+	/**
+	 * The default time a program may run inside a worker before it is aborted by the worker itself.
+	 */
+	public static final long DEFAULT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private static final String WORKER_PATH = "/ch/bfh/progressor/executor/languages/javascript/worker.js";
+
+	private final String prelude;
+	private final int maxHeapMegabytes;
+	private final long timeoutMillis;
+	private String workerCode;
+
+	/**
+	 * Constructs a new {@link JavaScriptWorkerPool} using the default sizes.
+	 *
+	 * @param prelude code every program depends on (e.g. helper functions of the template)
+	 * @param maxUses number of programs a worker may execute before it is replaced
+	 */
+	public JavaScriptWorkerPool(String prelude, int maxUses) {
+		this(prelude, JavaScriptWorkerPool.DEFAULT_IDLE_WORKERS, maxUses, JavaScriptWorkerPool.DEFAULT_MAX_HEAP_MEGABYTES, JavaScriptWorkerPool.DEFAULT_TIMEOUT_MILLIS);
+	}
+
+	/**
+	 * Constructs a new {@link JavaScriptWorkerPool}.
+	 *
+	 * @param prelude          code every program depends on (e.g. helper functions of the template)
+	 * @param idleWorkers      number of idle workers to keep ready
+	 * @param maxUses          number of programs a worker may execute before it is replaced
+	 * @param maxHeapMegabytes maximum heap size of a worker in MiB
+	 * @param timeoutMillis    time a program may run inside a worker before it is aborted by the worker itself
+	 */
+	public JavaScriptWorkerPool(String prelude, int idleWorkers, int maxUses, int maxHeapMegabytes, long timeoutMillis) {
+
+		super("Node.js worker", idleWorkers, maxUses);
+		this.prelude = prelude;
+		this.maxHeapMegabytes = maxHeapMegabytes;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Executes a JavaScript program in a worker. <br>
+	 * The program must not contain the prelude, the worker runs it in the same context first.
+	 *
+	 * @param codeDirectory the working directory for the program
+	 * @param codeFile      name of the code file relative to the working directory
+	 *
+	 * @return a {@link Process} representing the execution of the program
+	 *
+	 * @throws IOException if no worker could be started or the program could not be sent to it
+	 * @see WorkerPool#execute(String...)
+	 */
+	public Process execute(File codeDirectory, String codeFile) throws IOException {
+		return this.execute(codeDirectory.getAbsolutePath(), codeFile);
+	}
+
+	@Override
+	protected Process startWorkerProcess() throws IOException {
+		return new ProcessBuilder("node", "--expose-gc", String.format("--max-old-space-size=%d", this.maxHeapMegabytes),
+															"-e", this.getWorkerCode(), this.prelude, Long.toString(this.timeoutMillis)).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+	}
+
+	private synchronized String getWorkerCode() throws IOException {
+
+		if (this.workerCode == null) {
+			InputStream workerStream = JavaScriptWorkerPool.class.getResourceAsStream(JavaScriptWorkerPool.WORKER_PATH);
+			if (workerStream == null)
+				throw new IOException("Could not find the code of the Node.js worker.");
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(workerStream, CodeExecutorBase.CHARSET))) {
+				this.workerCode = reader.lines().collect(Collectors.joining("\n"));
+			}
+		}
+
+		return this.workerCode;
+	}
+}
@@ -0,0 +1,209 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Entry point of a long-lived worker JVM executing compiled Java programs on behalf of a {@link JavaWorkerPool}. <br>
+ * The worker reads requests (a class directory and a main class) from its standard input,
+ * loads the classes in a new class loader and invokes the main method.
+ * The output of the program is sent to its standard output in frames, followed by an end frame containing the exit code
+ * and whether the program has polluted the worker (i.e. left threads or memory behind).
+ * The worker only depends on the Java runtime (the protocol constants are inlined), so its class path only contains the worker itself
+ * and the programs cannot see the classes of the Executor. The standard input of the programs is empty, as the worker's is the protocol.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public final class JavaWorker {
+
+	private static final int FRAME_BUFFER_SIZE = 8192;
+	private static final double MAX_HEAP_USAGE = 0.5;
+
+	private JavaWorker() {
+	}
+
+	/**
+	 * Executes programs until the standard input is closed.
+	 *
+	 * @param args command-line arguments (not used)
+	 *
+	 * @throws IOException if the communication with the pool failed
+	 */
+	public static void main(String... args) throws IOException {
+
+		final DataInputStream input = new DataInputStream(new FileInputStream(FileDescriptor.in));
+		final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+		final InputStream standardInput = System.in;
+
+		JavaWorker.warmUp();
+		final Set<Thread> baselineThreads = JavaWorker.getLiveThreads();
+
+		output.writeInt(WorkerPool.READY_MESSAGE);
+		output.flush();
+
+		while (true) {
+			final String classDirectory, mainClass;
+			try {
+				classDirectory = input.readUTF();
+				mainClass = input.readUTF();
+
+			} catch (EOFException ex) {
+				return; //the pool has released the worker
+			}
+
+			final FrameOutputStream frameStream = new FrameOutputStream(output);
+			final PrintStream programStream = new PrintStream(frameStream, true, "UTF-8");
+			System.setOut(programStream);
+			System.setErr(programStream);
+			System.setIn(new ByteArrayInputStream(new byte[0])); //a program reading its input sees the end of it like in a JVM of its own
+
+			int exitCode = 0;
+			try (URLClassLoader classLoader = new URLClassLoader(new URL[] { new File(classDirectory).toURI().toURL() }, ClassLoader.getSystemClassLoader().getParent())) {
+				Method main = classLoader.loadClass(mainClass).getMethod("main", String[].class);
+				main.invoke(null, (Object)new String[0]);
+
+			} catch (InvocationTargetException ex) {
+				programStream.print("Exception in thread \"main\" ");
+				ex.getCause().printStackTrace(programStream);
+				exitCode = 1;
+
+			} catch (Exception | LinkageError ex) {
+				programStream.print("Error: Could not load main class. ");
+				ex.printStackTrace(programStream);
+				exitCode = 1;
+			}
+
+			System.setIn(standardInput);
+			programStream.flush();
+			frameStream.finish(exitCode, JavaWorker.isPolluted(baselineThreads));
+		}
+	}
+
+	private static void warmUp() {
+
+		//load and initialize the classes used by most programs before the first request
+		Pattern.compile("[-+]?[0-9]+(\\.[0-9]+)?").matcher(String.format("%c%s:%s:%d:%s\n", (char)0x1E, "OK", Double.toString(1.0), 1, java.util.Arrays.toString(new int[] { 1 }))).find();
+		java.util.stream.IntStream.range(0, 16).boxed().collect(java.util.stream.Collectors.toList()).sort(java.util.Comparator.naturalOrder());
+		new java.util.HashMap<>(new java.util.HashSet<>(java.util.Arrays.asList("a", "b")).stream().collect(java.util.stream.Collectors.toMap(s -> s, String::length)));
+		new java.math.BigDecimal("1.5").add(java.math.BigDecimal.ONE);
+	}
+
+	private static boolean isPolluted(Set<Thread> baselineThreads) {
+
+		if (!baselineThreads.containsAll(JavaWorker.getLiveThreads())) //any thread left behind, even in a thread group of its own
+			return true;
+
+		final Runtime runtime = Runtime.getRuntime();
+		if (runtime.totalMemory() - runtime.freeMemory() <= runtime.maxMemory() * JavaWorker.MAX_HEAP_USAGE)
+			return false;
+
+		System.gc(); //only collect the garbage if the heap seems to be full
+		return runtime.totalMemory() - runtime.freeMemory() > runtime.maxMemory() * JavaWorker.MAX_HEAP_USAGE;
+	}
+
+	private static Set<Thread> getLiveThreads() {
+
+		ThreadGroup root = Thread.currentThread().getThreadGroup();
+		while (root.getParent() != null)
+			root = root.getParent();
+
+		Thread[] threads;
+		int count;
+		do { //the estimate may change while enumerating, so retry with more space until all threads fit
+			threads = new Thread[root.activeCount() * 2 + 1];
+			count = root.enumerate(threads, true);
+		} while (count == threads.length);
+
+		final Set<Thread> liveThreads = Collections.newSetFromMap(new IdentityHashMap<>());
+		liveThreads.addAll(Arrays.asList(threads).subList(0, count));
+		return liveThreads;
+	}
+
+	/**
+	 * Sends the output of a program in frames. <br>
+	 * Closing the stream only flushes it because programs usually close the standard output;
+	 * output written after the end frame is discarded.
+	 */
+	private static final class FrameOutputStream extends OutputStream {
+
+		private final DataOutputStream output;
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(JavaWorker.FRAME_BUFFER_SIZE);
+		private boolean finished;
+
+		private FrameOutputStream(DataOutputStream output) {
+
+			this.output = output;
+		}
+
+		@Override
+		public synchronized void write(int b) throws IOException {
+
+			if (this.finished)
+				return;
+
+			this.buffer.write(b);
+			if (this.buffer.size() >= JavaWorker.FRAME_BUFFER_SIZE)
+				this.flush();
+		}
+
+		@Override
+		public synchronized void write(byte[] b, int off, int len) throws IOException {
+
+			if (this.finished)
+				return;
+
+			this.buffer.write(b, off, len);
+			if (this.buffer.size() >= JavaWorker.FRAME_BUFFER_SIZE)
+				this.flush();
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+
+			if (this.finished || this.buffer.size() == 0)
+				return;
+
+			this.output.writeInt(this.buffer.size());
+			this.buffer.writeTo(this.output);
+			this.output.flush();
+			this.buffer.reset();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.flush();
+		}
+
+		private synchronized void finish(int exitCode, boolean polluted) throws IOException {
+
+			this.flush();
+			this.finished = true;
+
+			this.output.writeInt(WorkerPool.END_FRAME_LENGTH);
+			this.output.writeInt(exitCode);
+			this.output.writeBoolean(polluted);
+			this.output.flush();
+		}
+	}
+}
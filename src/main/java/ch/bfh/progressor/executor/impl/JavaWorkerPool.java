@@ -0,0 +1,125 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Pool of pre-started worker JVMs executing compiled Java programs. <br>
+ * Each program is loaded in a new class loader of an idle worker, which saves the start-up of a JVM and lets the programs
+ * profit from the classes already loaded and compiled by the worker.
+ * A worker is replaced after a number of programs or as soon as a program leaves threads or memory behind. <br>
+ * The workers run on the host without a sandbox (like the other workers, they are only used if Docker is disabled).
+ * Their class path only contains the classes of {@link JavaWorker}, so the programs cannot load the classes of the Executor.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ * @see JavaWorker
+ */
+public class JavaWorkerPool extends WorkerPool {
+
+	/**
+	 * The default number of idle workers to keep ready.
+	 */
+	public static final int DEFAULT_IDLE_WORKERS = 2;
+
+	/**
+	 * The default number of programs a worker may execute before it is replaced.
+	 */
+	public static final int DEFAULT_MAX_USES = 100;
+
+	/**
+	 * The default maximum heap size of a worker.
+	 */
+	public static final String DEFAULT_MAX_HEAP_SIZE = "256M";
+
+	private static File workerClassDirectory;
+
+	private final String maxHeapSize;
+
+	/**
+	 * Constructs a new {@link JavaWorkerPool} using the default sizes.
+	 */
+	public JavaWorkerPool() {
+		this(JavaWorkerPool.DEFAULT_IDLE_WORKERS, JavaWorkerPool.DEFAULT_MAX_USES, JavaWorkerPool.DEFAULT_MAX_HEAP_SIZE);
+	}
+
+	/**
+	 * Constructs a new {@link JavaWorkerPool}.
+	 *
+	 * @param idleWorkers number of idle workers to keep ready
+	 * @param maxUses     number of programs a worker may execute before it is replaced
+	 * @param maxHeapSize maximum heap size of a worker (e.g. {@code 256M})
+	 */
+	public JavaWorkerPool(int idleWorkers, int maxUses, String maxHeapSize) {
+
+		super("Java worker", idleWorkers, maxUses);
+		this.maxHeapSize = maxHeapSize;
+	}
+
+	/**
+	 * Executes a compiled program in a worker.
+	 *
+	 * @param classDirectory directory containing the compiled classes of the program
+	 * @param mainClass      fully qualified name of the class containing the main method
+	 *
+	 * @return a {@link Process} representing the execution of the program
+	 *
+	 * @throws IOException if no worker could be started or the program could not be sent to it
+	 * @see WorkerPool#execute(String...)
+	 */
+	public Process execute(File classDirectory, String mainClass) throws IOException {
+		return this.execute(classDirectory.getAbsolutePath(), mainClass);
+	}
+
+	@Override
+	protected Process startWorkerProcess() throws IOException {
+
+		final String classPath = JavaWorkerPool.getWorkerClassDirectory().getPath();
+		final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString(); //the same Java installation compiles the programs in memory
+		return new ProcessBuilder(java, String.format("-Xmx%s", this.maxHeapSize), "-cp", classPath, JavaWorker.class.getName())
+			.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+	}
+
+	private static synchronized File getWorkerClassDirectory() throws IOException {
+
+		if (JavaWorkerPool.workerClassDirectory == null) {
+			final File directory = Files.createTempDirectory("progressor-java-worker").toFile(); //only accessible by the current user
+			try {
+				for (Class<?> workerClass : JavaWorkerPool.getWorkerClasses()) {
+					final String classFileName = String.format("%s.class", workerClass.getName().replace('.', '/'));
+					try (InputStream classStream = JavaWorker.class.getClassLoader().getResourceAsStream(classFileName)) {
+						if (classStream == null)
+							throw new IOException(String.format("Could not find the class file of %s.", workerClass.getName()));
+
+						final File classFile = new File(directory, classFileName);
+						if (!classFile.getParentFile().exists() && !classFile.getParentFile().mkdirs())
+							throw new IOException(String.format("Could not create directory for class %s.", workerClass.getName()));
+
+						Files.copy(classStream, classFile.toPath());
+					}
+				}
+
+			} catch (IOException ex) {
+				FileUtils.deleteQuietly(directory);
+				throw new IOException("Could not determine the class path of the Java worker.", ex);
+			}
+
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> FileUtils.deleteQuietly(directory))); //do not leave the class files behind
+			JavaWorkerPool.workerClassDirectory = directory;
+		}
+
+		return JavaWorkerPool.workerClassDirectory;
+	}
+
+	private static Class<?>[] getWorkerClasses() {
+
+		final Class<?>[] nestedClasses = JavaWorker.class.getDeclaredClasses();
+		final Class<?>[] workerClasses = new Class<?>[nestedClasses.length + 1];
+		workerClasses[0] = JavaWorker.class;
+		System.arraycopy(nestedClasses, 0, workerClasses, 1, nestedClasses.length);
+		return workerClasses;
+	}
+}
@@ -0,0 +1,207 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Job;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.ResultListener;
+
+/**
+ * Thread-safe implementation of a {@link Job}. <br>
+ * The status of the job can only change from {@link Job.Status#QUEUED} to {@link Job.Status#RUNNING} and from there to a final status.
+ * Queued and running jobs may be cancelled at any time.
+ * While running, the job collects the results reported for the test cases executed so far.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class JobImpl implements Job, ResultListener {
+
+	private final String id;
+	private Status status = Status.QUEUED;
+	private final List<Result> preliminaryResults = new ArrayList<>();
+	private List<Result> results;
+	private String error;
+	private long doneMillis;
+
+	/**
+	 * Construct a new queued {@link Job}.
+	 *
+	 * @param id unique identifier of the job
+	 */
+	public JobImpl(String id) {
+
+		this.id = id;
+	}
+
+	@Override
+	public String getId() {
+		return this.id;
+	}
+
+	@Override
+	public synchronized Status getStatus() {
+		return this.status;
+	}
+
+	@Override
+	public synchronized List<Result> getResults() {
+		return this.status == Status.RUNNING ? Collections.unmodifiableList(new ArrayList<>(this.preliminaryResults)) : this.results;
+	}
+
+	@Override
+	public synchronized String getError() {
+		return this.error;
+	}
+
+	/**
+	 * Gets the point in time (in milliseconds) the job reached its final status.
+	 *
+	 * @return point in time the job reached its final status or {@code 0} if it has not been done yet
+	 */
+	public synchronized long getDoneMillis() {
+		return this.doneMillis;
+	}
+
+	/**
+	 * Marks the job as running.
+	 *
+	 * @return whether the job can be run (i.e. whether it has not been cancelled)
+	 */
+	public synchronized boolean start() {
+
+		if (this.status != Status.QUEUED)
+			return false;
+
+		this.status = Status.RUNNING;
+		return true;
+	}
+
+	/**
+	 * Adds the preliminary result of the next test case, unless the job is not running anymore.
+	 *
+	 * @param result result of the next test case
+	 */
+	@Override
+	public synchronized void resultAvailable(Result result) {
+
+		if (this.status == Status.RUNNING) {
+			this.preliminaryResults.add(result);
+			this.notifyAll();
+		}
+	}
+
+	/**
+	 * Marks the job as finished, unless it has been cancelled in the meantime.
+	 *
+	 * @param results results of the test cases
+	 */
+	public synchronized void finish(List<Result> results) {
+
+		if (this.status == Status.RUNNING) {
+			this.results = results;
+			this.setDone(Status.FINISHED);
+		}
+	}
+
+	/**
+	 * Marks the job as failed, unless it has been cancelled in the meantime.
+	 *
+	 * @param error reason the job could not be executed
+	 */
+	public synchronized void fail(String error) {
+
+		if (this.status == Status.RUNNING) {
+			this.error = error;
+			this.setDone(Status.FAILED);
+		}
+	}
+
+	/**
+	 * Marks the job as cancelled.
+	 *
+	 * @return whether the job has been cancelled (i.e. whether it was not done yet)
+	 */
+	public synchronized boolean cancel() {
+
+		if (this.status.isDone())
+			return false;
+
+		this.setDone(Status.CANCELLED);
+		return true;
+	}
+
+	private void setDone(Status status) {
+
+		this.status = status;
+		this.preliminaryResults.clear();
+		this.doneMillis = System.currentTimeMillis();
+		this.notifyAll();
+	}
+
+	/**
+	 * Waits until the job is done or a timeout has elapsed.
+	 *
+	 * @param timeoutMillis maximum time (in milliseconds) to wait
+	 *
+	 * @return whether the job is done
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public synchronized boolean await(long timeoutMillis) throws InterruptedException {
+
+		final long maxTimeMillis = System.currentTimeMillis() + timeoutMillis;
+
+		long waitMillis;
+		while (!this.status.isDone() && (waitMillis = maxTimeMillis - System.currentTimeMillis()) > 0)
+			this.wait(waitMillis);
+
+		return this.status.isDone();
+	}
+
+	/**
+	 * Waits until more than a specific number of results are available, the job is done or a timeout has elapsed.
+	 *
+	 * @param resultCount   number of results already known
+	 * @param timeoutMillis maximum time (in milliseconds) to wait
+	 *
+	 * @return whether more results are available or the job is done
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public synchronized boolean awaitResults(int resultCount, long timeoutMillis) throws InterruptedException {
+
+		final long maxTimeMillis = System.currentTimeMillis() + timeoutMillis;
+
+		long waitMillis;
+		while (!this.status.isDone() && this.preliminaryResults.size() <= resultCount && (waitMillis = maxTimeMillis - System.currentTimeMillis()) > 0)
+			this.wait(waitMillis);
+
+		return this.status.isDone() || this.preliminaryResults.size() > resultCount;
+	}
+
+	/**
+	 * Converts a custom {@link Job} to a thrift {@link ch.bfh.progressor.executor.thrift.Job} instance.
+	 *
+	 * @param job custom job to convert
+	 *
+	 * @return thrift {@link ch.bfh.progressor.executor.thrift.Job} instance
+	 *
+	 * @throws ExecutorException if conversation failed
+	 */
+	public static ch.bfh.progressor.executor.thrift.Job convertToThrift(Job job) throws ExecutorException {
+
+		final Status status;
+		final List<Result> results;
+		final String error;
+		synchronized (job) { //take a consistent snapshot
+			status = job.getStatus();
+			results = job.getResults();
+			error = job.getError();
+		}
+
+		return new ch.bfh.progressor.executor.thrift.Job(job.getId(), ch.bfh.progressor.executor.thrift.JobStatus.valueOf(status.name()),
+																										 results != null ? ResultImpl.convertToThrift(results) : null, error);
+	}
+}
@@ -0,0 +1,281 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Job;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.ResultListener;
+
+/**
+ * In-memory table of {@link Job}s processed asynchronously by a fixed number of workers. <br>
+ * Queued jobs do not occupy a thread; they wait in the queue of the worker pool.
+ * Jobs are removed from the table some time after they are done.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class JobTable {
+
+	private static final Logger LOGGER = Logger.getLogger(JobTable.class.getName());
+
+	/**
+	 * The default number of workers, i.e. the maximum number of concurrently executed jobs.
+	 */
+	public static final int DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The default maximum number of jobs in the table (including the ones already done).
+	 */
+	public static final int DEFAULT_MAX_JOBS = 10000;
+
+	/**
+	 * The default time (in milliseconds) to keep jobs after they are done.
+	 */
+	public static final long DEFAULT_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private final int maxJobs;
+	private final long retentionMillis;
+
+	private final ExecutorService workers;
+	private final Map<String, JobEntry> jobs = new ConcurrentHashMap<>();
+	private final Semaphore slots; //one permit per job that may still be added to the table
+
+	/**
+	 * Constructs a new {@link JobTable}.
+	 *
+	 * @param workerThreads   maximum number of concurrently executed jobs
+	 * @param maxJobs         maximum number of jobs in the table (including the ones already done)
+	 * @param retentionMillis time (in milliseconds) to keep jobs after they are done
+	 */
+	public JobTable(int workerThreads, int maxJobs, long retentionMillis) {
+
+		this.maxJobs = maxJobs;
+		this.retentionMillis = retentionMillis;
+		this.slots = new Semaphore(maxJobs);
+
+		final AtomicInteger threadCount = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+			Thread thread = new Thread(runnable, String.format("job-worker-%d", threadCount.incrementAndGet()));
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Submits an execution to be processed asynchronously.
+	 *
+	 * @param execution execution to process
+	 *
+	 * @return the queued {@link Job}
+	 *
+	 * @throws ExecutorException if the table is full
+	 */
+	public Job submit(Callable<List<Result>> execution) throws ExecutorException {
+		return this.submit(listener -> execution.call());
+	}
+
+	/**
+	 * Submits an execution reporting the result of each test case as soon as it is available to be processed asynchronously. <br>
+	 * The reported results are available from the job while it is running.
+	 *
+	 * @param execution execution to process
+	 *
+	 * @return the queued {@link Job}
+	 *
+	 * @throws ExecutorException if the table is full
+	 */
+	public Job submit(StreamingExecution execution) throws ExecutorException {
+
+		this.removeExpiredJobs();
+		if (!this.slots.tryAcquire())
+			throw new ExecutorException(String.format("Could not submit job because the maximum number of %d jobs has been reached.", this.maxJobs));
+
+		final JobImpl job = new JobImpl(UUID.randomUUID().toString());
+		final FutureTask<?> task = new FutureTask<>(() -> {
+			if (!job.start()) //cancelled while queued
+				return;
+
+			try {
+				job.finish(execution.execute(job));
+
+			} catch (Exception ex) {
+				JobTable.LOGGER.log(Level.FINE, String.format("Job %s failed.", job.getId()), ex);
+				job.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getName());
+			}
+		}, null);
+
+		final JobEntry entry = new JobEntry(job, task);
+		this.jobs.put(job.getId(), entry); //before the job is started, so that it can always be found
+		try {
+			this.workers.execute(task);
+
+		} catch (RejectedExecutionException ex) {
+			this.remove(job.getId(), entry);
+			throw new ExecutorException(String.format("Could not submit job %s.", job.getId()), ex);
+		}
+
+		return job;
+	}
+
+	/**
+	 * Gets a job.
+	 *
+	 * @param id unique identifier of the job
+	 *
+	 * @return the {@link Job} with the specified identifier
+	 *
+	 * @throws ExecutorException if there is no such job (e.g. because it has been removed)
+	 */
+	public Job get(String id) throws ExecutorException {
+		return this.getEntry(id).job;
+	}
+
+	/**
+	 * Waits until a job is done or a timeout has elapsed.
+	 *
+	 * @param id            unique identifier of the job
+	 * @param timeoutMillis maximum time (in milliseconds) to wait
+	 *
+	 * @return the {@link Job} with the specified identifier
+	 *
+	 * @throws ExecutorException if there is no such job or the current thread was interrupted while waiting
+	 */
+	public Job await(String id, long timeoutMillis) throws ExecutorException {
+
+		JobEntry entry = this.getEntry(id);
+		try {
+			entry.job.await(timeoutMillis);
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ExecutorException(String.format("Could not wait for job %s.", id), ex);
+		}
+
+		return entry.job;
+	}
+
+	/**
+	 * Waits until more than a specific number of results of a job are available, the job is done or a timeout has elapsed. <br>
+	 * Allows to receive the results of a running job as soon as they are available.
+	 *
+	 * @param id            unique identifier of the job
+	 * @param resultCount   number of results already known
+	 * @param timeoutMillis maximum time (in milliseconds) to wait
+	 *
+	 * @return the {@link Job} with the specified identifier
+	 *
+	 * @throws ExecutorException if there is no such job or the current thread was interrupted while waiting
+	 */
+	public Job awaitResults(String id, int resultCount, long timeoutMillis) throws ExecutorException {
+
+		JobEntry entry = this.getEntry(id);
+		try {
+			entry.job.awaitResults(resultCount, timeoutMillis);
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ExecutorException(String.format("Could not wait for results of job %s.", id), ex);
+		}
+
+		return entry.job;
+	}
+
+	/**
+	 * Cancels a job. <br>
+	 * Queued jobs will not be executed; running jobs are interrupted.
+	 * The job is reported as cancelled immediately, i.e. the interrupted execution (and e.g. its container) may still be stopping
+	 * and its worker may not be available for the next job until then.
+	 *
+	 * @param id unique identifier of the job
+	 *
+	 * @return whether the job has been cancelled (i.e. whether it was not done yet)
+	 *
+	 * @throws ExecutorException if there is no such job
+	 */
+	public boolean cancel(String id) throws ExecutorException {
+
+		JobEntry entry = this.getEntry(id);
+		if (!entry.job.cancel())
+			return false;
+
+		entry.future.cancel(true);
+		return true;
+	}
+
+	/**
+	 * Gets the number of jobs in the table (including the ones already done).
+	 *
+	 * @return number of jobs in the table
+	 */
+	public int getSize() {
+		return this.jobs.size();
+	}
+
+	private JobEntry getEntry(String id) throws ExecutorException {
+
+		JobEntry entry = this.jobs.get(id);
+		if (entry == null)
+			throw new ExecutorException(String.format("Could not find job %s.", id));
+
+		return entry;
+	}
+
+	private void removeExpiredJobs() {
+
+		final long minDoneMillis = System.currentTimeMillis() - this.retentionMillis;
+		this.jobs.forEach((id, entry) -> {
+			long doneMillis = entry.job.getDoneMillis();
+			if (doneMillis > 0 && doneMillis <= minDoneMillis)
+				this.remove(id, entry);
+		});
+	}
+
+	private void remove(String id, JobEntry entry) {
+
+		if (this.jobs.remove(id, entry)) //only release the slot once, even if removed concurrently
+			this.slots.release();
+	}
+
+	/**
+	 * An execution reporting the result of each test case as soon as it is available.
+	 */
+	@FunctionalInterface
+	public interface StreamingExecution {
+
+		/**
+		 * Executes the test cases.
+		 *
+		 * @param listener listener to report the result of each test case to
+		 *
+		 * @return a {@link List} containing the {@link Result} for each test case
+		 *
+		 * @throws Exception if the execution failed
+		 */
+		List<Result> execute(ResultListener listener) throws Exception;
+	}
+
+	private static class JobEntry {
+
+		private final JobImpl job;
+		private final Future<?> future;
+
+		private JobEntry(JobImpl job, Future<?> future) {
+
+			this.job = job;
+			this.future = future;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Entry point of a long-lived JVM compiling Kotlin code on behalf of a {@link KotlinCompilerService}. <br>
+ * The daemon keeps the Kotlin compiler loaded (and compiled by the JIT) and reads compilation requests
+ * (the arguments of the {@code kotlinc} command) from its standard input.
+ * For each request, it sends the exit code of the compiler and its output to its standard output.
+ * The daemon only depends on the Java runtime and the Kotlin compiler.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public final class KotlinCompilerDaemon {
+
+	/**
+	 * Message sent by the daemon as soon as it is ready to compile.
+	 */
+	public static final int READY_MESSAGE = 0x4B434D50;
+
+	/**
+	 * Exit code sent by the daemon if the compiler failed unexpectedly.
+	 */
+	public static final int INTERNAL_ERROR_EXIT_CODE = 2;
+
+	private static final String KOTLIN_COMPILER = "org.jetbrains.kotlin.cli.jvm.K2JVMCompiler";
+
+	private KotlinCompilerDaemon() {
+	}
+
+	/**
+	 * Compiles Kotlin code until the standard input is closed.
+	 *
+	 * @param args path to the Kotlin compiler library ({@code kotlin-compiler.jar})
+	 *
+	 * @throws Exception if the compiler could not be loaded or the communication with the service failed
+	 */
+	public static void main(String... args) throws Exception {
+
+		final DataInputStream input = new DataInputStream(new FileInputStream(FileDescriptor.in));
+		final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+		final ClassLoader compilerClassLoader = new URLClassLoader(new URL[] { new File(args[0]).toURI().toURL() }, ClassLoader.getSystemClassLoader().getParent());
+		final Class<?> compilerClass = compilerClassLoader.loadClass(KotlinCompilerDaemon.KOTLIN_COMPILER);
+		final Method exec = compilerClass.getMethod("exec", PrintStream.class, String[].class);
+
+		output.writeInt(KotlinCompilerDaemon.READY_MESSAGE);
+		output.flush();
+
+		while (true) {
+			final String[] arguments;
+			try {
+				arguments = new String[input.readInt()];
+				for (int i = 0; i < arguments.length; i++)
+					arguments[i] = input.readUTF();
+
+			} catch (EOFException ex) {
+				return; //the service has been closed
+			}
+
+			final ByteArrayOutputStream compilerOutput = new ByteArrayOutputStream();
+			final PrintStream compilerStream = new PrintStream(compilerOutput, true, "UTF-8");
+			final PrintStream out = System.out, err = System.err;
+			System.setOut(compilerStream); //the compiler also prints some messages directly
+			System.setErr(compilerStream);
+
+			int exitCode;
+			try {
+				Object exitCodeObject = exec.invoke(compilerClass.getDeclaredConstructor().newInstance(), compilerStream, arguments); //a new compiler instance for each request
+				exitCode = (Integer)exitCodeObject.getClass().getMethod("getCode").invoke(exitCodeObject);
+
+			} catch (InvocationTargetException ex) {
+				ex.getCause().printStackTrace(compilerStream);
+				exitCode = KotlinCompilerDaemon.INTERNAL_ERROR_EXIT_CODE;
+
+			} catch (ReflectiveOperationException | RuntimeException ex) {
+				ex.printStackTrace(compilerStream);
+				exitCode = KotlinCompilerDaemon.INTERNAL_ERROR_EXIT_CODE;
+
+			} finally {
+				System.setOut(out);
+				System.setErr(err);
+			}
+
+			compilerStream.flush();
+			output.writeInt(exitCode);
+			output.writeInt(compilerOutput.size());
+			compilerOutput.writeTo(output);
+			output.flush();
+		}
+	}
+}
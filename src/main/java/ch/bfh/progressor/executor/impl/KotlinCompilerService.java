@@ -0,0 +1,267 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * Compiles Kotlin code using a number of long-lived compiler daemons. <br>
+ * Starting the Kotlin compiler takes much longer than compiling a typical code file,
+ * so the daemons keep the compiler loaded (and compiled by the JIT) between the compilations.
+ * Each daemon compiles one code file at a time; daemons are started on demand.
+ * A daemon not answering within {@link #COMPILATION_TIMEOUT_MILLIS} is destroyed and replaced by a new one on the next compilation.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ * @see KotlinCompilerDaemon
+ */
+public class KotlinCompilerService {
+
+	/**
+	 * The default maximum number of daemons compiling concurrently.
+	 */
+	public static final int DEFAULT_MAX_DAEMONS = 2;
+
+	/**
+	 * The maximum time in milliseconds a daemon may take to compile a code file.
+	 */
+	public static final long COMPILATION_TIMEOUT_MILLIS = 60000;
+
+	private static final Logger LOGGER = Logger.getLogger(KotlinCompilerService.class.getName());
+
+	private static final String[] JAVA_OPTS = { "-Xmx256M", "-Xms32M" };
+	private static final long ACQUIRE_POLL_MILLIS = 100;
+
+	private static final ScheduledExecutorService TIMEOUT_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "kotlin-compiler-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final String compilerLibrary;
+	private final int maxDaemons;
+
+	private final BlockingQueue<Daemon> idleDaemons = new LinkedBlockingQueue<>();
+	private final List<Daemon> daemons = new ArrayList<>();
+	private int startingDaemons;
+	private boolean closed;
+
+	/**
+	 * Constructs a new {@link KotlinCompilerService} using the default number of daemons.
+	 *
+	 * @param compilerLibrary path to the Kotlin compiler library ({@code kotlin-compiler.jar})
+	 */
+	public KotlinCompilerService(String compilerLibrary) {
+		this(compilerLibrary, KotlinCompilerService.DEFAULT_MAX_DAEMONS);
+	}
+
+	/**
+	 * Constructs a new {@link KotlinCompilerService}.
+	 *
+	 * @param compilerLibrary path to the Kotlin compiler library ({@code kotlin-compiler.jar})
+	 * @param maxDaemons      maximum number of daemons compiling concurrently
+	 */
+	public KotlinCompilerService(String compilerLibrary, int maxDaemons) {
+
+		if (maxDaemons < 1)
+			throw new IllegalArgumentException(String.format("Service with %d daemons is invalid.", maxDaemons));
+
+		this.compilerLibrary = compilerLibrary;
+		this.maxDaemons = maxDaemons;
+	}
+
+	/**
+	 * Compiles Kotlin code. <br>
+	 * The arguments are the same as for the {@code kotlinc} command.
+	 * Arguments referring to existing files relative to the working directory are passed as absolute paths to the daemon
+	 * and the working directory is removed from the output again, so that the output is the same as the one of the command.
+	 *
+	 * @param directory the working directory for the compilation
+	 * @param arguments arguments of the compilation
+	 *
+	 * @return the output of the compiler
+	 *
+	 * @throws ExecutorException if the code cannot be compiled successfully
+	 */
+	public String compile(File directory, String... arguments) throws ExecutorException {
+
+		final String directoryPrefix = String.format("%s%s", directory.getAbsolutePath(), File.separator);
+
+		final String[] absoluteArguments = new String[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			File file = new File(directory, arguments[i]);
+			absoluteArguments[i] = !arguments[i].startsWith("-") && file.exists() ? file.getAbsolutePath() : arguments[i];
+		}
+
+		final Daemon daemon = this.acquire();
+
+		//pipes cannot time out, so destroy a hung daemon to make the blocking read fail
+		final ScheduledFuture<?> timeout = KotlinCompilerService.TIMEOUT_EXECUTOR.schedule(() -> {
+			daemon.timedOut = true;
+			daemon.process.destroyForcibly();
+		}, KotlinCompilerService.COMPILATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+		boolean reusable = false;
+		try {
+			daemon.output.writeInt(absoluteArguments.length);
+			for (String argument : absoluteArguments)
+				daemon.output.writeUTF(argument);
+			daemon.output.flush();
+
+			final int exitCode = daemon.input.readInt();
+			final byte[] compilerOutput = new byte[daemon.input.readInt()];
+			daemon.input.readFully(compilerOutput);
+			reusable = true;
+
+			String output = new String(compilerOutput, CodeExecutorBase.CHARSET).replace(directoryPrefix, "");
+			if (exitCode != 0)
+				throw new ExecutorException("Could not successfully execute command.", output);
+
+			return output;
+
+		} catch (IOException ex) {
+			if (daemon.timedOut)
+				throw new ExecutorException("Could not compile the code in time using the Kotlin compiler daemon.", ex);
+
+			throw new ExecutorException("Could not compile the code using the Kotlin compiler daemon.", ex);
+
+		} finally {
+			timeout.cancel(false);
+			this.release(daemon, reusable && !daemon.timedOut);
+		}
+	}
+
+	/**
+	 * Stops all daemons.
+	 */
+	public void close() {
+
+		List<Daemon> daemons;
+		synchronized (this) {
+			this.closed = true;
+			daemons = new ArrayList<>(this.daemons);
+		}
+
+		daemons.forEach(daemon -> daemon.process.destroyForcibly());
+	}
+
+	private Daemon acquire() throws ExecutorException {
+
+		while (true) {
+			synchronized (this) {
+				if (this.closed)
+					throw new ExecutorException("Could not compile the code using a closed Kotlin compiler service.");
+
+				Daemon daemon = this.idleDaemons.poll();
+				if (daemon != null)
+					return daemon;
+
+				if (this.daemons.size() + this.startingDaemons < this.maxDaemons) {
+					this.startingDaemons++;
+					break;
+				}
+			}
+
+			try {
+				Daemon daemon = this.idleDaemons.poll(KotlinCompilerService.ACQUIRE_POLL_MILLIS, TimeUnit.MILLISECONDS); //a daemon may also die in the meantime
+				if (daemon != null)
+					return daemon;
+
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ExecutorException("Could not wait for a Kotlin compiler daemon.", ex);
+			}
+		}
+
+		Daemon daemon = null;
+		try {
+			daemon = this.startDaemon();
+			return daemon;
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not start the Kotlin compiler daemon.", ex);
+
+		} finally {
+			synchronized (this) {
+				this.startingDaemons--;
+				if (daemon != null)
+					this.daemons.add(daemon);
+			}
+		}
+	}
+
+	private Daemon startDaemon() throws IOException {
+
+		final String classPath;
+		try {
+			classPath = new File(KotlinCompilerDaemon.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+
+		} catch (URISyntaxException | SecurityException ex) {
+			throw new IOException("Could not determine the class path of the Kotlin compiler daemon.", ex);
+		}
+
+		List<String> command = new ArrayList<>();
+		command.add("java"); //same as the kotlinc script
+		command.addAll(Arrays.asList(KotlinCompilerService.JAVA_OPTS));
+		command.addAll(Arrays.asList("-cp", classPath, KotlinCompilerDaemon.class.getName(), this.compilerLibrary));
+
+		Daemon daemon = new Daemon(new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start());
+		try {
+			if (daemon.input.readInt() != KotlinCompilerDaemon.READY_MESSAGE)
+				throw new IOException("Could not start Kotlin compiler daemon because it sent an invalid message.");
+
+		} catch (IOException ex) {
+			daemon.process.destroyForcibly();
+			throw ex;
+		}
+
+		KotlinCompilerService.LOGGER.fine("Started Kotlin compiler daemon.");
+		return daemon;
+	}
+
+	private void release(Daemon daemon, boolean reusable) {
+
+		synchronized (this) {
+			if (reusable && !this.closed) {
+				this.idleDaemons.offer(daemon);
+				return;
+			}
+
+			this.daemons.remove(daemon);
+		}
+
+		daemon.process.destroyForcibly();
+	}
+
+	/**
+	 * Represents a running compiler daemon owned by a service.
+	 */
+	private static final class Daemon {
+
+		private final Process process;
+		private final DataInputStream input;
+		private final DataOutputStream output;
+		private volatile boolean timedOut;
+
+		private Daemon(Process process) {
+
+			this.process = process;
+			this.input = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+			this.output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+		}
+	}
+}
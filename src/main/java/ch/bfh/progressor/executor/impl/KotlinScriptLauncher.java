@@ -0,0 +1,46 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Entry point executing a compiled Kotlin script. <br>
+ * A compiled script is a class whose constructor runs the script (taking the command-line arguments if declared).
+ * The launcher only depends on the Java runtime; the Kotlin runtime and the compiled script have to be on the class path.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public final class KotlinScriptLauncher {
+
+	private KotlinScriptLauncher() {
+	}
+
+	/**
+	 * Executes a compiled Kotlin script.
+	 *
+	 * @param args name of the script class followed by the arguments of the script
+	 *
+	 * @throws Throwable if the script could not be loaded or failed
+	 */
+	public static void main(String... args) throws Throwable {
+
+		final Class<?> scriptClass = Class.forName(args[0]);
+		final String[] scriptArguments = new String[args.length - 1];
+		System.arraycopy(args, 1, scriptArguments, 0, scriptArguments.length);
+
+		try {
+			Constructor<?> constructor;
+			try {
+				constructor = scriptClass.getConstructor(String[].class);
+				constructor.newInstance((Object)scriptArguments);
+
+			} catch (NoSuchMethodException ex) {
+				constructor = scriptClass.getConstructor();
+				constructor.newInstance();
+			}
+
+		} catch (InvocationTargetException ex) {
+			throw ex.getCause(); //report the failure of the script like an uncaught exception
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Pool of persistent PHP workers executing PHP programs. <br>
+ * A worker is a long-running CLI loop which has already compiled the prelude of the template (using the opcode cache if available)
+ * and forks a child for each program, so each program gets an isolated request lifecycle.
+ * The workers rely on the {@code pcntl} extension and are therefore not supported on Windows.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class PHPWorkerPool extends WorkerPool {
+
+	/**
+	 * The default number of idle workers to keep ready.
+	 */
+	public static final int DEFAULT_IDLE_WORKERS = 2;
+
+	/**
+	 * The default number of programs a worker may execute before it is replaced.
+	 */
+	public static final int DEFAULT_MAX_USES = 1000;
+
+	private static final String WORKER_PATH = "/ch/bfh/progressor/executor/languages/php/worker.php";
+	private static final String PRELUDE_HEADER = "<?php declare(strict_types=1);";
+
+	private final String prelude;
+	private File directory;
+
+	/**
+	 * Constructs a new {@link PHPWorkerPool} using the default sizes.
+	 *
+	 * @param prelude code every program depends on (e.g. helper functions of the template) without the opening tag
+	 */
+	public PHPWorkerPool(String prelude) {
+		this(prelude, PHPWorkerPool.DEFAULT_IDLE_WORKERS, PHPWorkerPool.DEFAULT_MAX_USES);
+	}
+
+	/**
+	 * Constructs a new {@link PHPWorkerPool}.
+	 *
+	 * @param prelude     code every program depends on (e.g. helper functions of the template) without the opening tag
+	 * @param idleWorkers number of idle workers to keep ready
+	 * @param maxUses     number of programs a worker may execute before it is replaced
+	 */
+	public PHPWorkerPool(String prelude, int idleWorkers, int maxUses) {
+
+		super("PHP worker", idleWorkers, maxUses);
+		this.prelude = prelude;
+	}
+
+	/**
+	 * Executes a PHP program in a worker. <br>
+	 * The program must not contain the prelude, the worker has already loaded it.
+	 *
+	 * @param codeDirectory the working directory for the program
+	 * @param codeFile      name of the code file relative to the working directory
+	 *
+	 * @return a {@link Process} representing the execution of the program
+	 *
+	 * @throws IOException if no worker could be started or the program could not be sent to it
+	 * @see WorkerPool#execute(String...)
+	 */
+	public Process execute(File codeDirectory, String codeFile) throws IOException {
+		return this.execute(codeDirectory.getAbsolutePath(), codeFile);
+	}
+
+	@Override
+	public void close() {
+
+		super.close();
+
+		synchronized (this) {
+			if (this.directory != null)
+				FileUtils.deleteQuietly(this.directory);
+		}
+	}
+
+	@Override
+	protected Process startWorkerProcess() throws IOException {
+
+		final File directory = this.getDirectory();
+		final File opcodeCacheDirectory = new File(directory, "opcache");
+		return new ProcessBuilder("php", "-d", "opcache.enable_cli=1", "-d", String.format("opcache.file_cache=%s", opcodeCacheDirectory.getAbsolutePath()), "-d", "opcache.file_cache_only=1",
+															new File(directory, "worker.php").getAbsolutePath(), new File(directory, "prelude.php").getAbsolutePath()).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+	}
+
+	private synchronized File getDirectory() throws IOException {
+
+		if (this.directory == null) { //the opcode cache only works for files
+			File directory = Files.createTempDirectory("progressor-php-worker").toFile();
+			try (InputStream workerStream = PHPWorkerPool.class.getResourceAsStream(PHPWorkerPool.WORKER_PATH)) {
+				if (workerStream == null)
+					throw new IOException("Could not find the code of the PHP worker.");
+
+				Files.copy(workerStream, new File(directory, "worker.php").toPath(), StandardCopyOption.REPLACE_EXISTING);
+				Files.write(new File(directory, "prelude.php").toPath(), String.format("%s %s", PHPWorkerPool.PRELUDE_HEADER, this.prelude).getBytes(CodeExecutorBase.CHARSET));
+				if (!new File(directory, "opcache").mkdir())
+					throw new IOException("Could not create the opcode cache directory of the PHP worker.");
+
+			} catch (IOException ex) {
+				FileUtils.deleteQuietly(directory);
+				throw ex;
+			}
+
+			this.directory = directory;
+		}
+
+		return this.directory;
+	}
+}
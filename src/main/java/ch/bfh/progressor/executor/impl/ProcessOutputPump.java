@@ -0,0 +1,184 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Collects the output of a {@link Process} using blocking reads on a shared thread pool. <br>
+ * The process is considered finished as soon as the end of its output has been reached.
+ * If the process exits while a descendant keeps the output open, it is considered finished after a grace period.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public final class ProcessOutputPump {
+
+	private static final Logger LOGGER = Logger.getLogger(ProcessOutputPump.class.getName());
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private static final ExecutorService PUMP_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "process-output-pump");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final Process process;
+	private final long exitGraceMillis;
+	private final OutputListener listener;
+
+	private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+	private long lastOutputMillis;
+	private long exitMillis;
+	private boolean endOfOutput;
+	private IOException failure;
+
+	private ProcessOutputPump(Process process, long exitGraceMillis, OutputListener listener) {
+
+		this.process = process;
+		this.exitGraceMillis = exitGraceMillis;
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts collecting the output of a process.
+	 *
+	 * @param process         process to collect the output of
+	 * @param exitGraceMillis time (in milliseconds) to wait for the end of the output after the process exited
+	 *
+	 * @return the started {@link ProcessOutputPump}
+	 */
+	public static ProcessOutputPump start(Process process, long exitGraceMillis) {
+		return ProcessOutputPump.start(process, exitGraceMillis, null);
+	}
+
+	/**
+	 * Starts collecting the output of a process and forwards each chunk of output to a listener.
+	 *
+	 * @param process         process to collect the output of
+	 * @param exitGraceMillis time (in milliseconds) to wait for the end of the output after the process exited
+	 * @param listener        listener to forward the output to (may be {@code null})
+	 *
+	 * @return the started {@link ProcessOutputPump}
+	 */
+	public static ProcessOutputPump start(Process process, long exitGraceMillis, OutputListener listener) {
+
+		ProcessOutputPump pump = new ProcessOutputPump(process, exitGraceMillis, listener);
+		ProcessOutputPump.PUMP_EXECUTOR.execute(pump::pump);
+		ProcessOutputPump.PUMP_EXECUTOR.execute(pump::watch);
+		return pump;
+	}
+
+	private void pump() {
+
+		try (InputStream input = this.process.getInputStream()) {
+			byte[] buffer = new byte[ProcessOutputPump.BUFFER_SIZE];
+			for (int readBytes; (readBytes = input.read(buffer)) >= 0; ) {
+				synchronized (this) {
+					this.output.write(buffer, 0, readBytes);
+					this.lastOutputMillis = System.currentTimeMillis();
+				}
+
+				if (this.listener != null) //outside of the lock, the listener may take its time
+					this.listener.outputAvailable(buffer, 0, readBytes);
+			}
+
+		} catch (IOException ex) {
+			synchronized (this) {
+				this.failure = ex;
+			}
+
+		} finally {
+			synchronized (this) {
+				this.endOfOutput = true;
+				this.notifyAll();
+			}
+		}
+	}
+
+	private void watch() {
+
+		try {
+			this.process.waitFor();
+
+			synchronized (this) {
+				this.exitMillis = System.currentTimeMillis();
+				this.notifyAll();
+			}
+
+		} catch (InterruptedException ex) {
+			ProcessOutputPump.LOGGER.log(Level.FINE, "Could not wait for process to exit.", ex);
+		}
+	}
+
+	/**
+	 * Waits until the process has finished or a point in time has been reached.
+	 *
+	 * @param maxTimeMillis point in time (in milliseconds) to wait until at most
+	 *
+	 * @return whether the process has finished
+	 *
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public synchronized boolean awaitFinish(long maxTimeMillis) throws InterruptedException {
+
+		long waitMillis;
+		while (!this.isFinished() && (waitMillis = this.getNextEventMillis(maxTimeMillis) - System.currentTimeMillis()) > 0)
+			this.wait(waitMillis);
+
+		return this.isFinished();
+	}
+
+	private boolean isFinished() {
+		return this.endOfOutput || this.exitMillis > 0 && System.currentTimeMillis() >= this.exitMillis + this.exitGraceMillis;
+	}
+
+	private long getNextEventMillis(long maxTimeMillis) {
+		return this.exitMillis > 0 ? Math.min(maxTimeMillis, this.exitMillis + this.exitGraceMillis) : maxTimeMillis;
+	}
+
+	/**
+	 * Gets the point in time (in milliseconds) the process last wrote output.
+	 *
+	 * @return point in time of the last output or {@code 0} if the process did not write any output yet
+	 */
+	public synchronized long getLastOutputMillis() {
+		return this.lastOutputMillis;
+	}
+
+	/**
+	 * Gets the output collected so far.
+	 *
+	 * @return the output collected so far
+	 *
+	 * @throws IOException if the output could not be read
+	 */
+	public synchronized byte[] getOutput() throws IOException {
+
+		if (this.failure != null)
+			throw this.failure;
+
+		return this.output.toByteArray();
+	}
+
+	/**
+	 * Listener notified of each chunk of output as soon as it has been read. <br>
+	 * The listener is called sequentially from the pumping thread, before the end of the output is signalled.
+	 */
+	@FunctionalInterface
+	public interface OutputListener {
+
+		/**
+		 * Called as soon as a chunk of output has been read.
+		 *
+		 * @param buffer buffer containing the chunk (only valid during the call)
+		 * @param offset offset of the chunk in the buffer
+		 * @param length length of the chunk
+		 */
+		void outputAvailable(byte[] buffer, int offset, int length);
+	}
+}
@@ -0,0 +1,92 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of pre-started Python zygote processes executing Python programs. <br>
+ * A zygote has already imported the modules used by the template and forks a child for each program,
+ * so the start-up of the interpreter is no longer part of the execution.
+ * Each program runs in its own process and namespace, so it cannot pollute the zygote.
+ * Zygotes rely on {@code fork} and are therefore not supported on Windows.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class PythonWorkerPool extends WorkerPool {
+
+	/**
+	 * The default number of idle zygotes to keep ready.
+	 */
+	public static final int DEFAULT_IDLE_WORKERS = 2;
+
+	/**
+	 * The default number of programs a zygote may execute before it is replaced.
+	 */
+	public static final int DEFAULT_MAX_USES = 1000;
+
+	private static final String ZYGOTE_PATH = "/ch/bfh/progressor/executor/languages/python/zygote.py";
+
+	private final String interpreter;
+	private String zygoteCode;
+
+	/**
+	 * Constructs a new {@link PythonWorkerPool} using the default sizes.
+	 *
+	 * @param interpreter name of the Python interpreter executable
+	 */
+	public PythonWorkerPool(String interpreter) {
+		this(interpreter, PythonWorkerPool.DEFAULT_IDLE_WORKERS, PythonWorkerPool.DEFAULT_MAX_USES);
+	}
+
+	/**
+	 * Constructs a new {@link PythonWorkerPool}.
+	 *
+	 * @param interpreter name of the Python interpreter executable
+	 * @param idleWorkers number of idle zygotes to keep ready
+	 * @param maxUses     number of programs a zygote may execute before it is replaced
+	 */
+	public PythonWorkerPool(String interpreter, int idleWorkers, int maxUses) {
+
+		super("Python zygote", idleWorkers, maxUses);
+		this.interpreter = interpreter;
+	}
+
+	/**
+	 * Executes a Python program in a zygote.
+	 *
+	 * @param codeDirectory the working directory for the program
+	 * @param codeFile      name of the code file relative to the working directory
+	 *
+	 * @return a {@link Process} representing the execution of the program
+	 *
+	 * @throws IOException if no zygote could be started or the program could not be sent to it
+	 * @see WorkerPool#execute(String...)
+	 */
+	public Process execute(File codeDirectory, String codeFile) throws IOException {
+		return this.execute(codeDirectory.getAbsolutePath(), codeFile);
+	}
+
+	@Override
+	protected Process startWorkerProcess() throws IOException {
+		return new ProcessBuilder(this.interpreter, "-c", this.getZygoteCode()).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+	}
+
+	private synchronized String getZygoteCode() throws IOException {
+
+		if (this.zygoteCode == null) {
+			InputStream zygoteStream = PythonWorkerPool.class.getResourceAsStream(PythonWorkerPool.ZYGOTE_PATH);
+			if (zygoteStream == null)
+				throw new IOException("Could not find the code of the Python zygote.");
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(zygoteStream, CodeExecutorBase.CHARSET))) {
+				this.zygoteCode = reader.lines().collect(Collectors.joining("\n"));
+			}
+		}
+
+		return this.zygoteCode;
+	}
+}
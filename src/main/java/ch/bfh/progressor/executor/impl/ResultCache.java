@@ -0,0 +1,255 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
+
+/**
+ * Cache for the {@link Result}s of executions. <br>
+ * Entries are keyed by a hash of the language, the code fragment, the functions and the test cases and expire after a fixed time.
+ * Identical executions requested while one is already running wait for its {@link Result}s instead of executing the code fragment again.
+ * {@link Result}s containing a fatal error are never cached nor shared with the waiting executions, which run the execution again instead.
+ * Only finished executions are evicted, so the cache may exceed its maximum size by the number of running executions.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class ResultCache {
+
+	/**
+	 * The default maximum number of cached executions.
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	/**
+	 * The default time (in milliseconds) the {@link Result}s of an execution are cached.
+	 */
+	public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private final int maxEntries;
+	private final long timeToLiveMillis;
+
+	private final Map<String, CacheEntry> entries;
+
+	private final AtomicLong hitCount = new AtomicLong(), missCount = new AtomicLong();
+
+	/**
+	 * Constructs a new {@link ResultCache}.
+	 *
+	 * @param maxEntries       maximum number of cached executions
+	 * @param timeToLiveMillis time (in milliseconds) the {@link Result}s of an execution are cached
+	 */
+	public ResultCache(int maxEntries, long timeToLiveMillis) {
+
+		this.maxEntries = maxEntries;
+		this.timeToLiveMillis = timeToLiveMillis;
+
+		this.entries = new LinkedHashMap<>(16, 0.75f, true); //iterates from least to most recently used
+	}
+
+	/**
+	 * Gets the key of an execution.
+	 *
+	 * @param language  language the code fragment is written in
+	 * @param fragment  code fragment to execute the test cases on
+	 * @param functions functions the fragment implements
+	 * @param testCases test cases to execute on the code fragment
+	 *
+	 * @return key of the execution
+	 */
+	public String getKey(String language, String fragment, List<ch.bfh.progressor.executor.thrift.FunctionSignature> functions, List<ch.bfh.progressor.executor.thrift.TestCase> testCases) {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance(ResultCache.HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(String.format("Hash algorithm %s is not available.", ResultCache.HASH_ALGORITHM), ex);
+		}
+
+		ResultCache.update(digest, language);
+		ResultCache.update(digest, fragment);
+
+		ResultCache.update(digest, functions.size());
+		for (ch.bfh.progressor.executor.thrift.FunctionSignature function : functions) {
+			ResultCache.update(digest, function.getName());
+			ResultCache.update(digest, function.getInputNames());
+			ResultCache.update(digest, function.getInputTypes());
+			ResultCache.update(digest, function.getOutputNames());
+			ResultCache.update(digest, function.getOutputTypes());
+		}
+
+		ResultCache.update(digest, testCases.size());
+		for (ch.bfh.progressor.executor.thrift.TestCase testCase : testCases) {
+			ResultCache.update(digest, testCase.getFunctionName());
+			ResultCache.update(digest, testCase.getInputValues());
+			ResultCache.update(digest, testCase.getExpectedOutputValues());
+		}
+
+		return CompilationCache.toHexString(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, List<String> parts) {
+
+		if (parts == null) {
+			ResultCache.update(digest, -1);
+			return;
+		}
+
+		ResultCache.update(digest, parts.size());
+		for (String part : parts)
+			ResultCache.update(digest, part);
+	}
+
+	private static void update(MessageDigest digest, String part) {
+
+		if (part == null) {
+			ResultCache.update(digest, -1);
+			return;
+		}
+
+		byte[] bytes = part.getBytes(CodeExecutorBase.CHARSET);
+		ResultCache.update(digest, bytes.length); //prefix the parts with their length to separate them unambiguously
+		digest.update(bytes);
+	}
+
+	private static void update(MessageDigest digest, int value) {
+		digest.update(new byte[] { (byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value });
+	}
+
+	/**
+	 * Gets the cached {@link Result}s of an execution. <br>
+	 * If the {@link Result}s are not cached yet, the execution is either run or, if it is already running, waited for.
+	 *
+	 * @param key       key of the execution
+	 * @param execution execution to run if its {@link Result}s are not cached
+	 *
+	 * @return an unmodifiable {@link List} containing the {@link Result}s of the execution
+	 *
+	 * @throws ExecutorException if the execution failed or could not be waited for
+	 */
+	public List<Result> get(String key, Callable<List<Result>> execution) throws ExecutorException {
+
+		CacheEntry entry;
+		while (true) {
+			boolean owner = false;
+			synchronized (this) {
+				entry = this.entries.get(key);
+				if (entry == null || entry.isExpired()) {
+					entry = new CacheEntry();
+					this.entries.put(key, entry);
+					this.evict();
+					owner = true;
+				}
+			}
+
+			if (owner)
+				break;
+
+			this.hitCount.incrementAndGet();
+			List<Result> results = entry.await();
+			if (results != null)
+				return results;
+			//otherwise, the identical execution failed and its entry has been removed, so run it again (or wait for another one)
+		}
+
+		this.missCount.incrementAndGet();
+
+		try {
+			List<Result> results = Collections.unmodifiableList(new ArrayList<>(execution.call()));
+			if (results.stream().anyMatch(Result::isFatal))
+				this.remove(key, entry);
+			else
+				entry.expiryMillis = System.currentTimeMillis() + this.timeToLiveMillis;
+
+			entry.results.complete(results);
+			synchronized (this) {
+				this.evict(); //the entry may have been skipped while running
+			}
+			return results;
+
+		} catch (Exception ex) {
+			this.remove(key, entry);
+			entry.results.completeExceptionally(ex);
+
+			if (ex instanceof ExecutorException)
+				throw (ExecutorException) ex;
+			throw new ExecutorException("Could not execute the code fragment.", ex);
+		}
+	}
+
+	private synchronized void remove(String key, CacheEntry entry) {
+		this.entries.remove(key, entry);
+	}
+
+	private void evict() {
+
+		for (Iterator<CacheEntry> iterator = this.entries.values().iterator(); iterator.hasNext() && this.entries.size() > this.maxEntries; )
+			if (iterator.next().results.isDone()) //identical executions still wait for the running ones
+				iterator.remove();
+	}
+
+	/**
+	 * Gets the number of executions that were served from the cache or waited for a running identical execution.
+	 *
+	 * @return number of cache hits
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Gets the number of executions that had to be run.
+	 *
+	 * @return number of cache misses
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Gets the number of cached and running executions.
+	 *
+	 * @return number of cache entries
+	 */
+	public synchronized int getSize() {
+		return this.entries.size();
+	}
+
+	private static class CacheEntry {
+
+		private final CompletableFuture<List<Result>> results = new CompletableFuture<>();
+		private volatile long expiryMillis = Long.MAX_VALUE; //running executions do not expire
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() >= this.expiryMillis;
+		}
+
+		private List<Result> await() throws ExecutorException {
+
+			try {
+				final List<Result> results = this.results.get();
+				return results.stream().anyMatch(Result::isFatal) ? null : results; //fatal errors (e.g. of the infrastructure) are not shared
+
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new ExecutorException("Could not wait for the identical execution to finish.", ex);
+
+			} catch (ExecutionException ex) { //the failure of the identical execution is not shared either
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.nio.charset.StandardCharsets;
+import ch.bfh.progressor.executor.api.ExecutorException;
+
+/**
+ * Parses result frames (see {@link CodeExecutorBase#usesResultFrames()}) incrementally from the raw output of an execution. <br>
+ * Output between the frames is skipped without being buffered, the header of a frame is collected in a buffer of fixed size
+ * and the result of a frame in a buffer of the length announced by its header. Each byte of the output is looked at only once.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+final class ResultFrameParser {
+
+	private static final byte FRAME_START = (byte)CodeExecutorBase.RESULT_FRAME_START;
+	private static final byte FRAME_END = '\n';
+	private static final byte HEADER_SEPARATOR = ':';
+	private static final int HEADER_SEPARATORS = 3;
+	private static final int MAX_HEADER_LENGTH = 64;
+
+	private final FrameListener listener;
+
+	private final byte[] header = new byte[ResultFrameParser.MAX_HEADER_LENGTH];
+	private int headerLength, headerSeparators;
+	private boolean success;
+	private double testCaseExecutionTimeMillis;
+	private byte[] result;
+	private int resultLength;
+	private State state = State.OUTSIDE;
+
+	/**
+	 * Creates a parser reporting the results of the parsed frames to a listener.
+	 *
+	 * @param listener listener to report the results to
+	 */
+	ResultFrameParser(FrameListener listener) {
+
+		this.listener = listener;
+	}
+
+	/**
+	 * Parses the next chunk of the output.
+	 *
+	 * @param buffer buffer containing the output
+	 * @param offset offset of the output in the buffer
+	 * @param length length of the output
+	 *
+	 * @throws ExecutorException if a frame is malformed
+	 */
+	void parse(byte[] buffer, int offset, int length) throws ExecutorException {
+
+		final int end = offset + length;
+		for (int i = offset; i < end; ) {
+			switch (this.state) {
+				case OUTSIDE: //skip the output which is not part of a frame
+					while (i < end && buffer[i] != ResultFrameParser.FRAME_START)
+						i++;
+
+					if (i < end) {
+						i++;
+						this.headerLength = 0;
+						this.headerSeparators = 0;
+						this.state = State.HEADER;
+					}
+					break;
+
+				case HEADER:
+					final byte b = buffer[i++];
+					if (this.headerLength == ResultFrameParser.MAX_HEADER_LENGTH)
+						throw new ExecutorException("Execution result frame has an invalid header.");
+
+					this.header[this.headerLength++] = b;
+					if (b == ResultFrameParser.HEADER_SEPARATOR && ++this.headerSeparators == ResultFrameParser.HEADER_SEPARATORS)
+						this.parseHeader();
+					break;
+
+				case RESULT:
+					final int copied = Math.min(end - i, this.result.length - this.resultLength);
+					System.arraycopy(buffer, i, this.result, this.resultLength, copied);
+					this.resultLength += copied;
+					i += copied;
+
+					if (this.resultLength == this.result.length)
+						this.state = State.END;
+					break;
+
+				case END:
+					if (buffer[i++] != ResultFrameParser.FRAME_END)
+						throw new ExecutorException("Execution result frame has an invalid length.");
+
+					final String resultText = new String(this.result, StandardCharsets.UTF_8);
+					this.result = null;
+					this.state = State.OUTSIDE;
+					this.listener.frameParsed(this.success, this.testCaseExecutionTimeMillis, resultText);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Finishes parsing the output.
+	 *
+	 * @throws ExecutorException if the output ends with an incomplete frame
+	 */
+	void finish() throws ExecutorException {
+
+		if (this.state != State.OUTSIDE)
+			throw new ExecutorException("Execution result frame is incomplete.");
+	}
+
+	private void parseHeader() throws ExecutorException {
+
+		final String header = new String(this.header, 0, this.headerLength - 1, StandardCharsets.US_ASCII); //without the last separator
+		final int timeEnd = header.indexOf(':', 3);
+
+		this.success = header.startsWith("OK:");
+		if (!this.success && !header.startsWith("ER:"))
+			throw new ExecutorException("Execution result frame did not start properly.");
+
+		final int length;
+		try {
+			this.testCaseExecutionTimeMillis = timeEnd == 3 ? Double.NaN : Double.parseDouble(header.substring(3, timeEnd));
+			length = Integer.parseInt(header.substring(timeEnd + 1));
+
+		} catch (NumberFormatException ex) {
+			throw new ExecutorException("Execution result frame has an invalid header.", ex);
+		}
+
+		if (length < 0)
+			throw new ExecutorException("Execution result frame has an invalid length.");
+
+		this.result = new byte[length];
+		this.resultLength = 0;
+		this.state = length > 0 ? State.RESULT : State.END;
+	}
+
+	private enum State {
+		OUTSIDE, HEADER, RESULT, END
+	}
+
+	/**
+	 * Listener for the results of the parsed frames.
+	 */
+	@FunctionalInterface
+	interface FrameListener {
+
+		/**
+		 * Called for each completely parsed frame.
+		 *
+		 * @param success                     whether the test case succeeded
+		 * @param testCaseExecutionTimeMillis execution time of the test case in milliseconds (or {@link Double#NaN})
+		 * @param result                      result of the test case
+		 *
+		 * @throws ExecutorException if the result cannot be processed
+		 */
+		void frameParsed(boolean success, double testCaseExecutionTimeMillis, String result) throws ExecutorException;
+	}
+}
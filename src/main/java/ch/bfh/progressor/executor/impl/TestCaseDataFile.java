@@ -0,0 +1,298 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.TestCase;
+import ch.bfh.progressor.executor.api.Value;
+import ch.bfh.progressor.executor.api.ValueType;
+
+/**
+ * Data file containing the input and expected output values of test cases, so they do not have to be compiled as literals. <br>
+ * The values are numbered in the order of the test cases (inputs before expected outputs), so the generated code
+ * only depends on the structure of the test cases. All numbers are stored in little-endian byte order:
+ * <ul>
+ * <li>the number of values ({@code int32}) followed by the offset of each value from the beginning of the file ({@code int32})</li>
+ * <li>booleans and 8-bit integers as one byte, 16/32/64-bit integers and floating-point numbers in their binary representation</li>
+ * <li>characters as UTF-16 code unit ({@code uint16})</li>
+ * <li>strings as number of bytes ({@code int32}) followed by the UTF-8 encoded characters, decimals as string of their literal</li>
+ * <li>collections as number of elements ({@code int32}) followed by the elements, maps as number of entries followed by the keys and values</li>
+ * </ul>
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public class TestCaseDataFile {
+
+	private final Map<Value, Integer> indices = new IdentityHashMap<>();
+	private final List<Value> values = new ArrayList<>();
+
+	/**
+	 * Constructs a new {@link TestCaseDataFile}.
+	 *
+	 * @param testCases test cases whose values the file contains
+	 */
+	public TestCaseDataFile(List<TestCase> testCases) {
+
+		for (TestCase testCase : testCases) {
+			testCase.getInputValues().forEach(this::add);
+			testCase.getExpectedOutputValues().forEach(this::add);
+		}
+	}
+
+	private void add(Value value) {
+
+		if (this.indices.putIfAbsent(value, this.values.size()) == null)
+			this.values.add(value);
+	}
+
+	/**
+	 * Counts the single values (including the elements of collections) of test cases.
+	 *
+	 * @param testCases test cases to count the values of
+	 *
+	 * @return number of single values
+	 */
+	public static long countValues(List<TestCase> testCases) {
+
+		long count = 0;
+		for (TestCase testCase : testCases) {
+			for (Value value : testCase.getInputValues())
+				count += TestCaseDataFile.countValues(value);
+			for (Value value : testCase.getExpectedOutputValues())
+				count += TestCaseDataFile.countValues(value);
+		}
+
+		return count;
+	}
+
+	private static long countValues(Value value) {
+
+		switch (value.getDimensions()) {
+			case 0:
+				return 1;
+
+			case 1:
+				Object primitiveCollection = value.getPrimitiveCollection();
+				if (primitiveCollection != null)
+					return Array.getLength(primitiveCollection);
+
+				long count = 0;
+				for (Value element : value.getCollection())
+					count += TestCaseDataFile.countValues(element);
+				return count;
+
+			default:
+				count = 0;
+				for (List<Value> element : value.get2DCollection())
+					for (Value subElement : element)
+						count += TestCaseDataFile.countValues(subElement);
+				return count;
+		}
+	}
+
+	/**
+	 * Gets the index of a value of the test cases in the file.
+	 *
+	 * @param value an input or expected output value of the test cases
+	 *
+	 * @return index of the value
+	 *
+	 * @throws ExecutorException if the value is not part of the test cases
+	 */
+	public int getIndex(Value value) throws ExecutorException {
+
+		Integer index = this.indices.get(value);
+		if (index == null)
+			throw new ExecutorException(String.format("Value %s is not part of the test cases.", value));
+
+		return index;
+	}
+
+	/**
+	 * Writes the values of the test cases to a file.
+	 *
+	 * @param file file to write
+	 *
+	 * @throws ExecutorException if a value is invalid or the file could not be written
+	 */
+	public void write(File file) throws ExecutorException {
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		int[] offsets = new int[this.values.size()];
+		final int headerLength = Integer.BYTES * (offsets.length + 1);
+
+		try {
+			DataOutputStream bodyStream = new DataOutputStream(body);
+			for (int i = 0; i < offsets.length; i++) {
+				offsets[i] = headerLength + bodyStream.size();
+				this.writeValue(bodyStream, this.values.get(i));
+			}
+
+			try (DataOutputStream fileStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+				fileStream.writeInt(Integer.reverseBytes(offsets.length));
+				for (int offset : offsets)
+					fileStream.writeInt(Integer.reverseBytes(offset));
+
+				body.writeTo(fileStream);
+			}
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not write the test case data file.", ex);
+		}
+	}
+
+	private void writeValue(DataOutputStream stream, Value value) throws IOException, ExecutorException {
+
+		try {
+			switch (value.getType().getBaseType()) {
+				case ARRAY:
+				case LIST:
+				case SET:
+					Object primitiveCollection = value.getPrimitiveCollection();
+					if (primitiveCollection != null) {
+						this.writePrimitiveCollection(stream, value.getType().getGenericParameters().get(0), primitiveCollection);
+						break;
+					}
+
+					stream.writeInt(Integer.reverseBytes(value.getCollection().size()));
+					for (Value element : value.getCollection())
+						this.writeValue(stream, element);
+					break;
+
+				case MAP:
+					stream.writeInt(Integer.reverseBytes(value.get2DCollection().size()));
+					for (List<Value> element : value.get2DCollection()) { //write key/value pairs
+						if (element.size() != 2) //validate key/value pair
+							throw new ExecutorException("Map entries always need a key and a value.");
+
+						this.writeValue(stream, element.get(0));
+						this.writeValue(stream, element.get(1));
+					}
+					break;
+
+				case STRING:
+					this.writeString(stream, value.getSingle());
+					break;
+
+				case CHARACTER:
+					if (value.getSingle().length() != 1)
+						throw new ExecutorException(String.format("Value %s is not a valid character literal.", value));
+					stream.writeChar(Character.reverseBytes(value.getSingle().charAt(0)));
+					break;
+
+				case BOOLEAN:
+					stream.writeBoolean("true".equalsIgnoreCase(value.getSingle()));
+					break;
+
+				case INT8:
+					stream.writeByte(Byte.parseByte(value.getSingle()));
+					break;
+
+				case INT16:
+					stream.writeShort(Short.reverseBytes(Short.parseShort(value.getSingle())));
+					break;
+
+				case INT32:
+					stream.writeInt(Integer.reverseBytes(Integer.parseInt(value.getSingle())));
+					break;
+
+				case INT64:
+					stream.writeLong(Long.reverseBytes(Long.parseLong(value.getSingle())));
+					break;
+
+				case FLOAT32:
+					stream.writeInt(Integer.reverseBytes(Float.floatToRawIntBits(Float.parseFloat(value.getSingle()))));
+					break;
+
+				case FLOAT64:
+					stream.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(Double.parseDouble(value.getSingle()))));
+					break;
+
+				case DECIMAL:
+					new BigDecimal(value.getSingle()); //validate the literal, but keep its precision
+					this.writeString(stream, value.getSingle());
+					break;
+
+				default:
+					throw new ExecutorException(String.format("Value type %s is not supported.", value.getType()));
+			}
+
+		} catch (NumberFormatException ex) {
+			throw new ExecutorException(String.format("Value %s is not a valid numeric literal.", value));
+		}
+	}
+
+	private void writePrimitiveCollection(DataOutputStream stream, ValueType elementType, Object primitiveCollection) throws IOException, ExecutorException {
+
+		switch (elementType.getBaseType()) {
+			case INT8:
+				int[] bytes = (int[])primitiveCollection; //already checked to be in range
+				stream.writeInt(Integer.reverseBytes(bytes.length));
+				for (int element : bytes)
+					stream.writeByte(element);
+				break;
+
+			case INT16:
+				int[] shorts = (int[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(shorts.length));
+				for (int element : shorts)
+					stream.writeShort(Short.reverseBytes((short)element));
+				break;
+
+			case INT32:
+				int[] ints = (int[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(ints.length));
+				for (int element : ints)
+					stream.writeInt(Integer.reverseBytes(element));
+				break;
+
+			case INT64:
+				long[] longs = (long[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(longs.length));
+				for (long element : longs)
+					stream.writeLong(Long.reverseBytes(element));
+				break;
+
+			case FLOAT64:
+				double[] doubles = (double[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(doubles.length));
+				for (double element : doubles)
+					stream.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(element)));
+				break;
+
+			case CHARACTER:
+				char[] chars = (char[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(chars.length));
+				for (char element : chars)
+					stream.writeChar(Character.reverseBytes(element));
+				break;
+
+			case BOOLEAN:
+				boolean[] booleans = (boolean[])primitiveCollection;
+				stream.writeInt(Integer.reverseBytes(booleans.length));
+				for (boolean element : booleans)
+					stream.writeBoolean(element);
+				break;
+
+			default:
+				throw new ExecutorException(String.format("Value type %s is not supported.", elementType));
+		}
+	}
+
+	private void writeString(DataOutputStream stream, String value) throws IOException {
+
+		byte[] bytes = value.getBytes(CodeExecutorBase.CHARSET);
+		stream.writeInt(Integer.reverseBytes(bytes.length));
+		stream.write(bytes);
+	}
+}
@@ -1,11 +1,11 @@
 package ch.bfh.progressor.executor.impl;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.RandomAccess;
 import java.util.stream.Collectors;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.Value;
@@ -13,15 +13,15 @@ import ch.bfh.progressor.executor.api.ValueType;
 
 /**
  * Represents an abstract base class for read-only implementations of arbitrary {@link Value}s. <br>
- * Also contains parsing logic.
+ * Also contains parsing logic. Collections of numbers, characters and booleans written as canonical literals
+ * are stored in primitive arrays instead of one {@link Value} per element.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
 public abstract class ValueImpl implements Value {
 
-	private static final Pattern DELIMITER_OPEN_PATTERN = Pattern.compile("\\s*\\{\\s*");
-	private static final Pattern DELIMITER_CLOSE_PATTERN = Pattern.compile("\\s*\\}\\s*");
-	private static final List<Pattern> SEPARATOR_PATTERNS = Arrays.asList(Pattern.compile("\\s*,\\s*"), Pattern.compile("\\s*:\\s*"));
+	private static final String ELEMENT_DELIMITERS = "},";
+	private static final String SUB_ELEMENT_DELIMITERS = "},:";
 
 	/**
 	 * Parses an arbitrary string.
@@ -35,80 +35,15 @@ public abstract class ValueImpl implements Value {
 	 */
 	public static Value parse(ValueType type, String value) throws ExecutorException {
 
-		AtomicInteger index = new AtomicInteger(0);
-		Value result = ValueImpl.parse(type, value, index);
+		ValueImpl.Parser parser = new ValueImpl.Parser(value);
+		Value result = parser.parse(type, "");
 
-		if (index.get() != value.length())
-			throw new ExecutorException(String.format("Expected end of value '%s' at %d.", value, index.get()));
+		if (parser.index != value.length())
+			throw new ExecutorException(String.format("Expected end of value '%s' at %d.", value, parser.index));
 
 		return result;
 	}
 
-	private static Value parse(ValueType type, String input, AtomicInteger index, Pattern... delimiters) throws ExecutorException {
-
-		switch (type.getBaseType().getDimensions()) {
-			case 0:
-				Matcher matcher = Pattern.compile(String.format(delimiters.length > 0 ? ".*?(?=(%s))" : ".*", String.join(")|(", Arrays.stream(delimiters).map(Pattern::pattern).collect(Collectors.toList())))).matcher(input.substring(index.get()));
-				if (!matcher.lookingAt())
-					throw new ExecutorException(String.format("Error in value '%s' at %d.", input, index.get()));
-				index.addAndGet(matcher.group().length());
-				return new ValueImpl.Single(type, matcher.group());
-
-			case 1:
-				if (!(matcher = ValueImpl.DELIMITER_OPEN_PATTERN.matcher(input.substring(index.get()))).lookingAt())
-					throw new ExecutorException(String.format("Missing opening curly bracket in '%s' at %d.", input, index.get()));
-				index.addAndGet(matcher.group().length());
-
-				List<Value> collection = new ArrayList<>();
-				for (int i = 0; true; i++) {
-					if ((matcher = ValueImpl.DELIMITER_CLOSE_PATTERN.matcher(input.substring(index.get()))).lookingAt()) {
-						index.addAndGet(matcher.group().length());
-						break;
-					} else if (i > 0 && (matcher = ValueImpl.SEPARATOR_PATTERNS.get(0).matcher(input.substring(index.get()))).lookingAt())
-						index.addAndGet(matcher.group().length());
-					else if (i > 0)
-						throw new ExecutorException(String.format("Missing element separator in '%s' at %d.", input, index.get()));
-
-					collection.add(ValueImpl.parse(type.getGenericParameters().get(0), input, index, ValueImpl.DELIMITER_CLOSE_PATTERN, ValueImpl.SEPARATOR_PATTERNS.get(0)));
-				}
-				return new ValueImpl.Collection1D(type, collection);
-
-			case 2:
-				if (!(matcher = ValueImpl.DELIMITER_OPEN_PATTERN.matcher(input.substring(index.get()))).lookingAt())
-					throw new ExecutorException(String.format("Missing opening curly bracket in '%s' at %d.", input, index.get()));
-				index.addAndGet(matcher.group().length());
-
-				List<List<Value>> collection2D = new ArrayList<>();
-				for (int i = 0; true; i++) {
-					if ((matcher = ValueImpl.DELIMITER_CLOSE_PATTERN.matcher(input.substring(index.get()))).lookingAt()) {
-						index.addAndGet(matcher.group().length());
-						break;
-					} else if (i > 0 && (matcher = ValueImpl.SEPARATOR_PATTERNS.get(0).matcher(input.substring(index.get()))).lookingAt())
-						index.addAndGet(matcher.group().length());
-					else if (i > 0)
-						throw new ExecutorException(String.format("Missing element separator in '%s' at %d.", input, index.get()));
-
-					collection = new ArrayList<>();
-					for (int j = 0; true; j++) {
-						if ((matcher = ValueImpl.DELIMITER_CLOSE_PATTERN.matcher(input.substring(index.get()))).lookingAt()
-								|| (matcher = ValueImpl.SEPARATOR_PATTERNS.get(0).matcher(input.substring(index.get()))).lookingAt()) {
-							break;
-						} else if (j > 0 && (matcher = ValueImpl.SEPARATOR_PATTERNS.get(1).matcher(input.substring(index.get()))).lookingAt())
-							index.addAndGet(matcher.group().length());
-						else if (j > 0)
-							throw new ExecutorException(String.format("Missing sub-element separator in '%s' at %d.", input, index.get()));
-
-						collection.add(ValueImpl.parse(type.getGenericParameters().get(j), input, index, ValueImpl.DELIMITER_CLOSE_PATTERN, ValueImpl.SEPARATOR_PATTERNS.get(0), ValueImpl.SEPARATOR_PATTERNS.get(1)));
-					}
-					collection2D.add(collection);
-				}
-				return new ValueImpl.Collection2D(type, collection2D);
-
-			default:
-				throw new ExecutorException(String.format("Unsupported number of dimensions: %d.", type.getBaseType().getDimensions()));
-		}
-	}
-
 	private final ValueType type;
 
 	private ValueImpl(ValueType type) {
@@ -139,6 +74,15 @@ public abstract class ValueImpl implements Value {
 		throw this.defaultGetter(1);
 	}
 
+	@Override
+	public Object getPrimitiveCollection() {
+
+		if (this.getDimensions() != 1)
+			throw this.defaultGetter(1);
+
+		return null;
+	}
+
 	@Override
 	public List<List<Value>> get2DCollection() {
 		throw this.defaultGetter(2);
@@ -277,4 +221,521 @@ public abstract class ValueImpl implements Value {
 			return String.format("{%s}", String.join("|", this.collection.stream().map(c -> String.format("{%s}", String.join("|", c.stream().map(Value::toString).collect(Collectors.toList())))).collect(Collectors.toList())));
 		}
 	}
+
+	/**
+	 * Collection of single values stored in a primitive array. <br>
+	 * Only canonical literals (the ones {@link Integer#toString(int)}, {@link Long#toString(long)}, {@link Double#toString(double)},
+	 * {@link String#valueOf(char)} or {@link Boolean#toString(boolean)} return) are accepted, so {@link #getCollection()} can recreate the original literals.
+	 */
+	private abstract static class PrimitiveCollection1D extends ValueImpl {
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		protected int size;
+
+		private PrimitiveCollection1D(ValueType type) {
+			super(type);
+		}
+
+		private static ValueImpl.PrimitiveCollection1D create(ValueType type) {
+
+			switch (type.getGenericParameters().get(0).getBaseType()) {
+				case INT8:
+					return new ValueImpl.IntCollection1D(type, Byte.MIN_VALUE, Byte.MAX_VALUE);
+
+				case INT16:
+					return new ValueImpl.IntCollection1D(type, Short.MIN_VALUE, Short.MAX_VALUE);
+
+				case INT32:
+					return new ValueImpl.IntCollection1D(type, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+				case INT64:
+					return new ValueImpl.LongCollection1D(type);
+
+				case FLOAT64:
+					return new ValueImpl.DoubleCollection1D(type);
+
+				case CHARACTER:
+					return new ValueImpl.CharacterCollection1D(type);
+
+				case BOOLEAN:
+					return new ValueImpl.BooleanCollection1D(type);
+
+				default:
+					return null; //floats and decimals would lose their literals
+			}
+		}
+
+		/**
+		 * Checks whether an integer literal is canonical (decimal digits without a plus sign, leading zeros or a negative zero).
+		 */
+		protected static boolean isCanonicalInteger(String input, int start, int end) {
+
+			int digits = start < end && input.charAt(start) == '-' ? start + 1 : start;
+			if (digits == end || input.charAt(digits) == '0' && (end - digits > 1 || digits > start)) //no leading zeros or negative zero
+				return false;
+
+			for (int i = digits; i < end; i++)
+				if (input.charAt(i) < '0' || input.charAt(i) > '9')
+					return false;
+
+			return true;
+		}
+
+		@Override
+		public int getDimensions() {
+			return 1;
+		}
+
+		@Override
+		public List<Value> getCollection() {
+			return new ValueImpl.PrimitiveCollection1D.Elements();
+		}
+
+		@Override
+		public abstract Object getPrimitiveCollection();
+
+		/**
+		 * Adds the value of a literal to the collection.
+		 *
+		 * @return whether the literal is canonical and has been added
+		 */
+		protected abstract boolean add(String input, int start, int end);
+
+		/**
+		 * Gets the canonical literal of an element.
+		 */
+		protected abstract String getLiteral(int index);
+
+		/**
+		 * Shrinks the primitive array to the size of the collection.
+		 */
+		protected abstract ValueImpl.PrimitiveCollection1D trim();
+
+		protected static int grow(int capacity) {
+			return Math.max(ValueImpl.PrimitiveCollection1D.INITIAL_CAPACITY, capacity * 2);
+		}
+
+		private List<Value> toList() {
+
+			List<Value> collection = new ArrayList<>(this.size + 1);
+			collection.addAll(this.getCollection());
+			return collection;
+		}
+
+		@Override
+		public int hashCode() {
+			return (17 + Arrays.deepHashCode(new Object[] { this.getPrimitiveCollection() })) * 31;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj != null && this.getClass() == obj.getClass() && Objects.deepEquals(this.getPrimitiveCollection(), ((ValueImpl.PrimitiveCollection1D)obj).getPrimitiveCollection());
+		}
+
+		@Override
+		public String toString() {
+
+			StringBuilder sb = new StringBuilder("{");
+			for (int i = 0; i < this.size; i++) {
+				if (i > 0) sb.append('|');
+				sb.append(this.getLiteral(i));
+			}
+
+			return sb.append('}').toString();
+		}
+
+		/**
+		 * Read-only view creating the single values of the elements on demand.
+		 */
+		private class Elements extends AbstractList<Value> implements RandomAccess {
+
+			@Override
+			public Value get(int index) {
+
+				if (index < 0 || index >= PrimitiveCollection1D.this.size)
+					throw new IndexOutOfBoundsException(String.format("Index: %d, size: %d.", index, PrimitiveCollection1D.this.size));
+
+				return new ValueImpl.Single(PrimitiveCollection1D.this.getType().getGenericParameters().get(0), PrimitiveCollection1D.this.getLiteral(index));
+			}
+
+			@Override
+			public int size() {
+				return PrimitiveCollection1D.this.size;
+			}
+		}
+	}
+
+	private static class IntCollection1D extends ValueImpl.PrimitiveCollection1D {
+
+		private final int minValue, maxValue;
+		private int[] values = new int[0];
+
+		private IntCollection1D(ValueType type, int minValue, int maxValue) {
+			super(type);
+
+			this.minValue = minValue;
+			this.maxValue = maxValue;
+		}
+
+		@Override
+		public Object getPrimitiveCollection() {
+			return this.values;
+		}
+
+		@Override
+		protected boolean add(String input, int start, int end) {
+
+			if (!ValueImpl.PrimitiveCollection1D.isCanonicalInteger(input, start, end) || end - start > 11) //longer than any int
+				return false;
+
+			long value = 0;
+			for (int i = input.charAt(start) == '-' ? start + 1 : start; i < end; i++)
+				value = value * 10 + input.charAt(i) - '0';
+			if (input.charAt(start) == '-')
+				value = -value;
+
+			if (value < this.minValue || value > this.maxValue)
+				return false;
+
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, ValueImpl.PrimitiveCollection1D.grow(this.values.length));
+			this.values[this.size++] = (int)value;
+			return true;
+		}
+
+		@Override
+		protected String getLiteral(int index) {
+			return Integer.toString(this.values[index]);
+		}
+
+		@Override
+		protected ValueImpl.PrimitiveCollection1D trim() {
+
+			this.values = Arrays.copyOf(this.values, this.size);
+			return this;
+		}
+	}
+
+	private static class LongCollection1D extends ValueImpl.PrimitiveCollection1D {
+
+		private long[] values = new long[0];
+
+		private LongCollection1D(ValueType type) {
+			super(type);
+		}
+
+		@Override
+		public Object getPrimitiveCollection() {
+			return this.values;
+		}
+
+		@Override
+		protected boolean add(String input, int start, int end) {
+
+			if (!ValueImpl.PrimitiveCollection1D.isCanonicalInteger(input, start, end))
+				return false;
+
+			final boolean negative = input.charAt(start) == '-';
+			final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+			long value = 0; //accumulate negatively like Long.parseLong to reach Long.MIN_VALUE
+			for (int i = negative ? start + 1 : start; i < end; i++) {
+				int digit = input.charAt(i) - '0';
+				if (value < limit / 10 || value * 10 < limit + digit)
+					return false;
+				value = value * 10 - digit;
+			}
+
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, ValueImpl.PrimitiveCollection1D.grow(this.values.length));
+			this.values[this.size++] = negative ? value : -value;
+			return true;
+		}
+
+		@Override
+		protected String getLiteral(int index) {
+			return Long.toString(this.values[index]);
+		}
+
+		@Override
+		protected ValueImpl.PrimitiveCollection1D trim() {
+
+			this.values = Arrays.copyOf(this.values, this.size);
+			return this;
+		}
+	}
+
+	private static class DoubleCollection1D extends ValueImpl.PrimitiveCollection1D {
+
+		private double[] values = new double[0];
+
+		private DoubleCollection1D(ValueType type) {
+			super(type);
+		}
+
+		@Override
+		public Object getPrimitiveCollection() {
+			return this.values;
+		}
+
+		@Override
+		protected boolean add(String input, int start, int end) {
+
+			double value;
+			try {
+				value = Double.parseDouble(input.substring(start, end));
+
+			} catch (NumberFormatException ex) {
+				return false;
+			}
+
+			String literal = Double.toString(value);
+			if (literal.length() != end - start || !input.startsWith(literal, start))
+				return false;
+
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, ValueImpl.PrimitiveCollection1D.grow(this.values.length));
+			this.values[this.size++] = value;
+			return true;
+		}
+
+		@Override
+		protected String getLiteral(int index) {
+			return Double.toString(this.values[index]);
+		}
+
+		@Override
+		protected ValueImpl.PrimitiveCollection1D trim() {
+
+			this.values = Arrays.copyOf(this.values, this.size);
+			return this;
+		}
+	}
+
+	private static class CharacterCollection1D extends ValueImpl.PrimitiveCollection1D {
+
+		private char[] values = new char[0];
+
+		private CharacterCollection1D(ValueType type) {
+			super(type);
+		}
+
+		@Override
+		public Object getPrimitiveCollection() {
+			return this.values;
+		}
+
+		@Override
+		protected boolean add(String input, int start, int end) {
+
+			if (end - start != 1)
+				return false;
+
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, ValueImpl.PrimitiveCollection1D.grow(this.values.length));
+			this.values[this.size++] = input.charAt(start);
+			return true;
+		}
+
+		@Override
+		protected String getLiteral(int index) {
+			return String.valueOf(this.values[index]);
+		}
+
+		@Override
+		protected ValueImpl.PrimitiveCollection1D trim() {
+
+			this.values = Arrays.copyOf(this.values, this.size);
+			return this;
+		}
+	}
+
+	private static class BooleanCollection1D extends ValueImpl.PrimitiveCollection1D {
+
+		private static final String TRUE_LITERAL = Boolean.toString(true), FALSE_LITERAL = Boolean.toString(false);
+
+		private boolean[] values = new boolean[0];
+
+		private BooleanCollection1D(ValueType type) {
+			super(type);
+		}
+
+		@Override
+		public Object getPrimitiveCollection() {
+			return this.values;
+		}
+
+		@Override
+		protected boolean add(String input, int start, int end) {
+
+			boolean value;
+			if (end - start == ValueImpl.BooleanCollection1D.TRUE_LITERAL.length() && input.startsWith(ValueImpl.BooleanCollection1D.TRUE_LITERAL, start))
+				value = true;
+			else if (end - start == ValueImpl.BooleanCollection1D.FALSE_LITERAL.length() && input.startsWith(ValueImpl.BooleanCollection1D.FALSE_LITERAL, start))
+				value = false;
+			else
+				return false;
+
+			if (this.size == this.values.length)
+				this.values = Arrays.copyOf(this.values, ValueImpl.PrimitiveCollection1D.grow(this.values.length));
+			this.values[this.size++] = value;
+			return true;
+		}
+
+		@Override
+		protected String getLiteral(int index) {
+			return Boolean.toString(this.values[index]);
+		}
+
+		@Override
+		protected ValueImpl.PrimitiveCollection1D trim() {
+
+			this.values = Arrays.copyOf(this.values, this.size);
+			return this;
+		}
+	}
+
+	/**
+	 * Single-pass parser moving a cursor over the input, so no substrings or matchers are created for delimiters. <br>
+	 * Whitespace around brackets and separators is skipped, single values end before the whitespace preceding their delimiter
+	 * and may not span multiple lines.
+	 */
+	private static class Parser {
+
+		private final String input;
+		private int index;
+
+		private Parser(String input) {
+
+			this.input = input;
+		}
+
+		private Value parse(ValueType type, String delimiters) throws ExecutorException {
+
+			switch (type.getBaseType().getDimensions()) {
+				case 0:
+					return new ValueImpl.Single(type, this.parseSingle(delimiters));
+
+				case 1:
+					if (!this.skipDelimiter('{'))
+						throw new ExecutorException(String.format("Missing opening curly bracket in '%s' at %d.", this.input, this.index));
+
+					ValueImpl.PrimitiveCollection1D primitiveCollection = ValueImpl.PrimitiveCollection1D.create(type);
+					List<Value> collection = primitiveCollection == null ? new ArrayList<>() : null;
+					for (int i = 0; !this.skipDelimiter('}'); i++) {
+						if (i > 0 && !this.skipDelimiter(','))
+							throw new ExecutorException(String.format("Missing element separator in '%s' at %d.", this.input, this.index));
+
+						if (primitiveCollection != null) {
+							final int start = this.index, end = this.findSingleEnd(ValueImpl.ELEMENT_DELIMITERS);
+							if (primitiveCollection.add(this.input, start, end))
+								continue;
+
+							collection = primitiveCollection.toList(); //keep the original literal of a non-canonical element
+							collection.add(new ValueImpl.Single(type.getGenericParameters().get(0), this.input.substring(start, end)));
+							primitiveCollection = null;
+
+						} else
+							collection.add(this.parse(type.getGenericParameters().get(0), ValueImpl.ELEMENT_DELIMITERS));
+					}
+					return primitiveCollection != null ? primitiveCollection.trim() : new ValueImpl.Collection1D(type, collection);
+
+				case 2:
+					if (!this.skipDelimiter('{'))
+						throw new ExecutorException(String.format("Missing opening curly bracket in '%s' at %d.", this.input, this.index));
+
+					List<List<Value>> collection2D = new ArrayList<>();
+					for (int i = 0; !this.skipDelimiter('}'); i++) {
+						if (i > 0 && !this.skipDelimiter(','))
+							throw new ExecutorException(String.format("Missing element separator in '%s' at %d.", this.input, this.index));
+
+						collection = new ArrayList<>();
+						for (int j = 0; !this.isAtDelimiter('}') && !this.isAtDelimiter(','); j++) {
+							if (j > 0 && !this.skipDelimiter(':'))
+								throw new ExecutorException(String.format("Missing sub-element separator in '%s' at %d.", this.input, this.index));
+							if (j == type.getGenericParameters().size())
+								throw new ExecutorException(String.format("Unexpected sub-element in '%s' at %d.", this.input, this.index));
+
+							collection.add(this.parse(type.getGenericParameters().get(j), ValueImpl.SUB_ELEMENT_DELIMITERS));
+						}
+						if (collection.size() < type.getGenericParameters().size())
+							throw new ExecutorException(String.format("Missing sub-element in '%s' at %d.", this.input, this.index));
+						collection2D.add(collection);
+					}
+					return new ValueImpl.Collection2D(type, collection2D);
+
+				default:
+					throw new ExecutorException(String.format("Unsupported number of dimensions: %d.", type.getBaseType().getDimensions()));
+			}
+		}
+
+		private String parseSingle(String delimiters) throws ExecutorException {
+
+			final int start = this.index;
+			return this.input.substring(start, this.findSingleEnd(delimiters));
+		}
+
+		private int findSingleEnd(String delimiters) throws ExecutorException {
+
+			final int start = this.index;
+			if (delimiters.isEmpty()) { //take the rest of the line
+				while (this.index < this.input.length() && !ValueImpl.Parser.isLineTerminator(this.input.charAt(this.index)))
+					this.index++;
+
+				return this.index;
+			}
+
+			int whitespaceStart = -1;
+			boolean lineTerminator = false;
+			for (int i = start; i < this.input.length(); i++) {
+				char c = this.input.charAt(i);
+				if (delimiters.indexOf(c) >= 0) //trailing whitespace belongs to the delimiter
+					return this.index = whitespaceStart < 0 ? i : whitespaceStart;
+
+				else if (ValueImpl.Parser.isWhitespace(c)) {
+					if (whitespaceStart < 0) whitespaceStart = i;
+					lineTerminator |= ValueImpl.Parser.isLineTerminator(c);
+
+				} else if (lineTerminator || ValueImpl.Parser.isLineTerminator(c))
+					break;
+
+				else
+					whitespaceStart = -1;
+			}
+
+			throw new ExecutorException(String.format("Error in value '%s' at %d.", this.input, start));
+		}
+
+		private boolean isAtDelimiter(char delimiter) {
+
+			int i = this.skipWhitespace(this.index);
+			return i < this.input.length() && this.input.charAt(i) == delimiter;
+		}
+
+		private boolean skipDelimiter(char delimiter) {
+
+			int i = this.skipWhitespace(this.index);
+			if (i >= this.input.length() || this.input.charAt(i) != delimiter)
+				return false;
+
+			this.index = this.skipWhitespace(i + 1);
+			return true;
+		}
+
+		private int skipWhitespace(int index) {
+
+			while (index < this.input.length() && ValueImpl.Parser.isWhitespace(this.input.charAt(index)))
+				index++;
+
+			return index;
+		}
+
+		private static boolean isWhitespace(char c) { //same as \s of regular expressions
+			return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+		}
+
+		private static boolean isLineTerminator(char c) { //same as the characters not matched by . of regular expressions
+			return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+		}
+	}
 }
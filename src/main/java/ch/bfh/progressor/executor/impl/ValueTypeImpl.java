@@ -1,9 +1,13 @@
 package ch.bfh.progressor.executor.impl;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -13,7 +17,8 @@ import ch.bfh.progressor.executor.api.ValueType;
 
 /**
  * Represents a read-only implementation of {@link ValueType}s. <br>
- * Also contains parsing logic.
+ * Also contains parsing logic. Parsed types are interned, so equal types are always represented by the same instance
+ * and each distinct type string is only parsed once.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
@@ -23,8 +28,20 @@ public class ValueTypeImpl implements ValueType {
 	private static final Pattern DELIMITER_CLOSE_PATTERN = Pattern.compile("\\s*>\\s*");
 	private static final Pattern ELEMENT_SEPARATOR_PATTERN = Pattern.compile("\\s*,\\s*");
 
+	private static final int MAX_PARSED_TYPES = 1024;
+
+	private static final ValueTypeImpl.BaseTypeTrie BASE_TYPES = new ValueTypeImpl.BaseTypeTrie();
+	private static final Map<String, ValueType> PARSED_TYPES = new ConcurrentHashMap<>();
+	private static final Map<ValueTypeImpl, WeakReference<ValueTypeImpl>> CANONICAL_TYPES = new WeakHashMap<>();
+
+	static {
+		for (ValueType.BaseType baseType : ValueType.BaseType.values())
+			ValueTypeImpl.BASE_TYPES.add(baseType);
+	}
+
 	private final ValueType.BaseType baseType;
 	private final List<ValueType> genericParameters;
+	private final int hashCode;
 
 	/**
 	 * Parses a value type.
@@ -37,18 +54,25 @@ public class ValueTypeImpl implements ValueType {
 	 */
 	public static ValueType parse(String type) throws ExecutorException {
 
+		ValueType result = ValueTypeImpl.PARSED_TYPES.get(type);
+		if (result != null)
+			return result;
+
 		AtomicInteger index = new AtomicInteger(0);
-		ValueType result = ValueTypeImpl.parse(type, index);
+		result = ValueTypeImpl.parse(type, index);
 
 		if (index.get() != type.length())
 			throw new ExecutorException(String.format("Expected end of type '%s' at %d.", type, index.get()));
 
+		if (ValueTypeImpl.PARSED_TYPES.size() < ValueTypeImpl.MAX_PARSED_TYPES) //the interned instances stay canonical even if their type string is not cached
+			ValueTypeImpl.PARSED_TYPES.putIfAbsent(type, result);
+
 		return result;
 	}
 
 	private static ValueType parse(String input, AtomicInteger index) throws ExecutorException {
 
-		ValueType.BaseType type = Arrays.stream(ValueType.BaseType.values()).filter(t -> input.length() >= index.get() + t.getName().length() && input.substring(index.get(), index.get() + t.getName().length()).equals(t.getName())).findAny().orElse(null);
+		ValueType.BaseType type = ValueTypeImpl.BASE_TYPES.find(input, index.get());
 		if (type == null)
 			throw new ExecutorException(String.format("Unknown type in '%s' at %d.", input, index.get()));
 		index.addAndGet(type.getName().length());
@@ -70,13 +94,31 @@ public class ValueTypeImpl implements ValueType {
 		if (genericTypes.size() != type.getDimensions())
 			throw new ExecutorException(String.format("Mismatch in number of generic types for %s. Found: %d, expected: %d.", type, genericTypes.size(), type.getDimensions()));
 
-		return new ValueTypeImpl(type, genericTypes);
+		return ValueTypeImpl.intern(new ValueTypeImpl(type, genericTypes));
+	}
+
+	private static ValueTypeImpl intern(ValueTypeImpl type) {
+
+		synchronized (ValueTypeImpl.CANONICAL_TYPES) { //the canonical instance may only be collected if no one uses it anymore
+			WeakReference<ValueTypeImpl> reference = ValueTypeImpl.CANONICAL_TYPES.get(type);
+			ValueTypeImpl canonicalType = reference != null ? reference.get() : null;
+			if (canonicalType == null)
+				ValueTypeImpl.CANONICAL_TYPES.put(canonicalType = type, new WeakReference<>(type));
+
+			return canonicalType;
+		}
 	}
 
 	private ValueTypeImpl(ValueType.BaseType baseType, List<ValueType> genericParameters) {
 
 		this.baseType = baseType;
 		this.genericParameters = Collections.unmodifiableList(genericParameters);
+
+		int hash = 17;
+		hash = (hash + this.baseType.hashCode()) * 31;
+		for (ValueType genericParameter : this.genericParameters)
+			hash = (hash + genericParameter.hashCode()) * 31;
+		this.hashCode = hash;
 	}
 
 	@Override
@@ -96,12 +138,7 @@ public class ValueTypeImpl implements ValueType {
 	 */
 	@Override
 	public int hashCode() {
-
-		int hash = 17;
-		hash = (hash + this.baseType.hashCode()) * 31;
-		for (ValueType genericParameter : this.genericParameters)
-			hash = (hash + genericParameter.hashCode()) * 31;
-		return hash;
+		return this.hashCode; //is immutable
 	}
 
 	/**
@@ -114,6 +151,7 @@ public class ValueTypeImpl implements ValueType {
 	@Override
 	public boolean equals(Object obj) {
 
+		if (this == obj) return true; //interned types are only equal to themselves
 		if (obj == null || this.getClass() != obj.getClass()) return false;
 
 		ValueTypeImpl other = (ValueTypeImpl)obj;
@@ -129,4 +167,32 @@ public class ValueTypeImpl implements ValueType {
 	public String toString() {
 		return String.format(this.genericParameters.isEmpty() ? "%s" : "%s<%s>", this.baseType, String.join(", ", this.genericParameters.stream().map(ValueType::toString).collect(Collectors.toList())));
 	}
+
+	/**
+	 * Prefix tree of the names of all {@link ValueType.BaseType}s.
+	 */
+	private static class BaseTypeTrie {
+
+		private final Map<Character, ValueTypeImpl.BaseTypeTrie> children = new HashMap<>();
+		private ValueType.BaseType baseType;
+
+		private void add(ValueType.BaseType baseType) {
+
+			ValueTypeImpl.BaseTypeTrie node = this;
+			for (char c : baseType.getName().toCharArray())
+				node = node.children.computeIfAbsent(c, k -> new ValueTypeImpl.BaseTypeTrie());
+			node.baseType = baseType;
+		}
+
+		private ValueType.BaseType find(String input, int index) { //finds the longest name at the index
+
+			ValueType.BaseType result = null;
+			ValueTypeImpl.BaseTypeTrie node = this;
+			for (int i = index; i < input.length() && (node = node.children.get(input.charAt(i))) != null; i++)
+				if (node.baseType != null)
+					result = node.baseType;
+
+			return result;
+		}
+	}
 }
@@ -0,0 +1,459 @@
+package ch.bfh.progressor.executor.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of pre-started worker processes executing programs one at a time. <br>
+ * A worker announces that it is ready with {@link #READY_MESSAGE} and then reads requests (a number of strings) from its standard input.
+ * For each request, it sends the output of the program in frames (the length followed by the bytes) to its standard output,
+ * followed by an end frame ({@link #END_FRAME_LENGTH}, the exit code and whether the program has polluted the worker).
+ * A worker is replaced after a number of programs or as soon as a program has polluted it.
+ * The pool refills itself in the background.
+ *
+ * @author strut1, touwm1 &amp; weidj1
+ */
+public abstract class WorkerPool {
+
+	/**
+	 * Message sent by a worker as soon as it is ready to execute programs.
+	 */
+	public static final int READY_MESSAGE = 0x4A574B52;
+
+	/**
+	 * Length of the frame marking the end of the output of a program.
+	 */
+	public static final int END_FRAME_LENGTH = -1;
+
+	private static final Logger LOGGER = Logger.getLogger(WorkerPool.class.getName());
+
+	private static final long MAINTENANCE_INTERVAL_MILLIS = 1000;
+	private static final long START_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+	private final String name;
+	private final int idleWorkers, maxUses;
+
+	private final Deque<Worker> idle = new ArrayDeque<>();
+	private final ScheduledExecutorService maintenance;
+	private int startingWorkers;
+	private long retryStartMillis;
+	private boolean closed;
+
+	/**
+	 * Constructs a new {@link WorkerPool}.
+	 *
+	 * @param name        name of the workers (used for logging)
+	 * @param idleWorkers number of idle workers to keep ready
+	 * @param maxUses     number of programs a worker may execute before it is replaced
+	 */
+	protected WorkerPool(String name, int idleWorkers, int maxUses) {
+
+		if (idleWorkers < 0 || maxUses < 1)
+			throw new IllegalArgumentException(String.format("Pool with %d idle workers and %d uses is invalid.", idleWorkers, maxUses));
+
+		this.name = name;
+		this.idleWorkers = idleWorkers;
+		this.maxUses = maxUses;
+
+		this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, String.format("%s-pool", name));
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.maintenance.scheduleWithFixedDelay(this::refill, 0, WorkerPool.MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Gets the number of idle workers currently ready.
+	 *
+	 * @return number of idle workers
+	 */
+	public synchronized int getIdleWorkerCount() {
+		return this.idle.size();
+	}
+
+	/**
+	 * Executes a program in a worker. <br>
+	 * The returned process represents the execution of the program only:
+	 * its output ends with the output of the program and destroying it replaces the worker.
+	 * The standard error of the program is merged into its standard output, its standard input is empty.
+	 *
+	 * @param request request describing the program to the worker
+	 *
+	 * @return a {@link Process} representing the execution of the program
+	 *
+	 * @throws IOException if no worker could be started or the request could not be sent to it
+	 */
+	protected Process execute(String... request) throws IOException {
+
+		Worker worker;
+		synchronized (this) {
+			if (this.closed)
+				throw new IOException(String.format("Could not execute program in a closed %s pool.", this.name));
+
+			worker = this.idle.pollFirst();
+		}
+
+		if (worker == null)
+			worker = this.startWorker();
+
+		this.schedule(this::refill);
+
+		try {
+			worker.uses++;
+			for (String part : request)
+				worker.output.writeUTF(part);
+			worker.output.flush();
+
+		} catch (IOException ex) {
+			this.destroy(worker);
+			throw ex;
+		}
+
+		return new WorkerProcess(worker);
+	}
+
+	/**
+	 * Stops the background maintenance and all idle workers.
+	 */
+	public void close() {
+
+		List<Worker> workers;
+		synchronized (this) {
+			this.closed = true;
+			workers = new ArrayList<>(this.idle);
+			this.idle.clear();
+		}
+
+		this.maintenance.shutdownNow();
+		workers.forEach(this::destroy);
+	}
+
+	private boolean schedule(Runnable task) {
+
+		try {
+			this.maintenance.execute(task);
+			return true;
+
+		} catch (RejectedExecutionException ex) {
+			WorkerPool.LOGGER.log(Level.FINE, "Pool maintenance has already been shut down.", ex);
+			return false;
+		}
+	}
+
+	private void release(Worker worker, boolean polluted) {
+
+		if (polluted || worker.uses >= this.maxUses || !this.offer(worker))
+			this.destroy(worker);
+	}
+
+	private synchronized boolean offer(Worker worker) {
+
+		if (this.closed || this.idle.size() >= this.idleWorkers)
+			return false;
+
+		this.idle.offerFirst(worker); //prefer the most recently used (i.e. warmest) worker
+		return true;
+	}
+
+	private void refill() {
+
+		while (true) {
+			synchronized (this) {
+				if (this.closed || this.idle.size() + this.startingWorkers >= this.idleWorkers || System.currentTimeMillis() < this.retryStartMillis)
+					return;
+				this.startingWorkers++;
+			}
+
+			Worker worker = null;
+			try {
+				worker = this.startWorker();
+
+			} catch (IOException ex) {
+				WorkerPool.LOGGER.log(Level.WARNING, String.format("Could not start %s for pool.", this.name), ex);
+				synchronized (this) {
+					this.retryStartMillis = System.currentTimeMillis() + WorkerPool.START_RETRY_DELAY_MILLIS; //do not flood the log if the worker cannot be started
+				}
+
+			} finally {
+				synchronized (this) {
+					this.startingWorkers--;
+				}
+			}
+
+			if (worker == null)
+				return; //try again during next maintenance run
+			if (!this.offer(worker)) {
+				this.destroy(worker);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Starts a new worker process. <br>
+	 * The standard output of the process has to be the channel of the protocol.
+	 *
+	 * @return the started worker process
+	 *
+	 * @throws IOException if the worker process could not be started
+	 */
+	protected abstract Process startWorkerProcess() throws IOException;
+
+	private Worker startWorker() throws IOException {
+
+		Worker worker = new Worker(this.startWorkerProcess());
+		try {
+			if (worker.input.readInt() != WorkerPool.READY_MESSAGE)
+				throw new IOException(String.format("Could not start %s because it sent an invalid message.", this.name));
+
+		} catch (IOException ex) {
+			this.destroy(worker);
+			throw ex;
+		}
+
+		return worker;
+	}
+
+	private void destroy(Worker worker) {
+		worker.process.destroyForcibly();
+	}
+
+	/**
+	 * Represents a running worker process owned by a pool.
+	 */
+	private static final class Worker {
+
+		private final Process process;
+		private final DataInputStream input;
+		private final DataOutputStream output;
+		private int uses;
+
+		private Worker(Process process) {
+
+			this.process = process;
+			this.input = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+			this.output = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+		}
+	}
+
+	/**
+	 * Represents the execution of a program in a worker. <br>
+	 * The output of the program is decoded from the frames sent by the worker.
+	 * The execution exits as soon as the end frame has been received or the worker has died.
+	 */
+	private final class WorkerProcess extends Process {
+
+		private final Worker worker;
+		private final InputStream frameStream = new FrameInputStream();
+		private boolean exited;
+		private int exitValue;
+
+		private WorkerProcess(Worker worker) {
+
+			this.worker = worker;
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return new OutputStream() {
+
+				@Override
+				public void write(int b) throws IOException {
+					throw new IOException("Programs executed in a worker do not have a standard input.");
+				}
+			};
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return this.frameStream;
+		}
+
+		@Override
+		public InputStream getErrorStream() {
+			return new InputStream() {
+
+				@Override
+				public int read() {
+					return -1; //merged into the standard output
+				}
+			};
+		}
+
+		@Override
+		public synchronized int waitFor() throws InterruptedException {
+
+			while (!this.exited)
+				this.wait();
+
+			return this.exitValue;
+		}
+
+		@Override
+		public synchronized boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+
+			final long maxTimeMillis = System.currentTimeMillis() + unit.toMillis(timeout);
+
+			long waitMillis;
+			while (!this.exited && (waitMillis = maxTimeMillis - System.currentTimeMillis()) > 0)
+				this.wait(waitMillis);
+
+			return this.exited;
+		}
+
+		@Override
+		public synchronized int exitValue() {
+
+			if (!this.exited)
+				throw new IllegalThreadStateException("Program has not exited yet.");
+
+			return this.exitValue;
+		}
+
+		@Override
+		public synchronized boolean isAlive() {
+			return !this.exited;
+		}
+
+		@Override
+		public void destroy() {
+
+			synchronized (this) {
+				if (this.exited)
+					return;
+			}
+
+			this.die(); //the program is still running, so the worker cannot be reused
+		}
+
+		@Override
+		public Process destroyForcibly() {
+
+			this.destroy();
+			return this;
+		}
+
+		private synchronized boolean exit(int exitValue) {
+
+			if (this.exited)
+				return false;
+
+			this.exited = true;
+			this.exitValue = exitValue;
+			this.notifyAll();
+			return true;
+		}
+
+		private void exit(int exitValue, boolean polluted) {
+
+			if (this.exit(exitValue))
+				WorkerPool.this.release(this.worker, polluted);
+		}
+
+		private void die() {
+
+			WorkerPool.this.destroy(this.worker);
+			try {
+				this.exit(this.worker.process.waitFor());
+
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				this.exit(1);
+			}
+		}
+
+		/**
+		 * Decodes the frames sent by the worker until the end frame. <br>
+		 * Closing the stream does not close the standard output of the worker.
+		 */
+		private final class FrameInputStream extends InputStream {
+
+			private int remainingFrameBytes;
+			private boolean endOfOutput;
+
+			@Override
+			public int read() throws IOException {
+
+				byte[] buffer = new byte[1];
+				return this.read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+
+				if (len == 0)
+					return 0;
+				if (!this.nextFrame())
+					return -1;
+
+				try {
+					int readBytes = WorkerProcess.this.worker.input.read(b, off, Math.min(len, this.remainingFrameBytes));
+					if (readBytes < 0)
+						throw new EOFException("Worker died in the middle of a frame.");
+
+					this.remainingFrameBytes -= readBytes;
+					return readBytes;
+
+				} catch (IOException ex) {
+					this.endOfOutput = true;
+					WorkerProcess.this.die();
+					throw ex;
+				}
+			}
+
+			@Override
+			public int available() throws IOException {
+				return this.endOfOutput ? 0 : Math.min(this.remainingFrameBytes, WorkerProcess.this.worker.input.available());
+			}
+
+			@Override
+			public void close() {
+				//the standard output of the worker is reused by the next program
+			}
+
+			private boolean nextFrame() {
+
+				while (!this.endOfOutput && this.remainingFrameBytes == 0)
+					try {
+						int frameLength = WorkerProcess.this.worker.input.readInt();
+						if (frameLength == WorkerPool.END_FRAME_LENGTH) {
+							int exitValue = WorkerProcess.this.worker.input.readInt();
+							boolean polluted = WorkerProcess.this.worker.input.readBoolean();
+
+							this.endOfOutput = true;
+							WorkerProcess.this.exit(exitValue, polluted);
+
+						} else if (frameLength < 0)
+							throw new IOException(String.format("Worker sent an invalid frame length %d.", frameLength));
+
+						else
+							this.remainingFrameBytes = frameLength;
+
+					} catch (IOException ex) { //e.g. the program has terminated the worker
+						WorkerPool.LOGGER.log(Level.FINE, String.format("%s died.", WorkerPool.this.name), ex);
+						this.endOfOutput = true;
+						WorkerProcess.this.die();
+					}
+
+				return !this.endOfOutput;
+			}
+		}
+	}
+}
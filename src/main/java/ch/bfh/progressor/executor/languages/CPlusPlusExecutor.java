@@ -1,9 +1,33 @@
 package ch.bfh.progressor.executor.languages;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.ExecutorPlatform;
@@ -15,6 +39,8 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.CompilationCache;
+import org.apache.commons.io.FileUtils;
 
 /**
  * Code execution engine for C++ code.
@@ -38,6 +64,41 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern GCC_VERSION_PATTERN = Pattern.compile("\\d[\\d\\.]*");
 
+	/**
+	 * Filter for the compilation artifacts (the compiled executable).
+	 */
+	protected static final FileFilter COMPILATION_ARTIFACT_FILTER = file -> file.getName().equals(CPlusPlusExecutor.EXECUTABLE_NAME) || file.getName().equals(String.format("%s.exe", CPlusPlusExecutor.EXECUTABLE_NAME));
+
+	/**
+	 * Name of the prelude header (precompiled together with the standard headers it includes).
+	 */
+	protected static final String PRELUDE_HEADER_NAME = "prelude.hpp";
+
+	/**
+	 * Name of the code file defining the helpers of the template (the functions declared but not defined by the prelude header).
+	 */
+	protected static final String HELPER_SOURCE_NAME = "helpers.cpp";
+
+	/**
+	 * Name of the prebuilt object containing the helpers of the template.
+	 */
+	protected static final String HELPER_OBJECT_NAME = "helpers.o";
+
+	/**
+	 * Directory in the Docker image containing the prelude header and the helpers, precompiled when building the image.
+	 */
+	protected static final String DOCKER_PRECOMPILED_HEADER_DIRECTORY = "/opt/progressor/cpp";
+
+	private static final Logger LOGGER = Logger.getLogger(CPlusPlusExecutor.class.getName());
+
+	private static final File PRECOMPILED_HEADER_ROOT = Paths.get("cache", "precompiled-headers").toFile();
+
+	private static File precompiledHeaderDirectory;
+	private static boolean precompiledHeaderUnavailable;
+	private static Boolean dockerPrecompiledHeaderAvailable;
+
+	private String helpers;
+
 	@Override
 	public String getLanguage() {
 		return CPlusPlusExecutor.CODE_LANGUAGE;
@@ -48,7 +109,7 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 
 		String compilerVersion = null;
 
-		String compilerOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "g++", "--version");
+		String compilerOutput = this.getCompilerVersionOutput();
 		Matcher compilerMatcher = CPlusPlusExecutor.GCC_VERSION_PATTERN.matcher(compilerOutput);
 		if (compilerMatcher.find())
 			compilerVersion = compilerMatcher.group();
@@ -61,6 +122,43 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 		return String.format("%s/template.cpp", this.getLanguage());
 	}
 
+	@Override
+	protected String getPreludePath() {
+		return String.format("%s/%s", this.getLanguage(), CPlusPlusExecutor.PRELUDE_HEADER_NAME);
+	}
+
+	@Override
+	public String getCodeFile(String codeFragment, List<TestCase> testCases) throws ExecutorException {
+		return new StringBuilder(this.getPrelude()).append(CodeExecutorBase.NEWLINE).append(this.getProgram(codeFragment, testCases)) //the prelude includes the headers, so it has to precede the code
+																																			.append(CodeExecutorBase.NEWLINE).append(this.getHelpers()).toString();
+	}
+
+	/**
+	 * Gets the code defining the helpers of the template. <br>
+	 * They are compiled into the prebuilt helper object or appended to the code file if the precompiled header is not used.
+	 *
+	 * @return code defining the helpers of the template
+	 *
+	 * @throws ExecutorException if the code could not be read
+	 */
+	protected synchronized String getHelpers() throws ExecutorException {
+
+		if (this.helpers == null) {
+			InputStream helpersStream = CPlusPlusExecutor.class.getResourceAsStream(String.format("%s/%s", CPlusPlusExecutor.CODE_LANGUAGE, CPlusPlusExecutor.HELPER_SOURCE_NAME));
+			if (helpersStream == null)
+				throw new ExecutorException("Could not find the code of the helpers.");
+
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(helpersStream, CodeExecutorBase.CHARSET))) {
+				this.helpers = reader.lines().collect(Collectors.joining(CodeExecutorBase.NEWLINE, "", CodeExecutorBase.NEWLINE)); //like the prelude
+
+			} catch (IOException | UncheckedIOException ex) {
+				throw new ExecutorException("Could not read the code of the helpers.", ex);
+			}
+		}
+
+		return this.helpers;
+	}
+
 	@Override
 	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
 
@@ -70,17 +168,31 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 		//*********************
 		//*** GENERATE CODE ***
 		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
+		final String headerDirectory = this.willUsePrecompiledHeader() ? this.getPrecompiledHeaderDirectory() : null;
+		if (headerDirectory != null)
+			this.generateProgramFile(codeFile, codeFragment, testCases); //the prelude is included from the precompiled header, the helpers are linked from the prebuilt object
+		else
+			this.generateCodeFile(codeFile, codeFragment, testCases);
 
 		//********************
 		//*** COMPILE CODE ***
 		//********************
+		final String compilationKey = this.getCompilationKey(codeFragment, testCases);
 		final long compilationStart = System.nanoTime();
 
-		try {
-			this.executeSafeCommand(codeDirectory, "g++", codeFile.getName(), String.format("-std=%s", CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "gnu++11" : "c++11"), "-o", CPlusPlusExecutor.EXECUTABLE_NAME);
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not compile the user code.", ex);
+		final boolean compilationCached = this.restoreCompilation(compilationKey, codeDirectory);
+		if (!compilationCached) {
+			try {
+				if (headerDirectory != null)
+					this.executeSafeCommand(codeDirectory, "g++", this.getStandardOption(), "-include", String.format("%s/%s", headerDirectory, CPlusPlusExecutor.PRELUDE_HEADER_NAME),
+																	codeFile.getName(), String.format("%s/%s", headerDirectory, CPlusPlusExecutor.HELPER_OBJECT_NAME), "-o", CPlusPlusExecutor.EXECUTABLE_NAME);
+				else
+					this.executeSafeCommand(codeDirectory, "g++", codeFile.getName(), this.getStandardOption(), "-o", CPlusPlusExecutor.EXECUTABLE_NAME);
+			} catch (ExecutorException ex) {
+				throw new ExecutorException("Could not compile the user code.", ex);
+			}
+
+			this.storeCompilation(compilationKey, codeDirectory, CPlusPlusExecutor.COMPILATION_ARTIFACT_FILTER);
 		}
 
 		final long compilationEnd = System.nanoTime();
@@ -104,10 +216,163 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 		//*** TEST CASE EVALUATION ***
 		//****************************
 		return this.createResults(executionOutput,
-															(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+															compilationCached ? 0 : (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Gets the compiler option selecting the C++ standard.
+	 *
+	 * @return the compiler option selecting the C++ standard
+	 */
+	protected String getStandardOption() {
+		return String.format("-std=%s", CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "gnu++11" : "c++11");
+	}
+
+	/**
+	 * Gets whether to compile the custom C++ code against the precompiled prelude header and the prebuilt helper object. <br>
+	 * On the host, both are built in the cache directory of the Executor. In Docker containers, the ones built into the image are used.
+	 *
+	 * @return whether to use the precompiled header
+	 */
+	protected boolean willUsePrecompiledHeader() {
+		return true;
+	}
+
+	private String getCompilerVersionOutput() throws ExecutorException {
+		return this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "g++", "--version");
+	}
+
+	/**
+	 * Gets the directory containing the precompiled prelude header and the prebuilt helper object. <br>
+	 * On the host, they are built once per compiler version, prelude and helpers and kept in the cache directory of the Executor,
+	 * so they are shared by all requests and reused after a restart.
+	 * In Docker containers, the ones built into the image are used if they have been built from the prelude and helpers of this Executor.
+	 *
+	 * @return the directory containing the precompiled header or {@code null} if it is not available
+	 */
+	private String getPrecompiledHeaderDirectory() {
+
+		synchronized (CPlusPlusExecutor.class) {
+			if (this.willUseDocker()) {
+				if (CPlusPlusExecutor.dockerPrecompiledHeaderAvailable == null)
+					CPlusPlusExecutor.dockerPrecompiledHeaderAvailable = this.verifyDockerPrecompiledHeader();
+
+				return CPlusPlusExecutor.dockerPrecompiledHeaderAvailable ? CPlusPlusExecutor.DOCKER_PRECOMPILED_HEADER_DIRECTORY : null;
+			}
+
+			if (CPlusPlusExecutor.precompiledHeaderDirectory == null && !CPlusPlusExecutor.precompiledHeaderUnavailable)
+				try {
+					CPlusPlusExecutor.precompiledHeaderDirectory = this.buildPrecompiledHeader();
+
+				} catch (ExecutorException ex) { //the code is still compiled without precompiled header
+					CPlusPlusExecutor.LOGGER.log(Level.WARNING, "Could not build the precompiled header, compiling the headers for every request instead.", ex);
+					CPlusPlusExecutor.precompiledHeaderUnavailable = true;
+				}
+
+			return CPlusPlusExecutor.precompiledHeaderDirectory != null ? CPlusPlusExecutor.precompiledHeaderDirectory.getAbsolutePath() : null;
+		}
+	}
+
+	private boolean verifyDockerPrecompiledHeader() {
+
+		try {
+			final String directory = CPlusPlusExecutor.DOCKER_PRECOMPILED_HEADER_DIRECTORY;
+			final String output = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "sha1sum", //fails if any of the files is missing
+																										String.format("%s/%s", directory, CPlusPlusExecutor.PRELUDE_HEADER_NAME), String.format("%s/%s.gch", directory, CPlusPlusExecutor.PRELUDE_HEADER_NAME),
+																										String.format("%s/%s", directory, CPlusPlusExecutor.HELPER_SOURCE_NAME), String.format("%s/%s", directory, CPlusPlusExecutor.HELPER_OBJECT_NAME));
+
+			if (output.contains(CPlusPlusExecutor.getHash(this.getPrelude())) && output.contains(CPlusPlusExecutor.getHash(this.getHelpers())))
+				return true;
+
+			CPlusPlusExecutor.LOGGER.warning("The precompiled header of the Docker image has been built from a different prelude, compiling the headers for every request instead.");
+
+		} catch (ExecutorException ex) {
+			CPlusPlusExecutor.LOGGER.log(Level.WARNING, "The Docker image does not contain the precompiled header, compiling the headers for every request instead.", ex);
+		}
+
+		return false;
+	}
+
+	private File buildPrecompiledHeader() throws ExecutorException {
+
+		final String prelude = this.getPrelude();
+		final File directory = new File(CPlusPlusExecutor.PRECOMPILED_HEADER_ROOT, this.getPrecompiledHeaderKey(prelude));
+
+		File buildDirectory = null;
+		try {
+			Files.createDirectories(CPlusPlusExecutor.PRECOMPILED_HEADER_ROOT.toPath());
+			buildDirectory = Files.createTempDirectory(CPlusPlusExecutor.PRECOMPILED_HEADER_ROOT.toPath(), "build-").toFile(); //only accessible by the current user
+			final UserPrincipal owner = Files.getOwner(buildDirectory.toPath());
+
+			if (!new File(directory, CPlusPlusExecutor.HELPER_OBJECT_NAME).isFile()) {
+				Files.write(new File(buildDirectory, CPlusPlusExecutor.PRELUDE_HEADER_NAME).toPath(), prelude.getBytes(CodeExecutorBase.CHARSET));
+				Files.write(new File(buildDirectory, CPlusPlusExecutor.HELPER_SOURCE_NAME).toPath(), this.getHelpers().getBytes(CodeExecutorBase.CHARSET));
+
+				this.executeSafeCommand(buildDirectory, "g++", this.getStandardOption(), "-x", "c++-header", CPlusPlusExecutor.PRELUDE_HEADER_NAME,
+																"-o", String.format("%s.gch", CPlusPlusExecutor.PRELUDE_HEADER_NAME));
+				this.executeSafeCommand(buildDirectory, "g++", this.getStandardOption(), "-c", CPlusPlusExecutor.HELPER_SOURCE_NAME, "-o", CPlusPlusExecutor.HELPER_OBJECT_NAME);
+
+				try {
+					Files.move(buildDirectory.toPath(), directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+					buildDirectory = null;
+
+				} catch (FileAlreadyExistsException | DirectoryNotEmptyException | AtomicMoveNotSupportedException ex) { //another executor has built it in the meantime
+					if (!new File(directory, CPlusPlusExecutor.HELPER_OBJECT_NAME).isFile())
+						throw new ExecutorException("Could not store the precompiled header.", ex);
+				}
+			}
+
+			CPlusPlusExecutor.verifyPrecompiledHeaderDirectory(directory, owner); //the compiler includes whatever it finds there
+			return directory;
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not build the precompiled header.", ex);
+
+		} finally {
+			if (buildDirectory != null)
+				FileUtils.deleteQuietly(buildDirectory);
+		}
+	}
+
+	private static void verifyPrecompiledHeaderDirectory(File directory, UserPrincipal owner) throws IOException, ExecutorException {
+
+		final Path path = directory.toPath();
+		if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS) || !owner.equals(Files.getOwner(path, LinkOption.NOFOLLOW_LINKS)))
+			throw new ExecutorException(String.format("Precompiled header directory %s is not owned by the current user.", directory));
+
+		final PosixFileAttributeView attributes = Files.getFileAttributeView(path, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+		if (attributes != null && !Collections.disjoint(attributes.readAttributes().permissions(), EnumSet.of(PosixFilePermission.GROUP_WRITE, PosixFilePermission.OTHERS_WRITE)))
+			throw new ExecutorException(String.format("Precompiled header directory %s is writable by other users.", directory));
+	}
+
+	private String getPrecompiledHeaderKey(String prelude) throws ExecutorException {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-1");
+		} catch (NoSuchAlgorithmException ex) {
+			throw new ExecutorException("Could not determine the key of the precompiled header.", ex);
+		}
+
+		for (String part : new String[] { this.getCompilerVersionOutput(), this.getStandardOption(), prelude, this.getHelpers() }) {
+			digest.update(part.getBytes(CodeExecutorBase.CHARSET));
+			digest.update((byte) 0); //separate the parts unambiguously
+		}
+
+		return CompilationCache.toHexString(digest.digest());
+	}
+
+	private static String getHash(String code) throws ExecutorException {
+
+		try {
+			return CompilationCache.toHexString(MessageDigest.getInstance("SHA-1").digest(code.getBytes(CodeExecutorBase.CHARSET)));
+
+		} catch (NoSuchAlgorithmException ex) {
+			throw new ExecutorException("Could not hash the code.", ex);
+		}
+	}
+
 	@Override
 	protected String getFunctionSignatures(List<FunctionSignature> functions) throws ExecutorException {
 
@@ -143,7 +408,7 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 			sb.append(this.getTypeName(testCase.getFunction().getOutputTypes().get(0), true)).append(" result = ").append(testCase.getFunction().getName()).append('('); //test case invocation
 			for (int i = 0; i < testCase.getInputValues().size(); i++) {
 				if (i > 0) sb.append(", ");
-				sb.append(this.getValueLiteral(testCase.getInputValues().get(i)));
+				sb.append(this.getValueExpression(testCase.getInputValues().get(i)));
 			}
 			sb.append(");").append(CodeExecutorBase.NEWLINE);
 			sb.append("high_resolution_clock::time_point end = high_resolution_clock::now();").append(CodeExecutorBase.NEWLINE);
@@ -171,7 +436,7 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 			}
 
 			sb.append("bool success = ").append(comparisonPrefix).append("result").append(comparisonSeparator); //result evaluation
-			sb.append(this.getValueLiteral(testCase.getExpectedOutputValues().get(0))).append(comparisonSuffix).append(';').append(CodeExecutorBase.NEWLINE);
+			sb.append(this.getValueExpression(testCase.getExpectedOutputValues().get(0))).append(comparisonSuffix).append(';').append(CodeExecutorBase.NEWLINE);
 
 			String formattingPrefix = "", formattingSuffix = "";
 			switch (testCase.getFunction().getOutputTypes().get(0).getBaseType()) {
@@ -205,22 +470,38 @@ public class CPlusPlusExecutor extends CodeExecutorDockerBase {
 					formattingPrefix = "+";
 			}
 
-			sb.append("cout << (success ? \"OK\" : \"ER\") << \":\" << ").append("duration.count()").append(" << \":\" << "); //print result to the console
-			sb.append(formattingPrefix).append("result").append(formattingSuffix).append(" << endl << endl;").append(CodeExecutorBase.NEWLINE);
+			sb.append("ostringstream resultText;").append(CodeExecutorBase.NEWLINE); //format result to write it in a frame
+			sb.append("resultText << ").append(formattingPrefix).append("result").append(formattingSuffix).append(';').append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(success, duration.count(), resultText.str());").append(CodeExecutorBase.NEWLINE); //print result to the console
 			sb.append("} catch (const exception &ex) {").append(CodeExecutorBase.NEWLINE); //finish test case block / begin exception handling (standard exception class)
-			sb.append("cout << \"ER:\" << ex.what() << endl << endl;").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(false, NAN, ex.what());").append(CodeExecutorBase.NEWLINE);
 			sb.append("} catch (const string &ex) {").append(CodeExecutorBase.NEWLINE); //secondary exception handling (exception C++-string)
-			sb.append("cout << \"ER:\" << ex << endl << endl;").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(false, NAN, ex);").append(CodeExecutorBase.NEWLINE);
 			sb.append("} catch (char const* const &ex) {").append(CodeExecutorBase.NEWLINE); //tertiary exception handling (exception C-string)
-			sb.append("cout << \"ER:\" << ex << endl << endl;").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(false, NAN, ex);").append(CodeExecutorBase.NEWLINE);
 			sb.append("} catch (...) {").append(CodeExecutorBase.NEWLINE); //last resort (handling all unknown exceptions)
-			sb.append("cout << \"ER:unknown exception\" << endl << endl;").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(false, NAN, \"unknown exception\");").append(CodeExecutorBase.NEWLINE);
 			sb.append('}'); //finish exception handling
 		}
 
 		return sb.toString();
 	}
 
+	@Override
+	protected boolean usesResultFrames() {
+		return true;
+	}
+
+	@Override
+	protected boolean supportsDataFile() {
+		return true;
+	}
+
+	@Override
+	protected String getDataFileValue(Value value, int index) throws ExecutorException {
+		return String.format("readTestCaseData<%s>(%d)", this.getTypeName(value.getType(), true), index); //arrays are read into pointers like their literals
+	}
+
 	@Override
 	protected String getValueLiteral(Value value) throws ExecutorException {
 
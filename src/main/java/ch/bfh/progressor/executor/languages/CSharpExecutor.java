@@ -1,6 +1,6 @@
 package ch.bfh.progressor.executor.languages;
 
-import java.io.File;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -8,31 +8,25 @@ import java.util.stream.IntStream;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.ExecutorPlatform;
 import ch.bfh.progressor.executor.api.FunctionSignature;
-import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.api.TestCase;
 import ch.bfh.progressor.executor.api.Value;
 import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
-import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.DotNetExecutorBase;
 
 /**
  * Code execution engine for C# code.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
-public class CSharpExecutor extends CodeExecutorDockerBase {
+public class CSharpExecutor extends DotNetExecutorBase {
 
 	/**
 	 * Unique name of the language this executor supports.
 	 */
 	public static final String CODE_LANGUAGE = "csharp";
 
-	/**
-	 * Name of the C# executable.
-	 */
-	protected static final String EXECUTABLE_NAME = "main";
-
 	/**
 	 * Regular expression pattern for extracting the language version.
 	 */
@@ -65,6 +59,11 @@ public class CSharpExecutor extends CodeExecutorDockerBase {
 				break;
 
 			case UNIX_LINUX:
+				if (this.willUseCompilerServer()) {
+					languageOutput = compilerOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "csc", "/help");
+					break;
+				}
+
 				languageOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "mcs", "/help");
 				compilerOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "mcs", "--version");
 				break;
@@ -94,55 +93,28 @@ public class CSharpExecutor extends CodeExecutorDockerBase {
 	}
 
 	@Override
-	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
-
-		final File codeFile = new File(codeDirectory, String.format("%s.cs", CSharpExecutor.EXECUTABLE_NAME));
-		final File executableFile = new File(codeDirectory, String.format("%s.exe", CSharpExecutor.EXECUTABLE_NAME));
-
-		//*********************
-		//*** GENERATE CODE ***
-		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
-
-		//********************
-		//*** COMPILE CODE ***
-		//********************
-		final long compilationStart = System.nanoTime();
-
-		try {
-			this.executeSafeCommand(codeDirectory, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "csc" : "mcs", codeFile.getName(), "/debug");
-
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not compile the user code.", ex);
-		}
-
-		final long compilationEnd = System.nanoTime();
-
-		//********************
-		//*** EXECUTE CODE ***
-		//********************
-		String[] executionArguments = CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS
-																	? new String[] { executableFile.getAbsolutePath() }
-																	: new String[] { "mono", this.willUseDocker() ? new File(CodeExecutorBase.CURRENT_DIRECTORY, executableFile.getName()).getPath() : executableFile.getAbsolutePath(), "--debug" };
-
-		final long executionStart = System.nanoTime();
+	protected String getPreludePath() {
+		return String.format("%s/prelude.cs", this.getLanguage());
+	}
 
-		String executionOutput;
-		try {
-			executionOutput = this.executeCommand(codeDirectory, executionArguments);
+	@Override
+	protected String getCodeFileExtension() {
+		return "cs";
+	}
 
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not execute the user code.", ex);
-		}
+	@Override
+	protected String getCompilerName() {
+		return CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "csc" : "mcs";
+	}
 
-		final long executionEnd = System.nanoTime();
+	@Override
+	protected String getCompilerServerName() {
+		return "csc";
+	}
 
-		//****************************
-		//*** TEST CASE EVALUATION ***
-		//****************************
-		return this.createResults(executionOutput,
-															(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
-															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
+	@Override
+	protected String getHelperImports() {
+		return "using System; using System.Collections.Generic; using System.Linq;";
 	}
 
 	@Override
@@ -202,7 +174,7 @@ public class CSharpExecutor extends CodeExecutorDockerBase {
 					break;
 
 				case MAP:
-					comparisonPrefix = "DictionaryEquals("; //use helper method to compare directories
+					comparisonPrefix = "ProgramHelpers.DictionaryEquals("; //use helper method to compare directories
 					comparisonSeparator = ", ";
 					comparisonSuffix = ")";
 					break;
@@ -220,7 +192,7 @@ public class CSharpExecutor extends CodeExecutorDockerBase {
 
 				case FLOAT32:
 				case FLOAT64:
-					comparisonPrefix = "HasMinimalDifference("; //compare floating-point numbers using custom equality comparison
+					comparisonPrefix = "ProgramHelpers.HasMinimalDifference("; //compare floating-point numbers using custom equality comparison
 					comparisonSeparator = ", ";
 					comparisonSuffix = ", 1)";
 					break;
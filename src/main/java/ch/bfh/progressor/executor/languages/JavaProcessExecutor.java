@@ -1,7 +1,15 @@
 package ch.bfh.progressor.executor.languages;
 
 import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
@@ -14,10 +22,13 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.InMemoryJavaCompiler;
+import ch.bfh.progressor.executor.impl.JavaWorkerPool;
 
 /**
  * Code execution engine for Java code. <br>
  * Uses a new process to execute the custom Java code.
+ * If configured (and Docker is not used), the custom Java code is executed in a pre-started worker JVM instead.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
@@ -43,6 +54,13 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern JAVA_VERSION_PATTERN = Pattern.compile("\\bruntime\\b.+?([\\d\\._]+(-bu\\d+|))", Pattern.CASE_INSENSITIVE);
 
+	/**
+	 * Filter for the compilation artifacts (Java class files).
+	 */
+	protected static final FileFilter COMPILATION_ARTIFACT_FILTER = file -> file.getName().endsWith(".class");
+
+	private static JavaWorkerPool workerPool;
+
 	@Override
 	public String getLanguage() {
 		return JavaProcessExecutor.CODE_LANGUAGE;
@@ -51,6 +69,9 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 	@Override
 	public VersionInformation fetchVersionInformation() throws ExecutorException {
 
+		if (this.willCompileInProcess()) //the code is compiled by the current JVM and executed by workers of the same Java installation
+			return this.createVersionInformation(System.getProperty("java.version"), "javac", System.getProperty("java.version"));
+
 		String javaVersion = null, javacVersion = null;
 
 		String javaOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "java", "-version");
@@ -74,22 +95,27 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 	@Override
 	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
 
-		final File codeFile = new File(codeDirectory, String.format("%s.java", JavaProcessExecutor.CODE_CLASS_NAME));
-
 		//*********************
 		//*** GENERATE CODE ***
 		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
+		final String codeFile = this.getCodeFile(codeFragment, testCases);
+		this.generateDataFile(codeDirectory, testCases);
 
 		//********************
 		//*** COMPILE CODE ***
 		//********************
+		final String compilationKey = this.getCompilationKey(codeFile);
 		final long compilationStart = System.nanoTime();
 
-		try {
-			this.executeSafeCommand(codeDirectory, "javac", codeFile.getName());
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not compile the user code.", ex);
+		final boolean compilationCached = this.restoreCompilation(compilationKey, codeDirectory);
+		if (!compilationCached) {
+			try {
+				this.compile(codeDirectory, Collections.singletonMap(String.format("%s.java", JavaProcessExecutor.CODE_CLASS_NAME), codeFile));
+			} catch (ExecutorException ex) {
+				throw new ExecutorException("Could not compile the user code.", ex);
+			}
+
+			this.storeCompilation(compilationKey, codeDirectory, JavaProcessExecutor.COMPILATION_ARTIFACT_FILTER);
 		}
 
 		final long compilationEnd = System.nanoTime();
@@ -101,7 +127,7 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 
 		String executionOutput;
 		try {
-			executionOutput = this.executeCommand(codeDirectory, "java", JavaProcessExecutor.CODE_CLASS_NAME);
+			executionOutput = this.executeProgram(codeDirectory, codeDirectory, JavaProcessExecutor.CODE_CLASS_NAME);
 
 		} catch (ExecutorException ex) {
 			throw new ExecutorException("Could not execute the user code.", ex);
@@ -113,10 +139,213 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 		//*** TEST CASE EVALUATION ***
 		//****************************
 		return this.createResults(executionOutput,
-															(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+															compilationCached ? 0 : (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Compiles all code fragments with a single compiler invocation and executes them in parallel. <br>
+	 * Each code fragment is placed in a package named after its directory, so that their classes do not collide.
+	 * If the combined compilation fails, the code fragments are compiled separately to isolate the failures.
+	 * Each code fragment is executed on a copy of its package in an environment of its own.
+	 */
+	@Override
+	protected List<List<Result>> executeBatchTestCases(List<String> codeFragments, List<TestCase> testCases, List<File> codeDirectories) throws ExecutorException {
+
+		final File batchDirectory = codeDirectories.get(0).getParentFile();
+		final int batchSize = codeFragments.size();
+
+		final String[] compilationKeys = new String[batchSize];
+		final boolean[] compilationsCached = new boolean[batchSize];
+		final double[] compilationTimesMillis = new double[batchSize];
+		final ExecutorException[] failures = new ExecutorException[batchSize];
+
+		//*********************
+		//*** GENERATE CODE ***
+		//*********************
+		final String[] codeFiles = new String[batchSize];
+		List<Integer> uncompiled = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++)
+			try {
+				codeFiles[i] = new StringBuilder("package ").append(codeDirectories.get(i).getName()).append(';').append(CodeExecutorBase.NEWLINE)
+																										.append(this.getCodeFile(codeFragments.get(i), testCases)).toString();
+				this.generateDataFile(codeDirectories.get(i), testCases); //the data file is found next to the class of the package
+
+				compilationKeys[i] = this.getCompilationKey(codeFiles[i]);
+				if (!(compilationsCached[i] = this.restoreCompilation(compilationKeys[i], codeDirectories.get(i))))
+					uncompiled.add(i);
+
+			} catch (ExecutorException ex) {
+				failures[i] = new ExecutorException("Could not generate the code file.", ex);
+			}
+
+		//********************
+		//*** COMPILE CODE ***
+		//********************
+		if (!uncompiled.isEmpty()) {
+			final long compilationStart = System.nanoTime();
+
+			Map<String, String> uncompiledCodeFiles = new LinkedHashMap<>(uncompiled.size());
+			for (int i : uncompiled)
+				uncompiledCodeFiles.put(this.getBatchSourcePath(codeDirectories.get(i)), codeFiles[i]);
+
+			boolean compiled = true;
+			try {
+				this.compile(batchDirectory, uncompiledCodeFiles);
+
+			} catch (ExecutorException ex) {
+				compiled = false;
+			}
+
+			final long compilationEnd = System.nanoTime();
+
+			if (compiled)
+				for (int i : uncompiled)
+					compilationTimesMillis[i] = (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO;
+
+			else { //at least one code fragment does not compile, find out which one(s)
+				List<Callable<Void>> compilations = new ArrayList<>(uncompiled.size());
+				for (int i : uncompiled)
+					compilations.add(() -> {
+						final long separateCompilationStart = System.nanoTime();
+						try {
+							this.compile(batchDirectory, Collections.singletonMap(this.getBatchSourcePath(codeDirectories.get(i)), codeFiles[i]));
+						} catch (ExecutorException ex) {
+							failures[i] = new ExecutorException("Could not compile the user code.", ex);
+						}
+
+						compilationTimesMillis[i] = (System.nanoTime() - separateCompilationStart) / CodeExecutorBase.MILLIS_IN_NANO;
+						return null;
+					});
+
+				this.executeInParallel(compilations);
+			}
+
+			for (int i : uncompiled)
+				if (failures[i] == null)
+					this.storeCompilation(compilationKeys[i], codeDirectories.get(i), JavaProcessExecutor.COMPILATION_ARTIFACT_FILTER);
+		}
+
+		//********************
+		//*** EXECUTE CODE ***
+		//********************
+		List<Callable<List<Result>>> executions = new ArrayList<>(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			final int index = i;
+			executions.add(() -> {
+				try {
+					if (failures[index] != null)
+						throw failures[index];
+
+					final long executionStart = System.nanoTime();
+
+					String executionOutput;
+					try {
+						executionOutput = this.executeIsolated(codeDirectories.get(index), directory -> this.executeProgram(directory, directory.getParentFile(), String.format("%s.%s", directory.getName(), JavaProcessExecutor.CODE_CLASS_NAME)));
+
+					} catch (ExecutorException ex) {
+						throw new ExecutorException("Could not execute the user code.", ex);
+					}
+
+					final long executionEnd = System.nanoTime();
+
+					//****************************
+					//*** TEST CASE EVALUATION ***
+					//****************************
+					return this.createResults(executionOutput,
+																		compilationsCached[index] ? 0 : compilationTimesMillis[index],
+																		(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
+
+				} catch (Exception ex) { //isolate the failure
+					return this.createFatalResults(ex, testCases.size());
+				}
+			});
+		}
+
+		return this.executeInParallel(executions);
+	}
+
+	private String getBatchSourcePath(File codeDirectory) {
+		return String.format("%s/%s.java", codeDirectory.getName(), JavaProcessExecutor.CODE_CLASS_NAME);
+	}
+
+	/**
+	 * Compiles one or several code files into a directory. <br>
+	 * The code files are compiled in memory if they are executed by worker JVMs, otherwise they are written to the directory
+	 * and compiled by the {@code javac} command.
+	 *
+	 * @param directory directory to compile the code files in
+	 * @param codeFiles content of the code files by their path relative to the directory
+	 *
+	 * @throws ExecutorException if the code files could not be compiled
+	 */
+	protected void compile(File directory, Map<String, String> codeFiles) throws ExecutorException {
+
+		if (this.willCompileInProcess()) {
+			InMemoryJavaCompiler.writeClasses(InMemoryJavaCompiler.compile(codeFiles), directory); //the class files are still needed by the workers and the compilation cache
+			return;
+		}
+
+		try {
+			for (Map.Entry<String, String> codeFile : codeFiles.entrySet())
+				Files.write(new File(directory, codeFile.getKey()).toPath(), codeFile.getValue().getBytes(CodeExecutorBase.CHARSET));
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not generate the code file.", ex);
+		}
+
+		this.executeSafeCommand(directory, this.concatenateArrays(new String[] { "javac" }, codeFiles.keySet().toArray(new String[0])));
+	}
+
+	/**
+	 * Executes a compiled Java program, either in a new JVM or in a pre-started worker JVM.
+	 *
+	 * @param codeDirectory  the working directory for the program
+	 * @param classDirectory directory containing the compiled classes of the program
+	 * @param mainClass      fully qualified name of the class containing the main method
+	 *
+	 * @return the output of the program
+	 *
+	 * @throws ExecutorException if the program cannot be executed successfully
+	 */
+	protected String executeProgram(File codeDirectory, File classDirectory, String mainClass) throws ExecutorException {
+
+		if (this.willUseJavaWorkers())
+			return this.executeProcess(() -> JavaProcessExecutor.getWorkerPool().execute(classDirectory, mainClass));
+
+		String classPath = codeDirectory.toPath().relativize(classDirectory.toPath()).toString(); //relative paths also work inside a Docker container
+		return this.executeCommand(codeDirectory, "java", "-cp", classPath.isEmpty() ? "." : classPath, mainClass);
+	}
+
+	/**
+	 * Gets whether to execute the custom Java code in a pre-started worker JVM.
+	 *
+	 * @return whether to use Java worker JVMs
+	 */
+	protected boolean willUseJavaWorkers() {
+		return this.getConfiguration().shouldUseJavaWorkers() && !this.willUseDocker();
+	}
+
+	/**
+	 * Gets whether to compile the custom Java code in memory using the compiler of the current JVM. <br>
+	 * Only code executed by worker JVMs is compiled in memory because the workers use the same Java installation as the current JVM.
+	 *
+	 * @return whether to compile in memory
+	 */
+	protected boolean willCompileInProcess() {
+		return this.willUseJavaWorkers() && InMemoryJavaCompiler.isAvailable();
+	}
+
+	private static synchronized JavaWorkerPool getWorkerPool() {
+
+		if (JavaProcessExecutor.workerPool == null) {
+			JavaProcessExecutor.workerPool = new JavaWorkerPool();
+			Runtime.getRuntime().addShutdownHook(new Thread(JavaProcessExecutor.workerPool::close)); //do not leave pre-started workers behind
+		}
+
+		return JavaProcessExecutor.workerPool;
+	}
+
 	@Override
 	protected String getFunctionSignatures(List<FunctionSignature> functions) throws ExecutorException {
 
@@ -152,7 +381,7 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 			sb.append(this.getPrimitiveTypeName(testCase.getFunction().getOutputTypes().get(0))).append(" result = ").append("inst.").append(testCase.getFunction().getName()).append('('); //test case invocation
 			for (int i = 0; i < testCase.getInputValues().size(); i++) {
 				if (i > 0) sb.append(", ");
-				sb.append(this.getValueLiteral(testCase.getInputValues().get(i)));
+				sb.append(this.getValueExpression(testCase.getInputValues().get(i)));
 			}
 			sb.append(");").append(CodeExecutorBase.NEWLINE);
 			sb.append("long end = System.nanoTime();").append(CodeExecutorBase.NEWLINE);
@@ -188,7 +417,7 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 			}
 
 			sb.append("boolean success = ").append(comparisonPrefix).append("result").append(comparisonSeparator); //result evaluation
-			sb.append(this.getValueLiteral(testCase.getExpectedOutputValues().get(0))).append(comparisonSuffix).append(';').append(CodeExecutorBase.NEWLINE);
+			sb.append(this.getValueExpression(testCase.getExpectedOutputValues().get(0))).append(comparisonSuffix).append(';').append(CodeExecutorBase.NEWLINE);
 
 			String formattingPrefix = "", formattingSuffix = "";
 			switch (testCase.getFunction().getOutputTypes().get(0).getBaseType()) {
@@ -198,21 +427,120 @@ public class JavaProcessExecutor extends CodeExecutorDockerBase {
 					break;
 			}
 
-			sb.append("out.write(String.format(\"%s:%f:%s%n%n\", success ? \"OK\" : \"ER\", (end - start) * 1e-6, "); //print result to the console
+			sb.append("writeResult(out, success, (end - start) * 1e-6, String.valueOf("); //print result to the console
 			sb.append(formattingPrefix).append("result").append(formattingSuffix).append("));").append(CodeExecutorBase.NEWLINE);
 
 			sb.append("} catch (Exception ex) {").append(CodeExecutorBase.NEWLINE); //finish test case block / begin exception handling
-			sb.append("out.write(\"ER:\"); out.flush();").append(CodeExecutorBase.NEWLINE);
-			sb.append("ex.printStackTrace(System.out);").append(CodeExecutorBase.NEWLINE);
-
-			sb.append("} finally {").append(CodeExecutorBase.NEWLINE);
-			sb.append("out.flush();").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(out, ex);").append(CodeExecutorBase.NEWLINE);
 			sb.append('}');
 		}
 
 		return sb.toString();
 	}
 
+	@Override
+	protected boolean usesResultFrames() {
+		return true;
+	}
+
+	@Override
+	protected boolean usesBatchEnvironment() {
+		return true; //the code fragments are compiled together in the environment of the batch
+	}
+
+	@Override
+	protected boolean supportsDataFile() {
+		return true;
+	}
+
+	@Override
+	protected String getDataFileValue(Value value, int index) throws ExecutorException {
+		return this.getDataFileReader(value.getType(), String.format("readTestCaseData(%d)", index), 1);
+	}
+
+	/**
+	 * Gets the expression reading a value using the helper methods of the template.
+	 *
+	 * @param type   type of the value
+	 * @param buffer expression of the buffer to read the value from
+	 * @param depth  nesting depth of the value (to name the parameters of the element readers)
+	 *
+	 * @return expression reading the value
+	 *
+	 * @throws ExecutorException if generation failed
+	 */
+	protected String getDataFileReader(ValueType type, String buffer, int depth) throws ExecutorException {
+
+		final String elementBuffer = String.format("b%d", depth);
+		switch (type.getBaseType()) {
+			case ARRAY:
+				ValueType elementType = type.getGenericParameters().get(0);
+				switch (elementType.getBaseType()) {
+					case CHARACTER:
+					case BOOLEAN:
+					case INT8:
+					case INT16:
+					case INT32:
+					case INT64:
+					case FLOAT32:
+					case FLOAT64:
+						return String.format("read%sArray(%s)", this.getDataFileReaderName(elementType), buffer); //read primitive arrays at once
+				}
+
+				return String.format("readArray(%s, %s::new, %s -> %s)", buffer, this.getPrimitiveTypeName(type), elementBuffer, this.getDataFileReader(elementType, elementBuffer, depth + 1));
+
+			case LIST:
+			case SET:
+				return String.format("read%s(%s, %s -> %s)", type.getBaseType() == ValueType.BaseType.LIST ? "List" : "Set", buffer,
+														 elementBuffer, this.getDataFileReader(type.getGenericParameters().get(0), elementBuffer, depth + 1));
+
+			case MAP:
+				return String.format("readMap(%1$s, %2$s -> %3$s, %2$s -> %4$s)", buffer, elementBuffer,
+														 this.getDataFileReader(type.getGenericParameters().get(0), elementBuffer, depth + 1), this.getDataFileReader(type.getGenericParameters().get(1), elementBuffer, depth + 1));
+
+			default:
+				return String.format("read%s(%s)", this.getDataFileReaderName(type), buffer);
+		}
+	}
+
+	private String getDataFileReaderName(ValueType type) throws ExecutorException {
+
+		switch (type.getBaseType()) {
+			case STRING:
+				return "String";
+
+			case CHARACTER:
+				return "Character";
+
+			case BOOLEAN:
+				return "Boolean";
+
+			case INT8:
+				return "Int8";
+
+			case INT16:
+				return "Int16";
+
+			case INT32:
+				return "Int32";
+
+			case INT64:
+				return "Int64";
+
+			case FLOAT32:
+				return "Float32";
+
+			case FLOAT64:
+				return "Float64";
+
+			case DECIMAL:
+				return "Decimal";
+
+			default:
+				throw new ExecutorException(String.format("Value type %s is not supported.", type));
+		}
+	}
+
 	@Override
 	protected String getValueLiteral(Value value) throws ExecutorException {
 
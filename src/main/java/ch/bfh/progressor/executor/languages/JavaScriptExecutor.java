@@ -14,6 +14,7 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.JavaScriptWorkerPool;
 
 /**
  * Code execution engine for JavaScript code.
@@ -37,6 +38,8 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern VERSION_PATTERN = Pattern.compile("\\d[\\d\\.]*");
 
+	private static JavaScriptWorkerPool workerPool;
+
 	@Override
 	public String getLanguage() {
 		return JavaScriptExecutor.CODE_LANGUAGE;
@@ -60,6 +63,16 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 		return String.format("%s/template.js", this.getLanguage());
 	}
 
+	@Override
+	protected boolean usesResultFrames() {
+		return true;
+	}
+
+	@Override
+	protected String getPreludePath() {
+		return String.format("%s/prelude.js", this.getLanguage());
+	}
+
 	@Override
 	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
 
@@ -68,7 +81,12 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 		//*********************
 		//*** GENERATE CODE ***
 		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
+		final boolean useWorkers = this.willUseJavaScriptWorkers();
+		final String prelude = this.getPrelude();
+		if (useWorkers)
+			this.generateProgramFile(codeFile, codeFragment, testCases); //the worker runs the prelude itself
+		else
+			this.generateCodeFile(codeFile, codeFragment, testCases);
 
 		//********************
 		//*** EXECUTE CODE ***
@@ -77,7 +95,8 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 
 		String executionOutput;
 		try {
-			executionOutput = this.executeCommand(codeDirectory, "node", new File(CodeExecutorBase.CURRENT_DIRECTORY, codeFile.getName()).getPath());
+			executionOutput = useWorkers ? this.executeProcess(() -> JavaScriptExecutor.getWorkerPool(prelude, this.getConfiguration().getJavaScriptWorkerRuns()).execute(codeDirectory, codeFile.getName()))
+																	 : this.executeCommand(codeDirectory, "node", new File(CodeExecutorBase.CURRENT_DIRECTORY, codeFile.getName()).getPath());
 
 		} catch (ExecutorException ex) {
 			throw new ExecutorException("Could not execute the user code.", ex);
@@ -93,6 +112,25 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Gets whether to execute the custom JavaScript code in a persistent Node.js worker.
+	 *
+	 * @return whether to use Node.js workers
+	 */
+	protected boolean willUseJavaScriptWorkers() {
+		return this.getConfiguration().getJavaScriptWorkerRuns() > 0 && !this.willUseDocker();
+	}
+
+	private static synchronized JavaScriptWorkerPool getWorkerPool(String prelude, int maxUses) {
+
+		if (JavaScriptExecutor.workerPool == null) {
+			JavaScriptExecutor.workerPool = new JavaScriptWorkerPool(prelude, maxUses);
+			Runtime.getRuntime().addShutdownHook(new Thread(JavaScriptExecutor.workerPool::close)); //do not leave persistent workers behind
+		}
+
+		return JavaScriptExecutor.workerPool;
+	}
+
 	@Override
 	protected String getFunctionSignatures(List<FunctionSignature> functions) throws ExecutorException {
 
@@ -185,12 +223,12 @@ public class JavaScriptExecutor extends CodeExecutorDockerBase {
 					break;
 			}
 
-			sb.append("console.log(`${success ? 'OK' : 'ER'}:${diff[0] * 1e3 + diff[1] * 1e-6}:"); //print result to the console
+			sb.append("writeResult(success, diff[0] * 1e3 + diff[1] * 1e-6, `"); //print result to the console
 			sb.append(formattingStringPrefix).append("${").append(formattingCodePrefix).append("result");
-			sb.append(formattingCodeSuffix).append('}').append(formattingStringSuffix).append("\\n`);").append(CodeExecutorBase.NEWLINE);
+			sb.append(formattingCodeSuffix).append('}').append(formattingStringSuffix).append("`);").append(CodeExecutorBase.NEWLINE);
 
 			sb.append("} catch (ex) {").append(CodeExecutorBase.NEWLINE); //finish test case block / begin exception handling
-			sb.append("console.log(`ER:${ex}\\n`);").append(CodeExecutorBase.NEWLINE);
+			sb.append("writeResult(false, undefined, ex);").append(CodeExecutorBase.NEWLINE);
 			sb.append('}'); //finish exception handling
 		}
 
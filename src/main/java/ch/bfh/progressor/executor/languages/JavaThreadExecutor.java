@@ -2,12 +2,12 @@ package ch.bfh.progressor.executor.languages;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
+import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -20,10 +20,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import ch.bfh.progressor.executor.api.ExecutorException;
@@ -34,10 +43,12 @@ import ch.bfh.progressor.executor.api.Value;
 import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.InMemoryJavaCompiler;
 
 /**
  * Code execution engine for Java code. <br>
- * Uses a new thread in the current process to execute the custom Java code.
+ * Uses a thread pool in the current process to execute the test cases of the custom Java code in parallel.
+ * Each test case loads its own copy of the user's class, so parallel test cases do not share any static state.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
@@ -47,8 +58,25 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 
 	private static final int MAX_EXECUTION_TIMEOUT_MILLIS = 4500; //CodeExecutorBase.MAX_INITIAL_TIMEOUT_MILLIS
 	private static final int MAX_INTERRUPT_TIMEOUT_MILLIS = 250;
-
-	private static final Class<?>[] VALUE_TYPE_ARRAY = new Class<?>[0];
+	private static final int MAX_QUEUE_TIMEOUT_MILLIS = JavaThreadExecutor.MAX_EXECUTION_TIMEOUT_MILLIS + 2 * JavaThreadExecutor.MAX_INTERRUPT_TIMEOUT_MILLIS; //until a thread is free again at the latest
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+	private static final MethodType INVOCATION_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private static final AtomicInteger TEST_CASE_THREAD_COUNT = new AtomicInteger();
+	private static final int TEST_CASE_THREADS = Runtime.getRuntime().availableProcessors();
+	private static final ThreadPoolExecutor TEST_CASE_EXECUTOR = new ThreadPoolExecutor(JavaThreadExecutor.TEST_CASE_THREADS, JavaThreadExecutor.TEST_CASE_THREADS,
+																																											0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+		Thread thread = new Thread(runnable, String.format("test-case-worker-%d", JavaThreadExecutor.TEST_CASE_THREAD_COUNT.incrementAndGet()));
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "test-case-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	@Override
 	public String getLanguage() {
@@ -58,6 +86,9 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 	@Override
 	public VersionInformation getVersionInformation() throws ExecutorException {
 
+		if (InMemoryJavaCompiler.isAvailable()) //the code is compiled and executed by the current JVM
+			return this.createVersionInformation(System.getProperty("java.version"), "javac", System.getProperty("java.version"));
+
 		String javaVersion = null, javacVersion = null;
 
 		String javaOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, "java", "-version");
@@ -81,27 +112,20 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 	@Override
 	public List<Result> execute(String codeFragment, List<TestCase> testCases) {
 
-		final File codeDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile(); //create a temporary directory
-		final File codeFile = new File(codeDirectory, String.format("%s.java", JavaProcessExecutor.CODE_CLASS_NAME));
+		final File codeDirectory = Paths.get("temp", UUID.randomUUID().toString()).toFile(); //create a temporary directory (only used by the javac command)
 
 		List<Result> results = new ArrayList<>(testCases.size());
+		List<TestCaseInvocation> invocations = new ArrayList<>(testCases.size());
 
 		try {
-			if (!codeDirectory.exists() && !codeDirectory.mkdirs())
-				throw new ExecutorException("Could not create a temporary directory for the user code.");
-
-			//*********************
-			//*** GENERATE CODE ***
-			//*********************
-			this.generateCodeFile(codeFile, codeFragment, testCases);
-
 			//********************
 			//*** COMPILE CODE ***
 			//********************
 			final long compilationStart = System.nanoTime();
 
+			Map<String, byte[]> classes;
 			try {
-				this.executeSafeCommand(codeDirectory, "javac", codeFile.getName());
+				classes = this.compile(codeFragment, testCases, codeDirectory);
 			} catch (ExecutorException ex) {
 				throw new ExecutorException("Could not compile the user code.", ex);
 			}
@@ -113,114 +137,110 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 			//********************
 			//final long executionStart = System.nanoTime();
 
-			try (URLClassLoader ldr = new URLClassLoader(new URL[] { codeDirectory.toURI().toURL() })) {
-				Class<?> cls = ldr.loadClass(JavaProcessExecutor.CODE_CLASS_NAME);
-				Constructor<?> cst = cls.getConstructor();
-				Object obj = cst.newInstance();
-
-				for (TestCase testCase : testCases)
-					try {
-						Method mtd = cls.getMethod(testCase.getFunction().getName(), this.getPrimitiveTypes(testCase.getFunction().getInputTypes()).toArray(VALUE_TYPE_ARRAY));
-						if (!this.getPrimitiveType(testCase.getFunction().getOutputTypes().get(0)).equals(mtd.getReturnType()))
-							throw new ExecutorException("Could not find method with matching return type.");
-
-						final long testCaseExecutionStart = System.nanoTime();
-
-						FutureTask<?> future = new FutureTask<>(() -> mtd.invoke(obj, this.getValues(testCase.getInputValues()).toArray()));
-						Thread thread = new Thread(future);
-						thread.start();
-
-						Object output;
-						try {
-							output = future.get(JavaThreadExecutor.MAX_EXECUTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
-
-						} catch (ExecutionException ex) {
-							throw new ExecutorException("Could not execute the user code.", ex);
+			List<Exception> invocationErrors = new ArrayList<>(testCases.size());
+			for (TestCase testCase : testCases) { //start all test cases, each one runs with its own copy of the user's class and its own deadline
+				final int queuedTestCases = invocations.size() / JavaThreadExecutor.TEST_CASE_THREADS; //the test cases of this submission which may run before this one on the same thread
+				TestCaseInvocation invocation = null;
+				Exception invocationError = null;
+				try {
+					Class<?> cls = new InMemoryJavaCompiler.CompiledClassLoader(classes).loadClass(JavaProcessExecutor.CODE_CLASS_NAME);
+					MethodHandle cst = MethodHandles.publicLookup().findConstructor(cls, MethodType.methodType(void.class)).asType(JavaThreadExecutor.CONSTRUCTOR_TYPE);
+
+					TestCaseInvocation newInvocation = new TestCaseInvocation(cst, this.getMethodHandle(cls, testCase.getFunction()), this.getValues(testCase.getInputValues()).toArray());
+					newInvocation.submit((queuedTestCases + 1) * JavaThreadExecutor.MAX_QUEUE_TIMEOUT_MILLIS);
+					invocation = newInvocation;
+
+				} catch (Exception ex) {
+					invocationError = ex;
+				}
+
+				invocations.add(invocation);
+				invocationErrors.add(invocationError);
+			}
 
-						} catch (TimeoutException ex) {
-							thread.interrupt();
+			for (int i = 0; i < testCases.size(); i++) { //collect the results in the original order
+				final TestCase testCase = testCases.get(i);
+				try {
+					final TestCaseInvocation invocation = invocations.get(i);
+					if (invocation == null)
+						throw invocationErrors.get(i);
+
+					Object output = invocation.await();
+
+					//****************************
+					//*** TEST CASE EVALUATION ***
+					//****************************
+					Object expectedOutput = this.getValue(testCase.getExpectedOutputValues().get(0));
+					boolean success;
+					switch (testCase.getFunction().getOutputTypes().get(0).getBaseType()) {
+						case ARRAY:
+							switch (testCase.getFunction().getOutputTypes().get(0).getGenericParameters().get(0).getBaseType()) {
+								case CHARACTER:
+									success = Arrays.equals((char[])output, (char[])expectedOutput);
+									break;
+
+								case BOOLEAN:
+									success = Arrays.equals((boolean[])output, (boolean[])expectedOutput);
+									break;
+
+								case INT8:
+									success = Arrays.equals((byte[])output, (byte[])expectedOutput);
+									break;
+
+								case INT16:
+									success = Arrays.equals((short[])output, (short[])expectedOutput);
+									break;
+
+								case INT32:
+									success = Arrays.equals((int[])output, (int[])expectedOutput);
+									break;
+
+								case INT64:
+									success = Arrays.equals((long[])output, (long[])expectedOutput);
+									break;
+
+								case FLOAT32:
+									success = Arrays.equals((float[])output, (float[])expectedOutput);
+									break;
+
+								case FLOAT64:
+									success = Arrays.equals((double[])output, (double[])expectedOutput);
+									break;
+
+								default:
+									success = Arrays.equals((Object[])output, (Object[])expectedOutput);
+									break;
+							}
+							break;
+
+						case FLOAT32:
+							success = this.hasMinimalDifference((Float)output, (Float)expectedOutput); //compare floating-point numbers using custom equality comparison
+							break;
+
+						case FLOAT64:
+							success = this.hasMinimalDifference((Double)output, (Double)expectedOutput); //compare floating-point numbers using custom equality comparison
+							break;
+
+						default:
+							success = output.equals(expectedOutput); //compare objects using equality method
+							break;
+					}
 
-							thread.join(JavaThreadExecutor.MAX_INTERRUPT_TIMEOUT_MILLIS);
-							if (thread.isAlive())
-								thread.stop();
+					results.add(this.createResult(success, false, output.toString(),
+																				(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+																				Double.NaN,
+																				invocation.getExecutionTime() / CodeExecutorBase.MILLIS_IN_NANO));
 
-							throw new ExecutorException("Could not execute the user code in time.", ex);
-						}
-
-						final long testCaseExecutionEnd = System.nanoTime();
-
-						//****************************
-						//*** TEST CASE EVALUATION ***
-						//****************************
-						Object expectedOutput = this.getValue(testCase.getExpectedOutputValues().get(0));
-						boolean success;
-						switch (testCase.getFunction().getOutputTypes().get(0).getBaseType()) {
-							case ARRAY:
-								switch (testCase.getFunction().getOutputTypes().get(0).getGenericParameters().get(0).getBaseType()) {
-									case CHARACTER:
-										success = Arrays.equals((char[])output, (char[])expectedOutput);
-										break;
-
-									case BOOLEAN:
-										success = Arrays.equals((boolean[])output, (boolean[])expectedOutput);
-										break;
-
-									case INT8:
-										success = Arrays.equals((byte[])output, (byte[])expectedOutput);
-										break;
-
-									case INT16:
-										success = Arrays.equals((short[])output, (short[])expectedOutput);
-										break;
-
-									case INT32:
-										success = Arrays.equals((int[])output, (int[])expectedOutput);
-										break;
-
-									case INT64:
-										success = Arrays.equals((long[])output, (long[])expectedOutput);
-										break;
-
-									case FLOAT32:
-										success = Arrays.equals((float[])output, (float[])expectedOutput);
-										break;
-
-									case FLOAT64:
-										success = Arrays.equals((double[])output, (double[])expectedOutput);
-										break;
-
-									default:
-										success = Arrays.equals((Object[])output, (Object[])expectedOutput);
-										break;
-								}
-								break;
-
-							case FLOAT32:
-								success = this.hasMinimalDifference((Float)output, (Float)expectedOutput); //compare floating-point numbers using custom equality comparison
-								break;
-
-							case FLOAT64:
-								success = this.hasMinimalDifference((Double)output, (Double)expectedOutput); //compare floating-point numbers using custom equality comparison
-								break;
-
-							default:
-								success = output.equals(expectedOutput); //compare objects using equality method
-								break;
-						}
+				} catch (Exception ex) {
+					StringBuilder sb = new StringBuilder("Could not invoke the user code.").append(CodeExecutorBase.NEWLINE);
+					Throwable throwable = ex;
+					do sb.append(throwable).append(CodeExecutorBase.NEWLINE);
+					while ((throwable = throwable.getCause()) != null);
 
-						results.add(this.createResult(success, false, output.toString(),
-																					(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
-																					Double.NaN,
-																					(testCaseExecutionEnd - testCaseExecutionStart) / CodeExecutorBase.MILLIS_IN_NANO));
+					results.add(this.createResult(false, false, sb.toString()));
+				}
 
-					} catch (Exception ex) {
-						StringBuilder sb = new StringBuilder("Could not invoke the user code.").append(CodeExecutorBase.NEWLINE);
-						Throwable throwable = ex;
-						do sb.append(throwable).append(CodeExecutorBase.NEWLINE);
-						while ((throwable = throwable.getCause()) != null);
-
-						results.add(this.createResult(false, false, sb.toString()));
-					}
+				this.reportResult(results.get(results.size() - 1)); //the next test case may take its time
 			}
 
 			//final long executionEnd = System.nanoTime();
@@ -239,6 +259,10 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 			}
 
 		} finally {
+			for (TestCaseInvocation invocation : invocations) //abandon the remaining test cases on failure
+				if (invocation != null)
+					invocation.cancel();
+
 			if (codeDirectory.exists())
 				if (!this.tryDeleteRecursive(codeDirectory))
 					JavaThreadExecutor.LOGGER.warning("Could not delete temporary folder.");
@@ -247,6 +271,263 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 		return results;
 	}
 
+	/**
+	 * Compiles the generated code. <br>
+	 * The code is compiled in memory if the current JVM contains a Java compiler, otherwise the {@code javac} command is used.
+	 *
+	 * @param codeFragment  code fragment to compile
+	 * @param testCases     test cases to compile
+	 * @param codeDirectory directory to generate the code file in if the {@code javac} command is used
+	 *
+	 * @return the compiled classes by their binary name
+	 *
+	 * @throws ExecutorException if the code could not be compiled
+	 */
+	protected Map<String, byte[]> compile(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
+
+		final String codeFileName = String.format("%s.java", JavaProcessExecutor.CODE_CLASS_NAME);
+
+		if (InMemoryJavaCompiler.isAvailable())
+			return InMemoryJavaCompiler.compile(Collections.singletonMap(codeFileName, this.getCodeFile(codeFragment, testCases)));
+
+		if (!codeDirectory.exists() && !codeDirectory.mkdirs())
+			throw new ExecutorException("Could not create a temporary directory for the user code.");
+
+		this.generateCodeFile(new File(codeDirectory, codeFileName), codeFragment, testCases);
+		this.executeSafeCommand(codeDirectory, "javac", codeFileName);
+
+		File[] classFiles = codeDirectory.listFiles((directory, name) -> name.endsWith(".class")); //the user's class is in the default package
+		if (classFiles == null)
+			throw new ExecutorException("Could not load the compiled user code.");
+
+		Map<String, byte[]> classes = new HashMap<>();
+		try {
+			for (File classFile : classFiles)
+				classes.put(classFile.getName().substring(0, classFile.getName().length() - ".class".length()), Files.readAllBytes(classFile.toPath()));
+
+		} catch (IOException ex) {
+			throw new ExecutorException("Could not load the compiled user code.", ex);
+		}
+
+		return classes;
+	}
+
+	/**
+	 * Invocation of a test case on the shared test case pool. <br>
+	 * Each test case uses a new instance of the user's class, so test cases do not share their instance state.
+	 * The time a test case waits for a free thread is bounded from its submission, its execution has its own deadline once it runs.
+	 * A test case exceeding its deadline is interrupted and, if it ignores the interruption, stopped.
+	 * If its thread is still running after being stopped, the thread is abandoned and the pool gets a new thread in its place.
+	 */
+	private static class TestCaseInvocation implements Callable<Object> {
+
+		private final MethodHandle constructor;
+		private final MethodHandle method;
+		private final Object[] arguments;
+		private final FutureTask<Object> future = new FutureTask<>(this);
+
+		private ScheduledFuture<?> queueTimeout, executionTimeout;
+		private long deadline;
+
+		private Thread thread;
+		private boolean finished, timedOut, abandoned;
+		private volatile long executionTime;
+
+		private TestCaseInvocation(MethodHandle constructor, MethodHandle method, Object[] arguments) {
+
+			this.constructor = constructor;
+			this.method = method;
+			this.arguments = arguments;
+		}
+
+		private synchronized boolean isTimedOut() {
+			return this.timedOut;
+		}
+
+		private synchronized long getDeadline() {
+			return this.deadline;
+		}
+
+		private long getExecutionTime() {
+			return this.executionTime;
+		}
+
+		private synchronized void submit(int queueTimeoutMillis) {
+
+			this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+			this.queueTimeout = JavaThreadExecutor.TIMEOUT_SCHEDULER.schedule(() -> this.timeOut(true), queueTimeoutMillis, TimeUnit.MILLISECONDS);
+			JavaThreadExecutor.TEST_CASE_EXECUTOR.execute(this.future);
+		}
+
+		private Object await() throws ExecutorException, InterruptedException {
+
+			try {
+				Object output;
+				while (true) { //the waiting time is bounded even if the watchdog is late
+					final long deadline = this.getDeadline();
+					try {
+						output = this.future.get(deadline - System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(JavaThreadExecutor.MAX_INTERRUPT_TIMEOUT_MILLIS), TimeUnit.NANOSECONDS);
+						break;
+
+					} catch (TimeoutException ex) {
+						if (this.getDeadline() == deadline) { //otherwise the test case has started running in the meantime
+							this.timeOut(false);
+							throw new CancellationException();
+						}
+					}
+				}
+
+				if (this.isTimedOut()) //the user code returned after being interrupted
+					throw new CancellationException();
+
+				return output;
+
+			} catch (ExecutionException ex) {
+				if (this.isTimedOut())
+					throw new ExecutorException("Could not execute the user code in time.", ex);
+
+				throw new ExecutorException("Could not execute the user code.", ex);
+
+			} catch (CancellationException ex) {
+				throw new ExecutorException("Could not execute the user code in time.", ex);
+			}
+		}
+
+		private void cancel() {
+
+			synchronized (this) {
+				this.queueTimeout.cancel(false);
+				if (this.executionTimeout != null)
+					this.executionTimeout.cancel(false);
+			}
+
+			this.timeOut(false); //stops the test case if it is still running
+		}
+
+		@Override
+		public Object call() throws Exception {
+
+			synchronized (this) {
+				if (this.timedOut) //the test case waited too long for a free thread
+					throw new CancellationException();
+
+				this.thread = Thread.currentThread();
+				this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(JavaThreadExecutor.MAX_EXECUTION_TIMEOUT_MILLIS);
+				this.queueTimeout.cancel(false);
+				this.executionTimeout = JavaThreadExecutor.TIMEOUT_SCHEDULER.schedule(() -> this.timeOut(false), JavaThreadExecutor.MAX_EXECUTION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			}
+
+			try {
+				final Object instance = this.constructor.invokeExact();
+
+				final long start = System.nanoTime();
+				final Object output = this.method.invokeExact(instance, this.arguments);
+				this.executionTime = System.nanoTime() - start;
+
+				return output;
+
+			} catch (Throwable ex) { //report everything thrown by the user code like a reflective invocation
+				throw new InvocationTargetException(ex);
+
+			} finally {
+				synchronized (this) {
+					this.thread = null;
+					this.finished = true;
+					this.executionTimeout.cancel(false);
+
+					if (this.abandoned) //the user code returned after all, the pool does not need the replacement anymore
+						JavaThreadExecutor.resizeTestCaseExecutor(-1);
+				}
+			}
+		}
+
+		private void timeOut(boolean queued) {
+
+			final boolean running;
+			synchronized (this) {
+				if (this.finished || this.timedOut || queued && this.thread != null) //the queue timeout does not apply once the test case is running
+					return;
+
+				this.timedOut = true;
+				running = this.thread != null;
+			}
+
+			this.future.cancel(true); //removes a queued test case and releases the waiting executor immediately
+			if (running)
+				JavaThreadExecutor.TIMEOUT_SCHEDULER.schedule(this::stop, JavaThreadExecutor.MAX_INTERRUPT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+
+		@SuppressWarnings("deprecation")
+		private synchronized void stop() {
+
+			if (this.thread == null)
+				return;
+
+			try { //last resort for user code ignoring the interruption, the pool thread survives because the error is thrown inside this invocation
+				this.thread.stop();
+				JavaThreadExecutor.TIMEOUT_SCHEDULER.schedule(this::abandon, JavaThreadExecutor.MAX_INTERRUPT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+			} catch (UnsupportedOperationException ex) {
+				JavaThreadExecutor.LOGGER.log(Level.WARNING, String.format("Could not stop thread %s running a timed-out test case.", this.thread.getName()), ex);
+				this.abandon();
+			}
+		}
+
+		private synchronized void abandon() {
+
+			if (this.thread == null || this.abandoned) //the user code has been stopped in the meantime
+				return;
+
+			JavaThreadExecutor.LOGGER.warning(String.format("Thread %s running a timed-out test case is still running, replacing it.", this.thread.getName()));
+			this.abandoned = true;
+			JavaThreadExecutor.resizeTestCaseExecutor(1);
+		}
+	}
+
+	/**
+	 * Changes the number of threads of the test case pool. <br>
+	 * The pool grows for each thread abandoned to user code which cannot be stopped and shrinks again once the thread is released.
+	 *
+	 * @param delta number of threads to add (or remove)
+	 */
+	private static synchronized void resizeTestCaseExecutor(int delta) {
+
+		final int size = JavaThreadExecutor.TEST_CASE_EXECUTOR.getCorePoolSize() + delta;
+		if (delta > 0) { //the maximum size must never be less than the core size
+			JavaThreadExecutor.TEST_CASE_EXECUTOR.setMaximumPoolSize(size);
+			JavaThreadExecutor.TEST_CASE_EXECUTOR.setCorePoolSize(size);
+
+		} else {
+			JavaThreadExecutor.TEST_CASE_EXECUTOR.setCorePoolSize(size);
+			JavaThreadExecutor.TEST_CASE_EXECUTOR.setMaximumPoolSize(size);
+		}
+	}
+
+	/**
+	 * Resolves the method of a function signature into a {@link MethodHandle}. <br>
+	 * The handle is adapted to the type {@code (Object, Object[])Object}, so it can be invoked exactly
+	 * with an instance of the user's class and the (already converted) argument values.
+	 *
+	 * @param cls      the user's class
+	 * @param function the function signature to resolve
+	 *
+	 * @return a {@link MethodHandle} invoking the method
+	 *
+	 * @throws ExecutorException if the user's class does not contain a public method with a matching signature
+	 */
+	protected MethodHandle getMethodHandle(Class<?> cls, FunctionSignature function) throws ExecutorException {
+
+		final List<Class<?>> inputTypes = this.getPrimitiveTypes(function.getInputTypes());
+		final MethodType methodType = MethodType.methodType(this.getPrimitiveType(function.getOutputTypes().get(0)), inputTypes);
+
+		try {
+			return MethodHandles.publicLookup().findVirtual(cls, function.getName(), methodType).asSpreader(Object[].class, inputTypes.size()).asType(JavaThreadExecutor.INVOCATION_TYPE);
+
+		} catch (NoSuchMethodException | IllegalAccessException ex) {
+			throw new ExecutorException(String.format("Could not find method with matching signature %s.", methodType), ex);
+		}
+	}
+
 	private boolean hasMinimalDifference(float value1, float value2) {
 
 		if (!Float.isFinite(value1) || !Float.isFinite(value2)) return value1 == value2;
@@ -260,19 +541,14 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 	}
 
 	@Override
-	protected void generateCodeFile(File codeFile, String codeFragment, List<TestCase> testCases) throws ExecutorException {
+	public String getCodeFile(String codeFragment, List<TestCase> testCases) throws ExecutorException {
 
-		try {
-			StringBuilder code = this.getTemplate(); //read the template
-
-			int fragStart = code.indexOf(CodeExecutorBase.CODE_CUSTOM_FRAGMENT); //place fragment in template
-			code.replace(fragStart, fragStart + CodeExecutorBase.CODE_CUSTOM_FRAGMENT.length(), codeFragment);
+		StringBuilder code = this.getTemplate(); //read the template, the test cases are invoked using reflection
 
-			Files.write(codeFile.toPath(), code.toString().getBytes(CodeExecutorBase.CHARSET)); //and write the generated code in it
+		int fragStart = code.indexOf(CodeExecutorBase.CODE_CUSTOM_FRAGMENT); //place fragment in template
+		code.replace(fragStart, fragStart + CodeExecutorBase.CODE_CUSTOM_FRAGMENT.length(), codeFragment);
 
-		} catch (ExecutorException | IOException ex) {
-			throw new ExecutorException("Could not generate the code file.", ex);
-		}
+		return code.toString();
 	}
 
 	@Override
@@ -329,9 +605,14 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 		try {
 			switch (value.getType().getBaseType()) {
 				case ARRAY:
-					Object array = Array.newInstance(this.getPrimitiveType(value.getType().getGenericParameters().get(0)), value.getCollection().size());
-					for (int i = 0; i < value.getCollection().size(); i++)
-						Array.set(array, i, this.getValue(value.getCollection().get(i)));
+					Object primitiveCollection = value.getPrimitiveCollection();
+					if (primitiveCollection != null)
+						return this.getArray(value.getType().getGenericParameters().get(0), primitiveCollection);
+
+					List<Value> collection = value.getCollection();
+					Object array = Array.newInstance(this.getPrimitiveType(value.getType().getGenericParameters().get(0)), collection.size());
+					for (int i = 0; i < collection.size(); i++)
+						Array.set(array, i, this.getValue(collection.get(i)));
 					return array;
 
 				case LIST:
@@ -392,6 +673,53 @@ public class JavaThreadExecutor extends CodeExecutorBase {
 		}
 	}
 
+	/**
+	 * Gets a Java array for a collection backed by a primitive array (see {@link Value#getPrimitiveCollection()}) by copying it once.
+	 *
+	 * @param elementType         type of the elements
+	 * @param primitiveCollection primitive array backing the collection
+	 *
+	 * @return Java array of the primitive element type
+	 *
+	 * @throws ExecutorException if the element type is not supported
+	 */
+	protected Object getArray(ValueType elementType, Object primitiveCollection) throws ExecutorException {
+
+		switch (elementType.getBaseType()) {
+			case INT8:
+				int[] bytes = (int[])primitiveCollection; //already checked to be in range
+				byte[] byteArray = new byte[bytes.length];
+				for (int i = 0; i < bytes.length; i++)
+					byteArray[i] = (byte)bytes[i];
+				return byteArray;
+
+			case INT16:
+				int[] shorts = (int[])primitiveCollection;
+				short[] shortArray = new short[shorts.length];
+				for (int i = 0; i < shorts.length; i++)
+					shortArray[i] = (short)shorts[i];
+				return shortArray;
+
+			case INT32:
+				return ((int[])primitiveCollection).clone();
+
+			case INT64:
+				return ((long[])primitiveCollection).clone();
+
+			case FLOAT64:
+				return ((double[])primitiveCollection).clone();
+
+			case CHARACTER:
+				return ((char[])primitiveCollection).clone();
+
+			case BOOLEAN:
+				return ((boolean[])primitiveCollection).clone();
+
+			default:
+				throw new ExecutorException(String.format("Value type %s is not supported.", elementType));
+		}
+	}
+
 	/**
 	 * Gets the Java primitive name of an arbitrary type.
 	 *
@@ -1,6 +1,7 @@
 package ch.bfh.progressor.executor.languages;
 
 import java.io.File;
+import java.io.FileFilter;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -16,6 +17,7 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.KotlinCompilerService;
 
 /**
  * Code execution engine for Kotlin code. <br>
@@ -40,6 +42,13 @@ public class KotlinExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern VERSION_PATTERN = Pattern.compile("\\d[\\d\\.-]*");
 
+	/**
+	 * Filter for the compilation artifacts (Java class files and the Kotlin module information).
+	 */
+	protected static final FileFilter COMPILATION_ARTIFACT_FILTER = file -> file.getName().endsWith(".class") || file.getName().equals("META-INF");
+
+	private static KotlinCompilerService compilerService;
+
 	@Override
 	public String getLanguage() {
 		return KotlinExecutor.CODE_LANGUAGE;
@@ -76,13 +85,19 @@ public class KotlinExecutor extends CodeExecutorDockerBase {
 		//********************
 		//*** COMPILE CODE ***
 		//********************
+		final String compilationKey = this.getCompilationKey(codeFragment, testCases);
 		final long compilationStart = System.nanoTime();
 
-		try {
-			//this.executeSafeCommand(codeDirectory, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "kotlinc.bat" : "kotlinc", codeFile.getName());
-			this.simulateKotlinCompilerScript(true, codeDirectory, codeFile.getName());
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not compile the user code.", ex);
+		final boolean compilationCached = this.restoreCompilation(compilationKey, codeDirectory);
+		if (!compilationCached) {
+			try {
+				//this.executeSafeCommand(codeDirectory, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "kotlinc.bat" : "kotlinc", codeFile.getName());
+				this.compile(codeDirectory, "-d", ".", codeFile.getName());
+			} catch (ExecutorException ex) {
+				throw new ExecutorException("Could not compile the user code.", ex);
+			}
+
+			this.storeCompilation(compilationKey, codeDirectory, KotlinExecutor.COMPILATION_ARTIFACT_FILTER);
 		}
 
 		final long compilationEnd = System.nanoTime();
@@ -107,10 +122,55 @@ public class KotlinExecutor extends CodeExecutorDockerBase {
 		//*** TEST CASE EVALUATION ***
 		//****************************
 		return this.createResults(executionOutput,
-															(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+															compilationCached ? 0 : (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Compiles Kotlin code. <br>
+	 * Uses a long-lived compiler daemon unless Docker is used (the Docker containers are too short-lived for a daemon).
+	 *
+	 * @param directory the working directory for the compilation
+	 * @param arguments arguments of the compilation (the same as for the {@code kotlinc} command)
+	 *
+	 * @return the output of the compiler
+	 *
+	 * @throws ExecutorException if the code cannot be compiled successfully
+	 */
+	protected String compile(File directory, String... arguments) throws ExecutorException {
+
+		if (this.willUseDocker())
+			return this.simulateKotlinCompilerScript(true, directory, arguments);
+
+		return KotlinExecutor.getCompilerService().compile(directory, arguments);
+	}
+
+	/**
+	 * Gets the Kotlin home directory.
+	 *
+	 * @return path to the Kotlin home directory
+	 *
+	 * @throws ExecutorException if the Kotlin home directory is not configured
+	 */
+	protected static String getKotlinHome() throws ExecutorException {
+
+		final String kotlinHome = System.getenv("KOTLIN_HOME");
+		if (kotlinHome == null)
+			throw new ExecutorException("Cannot find Kotlin libraries.");
+
+		return kotlinHome;
+	}
+
+	private static synchronized KotlinCompilerService getCompilerService() throws ExecutorException {
+
+		if (KotlinExecutor.compilerService == null) {
+			KotlinExecutor.compilerService = new KotlinCompilerService(Paths.get(KotlinExecutor.getKotlinHome(), "lib", "kotlin-compiler.jar").toString());
+			Runtime.getRuntime().addShutdownHook(new Thread(KotlinExecutor.compilerService::close)); //do not leave compiler daemons behind
+		}
+
+		return KotlinExecutor.compilerService;
+	}
+
 	/////////////////////////////////////////////////////////////////
 	//              Kotlin script (bat/sh) simulations             //
 	/////////////////////////////////////////////////////////////////
@@ -1,15 +1,19 @@
 package ch.bfh.progressor.executor.languages;
 
 import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
 import java.util.List;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.api.TestCase;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.KotlinScriptLauncher;
 
 /**
  * Code execution engine for Kotlin code. <br>
  * Uses the script engine to execute the Kotlin code.
+ * Unless Docker is used, the script is compiled by a compiler daemon instead, so that compiled scripts can be cached.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
@@ -30,6 +34,65 @@ public class KotlinScriptExecutor extends KotlinExecutor {
 		//*********************
 		this.generateCodeFile(codeFile, codeFragment, testCases);
 
+		if (this.willUseDocker())
+			return this.executeScript(codeFile, codeDirectory);
+
+		//********************
+		//*** COMPILE CODE ***
+		//********************
+		final String compilationKey = this.getCompilationKey(codeFragment, testCases);
+		final long compilationStart = System.nanoTime();
+
+		final boolean compilationCached = this.restoreCompilation(compilationKey, codeDirectory);
+		if (!compilationCached) {
+			try {
+				this.compile(codeDirectory, "-d", ".", codeFile.getName());
+			} catch (ExecutorException ex) {
+				throw new ExecutorException("Could not compile the user code.", ex);
+			}
+
+			this.storeCompilation(compilationKey, codeDirectory, KotlinExecutor.COMPILATION_ARTIFACT_FILTER);
+		}
+
+		final long compilationEnd = System.nanoTime();
+
+		//********************
+		//*** EXECUTE CODE ***
+		//********************
+		final long executionStart = System.nanoTime();
+
+		String executionOutput;
+		try {
+			final String classPath = String.join(File.pathSeparator, Paths.get(KotlinExecutor.getKotlinHome(), "lib", "kotlin-runtime.jar").toString(), ".",
+																					 new File(KotlinScriptLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath());
+			executionOutput = this.executeDeferredCommand(codeDirectory, "java", "-Xmx256M", "-Xms32M", "-cp", classPath, KotlinScriptLauncher.class.getName(), KotlinExecutor.CODE_CLASS_NAME);
+
+		} catch (ExecutorException | URISyntaxException | SecurityException ex) {
+			throw new ExecutorException("Could not execute the user code.", ex);
+		}
+
+		final long executionEnd = System.nanoTime();
+
+		//****************************
+		//*** TEST CASE EVALUATION ***
+		//****************************
+		return this.createResults(executionOutput,
+															compilationCached ? 0 : (compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
+															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
+	}
+
+	/**
+	 * Compiles and executes a script in one step using the script engine.
+	 *
+	 * @param codeFile      script to execute
+	 * @param codeDirectory the working directory for the script
+	 *
+	 * @return a {@link List} containing the {@link Result} for each test case
+	 *
+	 * @throws ExecutorException if the script could not be executed
+	 */
+	private List<Result> executeScript(File codeFile, File codeDirectory) throws ExecutorException {
+
 		//********************
 		//*** EXECUTE CODE ***
 		//********************
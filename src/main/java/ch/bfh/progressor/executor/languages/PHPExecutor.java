@@ -6,6 +6,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
 import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.ExecutorPlatform;
 import ch.bfh.progressor.executor.api.FunctionSignature;
 import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.api.TestCase;
@@ -14,6 +15,7 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.PHPWorkerPool;
 
 /**
  * Code execution engine for PHP code.
@@ -37,6 +39,8 @@ public class PHPExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern VERSION_PATTERN = Pattern.compile("\\d[\\d\\.]*");
 
+	private static PHPWorkerPool workerPool;
+
 	@Override
 	public String getLanguage() {
 		return PHPExecutor.CODE_LANGUAGE;
@@ -60,6 +64,11 @@ public class PHPExecutor extends CodeExecutorDockerBase {
 		return String.format("%s/template.php", this.getLanguage());
 	}
 
+	@Override
+	protected String getPreludePath() {
+		return String.format("%s/prelude.php", this.getLanguage());
+	}
+
 	@Override
 	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
 
@@ -68,7 +77,12 @@ public class PHPExecutor extends CodeExecutorDockerBase {
 		//*********************
 		//*** GENERATE CODE ***
 		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
+		final boolean useWorkers = this.willUsePHPWorkers();
+		final String prelude = this.getPrelude();
+		if (useWorkers)
+			this.generateProgramFile(codeFile, codeFragment, testCases); //the worker has already loaded the prelude
+		else
+			this.generateCodeFile(codeFile, codeFragment, testCases);
 
 		//********************
 		//*** EXECUTE CODE ***
@@ -77,7 +91,8 @@ public class PHPExecutor extends CodeExecutorDockerBase {
 
 		String executionOutput;
 		try {
-			executionOutput = this.executeCommand(codeDirectory, "php", new File(CodeExecutorBase.CURRENT_DIRECTORY, codeFile.getName()).getPath());
+			executionOutput = useWorkers ? this.executeProcess(() -> PHPExecutor.getWorkerPool(prelude).execute(codeDirectory, codeFile.getName()))
+																	 : this.executeCommand(codeDirectory, "php", new File(CodeExecutorBase.CURRENT_DIRECTORY, codeFile.getName()).getPath());
 
 		} catch (ExecutorException ex) {
 			throw new ExecutorException("Could not execute the user code.", ex);
@@ -93,6 +108,25 @@ public class PHPExecutor extends CodeExecutorDockerBase {
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Gets whether to execute the custom PHP code in a persistent PHP worker.
+	 *
+	 * @return whether to use PHP workers
+	 */
+	protected boolean willUsePHPWorkers() {
+		return this.getConfiguration().shouldUsePHPWorkers() && !this.willUseDocker() && CodeExecutorBase.PLATFORM != ExecutorPlatform.WINDOWS;
+	}
+
+	private static synchronized PHPWorkerPool getWorkerPool(String prelude) {
+
+		if (PHPExecutor.workerPool == null) {
+			PHPExecutor.workerPool = new PHPWorkerPool(prelude);
+			Runtime.getRuntime().addShutdownHook(new Thread(PHPExecutor.workerPool::close)); //do not leave persistent workers behind
+		}
+
+		return PHPExecutor.workerPool;
+	}
+
 	@Override
 	protected String getFunctionSignatures(List<FunctionSignature> functions) throws ExecutorException {
 
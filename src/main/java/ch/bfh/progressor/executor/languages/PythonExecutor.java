@@ -1,7 +1,9 @@
 package ch.bfh.progressor.executor.languages;
 
 import java.io.File;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.IntStream;
@@ -15,6 +17,7 @@ import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.PythonWorkerPool;
 
 /**
  * Code execution engine for Python code.
@@ -38,6 +41,8 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 	 */
 	protected static final Pattern VERSION_PATTERN = Pattern.compile("\\d[\\d\\.]*");
 
+	private static final Map<String, PythonWorkerPool> workerPools = new HashMap<>(); //by interpreter
+
 	@Override
 	public String getLanguage() {
 		return PythonExecutor.CODE_LANGUAGE;
@@ -46,7 +51,7 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 	@Override
 	public VersionInformation fetchVersionInformation() throws ExecutorException {
 
-		String compiler = CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "python" : "python3";
+		String compiler = this.getInterpreter();
 		String version = null;
 
 		String versionOutput = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, compiler, "--version");
@@ -62,6 +67,11 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 		return String.format("%s/template.py", this.getLanguage());
 	}
 
+	@Override
+	protected boolean usesResultFrames() {
+		return true;
+	}
+
 	@Override
 	public List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
 
@@ -79,7 +89,8 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 
 		String executionOutput;
 		try {
-			executionOutput = this.executeCommand(codeDirectory, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "python" : "python3", codeFile.getName());
+			executionOutput = this.willUsePythonWorkers() ? this.executeProcess(() -> PythonExecutor.getWorkerPool(this.getInterpreter()).execute(codeDirectory, codeFile.getName()))
+																										: this.executeCommand(codeDirectory, this.getInterpreter(), codeFile.getName());
 
 		} catch (ExecutorException ex) {
 			throw new ExecutorException("Could not execute the user code.", ex);
@@ -95,6 +106,37 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
 	}
 
+	/**
+	 * Gets the name of the Python interpreter executable.
+	 *
+	 * @return name of the Python interpreter
+	 */
+	protected String getInterpreter() {
+		return CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "python" : "python3";
+	}
+
+	/**
+	 * Gets whether to execute the custom Python code in a pre-started zygote process. <br>
+	 * Zygotes are only used if they are enabled and the code is neither executed inside a Docker container nor on Windows (which does not support {@code fork}).
+	 *
+	 * @return whether to use Python zygotes
+	 */
+	protected boolean willUsePythonWorkers() {
+		return this.getConfiguration().shouldUsePythonWorkers() && !this.willUseDocker() && CodeExecutorBase.PLATFORM != ExecutorPlatform.WINDOWS;
+	}
+
+	private static synchronized PythonWorkerPool getWorkerPool(String interpreter) {
+
+		PythonWorkerPool workerPool = PythonExecutor.workerPools.get(interpreter);
+		if (workerPool == null) {
+			workerPool = new PythonWorkerPool(interpreter);
+			Runtime.getRuntime().addShutdownHook(new Thread(workerPool::close)); //do not leave pre-started zygotes behind
+			PythonExecutor.workerPools.put(interpreter, workerPool);
+		}
+
+		return workerPool;
+	}
+
 	@Override
 	protected String getFunctionSignatures(List<FunctionSignature> functions) throws ExecutorException {
 
@@ -155,13 +197,10 @@ public class PythonExecutor extends CodeExecutorDockerBase {
 			sb.append(indentation).append("success = ").append(comparisonPrefix).append("result").append(comparisonSeparator); //result evaluation
 			sb.append(this.getValueLiteral(testCase.getExpectedOutputValues().get(0))).append(comparisonSuffix).append(CodeExecutorBase.NEWLINE);
 
-			sb.append(indentation).append("print('%s:%f:%s' % ('OK' if success else 'ER', (end - start) * 1e3, result))").append(CodeExecutorBase.NEWLINE); //print result to the console
+			sb.append(indentation).append("writeResult(success, (end - start) * 1e3, result)").append(CodeExecutorBase.NEWLINE); //print result to the console
 
 			sb.append("except:").append(CodeExecutorBase.NEWLINE); //finish test case block / begin exception handling
-			sb.append(indentation).append("print('ER:%s (%s)' % sys.exc_info()[0:2])").append(CodeExecutorBase.NEWLINE);
-
-			sb.append("finally:").append(CodeExecutorBase.NEWLINE); //add empty line
-			sb.append(indentation).append("print()").append(CodeExecutorBase.NEWLINE);
+			sb.append(indentation).append("writeResult(False, None, '%s (%s)' % sys.exc_info()[0:2])").append(CodeExecutorBase.NEWLINE);
 		}
 
 		return sb.toString();
@@ -1,6 +1,6 @@
 package ch.bfh.progressor.executor.languages;
 
-import java.io.File;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -9,31 +9,25 @@ import java.util.stream.IntStream;
 import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.api.ExecutorPlatform;
 import ch.bfh.progressor.executor.api.FunctionSignature;
-import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.api.TestCase;
 import ch.bfh.progressor.executor.api.Value;
 import ch.bfh.progressor.executor.api.ValueType;
 import ch.bfh.progressor.executor.api.VersionInformation;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
-import ch.bfh.progressor.executor.impl.CodeExecutorDockerBase;
+import ch.bfh.progressor.executor.impl.DotNetExecutorBase;
 
 /**
  * Code execution engine for VB.NET code.
  *
  * @author strut1, touwm1 &amp; weidj1
  */
-public class VBNetExecutor extends CodeExecutorDockerBase {
+public class VBNetExecutor extends DotNetExecutorBase {
 
 	/**
 	 * Unique name of the language this executor supports.
 	 */
 	public static final String CODE_LANGUAGE = "vbnet";
 
-	/**
-	 * Name of the VB.NET executable.
-	 */
-	protected static final String EXECUTABLE_NAME = "main";
-
 	/**
 	 * Regular expression pattern for extracting the language version.
 	 */
@@ -57,7 +51,7 @@ public class VBNetExecutor extends CodeExecutorDockerBase {
 	@Override
 	public VersionInformation fetchVersionInformation() throws ExecutorException {
 
-		String output = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "vbc" : "vbnc", "/help");
+		String output = this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS || this.willUseCompilerServer() ? "vbc" : "vbnc", "/help");
 
 		String languageVersion = null, compilerName = null, compilerVersion = null;
 		Matcher languageMatcher = VBNetExecutor.LANGUAGE_VERSION_PATTERN.matcher(output);
@@ -81,55 +75,28 @@ public class VBNetExecutor extends CodeExecutorDockerBase {
 	}
 
 	@Override
-	protected List<Result> executeTestCases(String codeFragment, List<TestCase> testCases, File codeDirectory) throws ExecutorException {
-
-		final File codeFile = new File(codeDirectory, String.format("%s.vb", VBNetExecutor.EXECUTABLE_NAME));
-		final File executableFile = new File(codeDirectory, String.format("%s.exe", VBNetExecutor.EXECUTABLE_NAME));
-
-		//*********************
-		//*** GENERATE CODE ***
-		//*********************
-		this.generateCodeFile(codeFile, codeFragment, testCases);
-
-		//********************
-		//*** COMPILE CODE ***
-		//********************
-		final long compilationStart = System.nanoTime();
-
-		try {
-			this.executeSafeCommand(codeDirectory, CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "vbc" : "vbnc", codeFile.getName(), "/debug");
-
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not compile the user code.", ex);
-		}
-
-		final long compilationEnd = System.nanoTime();
-
-		//********************
-		//*** EXECUTE CODE ***
-		//********************
-		String[] executionArguments = CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS
-																	? new String[] { executableFile.getAbsolutePath() }
-																	: new String[] { "mono", this.willUseDocker() ? new File(CodeExecutorBase.CURRENT_DIRECTORY, executableFile.getName()).getPath() : executableFile.getAbsolutePath(), "--debug" };
-
-		final long executionStart = System.nanoTime();
+	protected String getPreludePath() {
+		return String.format("%s/prelude.vb", this.getLanguage());
+	}
 
-		String executionOutput;
-		try {
-			executionOutput = this.executeCommand(codeDirectory, executionArguments);
+	@Override
+	protected String getCodeFileExtension() {
+		return "vb";
+	}
 
-		} catch (ExecutorException ex) {
-			throw new ExecutorException("Could not execute the user code.", ex);
-		}
+	@Override
+	protected String getCompilerName() {
+		return CodeExecutorBase.PLATFORM == ExecutorPlatform.WINDOWS ? "vbc" : "vbnc";
+	}
 
-		final long executionEnd = System.nanoTime();
+	@Override
+	protected String getCompilerServerName() {
+		return "vbc";
+	}
 
-		//****************************
-		//*** TEST CASE EVALUATION ***
-		//****************************
-		return this.createResults(executionOutput,
-															(compilationEnd - compilationStart) / CodeExecutorBase.MILLIS_IN_NANO,
-															(executionEnd - executionStart) / CodeExecutorBase.MILLIS_IN_NANO);
+	@Override
+	protected String getHelperImports() {
+		return "Imports System : Imports System.Collections.Generic : Imports System.Linq";
 	}
 
 	@Override
@@ -189,7 +156,7 @@ public class VBNetExecutor extends CodeExecutorDockerBase {
 					break;
 
 				case MAP:
-					comparisonPrefix = "DictionaryEquals("; //use helper method to compare directories
+					comparisonPrefix = "ProgramHelpers.DictionaryEquals("; //use helper method to compare directories
 					comparisonSeparator = ", ";
 					comparisonSuffix = ")";
 					break;
@@ -207,7 +174,7 @@ public class VBNetExecutor extends CodeExecutorDockerBase {
 
 				case FLOAT32:
 				case FLOAT64:
-					comparisonPrefix = "HasMinimalDifference("; //compare floating-point numbers using custom equality comparison
+					comparisonPrefix = "ProgramHelpers.HasMinimalDifference("; //compare floating-point numbers using custom equality comparison
 					comparisonSeparator = ", ";
 					comparisonSuffix = ", 1)";
 					break;
@@ -0,0 +1,94 @@
+#ifndef PROGRESSOR_PRELUDE_HPP //the helpers are appended to the code file if the prelude header is not precompiled
+#include "prelude.hpp"
+#endif
+
+template bool hasMinimalDifference<float>(float value1, float value2);
+template bool hasMinimalDifference<double>(double value1, double value2);
+template bool hasMinimalDifference<long double>(long double value1, long double value2);
+
+const string &getTestCaseData() {
+
+	static const string data = []() -> string { //read once on first use
+		ifstream file("testcases.bin", ios::binary);
+		if (!file)
+			throw string("Could not read the test case data.");
+
+		return string(istreambuf_iterator<char>(file), istreambuf_iterator<char>());
+	}();
+	return data;
+}
+
+uint64_t readTestCaseBits(const char *&p, size_t bytes) {
+
+	uint64_t bits = 0;
+	for (size_t i = 0; i < bytes; i++)
+		bits |= (uint64_t)(unsigned char)*p++ << (8 * i); //little-endian
+	return bits;
+}
+
+void readTestCaseValue(const char *&p, bool &value) { value = readTestCaseBits(p, 1) != 0; }
+void readTestCaseValue(const char *&p, char &value) { value = (char)readTestCaseBits(p, 2); }
+void readTestCaseValue(const char *&p, int8_t &value) { value = (int8_t)readTestCaseBits(p, 1); }
+void readTestCaseValue(const char *&p, int16_t &value) { value = (int16_t)readTestCaseBits(p, 2); }
+void readTestCaseValue(const char *&p, int32_t &value) { value = (int32_t)readTestCaseBits(p, 4); }
+void readTestCaseValue(const char *&p, int64_t &value) { value = (int64_t)readTestCaseBits(p, 8); }
+
+void readTestCaseValue(const char *&p, float &value) {
+
+	uint32_t bits = (uint32_t)readTestCaseBits(p, 4);
+	memcpy(&value, &bits, sizeof(value));
+}
+
+void readTestCaseValue(const char *&p, double &value) {
+
+	uint64_t bits = readTestCaseBits(p, 8);
+	memcpy(&value, &bits, sizeof(value));
+}
+
+void readTestCaseValue(const char *&p, string &value) {
+
+	int32_t length;
+	readTestCaseValue(p, length);
+	value.assign(p, length);
+	p += length;
+}
+
+void readTestCaseValue(const char *&p, long double &value) {
+
+	string literal; //decimals keep their precision
+	readTestCaseValue(p, literal);
+	value = stold(literal);
+}
+
+int getResultDescriptor() {
+
+	static const int descriptor = [] {
+		cout.flush();
+		fflush(stdout);
+
+		const int result = dup(1), null = open(PROGRESSOR_NULL_DEVICE, O_WRONLY);
+		dup2(null, 1);
+		dup2(null, 2);
+		close(null);
+#ifdef _WIN32
+		_setmode(result, _O_BINARY); //a line feed must not be translated
+#endif
+		return result;
+	}();
+	return descriptor;
+}
+
+void writeResult(bool success, double time, const string &result) {
+
+	ostringstream frame; //result frame with the length of the result in bytes
+	frame << '\x1E' << (success ? "OK" : "ER") << ':';
+	if (!isnan(time)) frame << time;
+	frame << ':' << result.size() << ':' << result << '\n';
+
+	const string text = frame.str();
+	for (size_t offset = 0; offset < text.size(); ) {
+		const auto written = write(getResultDescriptor(), text.data() + offset, text.size() - offset);
+		if (written <= 0) break; //the output has been closed
+		offset += written;
+	}
+}
@@ -0,0 +1,195 @@
+#ifndef PROGRESSOR_PRELUDE_HPP
+#define PROGRESSOR_PRELUDE_HPP
+
+#include <cstdlib>
+#include <cstdint>
+#include <cstring>
+#include <cmath>
+#include <iostream>
+#include <fstream>
+#include <string>
+#include <sstream>
+#include <regex>
+#include <algorithm>
+#include <iterator>
+#include <array>
+#include <list>
+#include <vector>
+#include <set>
+#include <map>
+
+#include <chrono>
+
+#include <fcntl.h>
+#ifdef _WIN32
+#include <io.h>
+#define PROGRESSOR_NULL_DEVICE "NUL"
+#else
+#include <unistd.h>
+#define PROGRESSOR_NULL_DEVICE "/dev/null"
+#endif
+
+using namespace std;
+
+template<class T>
+bool hasMinimalDifference(T value1, T value2) {
+
+	union {
+		T d64;
+		int64_t i64;
+	} u { value1 };
+	u.i64++;
+
+	if (!isnormal(value1) || !isnormal(value2)) return value1 == value2;
+	if (value1 == value2) return true;
+	return abs(value1 - value2) <= u.d64 - value1;
+}
+
+template<class T>
+bool hasSameElements(T *array1, T *array2, int length) {
+	return equal(array1, array1 + length, array2);
+}
+
+template<class T>
+string printArray(T a, int32_t l) {
+
+	stringstream r;
+	r << "{ ";
+	for (int32_t i = 0; i < l; i++) {
+		if (i != 0)
+			r << ", ";
+		r << a[i];
+	}
+	r << " }";
+	return r.str();
+}
+
+template<class T>
+string printCollection(T c) {
+
+	stringstream r;
+	r << "{ ";
+	for (typename T::iterator i = c.begin(); i != c.end(); i++) {
+		if (i != c.begin())
+			r << ", ";
+		r << *i;
+	}
+	r << " }";
+	return r.str();
+}
+
+template<class T>
+string printMap(T m) {
+
+	stringstream r;
+	r << "{ ";
+	for (typename T::iterator i = m.begin(); i != m.end(); i++) {
+		if (i != m.begin())
+			r << ", ";
+		r << i->first << ": " << i->second;
+	}
+	r << " }";
+	return r.str();
+}
+
+const string &getTestCaseData();
+
+uint64_t readTestCaseBits(const char *&p, size_t bytes);
+
+void readTestCaseValue(const char *&p, bool &value);
+void readTestCaseValue(const char *&p, char &value);
+void readTestCaseValue(const char *&p, int8_t &value);
+void readTestCaseValue(const char *&p, int16_t &value);
+void readTestCaseValue(const char *&p, int32_t &value);
+void readTestCaseValue(const char *&p, int64_t &value);
+void readTestCaseValue(const char *&p, float &value);
+void readTestCaseValue(const char *&p, double &value);
+void readTestCaseValue(const char *&p, string &value);
+void readTestCaseValue(const char *&p, long double &value);
+
+template<class T>
+void readTestCaseValue(const char *&p, T *&value);
+
+template<class T>
+void readTestCaseValue(const char *&p, vector<T> &value);
+
+template<class T>
+void readTestCaseValue(const char *&p, set<T> &value);
+
+template<class K, class V>
+void readTestCaseValue(const char *&p, map<K, V> &value);
+
+template<class T>
+void readTestCaseValue(const char *&p, T *&value) {
+
+	int32_t length;
+	readTestCaseValue(p, length);
+	value = new T[length];
+	for (int32_t i = 0; i < length; i++)
+		readTestCaseValue(p, value[i]);
+}
+
+template<class T>
+void readTestCaseValue(const char *&p, vector<T> &value) {
+
+	int32_t length;
+	readTestCaseValue(p, length);
+	value.reserve(length);
+	for (int32_t i = 0; i < length; i++) {
+		T element;
+		readTestCaseValue(p, element);
+		value.push_back(element);
+	}
+}
+
+template<class T>
+void readTestCaseValue(const char *&p, set<T> &value) {
+
+	int32_t length;
+	readTestCaseValue(p, length);
+	for (int32_t i = 0; i < length; i++) {
+		T element;
+		readTestCaseValue(p, element);
+		value.insert(element);
+	}
+}
+
+template<class K, class V>
+void readTestCaseValue(const char *&p, map<K, V> &value) {
+
+	int32_t length;
+	readTestCaseValue(p, length);
+	for (int32_t i = 0; i < length; i++) {
+		K key;
+		V element;
+		readTestCaseValue(p, key);
+		readTestCaseValue(p, element);
+		value[key] = element;
+	}
+}
+
+template<class T>
+T readTestCaseData(int32_t index) {
+
+	const char *p = getTestCaseData().data() + sizeof(int32_t) * (index + 1);
+	int32_t offset;
+	readTestCaseValue(p, offset);
+
+	p = getTestCaseData().data() + offset;
+	T value;
+	readTestCaseValue(p, value);
+	return value;
+}
+
+int getResultDescriptor(); //results are written to a duplicate of the standard output, the output of the user's code is discarded
+
+static const int resultDescriptor = getResultDescriptor(); //initialized before the code of the user
+
+void writeResult(bool success, double time, const string &result);
+
+//instantiated once in the helpers
+extern template bool hasMinimalDifference<float>(float value1, float value2);
+extern template bool hasMinimalDifference<double>(double value1, double value2);
+extern template bool hasMinimalDifference<long double>(long double value1, long double value2);
+
+#endif
@@ -6,37 +6,4 @@ using System; using System.Collections.Generic; using System.Linq; using System.
 		Program inst = new Program();
 $TestCases$
 	}
-
-	static bool HasMinimalDifference(float value1, float value2, int units) {
-
-		if (float.IsNaN(value1) || float.IsInfinity(value1) || float.IsNaN(value2) || float.IsInfinity(value2)) return value1 == value2;
-		if (value1 == value2) return true;
-
-		int iValue1 = BitConverter.ToInt32(BitConverter.GetBytes(value1), 0);
-		int iValue2 = BitConverter.ToInt32(BitConverter.GetBytes(value2), 0);
-
-		if ((iValue1 >> 31) != (iValue2 >> 31)) return value1 == value2;
-		return Math.Abs(iValue1 - iValue2) <= units;
-	}
-
-	static bool HasMinimalDifference(double value1, double value2, int units) {
-
-		if (double.IsNaN(value1) || double.IsInfinity(value1) || double.IsNaN(value2) || double.IsInfinity(value2)) return value1 == value2;
-		if (value1 == value2) return true;
-
-		long lValue1 = BitConverter.DoubleToInt64Bits(value1);
-		long lValue2 = BitConverter.DoubleToInt64Bits(value2);
-
-		if ((lValue1 >> 63) != (lValue2 >> 63)) return value1 == value2;
-		return Math.Abs(lValue1 - lValue2) <= units;
-	}
-
-	static bool DictionaryEquals<TKey, TValue>(Dictionary<TKey, TValue> a, Dictionary<TKey, TValue> b) {
-
-		if (ReferenceEquals(a, b)) return true;
-		if (ReferenceEquals(a, null) || ReferenceEquals(b, null)) return false;
-		if (a.Count != b.Count) return false;
-
-		return a.All(p => b.ContainsKey(p.Key) && Equals(p.Value, b[p.Key]));
-	}
 }
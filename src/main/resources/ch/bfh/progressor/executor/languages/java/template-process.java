@@ -2,7 +2,12 @@ import java.math.*; import java.util.*; import java.util.function.*; import java
 
 	public static void main(String[] args) {
 
+		//results are written to the original standard output, the output of the user's code is discarded
 		try (java.io.OutputStreamWriter out = new java.io.OutputStreamWriter(System.out, java.nio.charset.Charset.forName("UTF-8").newEncoder())) {
+			java.io.PrintStream discarded = new java.io.PrintStream(new java.io.OutputStream() { @Override public void write(int b) { } });
+			System.setOut(discarded);
+			System.setErr(discarded);
+
 			Program inst = new Program();
 $TestCases$
 
@@ -11,6 +16,96 @@ $TestCases$
 		}
 	}
 
+	private static java.nio.ByteBuffer testCaseData;
+
+	static java.nio.ByteBuffer readTestCaseData(int index) throws java.io.IOException {
+
+		if (testCaseData == null) //read once on first use, the data file is next to the class
+			try (java.io.InputStream in = Program.class.getResourceAsStream("testcases.bin")) {
+				if (in == null) throw new java.io.FileNotFoundException("Could not read the test case data.");
+
+				java.io.ByteArrayOutputStream data = new java.io.ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				for (int read; (read = in.read(buffer)) >= 0; ) data.write(buffer, 0, read);
+				testCaseData = java.nio.ByteBuffer.wrap(data.toByteArray()).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+			}
+
+		java.nio.ByteBuffer b = testCaseData.duplicate().order(java.nio.ByteOrder.LITTLE_ENDIAN);
+		b.position(b.getInt(Integer.BYTES * (index + 1)));
+		return b;
+	}
+
+	static boolean readBoolean(java.nio.ByteBuffer b) { return b.get() != 0; }
+	static char readCharacter(java.nio.ByteBuffer b) { return b.getChar(); }
+	static byte readInt8(java.nio.ByteBuffer b) { return b.get(); }
+	static short readInt16(java.nio.ByteBuffer b) { return b.getShort(); }
+	static int readInt32(java.nio.ByteBuffer b) { return b.getInt(); }
+	static long readInt64(java.nio.ByteBuffer b) { return b.getLong(); }
+	static float readFloat32(java.nio.ByteBuffer b) { return b.getFloat(); }
+	static double readFloat64(java.nio.ByteBuffer b) { return b.getDouble(); }
+	static BigDecimal readDecimal(java.nio.ByteBuffer b) { return new BigDecimal(readString(b)); }
+
+	static String readString(java.nio.ByteBuffer b) {
+
+		byte[] bytes = new byte[b.getInt()];
+		b.get(bytes);
+		return new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
+	}
+
+	static boolean[] readBooleanArray(java.nio.ByteBuffer b) { boolean[] a = new boolean[b.getInt()]; for (int i = 0; i < a.length; i++) a[i] = b.get() != 0; return a; }
+	static char[] readCharacterArray(java.nio.ByteBuffer b) { char[] a = new char[b.getInt()]; b.asCharBuffer().get(a); b.position(b.position() + Character.BYTES * a.length); return a; }
+	static byte[] readInt8Array(java.nio.ByteBuffer b) { byte[] a = new byte[b.getInt()]; b.get(a); return a; }
+	static short[] readInt16Array(java.nio.ByteBuffer b) { short[] a = new short[b.getInt()]; b.asShortBuffer().get(a); b.position(b.position() + Short.BYTES * a.length); return a; }
+	static int[] readInt32Array(java.nio.ByteBuffer b) { int[] a = new int[b.getInt()]; b.asIntBuffer().get(a); b.position(b.position() + Integer.BYTES * a.length); return a; }
+	static long[] readInt64Array(java.nio.ByteBuffer b) { long[] a = new long[b.getInt()]; b.asLongBuffer().get(a); b.position(b.position() + Long.BYTES * a.length); return a; }
+	static float[] readFloat32Array(java.nio.ByteBuffer b) { float[] a = new float[b.getInt()]; b.asFloatBuffer().get(a); b.position(b.position() + Float.BYTES * a.length); return a; }
+	static double[] readFloat64Array(java.nio.ByteBuffer b) { double[] a = new double[b.getInt()]; b.asDoubleBuffer().get(a); b.position(b.position() + Double.BYTES * a.length); return a; }
+
+	static <T> T[] readArray(java.nio.ByteBuffer b, IntFunction<T[]> constructor, Function<java.nio.ByteBuffer, T> reader) {
+
+		T[] a = constructor.apply(b.getInt());
+		for (int i = 0; i < a.length; i++) a[i] = reader.apply(b);
+		return a;
+	}
+
+	static <T> List<T> readList(java.nio.ByteBuffer b, Function<java.nio.ByteBuffer, T> reader) {
+
+		int length = b.getInt();
+		List<T> l = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) l.add(reader.apply(b));
+		return l;
+	}
+
+	static <T> Set<T> readSet(java.nio.ByteBuffer b, Function<java.nio.ByteBuffer, T> reader) {
+
+		int length = b.getInt();
+		Set<T> s = new HashSet<>();
+		for (int i = 0; i < length; i++) s.add(reader.apply(b));
+		return s;
+	}
+
+	static <K, V> Map<K, V> readMap(java.nio.ByteBuffer b, Function<java.nio.ByteBuffer, K> keyReader, Function<java.nio.ByteBuffer, V> valueReader) {
+
+		int length = b.getInt();
+		Map<K, V> m = new HashMap<>();
+		for (int i = 0; i < length; i++) { K key = keyReader.apply(b); m.put(key, valueReader.apply(b)); }
+		return m;
+	}
+
+	static void writeResult(java.io.Writer out, boolean success, double time, String result) throws java.io.IOException {
+
+		//result frame with the length of the result in bytes
+		out.write(String.format("%c%s:%s:%d:%s\n", (char)0x1E, success ? "OK" : "ER", Double.isNaN(time) ? "" : Double.toString(time), result.getBytes(java.nio.charset.StandardCharsets.UTF_8).length, result));
+		out.flush();
+	}
+
+	static void writeResult(java.io.Writer out, Exception ex) throws java.io.IOException {
+
+		java.io.StringWriter stackTrace = new java.io.StringWriter();
+		ex.printStackTrace(new java.io.PrintWriter(stackTrace));
+		writeResult(out, false, Double.NaN, stackTrace.toString());
+	}
+
 	static boolean hasMinimalDifference(float value1, float value2) {
 
 		if (!Float.isFinite(value1) || !Float.isFinite(value2)) return value1 == value2;
@@ -0,0 +1,142 @@
+'use strict'; //persistent worker: evaluates each program in a fresh vm context on behalf of a JavaScriptWorkerPool
+
+const crypto = require('crypto'), fs = require('fs'), os = require('os'), path = require('path'), v8 = require('v8'), vm = require('vm');
+
+const READY_MESSAGE = 0x4A574B52;
+const END_FRAME_LENGTH = -1;
+const MAX_HEAP_USAGE = 0.5;
+
+const [preludeCode, timeoutMillis] = [process.argv[1], parseInt(process.argv[2], 10)];
+const protocolFd = 1;
+
+function writeAll(buffer) {
+	for (let offset = 0; offset < buffer.length;) {
+		try {
+			offset += fs.writeSync(protocolFd, buffer, offset, buffer.length - offset);
+		} catch (ex) {
+			if (ex.code !== 'EAGAIN') throw ex; //the pool has not read the previous frames yet
+		}
+	}
+}
+
+function writeInt(value) {
+	const buffer = Buffer.alloc(4);
+	buffer.writeInt32BE(value, 0);
+	writeAll(buffer);
+}
+
+function writeFrame(text) {
+	const data = Buffer.from(text, 'utf8');
+	if (data.length === 0) return;
+	writeInt(data.length);
+	writeAll(data);
+}
+
+function writeEndFrame(exitCode, polluted) {
+	const buffer = Buffer.alloc(9);
+	buffer.writeInt32BE(END_FRAME_LENGTH, 0);
+	buffer.writeInt32BE(exitCode, 4);
+	buffer.writeUInt8(polluted ? 1 : 0, 8);
+	writeAll(buffer);
+}
+
+function compilePrelude() { //the compiled prelude is kept in the code cache of V8 across workers
+	const hash = crypto.createHash('sha1').update(process.version).update(preludeCode).digest('hex');
+	const cacheFile = path.join(os.tmpdir(), `progressor-prelude-${hash}.cache`);
+
+	let cachedData;
+	try {
+		cachedData = fs.readFileSync(cacheFile);
+	} catch (ex) {
+		cachedData = undefined;
+	}
+
+	const script = new vm.Script(`'use strict'; ${preludeCode}`, { filename: 'prelude.js', cachedData: cachedData });
+	if (cachedData === undefined || script.cachedDataRejected) {
+		script.runInContext(createContext()); //compile the functions eagerly before producing the cache
+		try {
+			fs.writeFileSync(cacheFile, script.createCachedData());
+		} catch (ex) {
+			process.stderr.write(`Could not write code cache of prelude: ${ex}\n`);
+		}
+	}
+	return script;
+}
+
+function defineHelpers(write, now) { //compiled inside each context, so the program only reaches functions and objects of its own realm
+	'use strict';
+	const print = (...args) => { write(`${args.map(String).join(' ')}\n`); };
+	globalThis.console = { log: print, info: print, warn: print, error: print, debug: print };
+	globalThis.process = {
+		hrtime: previous => {
+			const time = now(), seconds = Number(time / 1000000000n), nanoseconds = Number(time % 1000000000n);
+			if (!previous) return [ seconds, nanoseconds ];
+			return nanoseconds < previous[1] ? [ seconds - previous[0] - 1, nanoseconds - previous[1] + 1e9 ] : [ seconds - previous[0], nanoseconds - previous[1] ];
+		},
+		stdout: { write: text => { write(String(text)); return true; } },
+	};
+}
+
+const helpers = new vm.Script(`(${defineHelpers})`, { filename: 'helpers.js' });
+
+function createContext() { //only primitive values cross the boundary of the context (a host object would expose the worker's Function constructor)
+	const context = vm.createContext(Object.create(null));
+	helpers.runInContext(context)(text => {
+		try {
+			writeFrame(text);
+		} catch (ex) { //the error must not reach the program either
+			process.stderr.write(`Could not write output of program: ${ex}\n`);
+			process.exit(1);
+		}
+	}, () => process.hrtime.bigint());
+	return context;
+}
+
+function isPolluted() {
+	const maxHeap = v8.getHeapStatistics().heap_size_limit * MAX_HEAP_USAGE;
+	if (process.memoryUsage().heapUsed <= maxHeap) return false;
+
+	global.gc(); //only collect the garbage if the heap seems to be full
+	return process.memoryUsage().heapUsed > maxHeap;
+}
+
+function run(prelude, directory, codeFile) {
+	let exitCode = 0;
+	try {
+		const context = createContext();
+		prelude.runInContext(context);
+
+		const code = fs.readFileSync(path.resolve(directory, codeFile), 'utf8');
+		new vm.Script(code, { filename: codeFile }).runInContext(context, { timeout: timeoutMillis, microtaskMode: 'afterEvaluate' });
+
+	} catch (ex) {
+		writeFrame(`${ex && ex.stack ? ex.stack : ex}\n`);
+		exitCode = 1;
+	}
+	writeEndFrame(exitCode, isPolluted());
+}
+
+const prelude = compilePrelude();
+
+let input = Buffer.alloc(0);
+process.stdin.on('data', data => {
+	input = Buffer.concat([ input, data ]);
+
+	while (true) { //a request consists of two strings (the directory and the code file)
+		const parts = [];
+		let offset = 0;
+		while (parts.length < 2 && offset + 2 <= input.length) {
+			const length = input.readUInt16BE(offset);
+			if (offset + 2 + length > input.length) break;
+			parts.push(input.toString('utf8', offset + 2, offset + 2 + length));
+			offset += 2 + length;
+		}
+		if (parts.length < 2) return;
+
+		input = input.slice(offset);
+		run(prelude, parts[0], parts[1]);
+	}
+});
+process.stdin.on('end', () => process.exit(0)); //the pool has released the worker
+
+writeInt(READY_MESSAGE);
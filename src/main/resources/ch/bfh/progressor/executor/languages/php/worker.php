@@ -0,0 +1,87 @@
+<?php //persistent worker: loads the prelude once and forks a child with an isolated request lifecycle for each program on behalf of a PHPWorkerPool
+declare(strict_types=1);
+
+const READY_MESSAGE = 0x4A574B52;
+const END_FRAME_LENGTH = -1;
+const MAX_CHILD_SECONDS = 30;
+
+function readBytes(int $length) {
+	$bytes = '';
+	while (strlen($bytes) < $length) {
+		$chunk = fread(STDIN, $length - strlen($bytes));
+		if ($chunk === false || $chunk === '') return null;
+		$bytes .= $chunk;
+	}
+	return $bytes;
+}
+
+function readUtf() {
+	$length = readBytes(2);
+	return $length === null ? null : readBytes(unpack('n', $length)[1]);
+}
+
+function writeAll(string $data) {
+	for ($offset = 0, $length = strlen($data); $offset < $length; $offset += $written) {
+		$written = fwrite(STDOUT, substr($data, $offset));
+		if ($written === false || $written === 0) exit(1); //the pool has released the worker
+	}
+}
+
+function writeInt(int $value) {
+	writeAll(pack('N', $value & 0xFFFFFFFF));
+}
+
+function writeFrame(string $data) {
+	if ($data === '') return;
+	writeAll(pack('N', strlen($data)) . $data);
+}
+
+function writeEndFrame(int $exitCode) {
+	writeAll(pack('NNC', END_FRAME_LENGTH & 0xFFFFFFFF, $exitCode & 0xFFFFFFFF, 0)); //a forked child never pollutes the worker
+}
+
+function prepareChild(string $directory) {
+	fclose(STDIN); //the requests are reserved for the worker
+	pcntl_alarm(MAX_CHILD_SECONDS); //do not outlive a destroyed worker for long
+	ini_set('opcache.enable', '0'); //only cache the prelude
+	chdir($directory);
+
+	ob_start(function (string $buffer) : string {
+		writeFrame($buffer);
+		return '';
+	}, 1);
+}
+
+function forkChild(string $directory) : bool {
+	$pid = pcntl_fork();
+	if ($pid === 0) {
+		prepareChild($directory);
+		return true;
+	}
+
+	if ($pid === -1) {
+		writeFrame("Could not fork the PHP worker.\n");
+		writeEndFrame(1);
+		return false;
+	}
+
+	pcntl_waitpid($pid, $status);
+	writeEndFrame(pcntl_wifexited($status) ? pcntl_wexitstatus($status) : 128 + pcntl_wtermsig($status));
+	return false;
+}
+
+if (!function_exists('pcntl_fork')) {
+	fwrite(STDERR, "Could not start the PHP worker because the pcntl extension is not available.\n");
+	exit(1);
+}
+
+require $argv[1]; //compiled once (and kept in the opcode cache if available)
+
+writeInt(READY_MESSAGE);
+
+while (($directory = readUtf()) !== null && ($codeFile = readUtf()) !== null) {
+	if (forkChild($directory)) { //the child runs the program in the global scope like the php command
+		include $codeFile;
+		exit(0);
+	}
+}
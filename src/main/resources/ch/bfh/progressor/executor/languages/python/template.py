@@ -1,3 +1,7 @@
+import os as _os #results are written to a duplicate of the standard output, the output of the user's code is discarded
+_resultOutput = _os.fdopen(_os.dup(1), 'wb')
+_null = _os.open(_os.devnull, _os.O_WRONLY); _os.dup2(_null, 1); _os.dup2(_null, 2); _os.close(_null)
+
 from decimal import *
 import re
 $CustomCode$
@@ -29,4 +33,9 @@ def hasMinimalDifference(value1, value2):
 
 import sys, codecs, time
 sys.stdout = codecs.getwriter('utf-8')(sys.stdout.detach()) #source: http://stackoverflow.com/a/4374457/1325979
+
+def writeResult(success, time, result): #result frame with the length of the result in bytes
+	result = str(result).encode('utf-8')
+	_resultOutput.write(('\x1e%s:%s:%d:' % ('OK' if success else 'ER', '' if time is None else repr(time), len(result))).encode('ascii') + result + b'\n')
+	_resultOutput.flush()
 $TestCases$
@@ -0,0 +1,104 @@
+### zygote worker: imports the prelude of the template once and forks a child for each program ###
+from decimal import *
+import re, struct, functools, math, sys, codecs, time
+import ctypes, io, os, signal, traceback
+
+READY_MESSAGE = 0x4A574B52
+END_FRAME_LENGTH = -1
+FRAME_BUFFER_SIZE = 8192
+PR_SET_PDEATHSIG = 1
+
+zygote_pid = os.getpid()
+
+protocol_in = os.fdopen(os.dup(0), 'rb')
+protocol_out = os.fdopen(os.dup(1), 'wb')
+os.dup2(2, 1) #output of the zygote itself must not corrupt the protocol
+
+try:
+	libc = ctypes.CDLL(None, use_errno=True)
+except OSError:
+	libc = None
+
+def read_utf():
+	length = protocol_in.read(2)
+	if len(length) < 2:
+		return None
+	return protocol_in.read(struct.unpack('>H', length)[0]).decode('utf-8', 'surrogateescape')
+
+def run_child(directory, code_file, output):
+	if libc is not None:
+		libc.prctl(PR_SET_PDEATHSIG, signal.SIGKILL) #do not outlive a destroyed zygote
+		if os.getppid() != zygote_pid:
+			os._exit(1) #the zygote was destroyed before the signal was requested
+
+	protocol_in.close()
+	protocol_out.close()
+	null = os.open(os.devnull, os.O_RDONLY)
+	os.dup2(null, 0)
+	os.dup2(output, 1)
+	os.dup2(output, 2)
+	os.close(null)
+	os.close(output)
+	os.chdir(directory)
+
+	sys.stdin = io.TextIOWrapper(io.BufferedReader(io.FileIO(0, 'r', closefd=False)))
+	sys.stdout = io.TextIOWrapper(io.BufferedWriter(io.FileIO(1, 'w', closefd=False)), encoding='utf-8')
+	sys.stderr = io.TextIOWrapper(io.BufferedWriter(io.FileIO(2, 'w', closefd=False)), encoding='utf-8', line_buffering=True)
+	sys.argv = [ code_file ]
+	sys.path[0] = os.getcwd()
+
+	exit_code = 0
+	try:
+		with open(code_file, 'rb') as code:
+			source = code.read()
+		exec(compile(source, code_file, 'exec'), { '__name__': '__main__', '__file__': code_file, '__builtins__': __builtins__ }) #fresh namespace
+	except SystemExit as ex:
+		if ex.code is None:
+			exit_code = 0
+		elif isinstance(ex.code, int):
+			exit_code = ex.code
+		else:
+			print(ex.code, file=sys.stderr)
+			exit_code = 1
+	except BaseException as ex:
+		traceback.print_exception(type(ex), ex, ex.__traceback__.tb_next) #omit the frame of the zygote
+		exit_code = 1
+
+	for stream in (sys.stdout, sys.stderr):
+		try:
+			stream.flush()
+		except Exception:
+			pass
+	os._exit(exit_code & 0xFF)
+
+def run(directory, code_file):
+	output_read, output_write = os.pipe()
+	pid = os.fork()
+	if pid == 0:
+		os.close(output_read)
+		run_child(directory, code_file, output_write)
+
+	os.close(output_write)
+	while True:
+		data = os.read(output_read, FRAME_BUFFER_SIZE)
+		if not data:
+			break
+		protocol_out.write(struct.pack('>i', len(data)))
+		protocol_out.write(data)
+		protocol_out.flush()
+	os.close(output_read)
+
+	status = os.waitpid(pid, 0)[1]
+	exit_code = os.WEXITSTATUS(status) if os.WIFEXITED(status) else 128 + os.WTERMSIG(status)
+	protocol_out.write(struct.pack('>ii?', END_FRAME_LENGTH, exit_code, False)) #a forked child never pollutes the zygote
+	protocol_out.flush()
+
+protocol_out.write(struct.pack('>i', READY_MESSAGE))
+protocol_out.flush()
+
+while True:
+	directory = read_utf()
+	code_file = read_utf()
+	if directory is None or code_file is None:
+		break #the pool has released the zygote
+	run(directory, code_file)
@@ -57,6 +57,21 @@ struct PerformanceIndicators {
 	3: double testCaseExecutionTimeMilliseconds
 }
 
+enum JobStatus {
+	QUEUED = 1,
+	RUNNING = 2,
+	FINISHED = 3,
+	FAILED = 4,
+	CANCELLED = 5
+}
+
+struct Job {
+	1: string id,
+	2: JobStatus status,
+	3: list<Result> results, #results available so far if the job is RUNNING; all results if the job is FINISHED
+	4: string error          #only set if the job FAILED
+}
+
 service ExecutorService {
 
 	void ping()
@@ -89,4 +104,37 @@ service ExecutorService {
 		3: list<FunctionSignature> functions,
 		4: list<TestCase> testCases
 	)
+
+	list<list<Result>> executeBatch(
+		1: string language,
+		3: list<FunctionSignature> functions,
+		4: list<TestCase> testCases,
+		5: list<string> fragments
+	)
+
+	string submit(
+		1: string language,
+		2: string fragment,
+		3: list<FunctionSignature> functions,
+		4: list<TestCase> testCases
+	)
+
+	Job poll(
+		1: string jobId
+	)
+
+	Job await(
+		1: string jobId,
+		2: i64 timeoutMilliseconds
+	)
+
+	Job awaitResults(
+		1: string jobId,
+		2: i32 resultCount,
+		3: i64 timeoutMilliseconds
+	)
+
+	bool cancel(
+		1: string jobId
+	)
 }
@@ -0,0 +1,85 @@
+package ch.bfh.progressor.executor.benchmarks;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.impl.BlacklistMatcher;
+
+/**
+ * Measures the validation of code fragments against the blacklist of a language:
+ * compiling one pattern per keyword (as done previously) versus the precompiled {@link BlacklistMatcher}.
+ * The fragments do not contain any blacklisted keywords, so the whole fragment has to be searched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BlacklistBenchmark {
+
+	private static final String FRAGMENT_LINE = "\tresult = compute(values[index], offset + 42) * factor; // accumulate the intermediate result\n";
+
+	@Param({ "java", "cpp", "javascript", "php" })
+	public String language;
+
+	@Param({ "1000", "100000" })
+	public int fragmentLength;
+
+	private Set<String> blacklist;
+	private BlacklistMatcher matcher;
+	private String fragment;
+
+	@Setup
+	public void setUp() throws ExecutorException {
+
+		for (CodeExecutor executor : ServiceLoader.load(CodeExecutor.class))
+			if (executor.getLanguage().equals(this.language))
+				this.blacklist = executor.getBlacklist();
+
+		if (this.blacklist == null)
+			throw new IllegalStateException(String.format("Could not find an executor for language '%s'.", this.language));
+
+		this.matcher = new BlacklistMatcher(this.blacklist);
+
+		StringBuilder sb = new StringBuilder(this.fragmentLength + BlacklistBenchmark.FRAGMENT_LINE.length());
+		while (sb.length() < this.fragmentLength)
+			sb.append(BlacklistBenchmark.FRAGMENT_LINE);
+		this.fragment = sb.substring(0, this.fragmentLength);
+	}
+
+	@Benchmark
+	public List<String> findWithPatterns() {
+		return this.blacklist.stream()
+												 .filter(b -> Pattern.compile(String.format("\\b\\Q%s\\E\\b", b)).matcher(this.fragment).find())
+												 .collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public List<String> findWithMatcher() {
+		return this.matcher.find(this.fragment);
+	}
+
+	public static void main(String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(BlacklistBenchmark.class.getSimpleName()).build()).run();
+	}
+}
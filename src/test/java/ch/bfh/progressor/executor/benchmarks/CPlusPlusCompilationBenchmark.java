@@ -0,0 +1,122 @@
+package ch.bfh.progressor.executor.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.TestCase;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
+import ch.bfh.progressor.executor.languages.CPlusPlusExecutor;
+import ch.bfh.progressor.executor.thrift.FunctionSignature;
+import ch.bfh.progressor.executor.thrift.executorConstants;
+
+/**
+ * Measures compiling and executing C++ exercises (without caching):
+ * compiling the headers and helpers of the template for every request (as done previously)
+ * versus the precompiled prelude header and the prebuilt helper object.
+ * The compilation dominates the measured time, the executions of both variants are identical.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CPlusPlusCompilationBenchmark {
+
+	private static final String SCALAR_FRAGMENT = "double sumFloat64(double a, double b) { return a + b; }";
+	private static final String COLLECTION_FRAGMENT = "map<int32_t, string> intersectMap(map<int32_t, string> m1, map<int32_t, string> m2) { map<int32_t, string> r; for (auto &e : m1) { auto i = m2.find(e.first); if (i != m2.end() && i->second == e.second) r.insert(e); } return r; }";
+
+	@Param({ "scalar", "collection" })
+	public String exercise;
+
+	@Param({ "true", "false" })
+	public boolean precompiledHeader;
+
+	private CPlusPlusExecutor executor;
+	private String fragment;
+	private List<TestCase> testCases;
+
+	@Setup
+	public void setUp() throws ExecutorException {
+
+		this.executor = new BenchmarkExecutor(this.precompiledHeader);
+		this.executor.setConfiguration(new ConfigurationImpl(false, true).withPoolDockerContainers(false).withUseDockerEngineApi(false).withCacheCompilations(false));
+
+		if ("scalar".equals(this.exercise)) {
+			this.fragment = CPlusPlusCompilationBenchmark.SCALAR_FRAGMENT;
+			this.testCases = TestCaseImpl.convertFromThrift(Collections.singletonList(new FunctionSignature("sumFloat64", Arrays.asList("a", "b"), Arrays.asList(executorConstants.TypeFloat64, executorConstants.TypeFloat64),
+																																																					Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeFloat64))),
+																											Arrays.asList(new ch.bfh.progressor.executor.thrift.TestCase("sumFloat64", Arrays.asList("0.5", "0.25"), Collections.singletonList("0.75")),
+																																		new ch.bfh.progressor.executor.thrift.TestCase("sumFloat64", Arrays.asList("-1.5", "1.5"), Collections.singletonList("0.0"))));
+		} else {
+			final String mapType = String.format("%s<%s, %s>", executorConstants.TypeContainerMap, executorConstants.TypeInt32, executorConstants.TypeString);
+			this.fragment = CPlusPlusCompilationBenchmark.COLLECTION_FRAGMENT;
+			this.testCases = TestCaseImpl.convertFromThrift(Collections.singletonList(new FunctionSignature("intersectMap", Arrays.asList("m1", "m2"), Arrays.asList(mapType, mapType),
+																																																					Collections.singletonList("return"), Collections.singletonList(mapType))),
+																											Arrays.asList(new ch.bfh.progressor.executor.thrift.TestCase("intersectMap", Arrays.asList("{1:strut1,2:touwm1}", "{2:touwm1,3:weidj1}"), Collections.singletonList("{2:touwm1}")),
+																																		new ch.bfh.progressor.executor.thrift.TestCase("intersectMap", Arrays.asList("{}", "{1:strut1}"), Collections.singletonList("{}"))));
+		}
+
+		this.execute(); //build the precompiled header outside of the measurements
+	}
+
+	@Benchmark
+	public List<Result> execute() throws ExecutorException {
+
+		List<Result> results = this.executor.execute(this.fragment, this.testCases);
+		for (Result result : results)
+			if (!result.isSuccess())
+				throw new IllegalStateException(String.format("Test case failed: %s", result.getResult()));
+
+		return results;
+	}
+
+	public static void main(String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(CPlusPlusCompilationBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * Enables or disables the precompiled header of {@link CPlusPlusExecutor}.
+	 */
+	private static class BenchmarkExecutor extends CPlusPlusExecutor {
+
+		private final boolean precompiledHeader;
+
+		private BenchmarkExecutor(boolean precompiledHeader) {
+			this.precompiledHeader = precompiledHeader;
+		}
+
+		@Override
+		protected String getTemplatePath() {
+			return String.format("/ch/bfh/progressor/executor/languages/%s", super.getTemplatePath()); //resources are resolved relative to the class
+		}
+
+		@Override
+		protected String getPreludePath() {
+			return String.format("/ch/bfh/progressor/executor/languages/%s", super.getPreludePath());
+		}
+
+		@Override
+		protected boolean willUsePrecompiledHeader() {
+			return this.precompiledHeader && super.willUsePrecompiledHeader();
+		}
+	}
+}
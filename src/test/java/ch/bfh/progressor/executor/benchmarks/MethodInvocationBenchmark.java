@@ -0,0 +1,107 @@
+package ch.bfh.progressor.executor.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the overhead of invoking a test case method of the user's class as done by {@code JavaThreadExecutor}:
+ * looking up the method and invoking it reflectively for every test case (as done previously)
+ * versus a {@link MethodHandle} resolved once and adapted to {@code (Object, Object[])Object}.
+ * The arguments are converted once in advance in both cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MethodInvocationBenchmark {
+
+	private static final MethodType INVOCATION_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	@Param({ "primitive", "array" })
+	public String signature;
+
+	private Program instance;
+	private String methodName;
+	private Class<?>[] parameterTypes;
+	private Object[] arguments;
+	private Method method;
+	private MethodHandle methodHandle;
+
+	@Setup
+	public void setUp() throws ReflectiveOperationException {
+
+		this.instance = new Program();
+		if ("primitive".equals(this.signature)) {
+			this.methodName = "sumInt32";
+			this.parameterTypes = new Class<?>[] { int.class, int.class };
+			this.arguments = new Object[] { 17, 25 };
+
+		} else {
+			this.methodName = "sumInt32Array";
+			this.parameterTypes = new Class<?>[] { int[].class, int.class };
+			this.arguments = new Object[] { IntStream.range(0, 16).toArray(), 16 };
+		}
+
+		this.method = Program.class.getMethod(this.methodName, this.parameterTypes);
+		this.methodHandle = MethodHandles.publicLookup().findVirtual(Program.class, this.methodName, MethodType.methodType(int.class, this.parameterTypes))
+																		 .asSpreader(Object[].class, this.parameterTypes.length).asType(MethodInvocationBenchmark.INVOCATION_TYPE);
+	}
+
+	@Benchmark
+	public Object lookUpAndInvokeMethod() throws ReflectiveOperationException {
+		return Program.class.getMethod(this.methodName, this.parameterTypes).invoke(this.instance, this.arguments);
+	}
+
+	@Benchmark
+	public Object invokeMethod() throws ReflectiveOperationException {
+		return this.method.invoke(this.instance, this.arguments);
+	}
+
+	@Benchmark
+	public Object invokeMethodHandle() throws Throwable {
+		return this.methodHandle.invokeExact((Object)this.instance, this.arguments);
+	}
+
+	public static void main(String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MethodInvocationBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * Stands in for the user's class compiled from the template.
+	 */
+	public static class Program {
+
+		public int sumInt32(int a, int b) {
+			return a + b;
+		}
+
+		public int sumInt32Array(int[] a, int l) {
+
+			int s = 0;
+			for (int i = 0; i < l; i++)
+				s += a[i];
+
+			return s;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package ch.bfh.progressor.executor.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.FunctionSignature;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.api.TestCase;
+import ch.bfh.progressor.executor.api.Value;
+import ch.bfh.progressor.executor.api.ValueType;
+import ch.bfh.progressor.executor.api.VersionInformation;
+import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+
+/**
+ * Measures the overhead of executing system commands:
+ * a trivial one ({@code true}) and one filling the output pipe several times ({@code seq}). <br>
+ * The time of the trivial command is dominated by starting the process (about 1.5 ms). The previous polling loop
+ * already returned as soon as such a process exited, so only commands producing more output than fits into the pipe gain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SystemCommandBenchmark {
+
+	@Param({ "true", "seq 1 100000" })
+	public String command;
+
+	private CommandExecutor commandExecutor;
+	private String[] commandParts;
+
+	@Setup
+	public void setUp() {
+
+		this.commandExecutor = new CommandExecutor();
+		this.commandParts = this.command.split(" ");
+	}
+
+	@Benchmark
+	public String executeCommand() throws ExecutorException {
+		return this.commandExecutor.execute(false, this.commandParts);
+	}
+
+	@Benchmark
+	public String executeSafeCommand() throws ExecutorException {
+		return this.commandExecutor.execute(true, this.commandParts);
+	}
+
+	public static void main(String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(SystemCommandBenchmark.class.getSimpleName()).build()).run();
+	}
+
+	/**
+	 * Exposes the system command helpers of {@link CodeExecutorBase}.
+	 */
+	private static class CommandExecutor extends CodeExecutorBase {
+
+		private String execute(boolean safe, String... command) throws ExecutorException {
+			return safe ? this.executeSafeCommand(CodeExecutorBase.CURRENT_DIRECTORY, command) : this.executeCommand(CodeExecutorBase.CURRENT_DIRECTORY, command);
+		}
+
+		@Override
+		public String getLanguage() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public VersionInformation getVersionInformation() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Result> execute(String codeFragment, List<TestCase> testCases) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected String getTemplatePath() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected String getFunctionSignatures(List<FunctionSignature> functions) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected String getTestCaseSignatures(List<TestCase> testCases) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected String getValueLiteral(Value value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected String getTypeName(ValueType type) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
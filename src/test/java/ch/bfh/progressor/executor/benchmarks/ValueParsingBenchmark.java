@@ -0,0 +1,71 @@
+package ch.bfh.progressor.executor.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Value;
+import ch.bfh.progressor.executor.api.ValueType;
+import ch.bfh.progressor.executor.impl.ValueImpl;
+import ch.bfh.progressor.executor.impl.ValueTypeImpl;
+import ch.bfh.progressor.executor.thrift.executorConstants;
+
+/**
+ * Measures parsing large test case values using {@link ValueImpl#parse(ValueType, String)}:
+ * a one-dimensional {@code array<int32>} and a two-dimensional {@code map<int32, string>}.
+ * The parsing time should grow linearly with the number of elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ValueParsingBenchmark {
+
+	@Param({ "1D", "2D" })
+	public String dimensions;
+
+	@Param({ "1000", "100000" })
+	public int elements;
+
+	private ValueType type;
+	private String value;
+
+	@Setup
+	public void setUp() throws ExecutorException {
+
+		final boolean twoDimensional = "2D".equals(this.dimensions);
+		this.type = ValueTypeImpl.parse(twoDimensional ? String.format("%s<%s, %s>", executorConstants.TypeContainerMap, executorConstants.TypeInt32, executorConstants.TypeString)
+																									 : String.format("%s<%s>", executorConstants.TypeContainerArray, executorConstants.TypeInt32));
+
+		StringBuilder sb = new StringBuilder("{");
+		for (int i = 0; i < this.elements; i++) {
+			if (i > 0) sb.append(", ");
+			sb.append(i * 7919 - 500000);
+			if (twoDimensional) sb.append(": element").append(i);
+		}
+		this.value = sb.append('}').toString();
+	}
+
+	@Benchmark
+	public Value parse() throws ExecutorException {
+		return ValueImpl.parse(this.type, this.value);
+	}
+
+	public static void main(String... args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ValueParsingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,86 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.impl.BlacklistMatcher;
+
+public class BlacklistMatcherTest {
+
+	private final BlacklistMatcher matcher = new BlacklistMatcher(Arrays.asList("throw", "throws", "class", "getClass", "#include", "he", "she", "hers"));
+
+	@Test
+	public void testNotFound() {
+
+		Assert.assertTrue(this.matcher.find("").isEmpty(), "keywords found in empty fragment");
+		Assert.assertTrue(this.matcher.find("int thrower = classes + subclass + my_class + class2;").isEmpty(), "keywords found inside longer words");
+	}
+
+	@Test
+	public void testFound() {
+
+		Assert.assertEquals(this.matcher.find("class"), Collections.singletonList("class"), "whole fragment not found");
+		Assert.assertEquals(this.matcher.find("void f() throws X { throw new X(); }"), Arrays.asList("throw", "throws"), "keywords not found in provided order");
+		Assert.assertEquals(this.matcher.find("x.getClass().class"), Arrays.asList("class", "getClass"), "keywords delimited by punctuation not found");
+		Assert.assertEquals(this.matcher.find("she hers"), Arrays.asList("she", "hers"), "overlapping keywords not found correctly");
+	}
+
+	@Test
+	public void testNonWordCharacters() {
+
+		Assert.assertEquals(this.matcher.find("#include <cstdlib>"), Collections.singletonList("#include"), "keyword starting with non-word character not found at start");
+		Assert.assertEquals(this.matcher.find("int x;\n#include <cstdlib>"), Collections.singletonList("#include"), "keyword starting with non-word character not found after newline");
+		Assert.assertTrue(this.matcher.find("#includes").isEmpty(), "keyword starting with non-word character found inside longer word");
+	}
+
+	@Test
+	public void testUnicode() {
+
+		Assert.assertTrue(this.matcher.find("int classé = 1; int éclass = 2;").isEmpty(), "keywords found next to non-ASCII letters");
+		Assert.assertTrue(this.matcher.find("int class\u0301 = 1;").isEmpty(), "keyword found before combining mark");
+		Assert.assertEquals(this.matcher.find("Ärger class 𝐀"), Collections.singletonList("class"), "keyword not found between non-ASCII characters");
+	}
+
+	@Test
+	public void testEquivalentToPatterns() throws ExecutorException {
+
+		final String alphabet = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_ \n\t.,;:()[]{}<>=+-*/\"'#$@é";
+		final Random random = new Random(42);
+
+		for (CodeExecutor executor : ServiceLoader.load(CodeExecutor.class)) {
+			List<String> keywords = new ArrayList<>(executor.getBlacklist());
+			BlacklistMatcher matcher = new BlacklistMatcher(keywords);
+
+			for (int i = 0; i < 200; i++) { //random fragments mixing keywords with random characters
+				StringBuilder sb = new StringBuilder();
+				for (int j = 0; j < 40; j++)
+					if (random.nextInt(4) == 0)
+						sb.append(keywords.get(random.nextInt(keywords.size())));
+					else
+						sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+				String fragment = sb.toString();
+				List<String> expected = keywords.stream().filter(k -> BlacklistMatcherTest.getPattern(k).matcher(fragment).find()).collect(Collectors.toList());
+
+				Assert.assertEquals(matcher.find(fragment), expected, String.format("matches differ for language %s and fragment '%s'", executor.getLanguage(), fragment));
+				Assert.assertEquals(executor.getBlacklistViolations(fragment), expected, String.format("violations differ for language %s and fragment '%s'", executor.getLanguage(), fragment));
+			}
+		}
+	}
+
+	private static Pattern getPattern(String keyword) {
+
+		boolean wordStart = Character.isLetterOrDigit(keyword.codePointAt(0)) || keyword.charAt(0) == '_';
+		boolean wordEnd = Character.isLetterOrDigit(keyword.codePointBefore(keyword.length())) || keyword.charAt(keyword.length() - 1) == '_';
+		return Pattern.compile(String.format("%s\\Q%s\\E%s", wordStart ? "\\b" : "", keyword, wordEnd ? "\\b" : ""));
+	}
+}
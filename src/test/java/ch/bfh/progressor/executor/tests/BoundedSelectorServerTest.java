@@ -0,0 +1,154 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.net.ServerSocket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.TException;
+import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TMessage;
+import org.apache.thrift.protocol.TMessageType;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.BoundedSelectorServer;
+
+public class BoundedSelectorServerTest {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	private CountDownLatch started, release;
+	private int port;
+	private TNonblockingServerSocket transport;
+	private BoundedSelectorServer server;
+
+	@BeforeMethod
+	public void setUp() throws Exception {
+
+		this.started = new CountDownLatch(1);
+		this.release = new CountDownLatch(1);
+
+		try (ServerSocket socket = new ServerSocket(0)) {
+			this.port = socket.getLocalPort();
+		}
+
+		this.transport = new TNonblockingServerSocket(this.port);
+		this.server = new BoundedSelectorServer(this.transport, new BlockingProcessor(), 1, 1, 0, 50);
+
+		Thread thread = new Thread(this.server::serve);
+		thread.setDaemon(true);
+		thread.start();
+
+		while (!this.server.isServing())
+			Thread.sleep(1);
+	}
+
+	@AfterMethod
+	public void tearDown() {
+
+		this.release.countDown();
+		this.server.stop();
+		this.transport.close();
+	}
+
+	@Test
+	public void testProcessed() throws TException {
+
+		this.release.countDown();
+
+		try (TTransport client = this.connect()) {
+			TProtocol protocol = new TBinaryProtocol(client);
+			BoundedSelectorServerTest.send(protocol, "execute", 1);
+			Assert.assertEquals(BoundedSelectorServerTest.receive(protocol).type, TMessageType.REPLY, "request not processed");
+		}
+	}
+
+	@Test
+	public void testRejected() throws TException, InterruptedException {
+
+		try (TTransport busyClient = this.connect(); TTransport rejectedClient = this.connect()) {
+			TProtocol busyProtocol = new TBinaryProtocol(busyClient);
+			BoundedSelectorServerTest.send(busyProtocol, "execute", 1);
+			Assert.assertTrue(this.started.await(BoundedSelectorServerTest.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "request not processed");
+
+			TProtocol rejectedProtocol = new TBinaryProtocol(rejectedClient);
+			BoundedSelectorServerTest.send(rejectedProtocol, "execute", 2);
+
+			TMessage message = BoundedSelectorServerTest.receive(rejectedProtocol); //the only worker is still busy
+			Assert.assertEquals(message.type, TMessageType.EXCEPTION, "request not rejected");
+			Assert.assertEquals(message.seqid, 2, "sequence number not retained");
+
+			TApplicationException exception = new TApplicationException();
+			exception.read(rejectedProtocol);
+			Assert.assertTrue(exception.getMessage().contains("busy"), "rejection not explained");
+
+			this.release.countDown();
+			Assert.assertEquals(BoundedSelectorServerTest.receive(busyProtocol).type, TMessageType.REPLY, "busy request not finished");
+		}
+	}
+
+	private TTransport connect() throws TException {
+
+		TSocket socket = new TSocket("localhost", this.port);
+		socket.setTimeout((int) BoundedSelectorServerTest.TIMEOUT_MILLIS);
+
+		TTransport transport = new TFramedTransport(socket);
+		transport.open();
+		return transport;
+	}
+
+	private static void send(TProtocol protocol, String method, int sequenceId) throws TException {
+
+		protocol.writeMessageBegin(new TMessage(method, TMessageType.CALL, sequenceId));
+		protocol.writeStructBegin(new TStruct("args"));
+		protocol.writeFieldStop();
+		protocol.writeStructEnd();
+		protocol.writeMessageEnd();
+		protocol.getTransport().flush();
+	}
+
+	private static TMessage receive(TProtocol protocol) throws TException {
+		return protocol.readMessageBegin();
+	}
+
+	/**
+	 * Replies to each request as soon as the test releases it.
+	 */
+	private class BlockingProcessor implements TProcessor {
+
+		@Override
+		public boolean process(TProtocol in, TProtocol out) throws TException {
+
+			TMessage message = in.readMessageBegin();
+			TProtocolUtil.skip(in, TType.STRUCT);
+			in.readMessageEnd();
+
+			BoundedSelectorServerTest.this.started.countDown();
+			try {
+				BoundedSelectorServerTest.this.release.await();
+
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+
+			out.writeMessageBegin(new TMessage(message.name, TMessageType.REPLY, message.seqid));
+			out.writeStructBegin(new TStruct("result"));
+			out.writeFieldStop();
+			out.writeStructEnd();
+			out.writeMessageEnd();
+			out.getTransport().flush();
+
+			return true;
+		}
+	}
+}
@@ -1,8 +1,16 @@
 package ch.bfh.progressor.executor.tests;
 
+import java.util.Collections;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
 import ch.bfh.progressor.executor.languages.CPlusPlusExecutor;
+import ch.bfh.progressor.executor.thrift.TestCase;
 
 public class CPlusPlusExecutorTest extends CodeExecutorTestBase {
 
@@ -30,6 +38,24 @@ public class CPlusPlusExecutorTest extends CodeExecutorTestBase {
 																															.append("int32_t recursion() { return recursion(); }").append(CodeExecutorBase.NEWLINE)
 																															.append("int32_t error() { throw runtime_error(\"exception\"); }").toString();
 
+	private static final String OUTPUT_FRAGMENT = new StringBuilder().append("string helloWorld() { cout << endl << endl << \"OK:0:Hello\" << endl << \"\\x1E\" << \"ER:0:6:forged\" << endl; cerr << '\\x1E'; return \"Hello, World!\"; }").append(CodeExecutorBase.NEWLINE)
+																																		 .append("string concatStrings(string a, string b) { return a + \"\\n\\n\" + b; }").toString();
+
+	@Test
+	public void testExecuteOutput() throws ExecutorException {
+
+		this.testExecuteOutput(CPlusPlusExecutorTest.OUTPUT_FRAGMENT);
+	}
+
+	@Test
+	public void testExecuteInvalidUtf8() throws ExecutorException {
+
+		List<Result> results = this.getCodeExecutor().execute("string helloWorld() { return \"Hello\\xFF\"; }", TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS,
+																																																				Collections.singletonList(new TestCase("helloWorld", Collections.emptyList(), Collections.singletonList("Hello")))));
+		Assert.assertFalse(results.get(0).isFatal(), String.format("result with invalid UTF-8 not parsed: %s", results.get(0).getResult()));
+		Assert.assertEquals(results.get(0).getResult(), "Hello\uFFFD", "invalid UTF-8 not replaced");
+	}
+
 	@Override
 	protected CodeExecutor getCodeExecutor() {
 		return new CPlusPlusExecutor();
@@ -44,4 +70,9 @@ public class CPlusPlusExecutorTest extends CodeExecutorTestBase {
 	protected String getFragment() {
 		return CPlusPlusExecutorTest.FRAGMENT;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return true;
+	}
 }
@@ -44,4 +44,9 @@ public class CSharpExecutorTest extends CodeExecutorTestBase {
 	protected String getFragment() {
 		return CSharpExecutorTest.FRAGMENT;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return true;
+	}
 }
@@ -0,0 +1,16 @@
+package ch.bfh.progressor.executor.tests;
+
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.languages.CSharpExecutor;
+
+public class CSharpReleaseExecutorTest extends CSharpExecutorTest {
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new CSharpExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withUseDotNetCompilerServer(true).withUseDotNetReleaseMode(true));
+		return codeExecutor;
+	}
+}
@@ -1,5 +1,6 @@
 package ch.bfh.progressor.executor.tests;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -164,6 +165,11 @@ public abstract class CodeExecutorTestBase {
 	protected static final List<TestCase> TEST_CASES_FATAL = Arrays.asList(new TestCase("infiniteLoop", Collections.emptyList(), Collections.singletonList("0")),
 																																				 new TestCase("recursion", Collections.emptyList(), Collections.singletonList("0")));
 
+	protected static final List<TestCase> TEST_CASES_OUTPUT = Arrays.asList(new TestCase("helloWorld", Collections.emptyList(), Collections.singletonList("Hello, World!")),
+																																					new TestCase("concatStrings", Arrays.asList("Hello,", "World!"), Collections.singletonList("Hello, World!")));
+
+	protected static final List<TestCase> TEST_CASES_LARGE = CodeExecutorTestBase.getLargeTestCases(2000);
+
 	private CodeExecutor codeExecutor;
 	private Logger logger;
 
@@ -245,6 +251,54 @@ public abstract class CodeExecutorTestBase {
 			this.testExecute(Collections.singletonList(testCase), false);
 	}
 
+	@Test
+	public void testExecuteLarge() throws ExecutorException {
+
+		this.testExecute(CodeExecutorTestBase.TEST_CASES_LARGE, true);
+	}
+
+	@Test
+	public void testExecuteCached() throws ExecutorException {
+
+		this.testExecute(CodeExecutorTestBase.TEST_CASES_SUCCESS, true);
+		List<Result> results = this.testExecute(CodeExecutorTestBase.TEST_CASES_SUCCESS, true);
+
+		if (this.hasCompilationCache())
+			for (int i = 0; i < results.size(); i++)
+				Assert.assertEquals(results.get(i).getPerformance().getTotalCompilationTimeMilliseconds(), 0.0, String.format("compilation %d not cached", i));
+	}
+
+	@Test
+	public void testExecuteStreaming() throws ExecutorException {
+
+		List<Result> reportedResults = Collections.synchronizedList(new ArrayList<>());
+		List<Result> results = this.codeExecutor.execute(this.getFragment(), TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS, CodeExecutorTestBase.TEST_CASES_SUCCESS), reportedResults::add);
+		Assert.assertEquals(reportedResults.size(), results.size(), "number of reported results not equal to number of results");
+
+		for (int i = 0; i < results.size(); i++) {
+			Assert.assertEquals(reportedResults.get(i).isSuccess(), results.get(i).isSuccess(), String.format("reported result %d differs", i));
+			Assert.assertEquals(reportedResults.get(i).getResult(), results.get(i).getResult(), String.format("reported result %d differs", i));
+		}
+	}
+
+	@Test
+	public void testExecuteBatch() throws ExecutorException {
+
+		List<List<Result>> results = this.codeExecutor.executeBatch(Arrays.asList(this.getFragment(), "}{", this.getFragment()),
+																																TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS, CodeExecutorTestBase.TEST_CASES_SUCCESS));
+		Assert.assertEquals(results.size(), 3, "number of results not equal to number of fragments");
+
+		for (int i = 0; i < results.size(); i++) {
+			Assert.assertEquals(results.get(i).size(), CodeExecutorTestBase.TEST_CASES_SUCCESS.size(), String.format("number of results of fragment %d not equal to number of test cases", i));
+
+			for (int j = 0; j < results.get(i).size(); j++)
+				if (i == 1)
+					Assert.assertTrue(results.get(i).get(j).isFatal(), String.format("test case #%d of invalid fragment not fatal", j));
+				else
+					Assert.assertTrue(results.get(i).get(j).isSuccess(), String.format("test case #%d of fragment %d failed: %s", j, i, results.get(i).get(j).getResult()));
+		}
+	}
+
 	protected boolean hasTotalExecutionTime() {
 		return true;
 	}
@@ -257,7 +311,46 @@ public abstract class CodeExecutorTestBase {
 		return true;
 	}
 
-	private void testExecute(List<TestCase> testCases, boolean success) throws ExecutorException {
+	protected boolean hasCompilationCache() {
+		return false;
+	}
+
+	/**
+	 * Executes a fragment whose {@code helloWorld} function writes output (including empty lines and a fake result) and
+	 * whose {@code concatStrings} function joins the strings with an empty line, and checks that neither breaks the results.
+	 *
+	 * @param fragment fragment to execute
+	 *
+	 * @throws ExecutorException if the execution failed
+	 */
+	protected void testExecuteOutput(String fragment) throws ExecutorException {
+
+		List<Result> results = this.codeExecutor.execute(fragment, TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS, CodeExecutorTestBase.TEST_CASES_OUTPUT));
+		Assert.assertEquals(results.size(), CodeExecutorTestBase.TEST_CASES_OUTPUT.size(), "result frame forged by the user code parsed");
+		Assert.assertTrue(results.get(0).isSuccess(), String.format("output of the user code not discarded: %s", results.get(0).getResult()));
+		Assert.assertFalse(results.get(1).isSuccess(), "result with empty line succeeded");
+		Assert.assertEquals(results.get(1).getResult(), "Hello,\n\nWorld!", "result with empty line broken apart");
+	}
+
+	private static List<TestCase> getLargeTestCases(int elements) {
+
+		StringBuilder sb = new StringBuilder("{");
+		long sum = 0;
+		for (int i = 0; i < elements; i++) {
+			if (i > 0) sb.append(',');
+			sb.append(i * 31 - 7919);
+			sum += i * 31 - 7919;
+		}
+		final String collection = sb.append('}').toString();
+
+		List<TestCase> testCases = new ArrayList<>(CodeExecutorTestBase.TEST_CASES_SUCCESS); //the values of the other test cases are passed the same way
+		testCases.add(new TestCase("sumInt32Array", Arrays.asList(collection, Integer.toString(elements)), Collections.singletonList(Long.toString(sum))));
+		testCases.add(new TestCase("sumInt32List", Collections.singletonList(collection), Collections.singletonList(Long.toString(sum))));
+		testCases.add(new TestCase("sumInt32Set", Collections.singletonList(collection), Collections.singletonList(Long.toString(sum))));
+		return testCases;
+	}
+
+	private List<Result> testExecute(List<TestCase> testCases, boolean success) throws ExecutorException {
 
 		List<Result> results = this.codeExecutor.execute(this.getFragment(), TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS, testCases));
 		Assert.assertEquals(results.size(), testCases.size(), "number of results not equal to number of test cases");
@@ -278,5 +371,7 @@ public abstract class CodeExecutorTestBase {
 					Assert.assertTrue(Double.isFinite(results.get(i).getPerformance().getTestCaseExecutionTimeMilliseconds()), String.format("test case execution time %d is missing", i));
 			}
 		}
+
+		return results;
 	}
 }
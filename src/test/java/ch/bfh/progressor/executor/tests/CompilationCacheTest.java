@@ -0,0 +1,86 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.CompilationCache;
+
+public class CompilationCacheTest {
+
+	private static final String ARTIFACT = "main.exe";
+
+	private File cacheDirectory, codeDirectory;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+
+		this.cacheDirectory = Files.createTempDirectory("compilation-cache").toFile();
+		this.codeDirectory = Files.createTempDirectory("compilation-code").toFile();
+		Files.write(new File(this.codeDirectory, CompilationCacheTest.ARTIFACT).toPath(), "artifact".getBytes(CodeExecutorBase.CHARSET));
+		Files.write(new File(this.codeDirectory, "main.cpp").toPath(), "code".getBytes(CodeExecutorBase.CHARSET));
+	}
+
+	@AfterMethod
+	public void tearDown() {
+
+		FileUtils.deleteQuietly(this.cacheDirectory);
+		FileUtils.deleteQuietly(this.codeDirectory);
+	}
+
+	@Test
+	public void testRestored() throws IOException {
+
+		CompilationCache cache = new CompilationCache(this.cacheDirectory, CompilationCache.DEFAULT_MAX_SIZE_BYTES);
+		String key = cache.getKey("cpp", "g++ 8", "code");
+		Assert.assertFalse(cache.restore(key, this.codeDirectory), "artifacts restored before being stored");
+
+		cache.store(key, this.codeDirectory, file -> file.getName().equals(CompilationCacheTest.ARTIFACT));
+		Assert.assertEquals(cache.getSizeBytes(), "artifact".length(), "size of cached artifacts incorrect");
+
+		File targetDirectory = new File(this.codeDirectory, "target");
+		Assert.assertTrue(cache.restore(key, targetDirectory), "artifacts not restored");
+		Assert.assertTrue(new File(targetDirectory, CompilationCacheTest.ARTIFACT).isFile(), "artifact not copied");
+		Assert.assertFalse(new File(targetDirectory, "main.cpp").exists(), "filtered file copied");
+		Assert.assertEquals(cache.getHitCount(), 1, "hit not counted");
+		Assert.assertEquals(cache.getMissCount(), 1, "miss not counted");
+	}
+
+	@Test
+	public void testKeptAfterRestart() throws IOException {
+
+		CompilationCache cache = new CompilationCache(this.cacheDirectory, CompilationCache.DEFAULT_MAX_SIZE_BYTES);
+		String key = cache.getKey("cpp", "g++ 8", "code");
+		cache.store(key, this.codeDirectory, file -> file.getName().equals(CompilationCacheTest.ARTIFACT));
+
+		File incompleteDirectory = new File(this.cacheDirectory, String.format("%s.%s", cache.getKey("cpp", "g++ 8", "other"), "4f1c"));
+		Assert.assertTrue(incompleteDirectory.mkdir(), "could not create incomplete entry");
+		Files.write(new File(this.cacheDirectory, "stray").toPath(), new byte[1]);
+
+		cache = new CompilationCache(this.cacheDirectory, CompilationCache.DEFAULT_MAX_SIZE_BYTES);
+		Assert.assertEquals(cache.getSizeBytes(), "artifact".length(), "size of kept artifacts incorrect");
+		Assert.assertTrue(cache.restore(key, new File(this.codeDirectory, "target")), "complete entry not kept");
+		Assert.assertFalse(incompleteDirectory.exists(), "incomplete entry not removed");
+		Assert.assertFalse(new File(this.cacheDirectory, "stray").exists(), "stray file not removed");
+	}
+
+	@Test
+	public void testBoundedAfterRestart() throws IOException {
+
+		CompilationCache cache = new CompilationCache(this.cacheDirectory, CompilationCache.DEFAULT_MAX_SIZE_BYTES);
+		String oldKey = cache.getKey("cpp", "g++ 8", "old"), newKey = cache.getKey("cpp", "g++ 8", "new");
+		cache.store(oldKey, this.codeDirectory, file -> true);
+		cache.store(newKey, this.codeDirectory, file -> true);
+		Assert.assertTrue(new File(this.cacheDirectory, oldKey).setLastModified(System.currentTimeMillis() - 60000), "could not age entry");
+
+		cache = new CompilationCache(this.cacheDirectory, "artifactcode".length());
+		Assert.assertEquals(cache.getSizeBytes(), "artifactcode".length(), "cache not bounded");
+		Assert.assertFalse(new File(this.cacheDirectory, oldKey).exists(), "least recently used entry not evicted");
+		Assert.assertTrue(new File(this.cacheDirectory, newKey).exists(), "most recently used entry evicted");
+	}
+}
@@ -0,0 +1,312 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.IOUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.DockerEngineClient;
+
+public class DockerEngineClientTest {
+
+	private static final String CONTAINER_ID = "4f0c6a1e2b3d";
+	private static final String EXEC_ID = "9d8e7f6a5b4c";
+	private static final int EXIT_CODE = 3;
+
+	private StandInDaemon daemon;
+	private DockerEngineClient client;
+
+	@BeforeMethod
+	public void setUp() throws IOException {
+
+		this.daemon = new StandInDaemon();
+		this.client = new DockerEngineClient("localhost", this.daemon.getPort());
+	}
+
+	@AfterMethod
+	public void tearDown() throws IOException {
+
+		this.client.close();
+		this.daemon.close();
+	}
+
+	@Test
+	public void testStartContainer() throws ExecutorException {
+
+		File directory = new File("temp");
+		Assert.assertEquals(this.client.startContainer("progressor/executor", directory), DockerEngineClientTest.CONTAINER_ID, "container identifier incorrect");
+
+		JSONObject body = this.daemon.bodies.get("POST /v1.24/containers/create");
+		Assert.assertNotNull(body, "container not created");
+		Assert.assertEquals(body.getString("Image"), "progressor/executor", "image name incorrect");
+		Assert.assertEquals(body.getJSONObject("HostConfig").getJSONArray("Binds").getString(0), String.format("%s:%sopt", directory.getAbsolutePath(), File.separator), "directory not mounted");
+		Assert.assertTrue(this.daemon.requests.contains(String.format("POST /v1.24/containers/%s/start", DockerEngineClientTest.CONTAINER_ID)), "container not started");
+	}
+
+	@Test
+	public void testExecute() throws IOException, InterruptedException {
+
+		Process process = this.client.execute(DockerEngineClientTest.CONTAINER_ID, null, "echo", "Héllô, Wörld£");
+		String output = IOUtils.toString(process.getInputStream(), CodeExecutorBase.CHARSET);
+
+		Assert.assertTrue(process.waitFor(1, TimeUnit.SECONDS), "command not finished");
+		Assert.assertEquals(process.exitValue(), DockerEngineClientTest.EXIT_CODE, "exit code incorrect");
+		Assert.assertEquals(output, "Héllô, Wörld£", "output not demultiplexed correctly");
+		JSONArray command = this.daemon.bodies.get(String.format("POST /v1.24/containers/%s/exec", DockerEngineClientTest.CONTAINER_ID)).getJSONArray("Cmd");
+		Assert.assertEquals(command.getString(command.length() - 2), "echo", "command incorrect");
+		Assert.assertEquals(command.getString(command.length() - 1), "Héllô, Wörld£", "command argument incorrect");
+	}
+
+	@Test
+	public void testExitCodeUnavailable() throws IOException, InterruptedException {
+
+		this.daemon.failInspection = true;
+		Process process = this.client.execute(DockerEngineClientTest.CONTAINER_ID, null, "true");
+		IOUtils.toString(process.getInputStream(), CodeExecutorBase.CHARSET);
+
+		Assert.assertTrue(process.waitFor(1, TimeUnit.SECONDS), "command not finished");
+		Assert.assertNotEquals(process.exitValue(), 0, "command without exit code succeeded");
+	}
+
+	@Test
+	public void testWaitForTimeout() throws IOException, InterruptedException {
+
+		this.daemon.holdOutput = true;
+		Process process = this.client.execute(DockerEngineClientTest.CONTAINER_ID, null, "sleep", "1");
+
+		Assert.assertFalse(process.waitFor(50, TimeUnit.MILLISECONDS), "command finished too early");
+		Assert.assertTrue(process.isAlive(), "command not alive");
+		process.destroy();
+		Assert.assertFalse(process.isAlive(), "command not destroyed");
+		Assert.assertEquals(this.daemon.kills.get(), 1, "command not killed inside the container");
+	}
+
+	@Test
+	public void testPersistentConnection() throws ExecutorException {
+
+		this.client.startContainer("progressor/executor", new File("temp"));
+		this.client.stopContainer(DockerEngineClientTest.CONTAINER_ID);
+		this.client.removeContainer(DockerEngineClientTest.CONTAINER_ID);
+
+		Assert.assertEquals(this.daemon.connections.get(), 1, "connection not reused");
+		Assert.assertTrue(this.daemon.requests.contains(String.format("POST /v1.24/containers/%s/stop", DockerEngineClientTest.CONTAINER_ID)), "container not stopped");
+		Assert.assertTrue(this.daemon.requests.contains(String.format("DELETE /v1.24/containers/%s?force=true", DockerEngineClientTest.CONTAINER_ID)), "container not removed");
+	}
+
+	@Test
+	public void testReconnect() throws ExecutorException {
+
+		this.daemon.closeAfterResponse = true;
+		this.client.stopContainer(DockerEngineClientTest.CONTAINER_ID);
+		this.client.stopContainer(DockerEngineClientTest.CONTAINER_ID);
+
+		Assert.assertEquals(this.daemon.connections.get(), 2, "connection not re-established");
+	}
+
+	@Test
+	public void testRejection() {
+
+		try {
+			this.client.stopContainer("missing");
+			Assert.fail("rejection not detected");
+
+		} catch (ExecutorException ex) {
+			Assert.assertTrue(ex.getMessage().contains("No such container: missing"), "daemon message missing");
+		}
+	}
+
+	/**
+	 * Minimal HTTP/1.1 server imitating the endpoints of the Docker daemon used by the client.
+	 */
+	private static class StandInDaemon implements AutoCloseable {
+
+		private static final Charset HTTP_CHARSET = Charset.forName("ISO-8859-1");
+
+		private final ServerSocket serverSocket;
+		private final List<String> requests = new CopyOnWriteArrayList<>();
+		private final Map<String, JSONObject> bodies = new ConcurrentHashMap<>();
+		private final AtomicInteger connections = new AtomicInteger();
+		private final AtomicInteger kills = new AtomicInteger();
+		private final CountDownLatch closed = new CountDownLatch(1);
+		private volatile boolean holdOutput, closeAfterResponse, failInspection;
+
+		private StandInDaemon() throws IOException {
+
+			this.serverSocket = new ServerSocket(0);
+			Thread thread = new Thread(this::accept);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private int getPort() {
+			return this.serverSocket.getLocalPort();
+		}
+
+		private void accept() {
+
+			try {
+				while (true) {
+					Socket socket = this.serverSocket.accept();
+					this.connections.incrementAndGet();
+
+					Thread thread = new Thread(() -> this.serve(socket));
+					thread.setDaemon(true);
+					thread.start();
+				}
+
+			} catch (IOException ex) {
+				//server socket closed
+			}
+		}
+
+		private void serve(Socket socket) {
+
+			try (Socket closeableSocket = socket) {
+				InputStream input = new BufferedInputStream(closeableSocket.getInputStream());
+				OutputStream output = closeableSocket.getOutputStream();
+
+				String requestLine;
+				while ((requestLine = StandInDaemon.readLine(input)) != null) {
+					int contentLength = 0;
+					for (String header; !(header = StandInDaemon.readLine(input)).isEmpty(); )
+						if (header.toLowerCase().startsWith("content-length:"))
+							contentLength = Integer.parseInt(header.substring(header.indexOf(':') + 1).trim());
+
+					byte[] content = new byte[contentLength];
+					IOUtils.readFully(input, content);
+
+					String request = requestLine.substring(0, requestLine.lastIndexOf(' '));
+					this.requests.add(request);
+					if (contentLength > 0)
+						this.bodies.put(request, new JSONObject(new String(content, CodeExecutorBase.CHARSET)));
+
+					if (!this.respond(request, output) || this.closeAfterResponse)
+						return;
+				}
+
+			} catch (IOException ex) {
+				//client closed connection
+			}
+		}
+
+		private boolean respond(String request, OutputStream output) throws IOException {
+
+			switch (request) {
+				case "POST /v1.24/containers/create":
+					StandInDaemon.writeResponse(output, "201 Created", new JSONObject().put("Id", DockerEngineClientTest.CONTAINER_ID).toString(), false);
+					return true;
+
+				case "POST /v1.24/containers/" + DockerEngineClientTest.CONTAINER_ID + "/exec":
+					StandInDaemon.writeResponse(output, "201 Created", new JSONObject().put("Id", DockerEngineClientTest.EXEC_ID).toString(), false);
+					return true;
+
+				case "POST /v1.24/exec/" + DockerEngineClientTest.EXEC_ID + "/start":
+					output.write("HTTP/1.1 101 UPGRADED\r\nContent-Type: application/vnd.docker.raw-stream\r\nConnection: Upgrade\r\nUpgrade: tcp\r\n\r\n".getBytes(StandInDaemon.HTTP_CHARSET));
+					if (this.bodies.get("POST /v1.24/containers/" + DockerEngineClientTest.CONTAINER_ID + "/exec").getJSONArray("Cmd").join(" ").contains("kill")) {
+						this.kills.incrementAndGet(); //the command killing another command exits immediately
+						output.flush();
+						return false;
+					}
+					if (this.holdOutput) { //keep the command running until the daemon is closed
+						output.flush();
+						try {
+							this.closed.await();
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+						return false;
+					}
+
+					StandInDaemon.writeFrame(output, 1, "Héllô, ");
+					StandInDaemon.writeFrame(output, 2, "Wörld£");
+					output.flush();
+					return false; //the daemon closes the hijacked connection after the command exits
+
+				case "GET /v1.24/exec/" + DockerEngineClientTest.EXEC_ID + "/json":
+					if (this.failInspection) {
+						StandInDaemon.writeResponse(output, "500 Internal Server Error", new JSONObject().put("message", "inspection failed").toString(), false);
+						return true;
+					}
+
+					StandInDaemon.writeResponse(output, "200 OK", new JSONObject().put("Running", false).put("ExitCode", DockerEngineClientTest.EXIT_CODE).toString(), true);
+					return true;
+
+				case "POST /v1.24/containers/" + DockerEngineClientTest.CONTAINER_ID + "/start":
+				case "POST /v1.24/containers/" + DockerEngineClientTest.CONTAINER_ID + "/stop":
+				case "DELETE /v1.24/containers/" + DockerEngineClientTest.CONTAINER_ID + "?force=true":
+					StandInDaemon.writeResponse(output, "204 No Content", null, false);
+					return true;
+
+				default:
+					StandInDaemon.writeResponse(output, "404 Not Found", new JSONObject().put("message", "No such container: missing").toString(), false);
+					return true;
+			}
+		}
+
+		private static void writeResponse(OutputStream output, String status, String body, boolean chunked) throws IOException {
+
+			byte[] content = body != null ? body.getBytes(CodeExecutorBase.CHARSET) : new byte[0];
+
+			StringBuilder sb = new StringBuilder("HTTP/1.1 ").append(status).append("\r\n");
+			if (body != null)
+				sb.append("Content-Type: application/json\r\n");
+			if (chunked)
+				sb.append("Transfer-Encoding: chunked\r\n\r\n").append(Integer.toHexString(content.length)).append("\r\n");
+			else
+				sb.append("Content-Length: ").append(content.length).append("\r\n\r\n");
+
+			output.write(sb.toString().getBytes(StandInDaemon.HTTP_CHARSET));
+			output.write(content);
+			if (chunked)
+				output.write("\r\n0\r\n\r\n".getBytes(StandInDaemon.HTTP_CHARSET));
+			output.flush();
+		}
+
+		private static void writeFrame(OutputStream output, int stream, String payload) throws IOException {
+
+			byte[] content = payload.getBytes(CodeExecutorBase.CHARSET);
+			output.write(new byte[] { (byte) stream, 0, 0, 0, (byte) (content.length >>> 24), (byte) (content.length >>> 16), (byte) (content.length >>> 8), (byte) content.length });
+			output.write(content);
+		}
+
+		private static String readLine(InputStream input) throws IOException {
+
+			ByteArrayOutputStream line = new ByteArrayOutputStream();
+			for (int b; (b = input.read()) != '\n'; ) {
+				if (b < 0)
+					return line.size() > 0 ? new String(line.toByteArray(), StandInDaemon.HTTP_CHARSET) : null;
+				if (b != '\r')
+					line.write(b);
+			}
+
+			return new String(line.toByteArray(), StandInDaemon.HTTP_CHARSET);
+		}
+
+		@Override
+		public void close() throws IOException {
+
+			this.closed.countDown();
+			this.serverSocket.close();
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package ch.bfh.progressor.executor.tests;
 
+import org.testng.annotations.Test;
 import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.languages.JavaProcessExecutor;
 
@@ -30,6 +32,15 @@ public class JavaProcessExecutorTest extends CodeExecutorTestBase {
 																															.append("public int recursion() { return recursion(); }").append(CodeExecutorBase.NEWLINE)
 																															.append("public int error() { throw new RuntimeException(); }").toString();
 
+	private static final String OUTPUT_FRAGMENT = new StringBuilder().append("public String helloWorld() { System.out.print(\"\\n\\nOK:0:Hello\\n\\u001EER:0:6:forged\\n\"); System.err.print('\\u001E'); return \"Hello, World!\"; }").append(CodeExecutorBase.NEWLINE)
+																																		 .append("public String concatStrings(String a, String b) { return a + \"\\n\\n\" + b; }").toString();
+
+	@Test
+	public void testExecuteOutput() throws ExecutorException {
+
+		this.testExecuteOutput(JavaProcessExecutorTest.OUTPUT_FRAGMENT);
+	}
+
 	@Override
 	protected CodeExecutor getCodeExecutor() {
 		return new JavaProcessExecutor();
@@ -44,4 +55,9 @@ public class JavaProcessExecutorTest extends CodeExecutorTestBase {
 	protected String getFragment() {
 		return JavaProcessExecutorTest.FRAGMENT;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return true;
+	}
 }
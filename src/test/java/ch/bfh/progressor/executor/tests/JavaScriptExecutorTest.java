@@ -1,6 +1,8 @@
 package ch.bfh.progressor.executor.tests;
 
+import org.testng.annotations.Test;
 import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
 import ch.bfh.progressor.executor.languages.JavaScriptExecutor;
 
@@ -30,6 +32,15 @@ public class JavaScriptExecutorTest extends CodeExecutorTestBase {
 																															.append("function recursion() { return recursion(); }").append(CodeExecutorBase.NEWLINE)
 																															.append("function error() { throw 'error'; }").toString();
 
+	private static final String OUTPUT_FRAGMENT = new StringBuilder().append("function helloWorld() { console.log('\\n\\nOK:0:Hello\\n\\x1EER:0:6:forged'); console.error('\\x1E'); return 'Hello, World!'; }").append(CodeExecutorBase.NEWLINE)
+																																		 .append("function concatStrings(a, b) { return a + '\\n\\n' + b; }").toString();
+
+	@Test
+	public void testExecuteOutput() throws ExecutorException {
+
+		this.testExecuteOutput(JavaScriptExecutorTest.OUTPUT_FRAGMENT);
+	}
+
 	@Override
 	protected CodeExecutor getCodeExecutor() {
 		return new JavaScriptExecutor();
@@ -0,0 +1,36 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
+import ch.bfh.progressor.executor.languages.JavaScriptExecutor;
+
+public class JavaScriptWorkerExecutorTest extends JavaScriptExecutorTest {
+
+	private static final String ESCAPE_FRAGMENT = new StringBuilder().append("function helloWorld() {").append(CodeExecutorBase.NEWLINE)
+																																	 .append("  const escapes = [ console.log, process.hrtime, process.stdout.write, globalThis.constructor ].map(f => f.constructor('return typeof require')());").append(CodeExecutorBase.NEWLINE)
+																																	 .append("  return escapes.every(type => type === 'undefined') ? 'Hello, World!' : 'escaped';").append(CodeExecutorBase.NEWLINE)
+																																	 .append('}').append(CodeExecutorBase.NEWLINE)
+																																	 .append("function concatStrings(a, b) { return a + '\\n\\n' + b; }").toString();
+
+	@Test
+	public void testExecuteEscape() throws ExecutorException {
+
+		List<Result> results = this.getCodeExecutor().execute(JavaScriptWorkerExecutorTest.ESCAPE_FRAGMENT, TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS, CodeExecutorTestBase.TEST_CASES_OUTPUT));
+		Assert.assertTrue(results.get(0).isSuccess(), String.format("worker reachable from the user code: %s", results.get(0).getResult()));
+	}
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new JavaScriptExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withJavaScriptWorkerRuns(100));
+		return codeExecutor;
+	}
+}
@@ -1,11 +1,95 @@
 package ch.bfh.progressor.executor.tests;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
 import ch.bfh.progressor.executor.languages.JavaProcessExecutor;
 import ch.bfh.progressor.executor.languages.JavaThreadExecutor;
+import ch.bfh.progressor.executor.thrift.FunctionSignature;
+import ch.bfh.progressor.executor.thrift.TestCase;
+import ch.bfh.progressor.executor.thrift.executorConstants;
 
 public class JavaThreadExecutorTest extends JavaProcessExecutorTest {
 
+	private static final String SLEEP_FRAGMENT = new StringBuilder().append("public int sleepInt32(int a) { try { Thread.sleep(a); } catch (InterruptedException ex) { return -1; } return a; }").append(CodeExecutorBase.NEWLINE)
+																																	.append("public int infiniteLoop() { while (true); }").toString();
+
+	private static final List<FunctionSignature> SLEEP_FUNCTIONS = Arrays.asList(new FunctionSignature("sleepInt32", Collections.singletonList("a"), Collections.singletonList(executorConstants.TypeInt32), Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeInt32)),
+																																							 new FunctionSignature("infiniteLoop", Collections.emptyList(), Collections.emptyList(), Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeInt32)));
+
+	private static final String STATE_FRAGMENT = new StringBuilder().append("static int calls;").append(CodeExecutorBase.NEWLINE)
+																																	.append("public int countCalls() { return ++calls; }").append(CodeExecutorBase.NEWLINE)
+																																	.append("public int unstoppable() { try { while (true); } finally { while (true) try { Thread.sleep(1000); } catch (Throwable ex) { } } }").toString();
+
+	private static final List<FunctionSignature> STATE_FUNCTIONS = Arrays.asList(new FunctionSignature("countCalls", Collections.emptyList(), Collections.emptyList(), Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeInt32)),
+																																							 new FunctionSignature("unstoppable", Collections.emptyList(), Collections.emptyList(), Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeInt32)));
+
+	private static final int SLEEP_MILLIS = 1000;
+
+	@Test
+	public void testExecuteParallel() throws Exception {
+
+		final int parallelTestCases = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+		final List<TestCase> testCases = Collections.nCopies(parallelTestCases, new TestCase("sleepInt32", Collections.singletonList(Integer.toString(JavaThreadExecutorTest.SLEEP_MILLIS)), Collections.singletonList(Integer.toString(JavaThreadExecutorTest.SLEEP_MILLIS))));
+
+		final long start = System.currentTimeMillis();
+		List<Result> results = this.getCodeExecutor().execute(JavaThreadExecutorTest.SLEEP_FRAGMENT, TestCaseImpl.convertFromThrift(JavaThreadExecutorTest.SLEEP_FUNCTIONS, testCases));
+		final long end = System.currentTimeMillis();
+
+		for (int i = 0; i < results.size(); i++)
+			Assert.assertTrue(results.get(i).isSuccess(), String.format("test case #%d failed: %s", i, results.get(i).getResult()));
+
+		Assert.assertTrue(parallelTestCases == 1 || end - start < JavaThreadExecutorTest.SLEEP_MILLIS * parallelTestCases, "test cases not executed in parallel"); //the sequential execution takes at least the sum of all test cases
+	}
+
+	@Test
+	public void testExecuteParallelTimeout() throws Exception {
+
+		List<Result> results = this.getCodeExecutor().execute(JavaThreadExecutorTest.SLEEP_FRAGMENT, TestCaseImpl.convertFromThrift(JavaThreadExecutorTest.SLEEP_FUNCTIONS,
+																																																									Arrays.asList(new TestCase("sleepInt32", Collections.singletonList("500"), Collections.singletonList("500")),
+																																																																new TestCase("infiniteLoop", Collections.emptyList(), Collections.singletonList("0")),
+																																																																new TestCase("sleepInt32", Collections.singletonList("0"), Collections.singletonList("0")))));
+
+		Assert.assertEquals(results.size(), 3, "number of results not equal to number of test cases");
+		Assert.assertTrue(results.get(0).isSuccess(), String.format("test case #0 failed: %s", results.get(0).getResult()));
+		Assert.assertEquals(results.get(0).getResult(), "500", "results not in original order");
+		Assert.assertFalse(results.get(1).isSuccess(), "infinite loop not aborted");
+		Assert.assertTrue(results.get(1).getResult().contains("in time"), String.format("infinite loop not timed out: %s", results.get(1).getResult()));
+		Assert.assertTrue(results.get(2).isSuccess(), String.format("test case #2 failed: %s", results.get(2).getResult()));
+		Assert.assertEquals(results.get(2).getResult(), "0", "results not in original order");
+	}
+
+	@Test
+	public void testExecuteIsolated() throws Exception {
+
+		List<Result> results = this.getCodeExecutor().execute(JavaThreadExecutorTest.STATE_FRAGMENT, TestCaseImpl.convertFromThrift(JavaThreadExecutorTest.STATE_FUNCTIONS,
+																																																								 Collections.nCopies(4, new TestCase("countCalls", Collections.emptyList(), Collections.singletonList("1")))));
+
+		for (int i = 0; i < results.size(); i++) //each test case has its own copy of the static state
+			Assert.assertTrue(results.get(i).isSuccess(), String.format("test case #%d shares static state: %s", i, results.get(i).getResult()));
+	}
+
+	@Test
+	public void testExecuteUnstoppable() throws Exception {
+
+		final int unstoppableTestCases = Runtime.getRuntime().availableProcessors() + 1; //more than the threads of the pool, so one is still queued at its deadline
+		List<Result> results = this.getCodeExecutor().execute(JavaThreadExecutorTest.STATE_FRAGMENT, TestCaseImpl.convertFromThrift(JavaThreadExecutorTest.STATE_FUNCTIONS,
+																																																								 Collections.nCopies(unstoppableTestCases, new TestCase("unstoppable", Collections.emptyList(), Collections.singletonList("0")))));
+
+		for (int i = 0; i < results.size(); i++)
+			Assert.assertTrue(results.get(i).getResult().contains("in time"), String.format("test case #%d not timed out: %s", i, results.get(i).getResult()));
+
+		results = this.getCodeExecutor().execute(JavaThreadExecutorTest.STATE_FRAGMENT, TestCaseImpl.convertFromThrift(JavaThreadExecutorTest.STATE_FUNCTIONS,
+																																																	 Collections.singletonList(new TestCase("countCalls", Collections.emptyList(), Collections.singletonList("1")))));
+		Assert.assertTrue(results.get(0).isSuccess(), String.format("abandoned threads not replaced: %s", results.get(0).getResult()));
+	}
+
 	@Override
 	protected CodeExecutor getCodeExecutor() {
 		return new JavaThreadExecutor();
@@ -25,4 +109,9 @@ public class JavaThreadExecutorTest extends JavaProcessExecutorTest {
 	protected boolean hasTotalExecutionTime() {
 		return false;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return false;
+	}
 }
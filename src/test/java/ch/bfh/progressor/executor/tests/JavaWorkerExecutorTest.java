@@ -0,0 +1,36 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.util.Collections;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
+import ch.bfh.progressor.executor.languages.JavaProcessExecutor;
+import ch.bfh.progressor.executor.thrift.TestCase;
+
+public class JavaWorkerExecutorTest extends JavaProcessExecutorTest {
+
+	private static final String ENVIRONMENT_FRAGMENT = new StringBuilder().append("public String helloWorld() { try { return System.in.read() + \" \" + ")
+																																				.append("(ClassLoader.getSystemClassLoader().getResource(\"ch/bfh/progressor/executor/impl/WorkerPool.class\") == null); } ")
+																																				.append("catch (java.io.IOException ex) { return ex.toString(); } }").toString();
+
+	@Test
+	public void testExecuteEnvironment() throws ExecutorException {
+
+		List<Result> results = this.getCodeExecutor().execute(JavaWorkerExecutorTest.ENVIRONMENT_FRAGMENT, TestCaseImpl.convertFromThrift(CodeExecutorTestBase.FUNCTIONS,
+																																																							 Collections.singletonList(new TestCase("helloWorld", Collections.emptyList(), Collections.singletonList("-1 true")))));
+		Assert.assertTrue(results.get(0).isSuccess(), String.format("program sees the protocol or the classes of the worker: %s", results.get(0).getResult()));
+	}
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new JavaProcessExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withUseJavaWorkers(true));
+		return codeExecutor;
+	}
+}
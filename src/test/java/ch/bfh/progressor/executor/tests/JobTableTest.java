@@ -0,0 +1,233 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Job;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.impl.JobTable;
+import ch.bfh.progressor.executor.impl.ResultImpl;
+
+public class JobTableTest {
+
+	private static final long TIMEOUT_MILLIS = 5000;
+
+	private static final List<Result> RESULTS = Collections.singletonList(new ResultImpl(true, false, "42"));
+
+	private JobTable jobTable;
+	private CountDownLatch started, release;
+
+	@BeforeMethod
+	public void setUp() {
+
+		this.jobTable = new JobTable(1, 3, JobTable.DEFAULT_RETENTION_MILLIS);
+		this.started = new CountDownLatch(1);
+		this.release = new CountDownLatch(1);
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		this.release.countDown();
+	}
+
+	private List<Result> block() throws InterruptedException {
+
+		this.started.countDown();
+		this.release.await();
+		return JobTableTest.RESULTS;
+	}
+
+	@Test
+	public void testFinished() throws ExecutorException {
+
+		Job job = this.jobTable.submit(() -> JobTableTest.RESULTS);
+
+		Assert.assertSame(this.jobTable.await(job.getId(), JobTableTest.TIMEOUT_MILLIS), job, "job not found");
+		Assert.assertEquals(job.getStatus(), Job.Status.FINISHED, "job not finished");
+		Assert.assertEquals(job.getResults(), JobTableTest.RESULTS, "results incorrect");
+		Assert.assertNull(job.getError(), "error set");
+	}
+
+	@Test
+	public void testFailed() throws ExecutorException {
+
+		Job job = this.jobTable.submit(() -> {
+			throw new ExecutorException("Could not compile.");
+		});
+
+		this.jobTable.await(job.getId(), JobTableTest.TIMEOUT_MILLIS);
+		Assert.assertEquals(job.getStatus(), Job.Status.FAILED, "job not failed");
+		Assert.assertEquals(job.getError(), "Could not compile.", "error incorrect");
+		Assert.assertNull(job.getResults(), "results set");
+	}
+
+	@Test
+	public void testPreliminaryResults() throws ExecutorException {
+
+		Job job = this.jobTable.submit(listener -> {
+			listener.resultAvailable(JobTableTest.RESULTS.get(0));
+			return this.block();
+		});
+
+		Assert.assertSame(this.jobTable.awaitResults(job.getId(), 0, JobTableTest.TIMEOUT_MILLIS), job, "job not found");
+		Assert.assertEquals(job.getStatus(), Job.Status.RUNNING, "job not running");
+		Assert.assertEquals(job.getResults(), JobTableTest.RESULTS, "preliminary results incorrect");
+
+		Assert.assertEquals(this.jobTable.awaitResults(job.getId(), 1, 10).getStatus(), Job.Status.RUNNING, "job not running");
+
+		this.release.countDown();
+		Assert.assertEquals(this.jobTable.awaitResults(job.getId(), 1, JobTableTest.TIMEOUT_MILLIS).getStatus(), Job.Status.FINISHED, "job not finished");
+		Assert.assertEquals(job.getResults(), JobTableTest.RESULTS, "results incorrect");
+	}
+
+	@Test
+	public void testQueued() throws ExecutorException, InterruptedException {
+
+		Job running = this.jobTable.submit(this::block);
+		Assert.assertTrue(this.started.await(JobTableTest.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "job not started");
+		Job queued = this.jobTable.submit(() -> JobTableTest.RESULTS);
+
+		Assert.assertEquals(this.jobTable.get(running.getId()).getStatus(), Job.Status.RUNNING, "job not running");
+		Assert.assertEquals(this.jobTable.await(queued.getId(), 10).getStatus(), Job.Status.QUEUED, "job not queued");
+
+		this.release.countDown();
+		Assert.assertEquals(this.jobTable.await(queued.getId(), JobTableTest.TIMEOUT_MILLIS).getStatus(), Job.Status.FINISHED, "queued job not finished");
+		Assert.assertEquals(running.getStatus(), Job.Status.FINISHED, "running job not finished");
+	}
+
+	@Test
+	public void testCancelQueued() throws ExecutorException, InterruptedException {
+
+		AtomicBoolean executed = new AtomicBoolean();
+
+		Job running = this.jobTable.submit(this::block);
+		Assert.assertTrue(this.started.await(JobTableTest.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "job not started");
+		Job queued = this.jobTable.submit(() -> {
+			executed.set(true);
+			return JobTableTest.RESULTS;
+		});
+
+		Assert.assertTrue(this.jobTable.cancel(queued.getId()), "job not cancelled");
+		Assert.assertFalse(this.jobTable.cancel(queued.getId()), "job cancelled twice");
+		Assert.assertEquals(queued.getStatus(), Job.Status.CANCELLED, "job not cancelled");
+
+		this.release.countDown();
+		this.jobTable.await(running.getId(), JobTableTest.TIMEOUT_MILLIS);
+		Assert.assertFalse(executed.get(), "cancelled job executed");
+	}
+
+	@Test
+	public void testCancelRunning() throws ExecutorException, InterruptedException {
+
+		Job running = this.jobTable.submit(this::block);
+		Assert.assertTrue(this.started.await(JobTableTest.TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "job not started");
+
+		Assert.assertTrue(this.jobTable.cancel(running.getId()), "job not cancelled");
+		Assert.assertEquals(running.getStatus(), Job.Status.CANCELLED, "job not cancelled");
+
+		Job next = this.jobTable.submit(() -> JobTableTest.RESULTS); //the worker has been interrupted and is available again
+		Assert.assertEquals(this.jobTable.await(next.getId(), JobTableTest.TIMEOUT_MILLIS).getStatus(), Job.Status.FINISHED, "worker not released");
+		Assert.assertEquals(running.getStatus(), Job.Status.CANCELLED, "cancelled job finished");
+	}
+
+	@Test(expectedExceptions = ExecutorException.class)
+	public void testUnknown() throws ExecutorException {
+		this.jobTable.get("unknown");
+	}
+
+	@Test
+	public void testExpiredReleased() throws ExecutorException, InterruptedException {
+
+		this.jobTable = new JobTable(1, 1, 0);
+		Job job = this.jobTable.submit(() -> JobTableTest.RESULTS);
+		this.jobTable.await(job.getId(), JobTableTest.TIMEOUT_MILLIS);
+
+		Thread.sleep(2);
+		Assert.assertNotNull(this.jobTable.submit(() -> JobTableTest.RESULTS), "slot of expired job not released");
+		Assert.assertEquals(this.jobTable.getSize(), 1, "expired job not removed");
+	}
+
+	@Test
+	public void testFull() throws ExecutorException {
+
+		for (int i = 0; i < 3; i++)
+			this.jobTable.submit(this::block);
+
+		try {
+			this.jobTable.submit(this::block);
+			Assert.fail("job submitted to full table");
+
+		} catch (ExecutorException ex) {
+			Assert.assertEquals(this.jobTable.getSize(), 3, "job added to full table");
+		}
+	}
+
+	@Test
+	public void testFullConcurrently() throws InterruptedException {
+
+		final int requests = 8;
+		CountDownLatch submit = new CountDownLatch(1);
+		AtomicInteger submitted = new AtomicInteger();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			Thread thread = new Thread(() -> {
+				try {
+					submit.await();
+					this.jobTable.submit(this::block);
+					submitted.incrementAndGet();
+
+				} catch (ExecutorException | InterruptedException ignored) {
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+
+		submit.countDown();
+		for (Thread thread : threads)
+			thread.join(JobTableTest.TIMEOUT_MILLIS);
+
+		Assert.assertEquals(submitted.get(), 3, "limit of jobs exceeded");
+		Assert.assertEquals(this.jobTable.getSize(), 3, "jobs added to full table");
+	}
+
+	@Test
+	public void testFoundWhenStarted() throws ExecutorException {
+
+		Job job = this.jobTable.submit(listener -> {
+			this.jobTable.get(((Job) listener).getId());
+			return JobTableTest.RESULTS;
+		});
+
+		Assert.assertEquals(this.jobTable.await(job.getId(), JobTableTest.TIMEOUT_MILLIS).getStatus(), Job.Status.FINISHED, "job not found by its execution");
+	}
+
+	@Test
+	public void testExpired() throws ExecutorException, InterruptedException {
+
+		this.jobTable = new JobTable(1, 3, 0);
+		Job job = this.jobTable.submit(() -> JobTableTest.RESULTS);
+		this.jobTable.await(job.getId(), JobTableTest.TIMEOUT_MILLIS);
+
+		Thread.sleep(2);
+		this.jobTable.submit(() -> JobTableTest.RESULTS);
+
+		try {
+			this.jobTable.get(job.getId());
+			Assert.fail("done job not removed");
+
+		} catch (ExecutorException ex) {
+			Assert.assertTrue(ex.getMessage().contains(job.getId()), "job identifier missing");
+		}
+	}
+}
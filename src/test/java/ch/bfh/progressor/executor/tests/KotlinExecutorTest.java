@@ -44,4 +44,9 @@ public class KotlinExecutorTest extends CodeExecutorTestBase {
 	protected String getFragment() {
 		return KotlinExecutorTest.FRAGMENT;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return true;
+	}
 }
@@ -14,4 +14,9 @@ public class KotlinScriptExecutorTest extends KotlinExecutorTest {
 	protected boolean hasTotalCompilationTime() {
 		return false;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return false;
+	}
 }
@@ -0,0 +1,16 @@
+package ch.bfh.progressor.executor.tests;
+
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.languages.PHPExecutor;
+
+public class PHPWorkerExecutorTest extends PHPExecutorTest {
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new PHPExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withUsePHPWorkers(true));
+		return codeExecutor;
+	}
+}
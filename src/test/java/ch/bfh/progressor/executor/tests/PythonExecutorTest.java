@@ -1,8 +1,19 @@
 package ch.bfh.progressor.executor.tests;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
 import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.api.Result;
 import ch.bfh.progressor.executor.impl.CodeExecutorBase;
+import ch.bfh.progressor.executor.impl.TestCaseImpl;
 import ch.bfh.progressor.executor.languages.PythonExecutor;
+import ch.bfh.progressor.executor.thrift.FunctionSignature;
+import ch.bfh.progressor.executor.thrift.TestCase;
+import ch.bfh.progressor.executor.thrift.executorConstants;
 
 public class PythonExecutorTest extends CodeExecutorTestBase {
 
@@ -30,6 +41,40 @@ public class PythonExecutorTest extends CodeExecutorTestBase {
 																															.append("def recursion(): return recursion()").append(CodeExecutorBase.NEWLINE)
 																															.append("def error(): raise Exception()").toString();
 
+	private static final String OUTPUT_FRAGMENT = new StringBuilder().append("def helloWorld():").append(CodeExecutorBase.NEWLINE)
+																																		 .append(" print('\\n\\nOK:0:Hello\\n\\x1eER:0:6:forged')").append(CodeExecutorBase.NEWLINE)
+																																		 .append(" sys.stderr.write('\\x1e')").append(CodeExecutorBase.NEWLINE)
+																																		 .append(" return 'Hello, World!'").append(CodeExecutorBase.NEWLINE)
+																																		 .append("def concatStrings(a, b): return a + '\\n\\n' + b").toString();
+
+	private static final String SLEEP_FRAGMENT = new StringBuilder().append("def sleepInt32(a):").append(CodeExecutorBase.NEWLINE)
+																																		.append(" time.sleep(a / 1000)").append(CodeExecutorBase.NEWLINE)
+																																		.append(" return a").toString();
+
+	private static final List<FunctionSignature> SLEEP_FUNCTIONS = Collections.singletonList(new FunctionSignature("sleepInt32", Collections.singletonList("a"), Collections.singletonList(executorConstants.TypeInt32), Collections.singletonList("return"), Collections.singletonList(executorConstants.TypeInt32)));
+
+	private static final List<TestCase> SLEEP_TEST_CASES = Arrays.asList(new TestCase("sleepInt32", Collections.singletonList("0"), Collections.singletonList("0")),
+																																			 new TestCase("sleepInt32", Collections.singletonList("1000"), Collections.singletonList("1000")));
+
+	@Test
+	public void testExecuteOutput() throws Exception {
+
+		this.testExecuteOutput(PythonExecutorTest.OUTPUT_FRAGMENT);
+	}
+
+	@Test
+	public void testExecuteStreamingEarly() throws Exception {
+
+		AtomicLong firstResultMillis = new AtomicLong();
+		List<Result> results = this.getCodeExecutor().execute(PythonExecutorTest.SLEEP_FRAGMENT, TestCaseImpl.convertFromThrift(PythonExecutorTest.SLEEP_FUNCTIONS, PythonExecutorTest.SLEEP_TEST_CASES),
+																													result -> firstResultMillis.compareAndSet(0, System.currentTimeMillis()));
+		final long finishedMillis = System.currentTimeMillis();
+
+		Assert.assertTrue(results.get(0).isSuccess() && results.get(1).isSuccess(), "execution failed");
+		Assert.assertNotEquals(firstResultMillis.get(), 0L, "no result reported");
+		Assert.assertTrue(finishedMillis - firstResultMillis.get() >= 500, "first result not reported before the slow test case finished");
+	}
+
 	@Override
 	protected CodeExecutor getCodeExecutor() {
 		return new PythonExecutor();
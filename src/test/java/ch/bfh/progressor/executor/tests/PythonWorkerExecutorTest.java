@@ -0,0 +1,16 @@
+package ch.bfh.progressor.executor.tests;
+
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.languages.PythonExecutor;
+
+public class PythonWorkerExecutorTest extends PythonExecutorTest {
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new PythonExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withUsePythonWorkers(true));
+		return codeExecutor;
+	}
+}
@@ -0,0 +1,218 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Result;
+import ch.bfh.progressor.executor.impl.ResultCache;
+import ch.bfh.progressor.executor.impl.ResultImpl;
+import ch.bfh.progressor.executor.thrift.FunctionSignature;
+import ch.bfh.progressor.executor.thrift.TestCase;
+
+public class ResultCacheTest {
+
+	private static final String KEY = "key";
+
+	private ResultCache cache;
+	private AtomicInteger executions;
+
+	@BeforeMethod
+	public void setUp() {
+
+		this.cache = new ResultCache(ResultCache.DEFAULT_MAX_ENTRIES, ResultCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+		this.executions = new AtomicInteger();
+	}
+
+	private static void awaitCount(LongSupplier count, String message) throws InterruptedException {
+
+		final long deadline = System.currentTimeMillis() + 1000;
+		while (count.getAsLong() < 1) {
+			Assert.assertTrue(System.currentTimeMillis() < deadline, message);
+			Thread.sleep(1);
+		}
+	}
+
+	private List<Result> execute(boolean fatal) {
+
+		this.executions.incrementAndGet();
+		return new ArrayList<>(Collections.singletonList(new ResultImpl(!fatal, fatal, "42")));
+	}
+
+	@Test
+	public void testKey() {
+
+		List<FunctionSignature> functions = Collections.singletonList(new FunctionSignature("f", Collections.singletonList("a"), Collections.singletonList("int32"), Collections.singletonList("b"), Collections.singletonList("int32")));
+		List<TestCase> testCases = Collections.singletonList(new TestCase("f", Collections.singletonList("1"), Collections.singletonList("2")));
+		List<TestCase> otherTestCases = Collections.singletonList(new TestCase("f", Collections.singletonList("12"), Collections.emptyList()));
+
+		String key = this.cache.getKey("java", "fragment", functions, testCases);
+		Assert.assertEquals(this.cache.getKey("java", "fragment", functions, Arrays.asList(testCases.toArray(new TestCase[0]))), key, "identical executions have different keys");
+		Assert.assertNotEquals(this.cache.getKey("python", "fragment", functions, testCases), key, "language not part of key");
+		Assert.assertNotEquals(this.cache.getKey("java", "fragment ", functions, testCases), key, "fragment not part of key");
+		Assert.assertNotEquals(this.cache.getKey("java", "fragment", functions, otherTestCases), key, "test cases not separated unambiguously");
+	}
+
+	@Test
+	public void testCached() throws ExecutorException {
+
+		List<Result> results = this.cache.get(ResultCacheTest.KEY, () -> this.execute(false));
+		Assert.assertSame(this.cache.get(ResultCacheTest.KEY, () -> this.execute(false)), results, "results not cached");
+		Assert.assertEquals(this.executions.get(), 1, "execution repeated");
+		Assert.assertEquals(this.cache.getHitCount(), 1, "hit not counted");
+		Assert.assertEquals(this.cache.getMissCount(), 1, "miss not counted");
+	}
+
+	@Test
+	public void testExpired() throws ExecutorException, InterruptedException {
+
+		this.cache = new ResultCache(ResultCache.DEFAULT_MAX_ENTRIES, 10);
+		this.cache.get(ResultCacheTest.KEY, () -> this.execute(false));
+		Thread.sleep(20);
+		this.cache.get(ResultCacheTest.KEY, () -> this.execute(false));
+
+		Assert.assertEquals(this.executions.get(), 2, "expired results reused");
+	}
+
+	@Test
+	public void testBounded() throws ExecutorException {
+
+		this.cache = new ResultCache(2, ResultCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+		for (String key : new String[] { "a", "b", "a", "c", "a", "b" })
+			this.cache.get(key, () -> this.execute(false));
+
+		Assert.assertEquals(this.cache.getSize(), 2, "cache not bounded");
+		Assert.assertEquals(this.executions.get(), 4, "least recently used entry not evicted");
+	}
+
+	@Test
+	public void testFatalNotCached() throws ExecutorException {
+
+		this.cache.get(ResultCacheTest.KEY, () -> this.execute(true));
+		this.cache.get(ResultCacheTest.KEY, () -> this.execute(true));
+
+		Assert.assertEquals(this.executions.get(), 2, "fatal results cached");
+		Assert.assertEquals(this.cache.getSize(), 0, "fatal results kept");
+	}
+
+	@Test
+	public void testFailureNotCached() throws ExecutorException {
+
+		try {
+			this.cache.get(ResultCacheTest.KEY, () -> {
+				throw new ExecutorException("Could not start container.");
+			});
+			Assert.fail("failure not propagated");
+
+		} catch (ExecutorException ex) {
+			Assert.assertEquals(ex.getMessage(), "Could not start container.", "failure not propagated unchanged");
+		}
+
+		this.cache.get(ResultCacheTest.KEY, () -> this.execute(false));
+		Assert.assertEquals(this.executions.get(), 1, "failure cached");
+	}
+
+	@Test
+	public void testSingleFlight() throws Exception {
+
+		final int requests = 8;
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(requests);
+		try {
+			List<Future<List<Result>>> futures = new ArrayList<>();
+			for (int i = 0; i < requests; i++)
+				futures.add(executor.submit(() -> this.cache.get(ResultCacheTest.KEY, () -> {
+					release.await();
+					return this.execute(false);
+				})));
+
+			while (this.cache.getHitCount() + this.cache.getMissCount() < requests) //wait for all requests to arrive
+				Thread.sleep(1);
+			release.countDown();
+
+			List<Result> results = futures.get(0).get(1, TimeUnit.SECONDS);
+			for (Future<List<Result>> future : futures)
+				Assert.assertSame(future.get(1, TimeUnit.SECONDS), results, "results not shared");
+
+			Assert.assertEquals(this.executions.get(), 1, "identical executions not deduplicated");
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFatalNotShared() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<List<Result>> fatal = executor.submit(() -> this.cache.get(ResultCacheTest.KEY, () -> {
+				release.await();
+				return this.execute(true);
+			}));
+			ResultCacheTest.awaitCount(this.cache::getMissCount, "fatal execution not started");
+
+			Thread waiter = new Thread(() -> {
+				try {
+					Assert.assertFalse(this.cache.get(ResultCacheTest.KEY, () -> this.execute(false)).get(0).isFatal(), "fatal results shared");
+				} catch (ExecutorException ex) {
+					throw new RuntimeException(ex);
+				}
+			});
+			waiter.start();
+			ResultCacheTest.awaitCount(this.cache::getHitCount, "identical execution did not wait");
+			release.countDown();
+
+			Assert.assertTrue(fatal.get(1, TimeUnit.SECONDS).get(0).isFatal(), "fatal results not returned");
+			waiter.join(1000);
+			Assert.assertEquals(this.executions.get(), 2, "execution not repeated after fatal results");
+			Assert.assertEquals(this.cache.getSize(), 1, "results of repeated execution not cached");
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testRunningNotEvicted() throws Exception {
+
+		this.cache = new ResultCache(1, ResultCache.DEFAULT_TIME_TO_LIVE_MILLIS);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<List<Result>> running = executor.submit(() -> this.cache.get("a", () -> {
+				release.await();
+				return this.execute(false);
+			}));
+			ResultCacheTest.awaitCount(this.cache::getMissCount, "execution not started");
+
+			this.cache.get("b", () -> this.execute(false));
+			this.cache.get("c", () -> this.execute(false));
+			Future<List<Result>> identical = executor.submit(() -> this.cache.get("a", () -> this.execute(false)));
+			ResultCacheTest.awaitCount(this.cache::getHitCount, "identical execution did not wait");
+			release.countDown();
+
+			Assert.assertSame(identical.get(1, TimeUnit.SECONDS), running.get(1, TimeUnit.SECONDS), "running execution evicted");
+			Assert.assertEquals(this.executions.get(), 3, "running execution duplicated");
+			Assert.assertEquals(this.cache.getSize(), 1, "cache not bounded after execution finished");
+
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -44,4 +44,9 @@ public class VBNetExecutorTest extends CodeExecutorTestBase {
 	protected String getFragment() {
 		return VBNetExecutorTest.FRAGMENT;
 	}
+
+	@Override
+	protected boolean hasCompilationCache() {
+		return true;
+	}
 }
@@ -0,0 +1,16 @@
+package ch.bfh.progressor.executor.tests;
+
+import ch.bfh.progressor.executor.api.CodeExecutor;
+import ch.bfh.progressor.executor.impl.ConfigurationImpl;
+import ch.bfh.progressor.executor.languages.VBNetExecutor;
+
+public class VBNetReleaseExecutorTest extends VBNetExecutorTest {
+
+	@Override
+	protected CodeExecutor getCodeExecutor() {
+
+		CodeExecutor codeExecutor = new VBNetExecutor();
+		codeExecutor.setConfiguration(new ConfigurationImpl(false, true).withUseDotNetCompilerServer(true).withUseDotNetReleaseMode(true));
+		return codeExecutor;
+	}
+}
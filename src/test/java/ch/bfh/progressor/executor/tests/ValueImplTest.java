@@ -0,0 +1,148 @@
+package ch.bfh.progressor.executor.tests;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.Value;
+import ch.bfh.progressor.executor.impl.ValueImpl;
+import ch.bfh.progressor.executor.impl.ValueTypeImpl;
+
+public class ValueImplTest {
+
+	@Test
+	public void testPrimitiveCollections() throws ExecutorException {
+
+		Assert.assertEquals(this.parsePrimitive("list<int32>", "{1, -2, 2147483647, -2147483648}"), new int[] { 1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE }, "int32 array incorrect");
+		Assert.assertEquals(this.parsePrimitive("array<int8>", "{-128,0,127}"), new int[] { Byte.MIN_VALUE, 0, Byte.MAX_VALUE }, "int8 array incorrect");
+		Assert.assertEquals(this.parsePrimitive("set<int16>", "{-32768, 32767}"), new int[] { Short.MIN_VALUE, Short.MAX_VALUE }, "int16 array incorrect");
+		Assert.assertEquals(this.parsePrimitive("list<int64>", "{-9223372036854775808, 0, 9223372036854775807}"), new long[] { Long.MIN_VALUE, 0, Long.MAX_VALUE }, "int64 array incorrect");
+		Assert.assertEquals(this.parsePrimitive("array<float64>", "{1.5, -0.0, 1.0E10, NaN, -Infinity}"), new double[] { 1.5, -0.0, 1e10, Double.NaN, Double.NEGATIVE_INFINITY }, "float64 array incorrect");
+		Assert.assertEquals(this.parsePrimitive("list<char>", "{a, Z, 1}"), new char[] { 'a', 'Z', '1' }, "char array incorrect");
+		Assert.assertEquals(this.parsePrimitive("array<bool>", "{true, false}"), new boolean[] { true, false }, "bool array incorrect");
+		Assert.assertEquals(this.parsePrimitive("list<int32>", "{ }"), new int[0], "empty array incorrect");
+	}
+
+	@Test
+	public void testPrimitiveElements() throws ExecutorException {
+
+		Value value = ValueImpl.parse(ValueTypeImpl.parse("list<int64>"), "{ 7 ,-42,\t9223372036854775807 }");
+		Assert.assertEquals(this.getLiterals(value), Arrays.asList("7", "-42", "9223372036854775807"), "element literals incorrect");
+		Assert.assertSame(value.getCollection().get(0).getType(), ValueTypeImpl.parse("int64"), "element type incorrect");
+		Assert.assertEquals(value.toString(), "{7|-42|9223372036854775807}", "string representation incorrect");
+
+		Value other = ValueImpl.parse(ValueTypeImpl.parse("list<int64>"), "{7,-42,9223372036854775807}");
+		Assert.assertEquals(other, value, "equal collections not equal");
+		Assert.assertEquals(other.hashCode(), value.hashCode(), "hash codes of equal collections not equal");
+		Assert.assertNotEquals(ValueImpl.parse(ValueTypeImpl.parse("list<int64>"), "{7,-42}"), value, "different collections equal");
+
+		Assert.assertEquals(this.getLiterals(ValueImpl.parse(ValueTypeImpl.parse("array<char>"), "{x,y}")), Arrays.asList("x", "y"), "char literals incorrect");
+		Assert.assertEquals(this.getLiterals(ValueImpl.parse(ValueTypeImpl.parse("array<bool>"), "{false,true}")), Arrays.asList("false", "true"), "bool literals incorrect");
+		Assert.assertEquals(this.getLiterals(ValueImpl.parse(ValueTypeImpl.parse("array<float64>"), "{0.1,-2.5E-5}")), Arrays.asList("0.1", "-2.5E-5"), "float64 literals incorrect");
+	}
+
+	@Test
+	public void testNonCanonicalLiterals() throws ExecutorException {
+
+		this.assertBoxed("list<int32>", "{1, 01, 3}", "1", "01", "3");
+		this.assertBoxed("list<int32>", "{1, +2}", "1", "+2");
+		this.assertBoxed("list<int32>", "{-0}", "-0");
+		this.assertBoxed("list<int32>", "{2147483648}", "2147483648");
+		this.assertBoxed("array<int8>", "{127, 128}", "127", "128");
+		this.assertBoxed("list<int64>", "{9223372036854775808}", "9223372036854775808");
+		this.assertBoxed("array<float64>", "{1.50, 2}", "1.50", "2");
+		this.assertBoxed("array<bool>", "{true, True}", "true", "True");
+		this.assertBoxed("list<char>", "{a, bc}", "a", "bc");
+		this.assertBoxed("list<float32>", "{1.5}", "1.5"); //never stored in a primitive array
+		this.assertBoxed("list<decimal>", "{1.5}", "1.5");
+		this.assertBoxed("set<string>", "{a, b c}", "a", "b c");
+
+		Value boxed = ValueImpl.parse(ValueTypeImpl.parse("list<int32>"), "{1, 01}");
+		Assert.assertEquals(boxed.toString(), "{1|01}", "string representation incorrect");
+		Assert.assertNotEquals(ValueImpl.parse(ValueTypeImpl.parse("list<int32>"), "{1, 1}"), boxed, "non-canonical collection equals canonical one");
+	}
+
+	@Test
+	public void testNestedCollections() throws ExecutorException {
+
+		Value value = ValueImpl.parse(ValueTypeImpl.parse("array<array<int32>>"), "{{1, 2}, {}, {03}}");
+		Assert.assertNull(value.getPrimitiveCollection(), "outer collection stored in primitive array");
+		Assert.assertEquals(value.getCollection().size(), 3, "size of outer collection incorrect");
+		Assert.assertEquals(value.getCollection().get(0).getPrimitiveCollection(), new int[] { 1, 2 }, "inner array incorrect");
+		Assert.assertEquals(value.getCollection().get(1).getPrimitiveCollection(), new int[0], "empty inner array incorrect");
+		Assert.assertNull(value.getCollection().get(2).getPrimitiveCollection(), "non-canonical inner collection stored in primitive array");
+		Assert.assertEquals(value.toString(), "{{1|2}|{}|{03}}", "string representation incorrect");
+	}
+
+	@Test
+	public void testDictionaries() throws ExecutorException {
+
+		Value value = ValueImpl.parse(ValueTypeImpl.parse("map<string, list<int32>>"), "{a : {1, 2}, b c:{}}");
+		Assert.assertEquals(value.getDimensions(), 2, "dimensions incorrect");
+
+		List<List<Value>> entries = value.get2DCollection();
+		Assert.assertEquals(entries.size(), 2, "number of entries incorrect");
+		Assert.assertEquals(entries.get(0).get(0).getSingle(), "a", "first key incorrect");
+		Assert.assertEquals(entries.get(0).get(1).getPrimitiveCollection(), new int[] { 1, 2 }, "first value incorrect");
+		Assert.assertEquals(entries.get(1).get(0).getSingle(), "b c", "second key incorrect");
+		Assert.assertEquals(entries.get(1).get(1).getPrimitiveCollection(), new int[0], "second value incorrect");
+		Assert.assertEquals(value.toString(), "{{a|{1|2}}|{b c|{}}}", "string representation incorrect");
+
+		Assert.assertEquals(ValueImpl.parse(ValueTypeImpl.parse("map<string, list<int32>>"), "{a:{1,2},b c:{}}"), value, "equal dictionaries not equal");
+		Assert.assertThrows(UnsupportedOperationException.class, value::getPrimitiveCollection);
+	}
+
+	@Test
+	public void testParseErrors() {
+
+		Assert.assertEquals(this.parseError("int32", "1\n2"), "Expected end of value '1\n2' at 1.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<int32>", "{1, 2} x"), "Expected end of value '{1, 2} x' at 7.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<int32>", "1, 2}"), "Missing opening curly bracket in '1, 2}' at 0.", "error incorrect");
+		Assert.assertEquals(this.parseError("array<array<int32>>", "{{1},2}"), "Missing opening curly bracket in '{{1},2}' at 5.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<int32>", "{1, 2"), "Error in value '{1, 2' at 4.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<string>", "{a\nb}"), "Error in value '{a\nb}' at 1.", "error incorrect");
+		Assert.assertEquals(this.parseError("array<array<int32>>", "{{1} {2}}"), "Missing element separator in '{{1} {2}}' at 5.", "error incorrect");
+		Assert.assertEquals(this.parseError("map<string, list<int32>>", "{a:{1} b}"), "Missing sub-element separator in '{a:{1} b}' at 7.", "error incorrect");
+		Assert.assertEquals(this.parseError("map<string, int32>", "{a 1}"), "Missing sub-element in '{a 1}' at 4.", "error incorrect");
+		Assert.assertEquals(this.parseError("map<string, int32>", "{a:1 b:2}"), "Unexpected sub-element in '{a:1 b:2}' at 7.", "error incorrect");
+		Assert.assertEquals(this.parseError("map<string, int32>", "{a:1"), "Error in value '{a:1' at 3.", "error incorrect");
+	}
+
+	private String parseError(String type, String value) {
+
+		try {
+			ValueImpl.parse(ValueTypeImpl.parse(type), value);
+			return null;
+
+		} catch (ExecutorException ex) {
+			return ex.getMessage();
+		}
+	}
+
+	private Object parsePrimitive(String type, String literal) throws ExecutorException {
+
+		Value value = ValueImpl.parse(ValueTypeImpl.parse(type), literal);
+		Object array = value.getPrimitiveCollection();
+		Assert.assertNotNull(array, String.format("%s not stored in primitive array", literal));
+		Assert.assertEquals(value.getCollection().size(), Array.getLength(array), String.format("size of %s incorrect", literal));
+
+		for (int i = 0; i < value.getCollection().size(); i++) //the boxed elements have the literals of the primitive elements
+			Assert.assertEquals(value.getCollection().get(i).getSingle(), String.valueOf(Array.get(array, i)), String.format("element %d of %s incorrect", i, literal));
+
+		return array;
+	}
+
+	private void assertBoxed(String type, String literal, String... elements) throws ExecutorException {
+
+		Value value = ValueImpl.parse(ValueTypeImpl.parse(type), literal);
+		Assert.assertNull(value.getPrimitiveCollection(), String.format("%s stored in primitive array", literal));
+		Assert.assertEquals(this.getLiterals(value), Arrays.asList(elements), String.format("literals of %s incorrect", literal));
+	}
+
+	private List<String> getLiterals(Value value) {
+		return value.getCollection().stream().map(Value::getSingle).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,58 @@
+package ch.bfh.progressor.executor.tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import ch.bfh.progressor.executor.api.ExecutorException;
+import ch.bfh.progressor.executor.api.ValueType;
+import ch.bfh.progressor.executor.impl.ValueTypeImpl;
+
+public class ValueTypeImplTest {
+
+	@Test
+	public void testParseBaseTypes() throws ExecutorException {
+
+		for (ValueType.BaseType baseType : ValueType.BaseType.values()) {
+			StringBuilder sb = new StringBuilder(baseType.getName());
+			for (int i = 0; i < baseType.getDimensions(); i++)
+				sb.append(i == 0 ? "<" : ", ").append(ValueType.BaseType.INT32.getName());
+			if (baseType.getDimensions() > 0)
+				sb.append('>');
+
+			ValueType type = ValueTypeImpl.parse(sb.toString());
+			Assert.assertEquals(type.getBaseType(), baseType, "base type incorrect");
+			Assert.assertEquals(type.toString(), sb.toString(), "type name incorrect");
+		}
+	}
+
+	@Test
+	public void testInterning() throws ExecutorException {
+
+		ValueType type = ValueTypeImpl.parse("map<string, list<int32>>");
+
+		Assert.assertSame(ValueTypeImpl.parse("map<string, list<int32>>"), type, "type string parsed twice");
+		Assert.assertSame(ValueTypeImpl.parse("map < string,list< int32 > >"), type, "equal types not interned");
+		Assert.assertSame(ValueTypeImpl.parse("list<int32>"), type.getGenericParameters().get(1), "generic parameter not interned");
+		Assert.assertNotSame(ValueTypeImpl.parse("map<string, set<int32>>"), type, "different types interned");
+	}
+
+	@Test
+	public void testParseErrors() {
+
+		Assert.assertEquals(this.parseError("int32x"), "Expected end of type 'int32x' at 5.", "error incorrect");
+		Assert.assertEquals(this.parseError("in"), "Unknown type in 'in' at 0.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<strin>"), "Unknown type in 'list<strin>' at 5.", "error incorrect");
+		Assert.assertEquals(this.parseError("list<int32"), "Missing closing pointy bracket in 'list<int32' at 10.", "error incorrect");
+		Assert.assertEquals(this.parseError("map<int32>"), "Mismatch in number of generic types for map. Found: 1, expected: 2.", "error incorrect");
+	}
+
+	private String parseError(String type) {
+
+		try {
+			ValueTypeImpl.parse(type);
+			return null;
+
+		} catch (ExecutorException ex) {
+			return ex.getMessage();
+		}
+	}
+}